@@ -0,0 +1,113 @@
+package com.backbase.customer_master.application.query.handler;
+
+import com.backbase.customer_master.application.query.model.BatchGetCustomersQuery;
+import com.backbase.customer_master.application.query.model.GetCustomerBasicByIdQuery;
+import com.backbase.customer_master.application.query.model.GetCustomerByIdQuery;
+import com.backbase.customer_master.application.query.model.GetCustomersByCursorQuery;
+import com.backbase.customer_master.application.query.model.SearchCustomersByNameQuery;
+import com.backbase.customer_master.benchmark.BenchmarkApplication;
+import com.backbase.customer_master.infrastructure.persistence.pagination.CursorPageRequest;
+import com.backbase.customer_master.infrastructure.persistence.pagination.CustomerCursor;
+import com.backbase.customer_master.presentation.dto.BatchGetResultDTO;
+import com.backbase.customer_master.presentation.dto.CursorPageDTO;
+import com.backbase.customer_master.presentation.dto.CustomerDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH average time of end-to-end query handler calls (transaction, queries, mapping) against an
+ * in-memory H2 database seeded with 5000 customers, each with two addresses, an identification,
+ * two products and a relationship. The near-cache is off, so lookups by ID always reach the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CustomerQueryHandlerBenchmark {
+
+    private static final int CUSTOMERS = 5000;
+    private static final int BATCH_SIZE = 100;
+
+    private ConfigurableApplicationContext context;
+    private CustomerQueryHandler customerQueryHandler;
+    private List<String> customerIds;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        customerQueryHandler = context.getBean(CustomerQueryHandler.class);
+        customerIds = new ArrayList<>(CUSTOMERS);
+        for (UUID customerId : BenchmarkApplication.seed(context, CUSTOMERS, 2, 1, 2, 1)) {
+            customerIds.add(customerId.toString());
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public CustomerDTO getCustomerById() {
+        return customerQueryHandler.handle(GetCustomerByIdQuery.builder().customerId(nextCustomerId()).build());
+    }
+
+    @Benchmark
+    public CustomerDTO getCustomerBasicById() {
+        return customerQueryHandler.handle(GetCustomerBasicByIdQuery.builder().customerId(nextCustomerId()).build());
+    }
+
+    @Benchmark
+    public Page<CustomerDTO> searchCustomersByName() {
+        return customerQueryHandler.handle(SearchCustomersByNameQuery.builder()
+                .name("Customer 12")
+                .pageable(PageRequest.of(0, 20))
+                .build());
+    }
+
+    @Benchmark
+    public CursorPageDTO<CustomerDTO> getCustomersByCursor() {
+        return customerQueryHandler.handle(GetCustomersByCursorQuery.builder()
+                .customerSegment("AFFLUENT")
+                .pageRequest(CursorPageRequest.of(null, "all", CustomerCursor.ID_PROPERTY, Sort.Direction.ASC, 50, false))
+                .build());
+    }
+
+    @Benchmark
+    public BatchGetResultDTO batchGetCustomers() {
+        int from = next;
+        next = (next + BATCH_SIZE) % (CUSTOMERS - BATCH_SIZE);
+        return customerQueryHandler.handle(BatchGetCustomersQuery.builder()
+                .customerIds(customerIds.subList(from, from + BATCH_SIZE))
+                .build());
+    }
+
+    // Helper methods
+
+    // Walks the seeded customers so that successive lookups do not hit the same rows
+    private String nextCustomerId() {
+        next = (next + 1) % CUSTOMERS;
+        return customerIds.get(next);
+    }
+}
@@ -0,0 +1,119 @@
+package com.backbase.customer_master.benchmark;
+
+import com.backbase.customer_master.CustomerMasterApplication;
+import com.backbase.customer_master.infrastructure.persistence.reference.ReferenceDataRegistry;
+import com.backbase.customer_master.support.TestDataSeeder;
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.TypeExcludeFilter;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.type.classreading.MetadataReader;
+import org.springframework.core.type.classreading.MetadataReaderFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Starts the application for a benchmark trial, without a web server unless asked, on the in-memory
+ * H2 database of the test configuration, and seeds it. Near-cache, lookup coalescing and the outbox
+ * relay are off so that every call reaches the database; a benchmark can turn them back on.
+ */
+public final class BenchmarkApplication {
+
+    // Passed as command-line arguments: application.yml and the test overlay (which turns the SQL
+    // budget guard and its JDBC row counting on) would override default properties
+    private static final String[] DEFAULTS = {
+            "app.cache.customer.enabled=false",
+            "app.coalescing.enabled=false",
+            "app.outbox.relay.enabled=false",
+            "app.metrics.sql-budget.enabled=false",
+            "logging.level.root=WARN"
+    };
+
+    private BenchmarkApplication() {
+    }
+
+    public static ConfigurableApplicationContext start(String... properties) {
+        return run(WebApplicationType.NONE, Map.of(), properties);
+    }
+
+    /**
+     * Same, with the servlet web server on a random port (local.server.port) and the given beans
+     * registered before the context refreshes, e.g. to replace an auto-configured one
+     */
+    public static ConfigurableApplicationContext startServer(Map<String, Object> beans, String... properties) {
+        List<String> settings = new ArrayList<>(List.of("server.port=0"));
+        settings.addAll(List.of(properties));
+        return run(WebApplicationType.SERVLET, beans, settings.toArray(String[]::new));
+    }
+
+    /**
+     * Seed reference data and customers with children rows, see {@link TestDataSeeder#seedCustomers}
+     */
+    public static List<UUID> seed(ConfigurableApplicationContext context, int customers,
+                                  int addresses, int identifications, int products, int relationships) {
+        TestDataSeeder seeder = new TestDataSeeder(context.getBean(JdbcTemplate.class));
+        seeder.seedReferenceData();
+        List<UUID> customerIds = seeder.seedCustomers(customers, addresses, identifications, products, relationships);
+        context.getBean(ReferenceDataRegistry.class).refresh();
+        return customerIds;
+    }
+
+    // Helper methods
+
+    private static ConfigurableApplicationContext run(WebApplicationType webApplicationType,
+                                                      Map<String, Object> beans, String... properties) {
+        // Later settings replace earlier ones; a repeated argument would be read as a list
+        Map<String, String> settings = new LinkedHashMap<>();
+        for (String property : DEFAULTS) {
+            put(settings, property);
+        }
+        for (String property : properties) {
+            put(settings, property);
+        }
+        return new SpringApplicationBuilder(CustomerMasterApplication.class)
+                .web(webApplicationType)
+                .bannerMode(Banner.Mode.OFF)
+                .logStartupInfo(false)
+                .initializers(context -> {
+                    context.getBeanFactory().registerSingleton("benchmarkExcludeFilter", new TestConfigurationExcludeFilter());
+                    beans.forEach(context.getBeanFactory()::registerSingleton);
+                })
+                .run(settings.entrySet().stream()
+                        .map(setting -> "--" + setting.getKey() + "=" + setting.getValue())
+                        .toArray(String[]::new));
+    }
+
+    private static void put(Map<String, String> settings, String property) {
+        int separator = property.indexOf('=');
+        settings.put(property.substring(0, separator), property.substring(separator + 1));
+    }
+
+    /**
+     * The test sources are on the classpath, so component scanning would pick up their test
+     * configurations; tests get them excluded by @SpringBootTest, the benchmarks by this filter.
+     */
+    static class TestConfigurationExcludeFilter extends TypeExcludeFilter {
+
+        @Override
+        public boolean match(MetadataReader metadataReader, MetadataReaderFactory metadataReaderFactory) {
+            return metadataReader.getAnnotationMetadata().hasAnnotation(TestConfiguration.class.getName());
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj != null && getClass() == obj.getClass();
+        }
+
+        @Override
+        public int hashCode() {
+            return getClass().hashCode();
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.backbase.customer_master.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares two JMH JSON result files (-rf json) benchmark by benchmark, matched on name, parameters
+ * and thread count. A benchmark regressed when its score got worse than the baseline by more than the
+ * threshold: lower for throughput, higher for the time modes (avgt, sample, ss). Benchmarks without a
+ * counterpart, or whose unit changed, are reported but never count as regressions.
+ * Usage: BenchmarkComparison baseline.json current.json [threshold-percent, default 10];
+ * exits with status 1 when anything regressed.
+ */
+public final class BenchmarkComparison {
+
+    public static final double DEFAULT_THRESHOLD_PERCENT = 10;
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private BenchmarkComparison() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BenchmarkComparison <baseline.json> <current.json> [threshold-percent]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_THRESHOLD_PERCENT;
+        List<Change> changes = compare(Path.of(args[0]), Path.of(args[1]));
+        System.out.print(report(changes, threshold));
+        if (changes.stream().anyMatch(change -> change.regressed(threshold))) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * One entry per benchmark present in either file, in the order of the current results
+     */
+    public static List<Change> compare(Path baseline, Path current) throws IOException {
+        Map<String, Score> before = read(baseline);
+        Map<String, Score> after = read(current);
+
+        List<Change> changes = new ArrayList<>();
+        for (Map.Entry<String, Score> entry : after.entrySet()) {
+            changes.add(new Change(entry.getKey(), before.remove(entry.getKey()), entry.getValue()));
+        }
+        for (Map.Entry<String, Score> entry : before.entrySet()) {
+            changes.add(new Change(entry.getKey(), entry.getValue(), null));
+        }
+        return changes;
+    }
+
+    public static String report(List<Change> changes, double thresholdPercent) {
+        StringBuilder report = new StringBuilder();
+        long regressions = 0;
+        for (Change change : changes) {
+            String verdict;
+            if (change.baseline() == null) {
+                verdict = "new";
+            } else if (change.current() == null) {
+                verdict = "removed";
+            } else if (!change.comparable()) {
+                verdict = "unit changed from " + change.baseline().unit();
+            } else if (change.regressed(thresholdPercent)) {
+                verdict = "REGRESSION";
+                regressions++;
+            } else {
+                verdict = "ok";
+            }
+            report.append(String.format("%-100s %14s %14s %9s  %s%n", change.key(),
+                    format(change.baseline()), format(change.current()),
+                    change.comparable() ? String.format("%+.1f%%", change.worsePercent()) : "", verdict));
+        }
+        report.append(String.format("%d of %d benchmarks regressed by more than %.1f%%%n",
+                regressions, changes.size(), thresholdPercent));
+        return report.toString();
+    }
+
+    // Helper methods
+
+    private static Map<String, Score> read(Path path) throws IOException {
+        Map<String, Score> scores = new LinkedHashMap<>();
+        for (JsonNode result : OBJECT_MAPPER.readTree(path.toFile())) {
+            JsonNode metric = result.get("primaryMetric");
+            scores.put(key(result), new Score(result.get("mode").asText(),
+                    metric.get("score").asDouble(), metric.get("scoreUnit").asText()));
+        }
+        return scores;
+    }
+
+    private static String key(JsonNode result) {
+        StringBuilder key = new StringBuilder(result.get("benchmark").asText());
+        JsonNode params = result.get("params");
+        if (params != null) {
+            Map<String, String> sorted = new TreeMap<>();
+            Iterator<Map.Entry<String, JsonNode>> fields = params.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                sorted.put(field.getKey(), field.getValue().asText());
+            }
+            key.append(sorted);
+        }
+        return key.append(" (").append(result.get("mode").asText())
+                .append(", threads=").append(result.get("threads").asInt()).append(')').toString();
+    }
+
+    private static String format(Score score) {
+        return score == null ? "-" : String.format("%.3f %s", score.value(), score.unit());
+    }
+
+    public record Score(String mode, double value, String unit) {
+
+        boolean higherIsBetter() {
+            return "thrpt".equals(mode);
+        }
+    }
+
+    public record Change(String key, Score baseline, Score current) {
+
+        public boolean comparable() {
+            return baseline != null && current != null && baseline.unit().equals(current.unit());
+        }
+
+        /**
+         * How much worse the current score is than the baseline, in percent of the baseline; negative when it improved
+         */
+        public double worsePercent() {
+            double change = (current.value() - baseline.value()) / baseline.value() * 100;
+            return current.higherIsBetter() ? -change : change;
+        }
+
+        public boolean regressed(double thresholdPercent) {
+            return comparable() && worsePercent() > thresholdPercent;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.backbase.customer_master.benchmark;
+
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the JMH benchmarks of src/jmh/java and writes their results as JSON; the only test of the
+ * benchmark profile:
+ * mvn -Pbenchmark test [-Djmh.include=CustomerMapper] [-Djmh.prof=gc] [-Djmh.baseline=baseline.json] [-Djmh.threshold=10]
+ * jmh.include is a regular expression over benchmark names (default: all); jmh.prof adds JMH
+ * profilers by name, comma separated (gc reports the bytes allocated per operation). With jmh.baseline the
+ * results are compared to that earlier results file (see {@link BenchmarkComparison}) and the run
+ * fails when a benchmark regressed by more than jmh.threshold percent. Keep baselines from the same
+ * machine; copy target/jmh/results.json to record a new one.
+ */
+class BenchmarkSuite {
+
+    private static final Path RESULTS = Path.of(System.getProperty("jmh.result", "target/jmh/results.json"));
+
+    @Test
+    void run() throws Exception {
+        Files.createDirectories(RESULTS.toAbsolutePath().getParent());
+        ChainedOptionsBuilder builder = new OptionsBuilder()
+                .include(System.getProperty("jmh.include", ".*"))
+                .shouldFailOnError(true)
+                .resultFormat(ResultFormatType.JSON)
+                .result(RESULTS.toString());
+        for (String profiler : System.getProperty("jmh.prof", "").split(",")) {
+            if (!profiler.isBlank()) {
+                builder.addProfiler(profiler.trim());
+            }
+        }
+        new Runner(builder.build()).run();
+
+        String baseline = System.getProperty("jmh.baseline");
+        if (baseline == null || baseline.isBlank()) {
+            return;
+        }
+        double threshold = Double.parseDouble(System.getProperty("jmh.threshold",
+                String.valueOf(BenchmarkComparison.DEFAULT_THRESHOLD_PERCENT)));
+        List<BenchmarkComparison.Change> changes = BenchmarkComparison.compare(Path.of(baseline), RESULTS);
+        String report = BenchmarkComparison.report(changes, threshold);
+        System.out.print(report);
+        assertTrue(changes.stream().noneMatch(change -> change.regressed(threshold)), report);
+    }
+}
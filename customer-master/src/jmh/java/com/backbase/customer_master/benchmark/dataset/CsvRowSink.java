@@ -0,0 +1,124 @@
+package com.backbase.customer_master.benchmark.dataset;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Writes one CSV file per table into a directory, plus load.sql with the LOAD DATA statements that
+ * import them into MySQL in foreign key order:
+ * mysql --local-infile=1 -u appuser -p customer_master_db &lt; load.sql
+ * UUIDs are written as hex and converted back with UNHEX; NULL is \N. Geography rows are loaded with
+ * IGNORE, so loading a second dataset into the same database keeps the first one's.
+ */
+final class CsvRowSink implements RowSink {
+
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final Path directory;
+    private final Map<TableLayout, Writer> writers = new LinkedHashMap<>();
+
+    CsvRowSink(Path directory) throws IOException {
+        this.directory = Files.createDirectories(directory).toAbsolutePath();
+    }
+
+    @Override
+    public void write(TableLayout layout, List<Object[]> rows) throws IOException {
+        Writer writer = writers.get(layout);
+        if (writer == null) {
+            writer = Files.newBufferedWriter(file(layout), StandardCharsets.UTF_8);
+            writers.put(layout, writer);
+        }
+        StringBuilder line = new StringBuilder(256);
+        for (Object[] row : rows) {
+            line.setLength(0);
+            for (int i = 0; i < row.length; i++) {
+                if (i > 0) {
+                    line.append(',');
+                }
+                append(line, row[i]);
+            }
+            writer.write(line.append('\n').toString());
+        }
+    }
+
+    @Override
+    public void endChunk() {
+        // Buffered writers flush as they fill; there is nothing to commit
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (Writer writer : writers.values()) {
+            writer.close();
+        }
+        try (BufferedWriter script = Files.newBufferedWriter(directory.resolve("load.sql"), StandardCharsets.UTF_8)) {
+            script.write("-- mysql --local-infile=1 -u appuser -p customer_master_db < load.sql\n");
+            script.write("SET NAMES utf8mb4;\n");
+            // The rows are consistent by construction; skipping the checks makes the load several times faster
+            script.write("SET foreign_key_checks = 0;\nSET unique_checks = 0;\n");
+            for (TableLayout layout : writers.keySet()) {
+                script.write(loadData(layout));
+            }
+            script.write("SET unique_checks = 1;\nSET foreign_key_checks = 1;\n");
+        }
+    }
+
+    // Helper methods
+
+    private Path file(TableLayout layout) {
+        return directory.resolve(layout.table() + ".csv");
+    }
+
+    private String loadData(TableLayout layout) {
+        List<String> columns = new ArrayList<>();
+        List<String> conversions = new ArrayList<>();
+        for (String column : layout.columns()) {
+            if (layout.binaryColumns().contains(column)) {
+                columns.add("@" + column);
+                conversions.add(column + " = UNHEX(@" + column + ")");
+            } else {
+                columns.add(column);
+            }
+        }
+        return "LOAD DATA LOCAL INFILE '" + file(layout).toString().replace("\\", "/") + "'"
+                + (layout.shared() ? " IGNORE" : "") + " INTO TABLE " + layout.table() + " CHARACTER SET utf8mb4\n"
+                + "  FIELDS TERMINATED BY ',' OPTIONALLY ENCLOSED BY '\"' ESCAPED BY '\\\\' LINES TERMINATED BY '\\n'\n"
+                + "  (" + String.join(", ", columns) + ")"
+                + (conversions.isEmpty() ? "" : "\n  SET " + String.join(", ", conversions)) + ";\n";
+    }
+
+    private static void append(StringBuilder line, Object value) {
+        if (value == null) {
+            line.append("\\N");
+        } else if (value instanceof UUID uuid) {
+            line.append(uuid.toString().replace("-", ""));
+        } else if (value instanceof LocalDateTime dateTime) {
+            line.append(DATE_TIME.format(dateTime));
+        } else if (value instanceof String text) {
+            line.append('"');
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                switch (c) {
+                    case '"', '\\' -> line.append('\\').append(c);
+                    case '\n' -> line.append("\\n");
+                    default -> line.append(c);
+                }
+            }
+            line.append('"');
+        } else {
+            // Numbers and LocalDate print the way MySQL reads them
+            line.append(value);
+        }
+    }
+}
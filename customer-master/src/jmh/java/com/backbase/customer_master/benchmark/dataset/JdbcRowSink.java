@@ -0,0 +1,76 @@
+package com.backbase.customer_master.benchmark.dataset;
+
+import javax.sql.DataSource;
+import java.nio.ByteBuffer;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Writes through multi-row INSERT statements on one connection, committing once per chunk. Works on
+ * H2 and MySQL alike; UUIDs are bound as 16 bytes.
+ */
+final class JdbcRowSink implements RowSink {
+
+    private static final int ROWS_PER_STATEMENT = 500;
+
+    private final Connection connection;
+
+    JdbcRowSink(DataSource dataSource) throws SQLException {
+        connection = dataSource.getConnection();
+        connection.setAutoCommit(false);
+    }
+
+    @Override
+    public void write(TableLayout layout, List<Object[]> rows) throws SQLException {
+        int full = rows.size() - rows.size() % ROWS_PER_STATEMENT;
+        if (full > 0) {
+            try (PreparedStatement statement = connection.prepareStatement(layout.insert(ROWS_PER_STATEMENT))) {
+                for (int from = 0; from < full; from += ROWS_PER_STATEMENT) {
+                    bind(statement, rows.subList(from, from + ROWS_PER_STATEMENT));
+                    statement.executeUpdate();
+                }
+            }
+        }
+        if (full < rows.size()) {
+            try (PreparedStatement statement = connection.prepareStatement(layout.insert(rows.size() - full))) {
+                bind(statement, rows.subList(full, rows.size()));
+                statement.executeUpdate();
+            }
+        }
+    }
+
+    @Override
+    public void endChunk() throws SQLException {
+        connection.commit();
+    }
+
+    @Override
+    public void close() throws SQLException {
+        try {
+            connection.commit();
+        } finally {
+            connection.close();
+        }
+    }
+
+    // Helper methods
+
+    private void bind(PreparedStatement statement, List<Object[]> rows) throws SQLException {
+        int index = 1;
+        for (Object[] row : rows) {
+            for (Object value : row) {
+                statement.setObject(index++, value instanceof UUID uuid ? bytes(uuid) : value);
+            }
+        }
+    }
+
+    private static byte[] bytes(UUID uuid) {
+        return ByteBuffer.allocate(16)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .array();
+    }
+}
@@ -0,0 +1,84 @@
+package com.backbase.customer_master.benchmark.dataset;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The reference data INSERTs of docker/mysql/init/01-init-db.sql, so that generated customers use
+ * exactly the codes a local MySQL is initialized with. The script's reference rows can also be applied
+ * to a database directly: the MySQL container runs the script before Hibernate has created the
+ * tables, and the H2 test database never sees it.
+ */
+final class ReferenceDataScript {
+
+    static final Path DEFAULT_LOCATION = Path.of("docker/mysql/init/01-init-db.sql");
+
+    private static final Pattern TABLE = Pattern.compile("^INSERT IGNORE INTO (\\w+)");
+    private static final Pattern CODE = Pattern.compile("\\(UUID\\(\\), '([^']*)'");
+
+    private final List<String> inserts = new ArrayList<>();
+    private final Map<String, Set<String>> codes = new HashMap<>();
+
+    ReferenceDataScript(Path location) throws IOException {
+        StringBuilder statement = new StringBuilder();
+        for (String line : Files.readAllLines(location, StandardCharsets.UTF_8)) {
+            if (line.isBlank() || line.startsWith("--")) {
+                continue;
+            }
+            statement.append(line).append('\n');
+            if (line.trim().endsWith(";")) {
+                add(statement.toString().trim());
+                statement.setLength(0);
+            }
+        }
+    }
+
+    /**
+     * Codes the script inserts into the given table; empty for tables it does not fill
+     */
+    Set<String> codes(String table) {
+        return codes.getOrDefault(table, Set.of());
+    }
+
+    /**
+     * Insert the reference rows that are missing (INSERT IGNORE on the unique codes)
+     */
+    void apply(JdbcTemplate jdbcTemplate) {
+        String product = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        // The IDs are BINARY(16) on MySQL, which UUID() as text does not fit
+        String uuid = "H2".equals(product) ? "RANDOM_UUID()" : "UUID_TO_BIN(UUID())";
+        for (String insert : inserts) {
+            jdbcTemplate.update(insert.replace("UUID()", uuid));
+        }
+    }
+
+    // Helper methods
+
+    private void add(String statement) {
+        Matcher table = TABLE.matcher(statement);
+        // Only the reference tables: their rows all start with a generated UUID
+        if (!table.find() || !statement.contains("(UUID(),")) {
+            return;
+        }
+        inserts.add(statement.substring(0, statement.length() - 1));
+        Set<String> tableCodes = codes.computeIfAbsent(table.group(1), name -> new HashSet<>());
+        Matcher code = CODE.matcher(statement);
+        while (code.find()) {
+            tableCodes.add(code.group(1));
+        }
+    }
+}
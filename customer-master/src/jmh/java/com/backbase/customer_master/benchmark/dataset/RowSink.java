@@ -0,0 +1,19 @@
+package com.backbase.customer_master.benchmark.dataset;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Destination of generated rows. Rows arrive table by table in foreign key order, one chunk at a
+ * time; nothing is kept after {@link #endChunk()}.
+ */
+interface RowSink extends AutoCloseable {
+
+    void write(TableLayout layout, List<Object[]> rows) throws IOException, SQLException;
+
+    void endChunk() throws IOException, SQLException;
+
+    @Override
+    void close() throws IOException, SQLException;
+}
@@ -0,0 +1,499 @@
+package com.backbase.customer_master.benchmark.dataset;
+
+import com.backbase.customer_master.common.text.VietnameseTextFolder;
+import com.backbase.customer_master.support.VietnameseNames;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Deterministic generator of Vietnamese customers with addresses, identifications, products and
+ * relationships, plus the province, district, ward and postal code rows the addresses point at.
+ * The same seed and count give the same rows, IDs included; nothing depends on the clock.
+ * Customers are produced and handed to a {@link RowSink} a chunk at a time, so memory stays flat
+ * whatever the count. Reference codes are those of docker/mysql/init/01-init-db.sql, which
+ * {@link #verify} checks before anything is written.
+ * Customer IDs are in the time-ordered layout of TimeOrderedIdGenerator, one synthetic millisecond
+ * apart, so they land in the clustered index the way production inserts do. The name trigram index is
+ * not filled; the application rebuilds it on startup when it finds it stale.
+ */
+@Slf4j
+public final class SyntheticDataGenerator {
+
+    static final int CHUNK_SIZE = 1000;
+
+    private static final String CREATED_BY = "SYNTHETIC";
+    private static final long EPOCH_MILLIS = 1_420_070_400_000L; // 2015-01-01T00:00:00Z
+    private static final LocalDate FIRST_CIF_DATE = LocalDate.of(2010, 1, 1);
+    private static final int CIF_DATE_RANGE_DAYS = 15 * 365;
+    private static final int RECENT_CUSTOMERS = 4096;
+
+    private static final String[] AUDIT = {"created_at", "created_by", "updated_at", "updated_by"};
+
+    static final TableLayout PROVINCE = layout("province", Set.of("province_id"), true,
+            "province_id", "country_code", "province_code", "province_name", "province_name_local", "status");
+    static final TableLayout DISTRICT = layout("district", Set.of("district_id"), true,
+            "district_id", "country_code", "province_code", "district_code", "district_name", "district_name_local",
+            "record_status");
+    static final TableLayout POSTAL_CODE = layout("postal_code", Set.of("postal_code_id"), true,
+            "postal_code_id", "country_code", "province_code", "district_code", "postal_code", "postal_name",
+            "record_status");
+    static final TableLayout WARD = layout("ward", Set.of("ward_id", "postal_code_id"), true,
+            "ward_id", "country_code", "province_code", "district_code", "ward_code", "ward_name", "ward_name_local",
+            "postal_code_id", "record_status");
+    static final TableLayout CUSTOMER = layout("customer", Set.of("customer_id"), false,
+            "customer_id", "cif_status", "full_name", "name_search_key", "date_of_birth", "cif_created_date",
+            "primary_phone", "email", "gender", "nationality", "marital_status", "client_type", "category",
+            "preferred_contact_channel", "occupation", "classification_industry", "preferred_language",
+            "customer_segment_code", "monthly_income", "account_usage_purpose", "internal_client", "tax_file_no",
+            "taxable", "registration_channel", "version_no");
+    static final TableLayout ADDRESS = layout("address", Set.of("address_id", "customer_id"), false,
+            "address_id", "customer_id", "domicile_country", "permanent_address", "contact_address", "province_code",
+            "district_code", "ward_code", "postal_code", "version_no");
+    static final TableLayout IDENTIFICATION = layout("identification", Set.of("identification_id", "customer_id"), false,
+            "identification_id", "customer_id", "kyc_status", "identification_type", "identification_number",
+            "issue_date", "issuing_place", "expiry_date", "residency_status", "id_update_count", "watchlist_status",
+            "risk_rating", "version_no");
+    static final TableLayout CUSTOMER_PRODUCT = layout("customer_product", Set.of("customer_product_id", "customer_id"), false,
+            "customer_product_id", "customer_id", "product_group", "product_name", "product_id", "product_status",
+            "version_no");
+    static final TableLayout CUSTOMER_RELATIONSHIP = layout("customer_relationship",
+            Set.of("relationship_id", "customer_id", "related_customer_id"), false,
+            "relationship_id", "customer_id", "related_customer_id", "relationship_type", "rm_id", "status",
+            "version_no");
+
+    // Reference codes by table, as used below; verify() checks them against the init script
+    private static final Map<String, Set<String>> REFERENCE_CODES = Map.ofEntries(
+            Map.entry("gender", Set.of("M", "F", "O")),
+            Map.entry("country", Set.of("VN", "US", "GB")),
+            Map.entry("marital_status", Set.of("SINGLE", "MARRIED", "DIVORCED", "WIDOWED")),
+            Map.entry("client_type", Set.of("INDIVIDUAL", "CORPORATE", "SME")),
+            Map.entry("category", Set.of("RETAIL", "PREMIUM", "VIP")),
+            Map.entry("language", Set.of("vi", "en")),
+            Map.entry("contact_channel", Set.of("SMS", "APP", "EMAIL", "PHONE")),
+            Map.entry("customer_segment", Set.of("MASS", "AFFLUENT", "WEALTH")),
+            Map.entry("industry", Set.of("IT", "FIN", "MFG", "RET", "EDU")),
+            Map.entry("occupation", Set.of("DEV", "ACC", "ENG", "TCH", "MGR")),
+            Map.entry("residency_status", Set.of("CITIZEN", "RESIDENT", "FOREIGN")),
+            Map.entry("relationship_type", Set.of("SPOUSE", "PARENT", "CHILD", "SIBLING")),
+            Map.entry("product_group", Set.of("CASA", "LOAN", "CARD", "INV")));
+
+    private static final Weighted CIF_STATUS = new Weighted(new String[]{"ACTIVE", "INACTIVE", "CLOSED"}, 90, 7, 3);
+    private static final Weighted CLIENT_TYPE = new Weighted(new String[]{"INDIVIDUAL", "SME", "CORPORATE"}, 90, 7, 3);
+    private static final Weighted SEGMENT = new Weighted(new String[]{"MASS", "AFFLUENT", "WEALTH"}, 80, 17, 3);
+    private static final Weighted NATIONALITY = new Weighted(new String[]{"VN", "US", "GB"}, 990, 6, 4);
+    private static final Weighted CONTACT_CHANNEL = new Weighted(new String[]{"SMS", "APP", "EMAIL", "PHONE"}, 40, 35, 15, 10);
+    private static final Weighted REGISTRATION_CHANNEL = new Weighted(
+            new String[]{"BRANCH", "MOBILE", "INTERNET", "AGENT"}, 55, 30, 10, 5);
+    private static final Weighted USAGE_PURPOSE = new Weighted(new String[]{"PAYMENT", "SAVING", "SALARY"}, 50, 25, 25);
+    private static final Weighted OCCUPATION = new Weighted(new String[]{"DEV", "ACC", "ENG", "TCH", "MGR", null},
+            10, 10, 12, 10, 8, 50);
+    private static final Weighted KYC_STATUS = new Weighted(new String[]{"VERIFIED", "PENDING"}, 93, 7);
+    private static final Weighted RISK_RATING = new Weighted(new String[]{"LOW", "MEDIUM", "HIGH"}, 85, 12, 3);
+    private static final Weighted RELATIONSHIP_TYPE = new Weighted(
+            new String[]{"SPOUSE", "PARENT", "CHILD", "SIBLING"}, 40, 20, 20, 20);
+    private static final Weighted EMAIL_DOMAIN = new Weighted(
+            new String[]{"gmail.com", "yahoo.com", "outlook.com", "icloud.com"}, 70, 12, 12, 6);
+
+    // Mobile prefixes after +84 of the main networks
+    private static final String[] PHONE_PREFIXES = {
+            "90", "91", "93", "94", "96", "97", "98", "32", "33", "34", "35", "36", "37", "38", "39",
+            "70", "76", "77", "78", "79", "81", "82", "83", "84", "85", "86", "88", "89"
+    };
+    private static final String[] STREETS = {
+            "Lê Lợi", "Trần Hưng Đạo", "Nguyễn Huệ", "Hai Bà Trưng", "Lý Thường Kiệt", "Quang Trung",
+            "Phan Chu Trinh", "Điện Biên Phủ", "Hùng Vương", "Nguyễn Trãi", "Lê Duẩn", "Nguyễn Văn Cừ",
+            "Võ Thị Sáu", "Cách Mạng Tháng Tám", "Trần Phú", "Bạch Đằng"
+    };
+    private static final String[] BUSINESS_WORDS = {
+            "Thương mại", "Xây dựng", "Công nghệ", "Dịch vụ", "Sản xuất", "Vận tải", "Thực phẩm", "Đầu tư"
+    };
+    private static final String[] BUSINESS_NAMES = {
+            "Minh Phát", "Thành Công", "Hưng Thịnh", "An Phúc", "Việt Tín", "Đại Nam", "Phú Gia", "Hoàng Long"
+    };
+    private static final String[] FOREIGN_GIVEN_NAMES = {"John", "David", "Michael", "Emma", "Olivia", "Sarah", "James", "Anna"};
+    private static final String[] FOREIGN_FAMILY_NAMES = {"Smith", "Johnson", "Brown", "Taylor", "Wilson", "Clark", "Walker", "Hall"};
+
+    private final long seed;
+    private final VietnameseGeography geography = new VietnameseGeography();
+
+    // Generation state, reset by generate()
+    private Random random;
+    private long idSequence;
+    private long productSequence;
+    private final UUID[] recentCustomers = new UUID[RECENT_CUSTOMERS];
+
+    public SyntheticDataGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Fail when a reference code the generator uses is not among those of the init script
+     */
+    static void verify(ReferenceDataScript script) {
+        for (Map.Entry<String, Set<String>> entry : REFERENCE_CODES.entrySet()) {
+            Set<String> known = script.codes(entry.getKey());
+            for (String code : entry.getValue()) {
+                if (!known.contains(code)) {
+                    throw new IllegalStateException("Reference code " + entry.getKey() + "." + code
+                            + " is not in the init script");
+                }
+            }
+        }
+    }
+
+    /**
+     * Write the geography (when asked) and the given number of customers with their child rows
+     */
+    Report generate(RowSink sink, int customers, boolean includeGeography) throws IOException, SQLException {
+        random = new Random(seed);
+        idSequence = 0;
+        productSequence = 0;
+        Report report = new Report();
+        LocalDateTime loadedAt = LocalDate.of(2025, 1, 1).atStartOfDay();
+
+        if (includeGeography) {
+            writeGeography(sink, report, loadedAt);
+        }
+        Map<TableLayout, List<Object[]>> chunk = new LinkedHashMap<>();
+        for (TableLayout layout : List.of(CUSTOMER, ADDRESS, IDENTIFICATION, CUSTOMER_PRODUCT, CUSTOMER_RELATIONSHIP)) {
+            chunk.put(layout, new ArrayList<>());
+        }
+        for (int index = 0; index < customers; index++) {
+            addCustomer(chunk, index);
+            if ((index + 1) % CHUNK_SIZE == 0 || index + 1 == customers) {
+                for (Map.Entry<TableLayout, List<Object[]>> rows : chunk.entrySet()) {
+                    sink.write(rows.getKey(), rows.getValue());
+                    report.add(rows.getKey(), rows.getValue().size());
+                    rows.getValue().clear();
+                }
+                sink.endChunk();
+                if ((index + 1) % (CHUNK_SIZE * 100) == 0) {
+                    log.info("Generated {} of {} customers, {} rows/s", index + 1, customers,
+                            Math.round(report.rowsPerSecond()));
+                }
+            }
+        }
+        return report;
+    }
+
+    // Helper methods
+
+    private void writeGeography(RowSink sink, Report report, LocalDateTime at) throws IOException, SQLException {
+        List<Object[]> provinces = new ArrayList<>();
+        List<Object[]> districts = new ArrayList<>();
+        List<Object[]> postalCodes = new ArrayList<>();
+        List<Object[]> wards = new ArrayList<>();
+        for (VietnameseGeography.Province province : geography.provinces()) {
+            provinces.add(audited(PROVINCE, at, nextId(), "VN", province.code(), province.name(), province.name(), "ACTIVE"));
+            for (VietnameseGeography.District district : province.districts()) {
+                districts.add(audited(DISTRICT, at, nextId(), "VN", province.code(), district.code(),
+                        district.name(), district.name(), "ACTIVE"));
+                UUID postalCodeId = nextId();
+                postalCodes.add(audited(POSTAL_CODE, at, postalCodeId, "VN", province.code(), district.code(),
+                        district.postalCode(), district.name() + ", " + province.name(), "ACTIVE"));
+                for (VietnameseGeography.Ward ward : district.wards()) {
+                    wards.add(audited(WARD, at, nextId(), "VN", province.code(), district.code(), ward.code(),
+                            ward.name(), ward.name(), postalCodeId, "ACTIVE"));
+                }
+            }
+        }
+        sink.write(PROVINCE, provinces);
+        sink.write(DISTRICT, districts);
+        sink.write(POSTAL_CODE, postalCodes);
+        sink.write(WARD, wards);
+        sink.endChunk();
+        report.add(PROVINCE, provinces.size());
+        report.add(DISTRICT, districts.size());
+        report.add(POSTAL_CODE, postalCodes.size());
+        report.add(WARD, wards.size());
+    }
+
+    private void addCustomer(Map<TableLayout, List<Object[]>> chunk, int index) {
+        UUID customerId = nextId();
+        LocalDate cifCreated = FIRST_CIF_DATE.plusDays(random.nextInt(CIF_DATE_RANGE_DAYS));
+        LocalDateTime createdAt = cifCreated.atTime(8 + random.nextInt(9), random.nextInt(60));
+        LocalDateTime updatedAt = createdAt.plusDays(random.nextInt(365));
+        String clientType = CLIENT_TYPE.pick(random);
+        boolean individual = "INDIVIDUAL".equals(clientType);
+        String nationality = individual ? NATIONALITY.pick(random) : "VN";
+        boolean foreigner = !"VN".equals(nationality);
+        String segment = SEGMENT.pick(random);
+
+        String fullName;
+        String gender;
+        LocalDate dateOfBirth;
+        if (individual) {
+            fullName = foreigner
+                    ? FOREIGN_GIVEN_NAMES[random.nextInt(FOREIGN_GIVEN_NAMES.length)] + " "
+                    + FOREIGN_FAMILY_NAMES[random.nextInt(FOREIGN_FAMILY_NAMES.length)]
+                    : VietnameseNames.next(random);
+            gender = fullName.contains(" Thị ") ? "F"
+                    : fullName.contains(" Văn ") ? "M"
+                    : random.nextBoolean() ? "M" : "F";
+            // Adults, most of them between their twenties and forties
+            int age = 18 + Math.min(72, (int) Math.abs(random.nextGaussian() * 20));
+            dateOfBirth = cifCreated.minusYears(age).minusDays(random.nextInt(365));
+        } else {
+            fullName = ("CORPORATE".equals(clientType) ? "Công ty Cổ phần " : "Công ty TNHH ")
+                    + BUSINESS_WORDS[random.nextInt(BUSINESS_WORDS.length)] + " "
+                    + BUSINESS_NAMES[random.nextInt(BUSINESS_NAMES.length)];
+            gender = "O";
+            dateOfBirth = cifCreated.minusDays(random.nextInt(20 * 365));
+        }
+        String taxFileNo = !individual || random.nextBoolean() ? String.format("%010d", 100_000_000L + index) : null;
+        String occupation = individual ? OCCUPATION.pick(random) : null;
+
+        chunk.get(CUSTOMER).add(audited(CUSTOMER, createdAt, updatedAt, customerId, CIF_STATUS.pick(random), fullName,
+                VietnameseTextFolder.fold(fullName), dateOfBirth, cifCreated, phone(index),
+                email(fullName, index, individual), gender, nationality,
+                individual ? maritalStatus(cifCreated.getYear() - dateOfBirth.getYear()) : null,
+                clientType, category(segment), CONTACT_CHANNEL.pick(random), occupation,
+                individual ? industry(occupation) : new String[]{"IT", "FIN", "MFG", "RET"}[random.nextInt(4)],
+                foreigner ? "en" : "vi", segment, monthlyIncome(segment),
+                individual ? USAGE_PURPOSE.pick(random) : "BUSINESS", "N", taxFileNo, taxFileNo != null ? "Y" : "N",
+                REGISTRATION_CHANNEL.pick(random), 0));
+
+        VietnameseGeography.Province home = geography.randomProvince(random);
+        int addresses = random.nextInt(100) < 70 ? 1 : random.nextInt(100) < 85 ? 2 : 3;
+        for (int a = 0; a < addresses; a++) {
+            // Further addresses are often in the big cities people move to for work
+            VietnameseGeography.Province province = a == 0 ? home : geography.randomProvince(random);
+            addAddress(chunk, customerId, province, createdAt, updatedAt);
+        }
+
+        if (individual && !foreigner) {
+            addCitizenId(chunk, customerId, home, gender, dateOfBirth, cifCreated, index, createdAt, updatedAt);
+        }
+        if (foreigner || individual && random.nextInt(10) == 0) {
+            LocalDate issued = cifCreated.minusDays(random.nextInt(5 * 365));
+            chunk.get(IDENTIFICATION).add(audited(IDENTIFICATION, createdAt, updatedAt, nextId(), customerId,
+                    KYC_STATUS.pick(random), "PASSPORT", (foreigner ? "P" : "C") + String.format("%07d", index % 10_000_000),
+                    issued, foreigner ? nationality : "Cục Quản lý xuất nhập cảnh", issued.plusYears(10),
+                    foreigner ? "FOREIGN" : "CITIZEN", 0, "CLEAR", RISK_RATING.pick(random), 0));
+        }
+        if (!individual) {
+            chunk.get(IDENTIFICATION).add(audited(IDENTIFICATION, createdAt, updatedAt, nextId(), customerId,
+                    KYC_STATUS.pick(random), "BUSINESS_REG", taxFileNo, dateOfBirth, "Sở Kế hoạch và Đầu tư " + home.name(),
+                    null, "RESIDENT", 0, "CLEAR", RISK_RATING.pick(random), 0));
+        }
+
+        addProducts(chunk, customerId, segment, createdAt, updatedAt);
+
+        if (individual && random.nextInt(4) == 0 && index > 0) {
+            UUID related = recentCustomers[random.nextInt(Math.min(index, RECENT_CUSTOMERS))];
+            chunk.get(CUSTOMER_RELATIONSHIP).add(audited(CUSTOMER_RELATIONSHIP, createdAt, updatedAt, nextId(),
+                    customerId, related, RELATIONSHIP_TYPE.pick(random),
+                    "MASS".equals(segment) ? null : String.format("RM%04d", random.nextInt(500)), "ACTIVE", 0));
+        }
+        recentCustomers[index % RECENT_CUSTOMERS] = customerId;
+    }
+
+    private void addAddress(Map<TableLayout, List<Object[]>> chunk, UUID customerId, VietnameseGeography.Province province,
+                            LocalDateTime createdAt, LocalDateTime updatedAt) {
+        VietnameseGeography.District district = province.districts().get(random.nextInt(province.districts().size()));
+        VietnameseGeography.Ward ward = district.wards().get(random.nextInt(district.wards().size()));
+        String line = (1 + random.nextInt(300)) + " " + STREETS[random.nextInt(STREETS.length)] + ", "
+                + ward.name() + ", " + district.name() + ", " + province.name();
+        chunk.get(ADDRESS).add(audited(ADDRESS, createdAt, updatedAt, nextId(), customerId, "VN", line,
+                random.nextInt(10) < 6 ? line : null, province.code(), district.code(), ward.code(),
+                district.postalCode(), 0));
+    }
+
+    /**
+     * Căn cước công dân: 3 digits of the birth province, a digit for sex and century, the birth
+     * year's last two digits and a 6-digit serial; it expires at 25, 40 and 60, then never
+     */
+    private void addCitizenId(Map<TableLayout, List<Object[]>> chunk, UUID customerId, VietnameseGeography.Province home,
+                              String gender, LocalDate dateOfBirth, LocalDate cifCreated, int index,
+                              LocalDateTime createdAt, LocalDateTime updatedAt) {
+        int century = dateOfBirth.getYear() >= 2000 ? 2 : 0;
+        String number = "0" + home.code() + ("F".equals(gender) ? century + 1 : century)
+                + String.format("%02d%06d", dateOfBirth.getYear() % 100, index % 1_000_000);
+        LocalDate issued = cifCreated.minusDays(random.nextInt(3 * 365));
+        LocalDate expiry = null;
+        for (int age : new int[]{25, 40, 60}) {
+            if (dateOfBirth.plusYears(age).isAfter(issued)) {
+                expiry = dateOfBirth.plusYears(age);
+                break;
+            }
+        }
+        chunk.get(IDENTIFICATION).add(audited(IDENTIFICATION, createdAt, updatedAt, nextId(), customerId,
+                KYC_STATUS.pick(random), "CCCD", number, issued, "Cục Cảnh sát QLHC về TTXH", expiry, "CITIZEN",
+                0, "CLEAR", RISK_RATING.pick(random), 0));
+    }
+
+    private void addProducts(Map<TableLayout, List<Object[]>> chunk, UUID customerId, String segment,
+                             LocalDateTime createdAt, LocalDateTime updatedAt) {
+        addProduct(chunk, customerId, "CASA", "Tài khoản thanh toán", createdAt, updatedAt);
+        if (random.nextInt(100) < 45) {
+            addProduct(chunk, customerId, "CARD", "MASS".equals(segment) ? "Thẻ ghi nợ nội địa" : "Thẻ tín dụng quốc tế",
+                    createdAt, updatedAt);
+        }
+        if (random.nextInt(100) < 20) {
+            addProduct(chunk, customerId, "LOAN", random.nextBoolean() ? "Vay tiêu dùng" : "Vay mua nhà",
+                    createdAt, updatedAt);
+        }
+        if (random.nextInt(100) < ("MASS".equals(segment) ? 2 : 30)) {
+            addProduct(chunk, customerId, "INV", "Chứng chỉ quỹ", createdAt, updatedAt);
+        }
+    }
+
+    private void addProduct(Map<TableLayout, List<Object[]>> chunk, UUID customerId, String group, String name,
+                            LocalDateTime createdAt, LocalDateTime updatedAt) {
+        chunk.get(CUSTOMER_PRODUCT).add(audited(CUSTOMER_PRODUCT, createdAt, updatedAt, nextId(), customerId, group,
+                name, group + String.format("%012d", ++productSequence), random.nextInt(100) < 95 ? "ACTIVE" : "CLOSED", 0));
+    }
+
+    private String phone(int index) {
+        // A multiplier coprime with the number of phone numbers permutes them: unique, but not sequential
+        long numbers = PHONE_PREFIXES.length * 10_000_000L;
+        long number = (index * 3_000_017L + 4_650_821L) % numbers;
+        return "+84" + PHONE_PREFIXES[(int) (number / 10_000_000L)] + String.format("%07d", number % 10_000_000L);
+    }
+
+    private String email(String fullName, int index, boolean individual) {
+        if (!individual) {
+            return "info" + index + "@doanhnghiep.vn";
+        }
+        if (random.nextInt(10) < 3) {
+            return null;
+        }
+        return VietnameseTextFolder.fold(fullName).replace(' ', '.') + index + "@" + EMAIL_DOMAIN.pick(random);
+    }
+
+    private String maritalStatus(int age) {
+        int draw = random.nextInt(100);
+        if (age < 25) {
+            return draw < 85 ? "SINGLE" : "MARRIED";
+        }
+        if (age < 60) {
+            return draw < 25 ? "SINGLE" : draw < 90 ? "MARRIED" : "DIVORCED";
+        }
+        return draw < 5 ? "SINGLE" : draw < 75 ? "MARRIED" : draw < 85 ? "DIVORCED" : "WIDOWED";
+    }
+
+    private String monthlyIncome(String segment) {
+        int millions = switch (segment) {
+            case "WEALTH" -> 100 + random.nextInt(900);
+            case "AFFLUENT" -> 30 + random.nextInt(70);
+            default -> 5 + random.nextInt(25);
+        };
+        return millions + "000000";
+    }
+
+    private static String category(String segment) {
+        return switch (segment) {
+            case "WEALTH" -> "VIP";
+            case "AFFLUENT" -> "PREMIUM";
+            default -> "RETAIL";
+        };
+    }
+
+    // The industry_code each occupation has in the init script; managers work anywhere
+    private String industry(String occupation) {
+        if (occupation == null) {
+            return null;
+        }
+        return switch (occupation) {
+            case "DEV" -> "IT";
+            case "ACC" -> "FIN";
+            case "ENG" -> "MFG";
+            case "TCH" -> "EDU";
+            default -> random.nextBoolean() ? "RET" : "FIN";
+        };
+    }
+
+    // Time-ordered (version 7 layout) and reproducible: a synthetic millisecond per ID, seeded random bits
+    private UUID nextId() {
+        long millis = EPOCH_MILLIS + idSequence++;
+        return new UUID((millis << 16) | 0x7000L, 0x8000000000000000L | (random.nextLong() & 0x3FFFFFFFFFFFFFFFL));
+    }
+
+    private static Object[] audited(TableLayout layout, LocalDateTime at, Object... values) {
+        return audited(layout, at, at, values);
+    }
+
+    private static Object[] audited(TableLayout layout, LocalDateTime createdAt, LocalDateTime updatedAt, Object... values) {
+        Object[] row = new Object[layout.columns().size()];
+        System.arraycopy(values, 0, row, 0, values.length);
+        row[values.length] = createdAt;
+        row[values.length + 1] = CREATED_BY;
+        row[values.length + 2] = updatedAt;
+        row[values.length + 3] = CREATED_BY;
+        return row;
+    }
+
+    private static TableLayout layout(String table, Set<String> binaryColumns, boolean shared, String... columns) {
+        List<String> all = new ArrayList<>(List.of(columns));
+        all.addAll(List.of(AUDIT));
+        return new TableLayout(table, List.copyOf(all), binaryColumns, shared);
+    }
+
+    /**
+     * A fixed set of values drawn with the given relative weights
+     */
+    private static final class Weighted {
+
+        private final String[] values;
+        private final int[] cumulative;
+
+        Weighted(String[] values, int... weights) {
+            this.values = values;
+            this.cumulative = new int[weights.length];
+            int total = 0;
+            for (int i = 0; i < weights.length; i++) {
+                total += weights[i];
+                cumulative[i] = total;
+            }
+        }
+
+        String pick(Random random) {
+            int point = random.nextInt(cumulative[cumulative.length - 1]);
+            int i = 0;
+            while (cumulative[i] <= point) {
+                i++;
+            }
+            return values[i];
+        }
+    }
+
+    /**
+     * Rows written per table and the rate since generation started
+     */
+    static final class Report {
+
+        private final long started = System.nanoTime();
+        private final Map<String, Long> rows = new LinkedHashMap<>();
+
+        void add(TableLayout layout, int count) {
+            rows.merge(layout.table(), (long) count, Long::sum);
+        }
+
+        long totalRows() {
+            return rows.values().stream().mapToLong(Long::longValue).sum();
+        }
+
+        double rowsPerSecond() {
+            return totalRows() / Math.max(1e-9, (System.nanoTime() - started) / 1e9);
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder report = new StringBuilder();
+            rows.forEach((table, count) -> report.append(String.format("%-24s %,12d%n", table, count)));
+            return report.append(String.format("%-24s %,12d rows in %.1f s, %,.0f rows/s%n", "total", totalRows(),
+                    (System.nanoTime() - started) / 1e9, rowsPerSecond())).toString();
+        }
+    }
+}
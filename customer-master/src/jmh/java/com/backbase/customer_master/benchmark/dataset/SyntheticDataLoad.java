@@ -0,0 +1,73 @@
+package com.backbase.customer_master.benchmark.dataset;
+
+import com.backbase.customer_master.benchmark.BenchmarkApplication;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Generates a synthetic dataset (see {@link SyntheticDataGenerator}) and reports rows per second:
+ * mvn -Pbenchmark test -Dtest=SyntheticDataLoad [-Ddataset.customers=1000000] [-Ddataset.seed=42]
+ * By default the rows go to the in-memory H2 database of the test configuration, which measures
+ * the generator and the insert path but keeps nothing. To fill a database, start it first and point
+ * the load at it; the schema is created or updated as the application does, and the reference rows of
+ * the init script are added when missing:
+ * -Ddataset.url=jdbc:mysql://localhost:3306/customer_master_db -Ddataset.username=appuser -Ddataset.password=apppass
+ * Geography is only inserted into a database without provinces. With -Ddataset.csv=target/dataset
+ * nothing is inserted: CSV files and a load.sql for LOAD DATA are written to that directory instead.
+ */
+class SyntheticDataLoad {
+
+    @Test
+    void load() throws Exception {
+        int customers = Integer.getInteger("dataset.customers", 100_000);
+        long seed = Long.getLong("dataset.seed", 42L);
+        ReferenceDataScript script = new ReferenceDataScript(ReferenceDataScript.DEFAULT_LOCATION);
+        SyntheticDataGenerator.verify(script);
+        SyntheticDataGenerator generator = new SyntheticDataGenerator(seed);
+
+        String csv = System.getProperty("dataset.csv");
+        if (csv != null && !csv.isBlank()) {
+            SyntheticDataGenerator.Report report;
+            try (CsvRowSink sink = new CsvRowSink(Path.of(csv))) {
+                report = generator.generate(sink, customers, true);
+            }
+            System.out.printf("%d customers (seed %d) written to %s%n%s", customers, seed, csv, report);
+            return;
+        }
+
+        try (ConfigurableApplicationContext context = BenchmarkApplication.start(databaseProperties())) {
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+            script.apply(jdbcTemplate);
+            Long provinces = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM province", Long.class);
+
+            SyntheticDataGenerator.Report report;
+            try (JdbcRowSink sink = new JdbcRowSink(jdbcTemplate.getDataSource())) {
+                report = generator.generate(sink, customers, provinces == null || provinces == 0);
+            }
+            System.out.printf("%d customers (seed %d) inserted%n%s", customers, seed, report);
+        }
+    }
+
+    // Helper methods
+
+    private static String[] databaseProperties() {
+        List<String> properties = new ArrayList<>(List.of("logging.level.com.backbase.customer_master.benchmark=INFO"));
+        String url = System.getProperty("dataset.url");
+        if (url != null && !url.isBlank()) {
+            properties.add("spring.datasource.url=" + url);
+            properties.add("spring.datasource.username=" + System.getProperty("dataset.username", "appuser"));
+            properties.add("spring.datasource.password=" + System.getProperty("dataset.password", "apppass"));
+            // Derived from the URL
+            properties.add("spring.datasource.driver-class-name=");
+            properties.add("spring.jpa.database-platform=" + (url.startsWith("jdbc:mysql:")
+                    ? "org.hibernate.dialect.MySQLDialect" : "org.hibernate.dialect.H2Dialect"));
+            properties.add("spring.jpa.hibernate.ddl-auto=update");
+        }
+        return properties.toArray(String[]::new);
+    }
+}
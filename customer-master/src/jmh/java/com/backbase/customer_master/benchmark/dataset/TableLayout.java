@@ -0,0 +1,29 @@
+package com.backbase.customer_master.benchmark.dataset;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Table and column order of the rows the generator produces. Binary columns hold UUIDs, written as
+ * BINARY(16); shared tables hold geography that an earlier load may already have inserted.
+ */
+record TableLayout(String table, List<String> columns, Set<String> binaryColumns, boolean shared) {
+
+    /**
+     * INSERT of the given number of rows in one statement
+     */
+    String insert(int rows) {
+        StringBuilder values = new StringBuilder("(");
+        for (int i = 0; i < columns.size(); i++) {
+            values.append(i == 0 ? "?" : ", ?");
+        }
+        values.append(')');
+
+        StringBuilder sql = new StringBuilder("INSERT INTO ").append(table)
+                .append(" (").append(String.join(", ", columns)).append(") VALUES ");
+        for (int row = 0; row < rows; row++) {
+            sql.append(row == 0 ? "" : ", ").append(values);
+        }
+        return sql.toString();
+    }
+}
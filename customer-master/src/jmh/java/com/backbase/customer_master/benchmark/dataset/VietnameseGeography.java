@@ -0,0 +1,102 @@
+package com.backbase.customer_master.benchmark.dataset;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * The 63 provinces and centrally-governed cities of Vietnam with their GSO codes and approximate
+ * population, and districts, wards and postal codes derived from them. District and ward names are
+ * synthetic ("Quận 3", "Xã 12"), but their number follows the population, which gives roughly the
+ * real shape: a few hundred districts and several thousand wards, with Hà Nội and Hồ Chí Minh
+ * holding the most people and the most customers.
+ */
+final class VietnameseGeography {
+
+    // GSO code, name, population in thousands; the five centrally-governed cities are marked urban
+    private static final Object[][] PROVINCES = {
+            {"01", "Hà Nội", 8400, true}, {"02", "Hà Giang", 900, false}, {"04", "Cao Bằng", 540, false},
+            {"06", "Bắc Kạn", 320, false}, {"08", "Tuyên Quang", 800, false}, {"10", "Lào Cai", 760, false},
+            {"11", "Điện Biên", 620, false}, {"12", "Lai Châu", 470, false}, {"14", "Sơn La", 1270, false},
+            {"15", "Yên Bái", 840, false}, {"17", "Hòa Bình", 870, false}, {"19", "Thái Nguyên", 1320, false},
+            {"20", "Lạng Sơn", 790, false}, {"22", "Quảng Ninh", 1350, false}, {"24", "Bắc Giang", 1900, false},
+            {"25", "Phú Thọ", 1500, false}, {"26", "Vĩnh Phúc", 1190, false}, {"27", "Bắc Ninh", 1490, false},
+            {"30", "Hải Dương", 1940, false}, {"31", "Hải Phòng", 2070, true}, {"33", "Hưng Yên", 1270, false},
+            {"34", "Thái Bình", 1860, false}, {"35", "Hà Nam", 870, false}, {"36", "Nam Định", 1780, false},
+            {"37", "Ninh Bình", 1000, false}, {"38", "Thanh Hóa", 3700, false}, {"40", "Nghệ An", 3400, false},
+            {"42", "Hà Tĩnh", 1300, false}, {"44", "Quảng Bình", 900, false}, {"45", "Quảng Trị", 640, false},
+            {"46", "Thừa Thiên Huế", 1140, false}, {"48", "Đà Nẵng", 1200, true}, {"49", "Quảng Nam", 1500, false},
+            {"51", "Quảng Ngãi", 1240, false}, {"52", "Bình Định", 1490, false}, {"54", "Phú Yên", 870, false},
+            {"56", "Khánh Hòa", 1240, false}, {"58", "Ninh Thuận", 600, false}, {"60", "Bình Thuận", 1240, false},
+            {"62", "Kon Tum", 570, false}, {"64", "Gia Lai", 1560, false}, {"66", "Đắk Lắk", 1890, false},
+            {"67", "Đắk Nông", 670, false}, {"68", "Lâm Đồng", 1320, false}, {"70", "Bình Phước", 1020, false},
+            {"72", "Tây Ninh", 1180, false}, {"74", "Bình Dương", 2600, false}, {"75", "Đồng Nai", 3200, false},
+            {"77", "Bà Rịa - Vũng Tàu", 1170, false}, {"79", "Hồ Chí Minh", 9200, true}, {"80", "Long An", 1700, false},
+            {"82", "Tiền Giang", 1780, false}, {"83", "Bến Tre", 1290, false}, {"84", "Trà Vinh", 1010, false},
+            {"86", "Vĩnh Long", 1020, false}, {"87", "Đồng Tháp", 1600, false}, {"89", "An Giang", 1900, false},
+            {"91", "Kiên Giang", 1740, false}, {"92", "Cần Thơ", 1240, true}, {"93", "Hậu Giang", 730, false},
+            {"94", "Sóc Trăng", 1200, false}, {"95", "Bạc Liêu", 910, false}, {"96", "Cà Mau", 1190, false}
+    };
+
+    private final List<Province> provinces;
+    private final int[] cumulativePopulation;
+
+    VietnameseGeography() {
+        provinces = new ArrayList<>(PROVINCES.length);
+        cumulativePopulation = new int[PROVINCES.length];
+        int districtNumber = 0;
+        int wardNumber = 0;
+        int total = 0;
+        for (int p = 0; p < PROVINCES.length; p++) {
+            String code = (String) PROVINCES[p][0];
+            String name = (String) PROVINCES[p][1];
+            int population = (Integer) PROVINCES[p][2];
+            boolean city = (Boolean) PROVINCES[p][3];
+            // Postal codes are five digits, the first two identify the province
+            String postalPrefix = String.format("%02d", 10 + p);
+
+            int districtCount = 6 + population / 500;
+            List<District> districts = new ArrayList<>(districtCount);
+            for (int d = 0; d < districtCount; d++) {
+                // Cities are mostly urban districts, provinces have one town and rural districts
+                boolean urban = city ? d < districtCount * 2 / 3 : d == 0;
+                String districtName = urban
+                        ? (city ? "Quận " + (d + 1) : "Thành phố " + name)
+                        : "Huyện " + (d + 1);
+                int wardCount = 10 + districtNumber % 9;
+                List<Ward> wards = new ArrayList<>(wardCount);
+                for (int w = 0; w < wardCount; w++) {
+                    wards.add(new Ward(String.format("%05d", ++wardNumber), (urban ? "Phường " : "Xã ") + (w + 1)));
+                }
+                districts.add(new District(String.format("%03d", ++districtNumber), districtName,
+                        postalPrefix + String.format("%03d", d * 10), wards));
+            }
+            provinces.add(new Province(code, name, districts));
+            total += population;
+            cumulativePopulation[p] = total;
+        }
+    }
+
+    List<Province> provinces() {
+        return provinces;
+    }
+
+    /**
+     * A province weighted by population
+     */
+    Province randomProvince(Random random) {
+        int point = random.nextInt(cumulativePopulation[cumulativePopulation.length - 1]);
+        int index = Arrays.binarySearch(cumulativePopulation, point + 1);
+        return provinces.get(index >= 0 ? index : -index - 1);
+    }
+
+    record Province(String code, String name, List<District> districts) {
+    }
+
+    record District(String code, String name, String postalCode, List<Ward> wards) {
+    }
+
+    record Ward(String code, String name) {
+    }
+}
@@ -0,0 +1,180 @@
+package com.backbase.customer_master.common.id;
+
+import com.backbase.customer_master.benchmark.BenchmarkApplication;
+import com.backbase.customer_master.support.TestDataSeeder;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH time to onboard a batch of 1000 customers (one address, identification and product each) with
+ * random and with time-ordered keys, one batch per iteration, 20 measured batches on a database that
+ * keeps growing. Each batch's keys are also replayed on a model of an InnoDB clustered index leaf
+ * level (16 KB pages of BINARY(16) keys; an insert past the last key of the rightmost page starts a
+ * new page instead of splitting it in half). Secondary results, summed over the measured batches
+ * (20000 keys, which pack into 46 leaf pages): the leaf pages added, the page splits, and the distinct
+ * pages each batch dirtied, i.e. the buffer pool working set.
+ * H2 does not cluster rows by primary key, so its timings understate the InnoDB difference; point
+ * spring.datasource at MySQL to measure that directly.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 20)
+@Fork(1)
+public class CustomerInsertLocalityBenchmark {
+
+    private static final int BATCH = 1000;
+    private static final int KEYS_PER_PAGE = 16 * 1024 * 15 / 16 / (16 + 13 + 6);
+    private static final Comparator<UUID> BYTE_ORDER = (a, b) -> {
+        int high = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return high != 0 ? high : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    };
+
+    @Param({"random", "time-ordered"})
+    private String strategy;
+
+    private ConfigurableApplicationContext context;
+    private TestDataSeeder seeder;
+    private final LeafLevel leaves = new LeafLevel();
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        IdGenerator idGenerator = "random".equals(strategy) ? new RandomIdGenerator() : new TimeOrderedIdGenerator();
+        seeder = new TestDataSeeder(context.getBean(JdbcTemplate.class), idGenerator);
+        seeder.seedReferenceData();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int insertBatch(Locality locality) {
+        List<UUID> keys = seeder.seedCustomers(BATCH, 1, 1, 1, 0);
+        int pages = leaves.pages();
+        int splits = leaves.splits;
+        locality.leafPagesDirtied = leaves.insertAll(keys);
+        locality.leafPagesAdded = leaves.pages() - pages;
+        locality.leafPageSplits = leaves.splits - splits;
+        return keys.size();
+    }
+
+    /**
+     * Clustered index figures of the batch an iteration inserted; JMH sums them over the iterations
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Locality {
+
+        public long leafPagesAdded;
+        public long leafPageSplits;
+        public long leafPagesDirtied;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            leafPagesAdded = 0;
+            leafPageSplits = 0;
+            leafPagesDirtied = 0;
+        }
+    }
+
+    /**
+     * Leaf pages of a clustered index, keyed by their first key
+     */
+    private static final class LeafLevel {
+
+        private final TreeMap<UUID, List<UUID>> pages = new TreeMap<>(BYTE_ORDER);
+        private int splits;
+
+        int insertAll(List<UUID> batch) {
+            Set<UUID> dirtied = new HashSet<>();
+            for (UUID key : batch) {
+                dirtied.add(insert(key));
+            }
+            return dirtied.size();
+        }
+
+        int pages() {
+            return pages.size();
+        }
+
+        private UUID insert(UUID key) {
+            Map.Entry<UUID, List<UUID>> entry = pages.floorEntry(key);
+            if (entry == null) {
+                entry = pages.firstEntry();
+                if (entry == null) {
+                    List<UUID> page = new ArrayList<>();
+                    page.add(key);
+                    pages.put(key, page);
+                    return key;
+                }
+                // New smallest key: the page is now keyed by it
+                pages.remove(entry.getKey());
+                pages.put(key, entry.getValue());
+                entry = pages.firstEntry();
+            }
+
+            List<UUID> page = entry.getValue();
+            int position = insertionPoint(page, key);
+            if (page.size() < KEYS_PER_PAGE) {
+                page.add(position, key);
+                return entry.getKey();
+            }
+
+            splits++;
+            if (position == page.size() && entry.getKey().equals(pages.lastKey())) {
+                // Append past the rightmost key: start a new page, keep this one full
+                List<UUID> next = new ArrayList<>();
+                next.add(key);
+                pages.put(key, next);
+                return key;
+            }
+            page.add(position, key);
+            List<UUID> upper = new ArrayList<>(page.subList(page.size() / 2, page.size()));
+            page.subList(page.size() / 2, page.size()).clear();
+            pages.put(upper.get(0), upper);
+            return position < page.size() ? entry.getKey() : upper.get(0);
+        }
+
+        private int insertionPoint(List<UUID> page, UUID key) {
+            int low = 0;
+            int high = page.size();
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (BYTE_ORDER.compare(page.get(middle), key) < 0) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+    }
+}
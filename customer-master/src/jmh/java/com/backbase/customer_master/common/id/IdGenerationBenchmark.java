@@ -0,0 +1,55 @@
+package com.backbase.customer_master.common.id;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH throughput of the ID generators, uncontended and with all threads sharing one generator.
+ * Runs with the other benchmarks (mvn -Pbenchmark test -Djmh.include=IdGeneration) on one thread;
+ * main() compares one and eight threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IdGenerationBenchmark {
+
+    private final IdGenerator timeOrdered = new TimeOrderedIdGenerator();
+    private final IdGenerator random = new RandomIdGenerator();
+
+    @Benchmark
+    public UUID timeOrdered() {
+        return timeOrdered.generate();
+    }
+
+    @Benchmark
+    public UUID random() {
+        return random.generate();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (int threads : new int[]{1, 8}) {
+            Options options = new OptionsBuilder()
+                    .include(IdGenerationBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .build();
+            new Runner(options).run();
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.backbase.customer_master.domain.service;
+
+import com.backbase.customer_master.benchmark.BenchmarkApplication;
+import com.backbase.customer_master.domain.model.Customer;
+import com.backbase.customer_master.domain.repository.CustomerRepository;
+import com.backbase.customer_master.infrastructure.persistence.mapper.CustomerMapper;
+import com.backbase.customer_master.infrastructure.persistence.specification.CustomerSpecifications;
+import com.backbase.customer_master.presentation.dto.AddressDTO;
+import com.backbase.customer_master.presentation.dto.CustomerDTO;
+import com.backbase.customer_master.presentation.dto.CustomerProductDTO;
+import com.backbase.customer_master.presentation.dto.CustomerRelationshipDTO;
+import com.backbase.customer_master.presentation.dto.IdentificationDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH average time of loading one full customer graph from an in-memory H2 database of 50 customers,
+ * each with three addresses, two identifications, ten products and five relationships:
+ * - the single cartesian join the old withAllRelatedData fetch issued (run as plain SQL, since
+ *   Hibernate rejects fetching several bags at once),
+ * - lazy collection initialisation from the mapper,
+ * - the root + keyed collection loads of CustomerGraphLoader.
+ * Setup checks that the last two map to the same DTOs. Statements per load are held by the
+ * handlers' @SqlBudget, checked in the test suite.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CustomerGraphLoadingBenchmark {
+
+    private static final int CUSTOMERS = 50;
+    private static final String CARTESIAN_SQL = "SELECT * FROM customer c"
+            + " LEFT JOIN address a ON a.customer_id = c.customer_id"
+            + " LEFT JOIN identification i ON i.customer_id = c.customer_id"
+            + " LEFT JOIN customer_product p ON p.customer_id = c.customer_id"
+            + " LEFT JOIN customer_relationship r ON r.customer_id = c.customer_id"
+            + " WHERE c.customer_id = ?";
+
+    private ConfigurableApplicationContext context;
+    private JdbcTemplate jdbcTemplate;
+    private CustomerRepository customerRepository;
+    private CustomerMapper customerMapper;
+    private CustomerDomainService customerDomainService;
+    private TransactionTemplate readOnly;
+    private List<UUID> customerIds;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        customerRepository = context.getBean(CustomerRepository.class);
+        customerMapper = context.getBean(CustomerMapper.class);
+        customerDomainService = context.getBean(CustomerDomainService.class);
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+        customerIds = BenchmarkApplication.seed(context, CUSTOMERS, 3, 2, 10, 5);
+
+        for (UUID customerId : customerIds) {
+            if (!normalize(lazy(customerId)).equals(normalize(batched(customerId)))) {
+                throw new IllegalStateException("Lazy and batched loads differ for customer " + customerId);
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> cartesianJoin() {
+        return jdbcTemplate.queryForList(CARTESIAN_SQL, nextCustomerId());
+    }
+
+    @Benchmark
+    public CustomerDTO lazyLoading() {
+        return lazy(nextCustomerId());
+    }
+
+    @Benchmark
+    public CustomerDTO batchedLoads() {
+        return batched(nextCustomerId());
+    }
+
+    // Helper methods
+
+    private CustomerDTO lazy(UUID customerId) {
+        Specification<Customer> spec = Specification
+                .where(CustomerSpecifications.withReferenceData())
+                .and(CustomerSpecifications.hasCustomerId(customerId))
+                .and(CustomerSpecifications.excludeClosed());
+        return readOnly.execute(status -> customerRepository.findOne(spec).map(customerMapper::toDTO).orElseThrow());
+    }
+
+    private CustomerDTO batched(UUID customerId) {
+        return customerDomainService.findCustomerById(customerId).orElseThrow();
+    }
+
+    private UUID nextCustomerId() {
+        next = (next + 1) % CUSTOMERS;
+        return customerIds.get(next);
+    }
+
+    private CustomerDTO normalize(CustomerDTO dto) {
+        dto.getAddressDTOs().sort(Comparator.comparing(AddressDTO::getAddressId));
+        dto.getIdentificationDTOs().sort(Comparator.comparing(IdentificationDTO::getIdentificationId));
+        dto.getProductDTOs().sort(Comparator.comparing(CustomerProductDTO::getCustomerProductId));
+        dto.getRelationshipDTOs().sort(Comparator.comparing(CustomerRelationshipDTO::getRelationshipId));
+        return dto;
+    }
+}
@@ -0,0 +1,97 @@
+package com.backbase.customer_master.infrastructure.outbox;
+
+import com.backbase.customer_master.application.command.handler.CustomerCommandHandler;
+import com.backbase.customer_master.application.command.model.UpdateCustomerCommand;
+import com.backbase.customer_master.benchmark.BenchmarkApplication;
+import com.backbase.customer_master.presentation.dto.CustomerDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.ThreadParams;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH latency distribution (p50, p99, ...) of customer updates by eight concurrent clients, with the
+ * outbox event inserted in the command transaction and with the asynchronous writer
+ * (app.outbox.async.enabled, which logs each event to the write-ahead log at commit). Each mode gets
+ * its own fork and H2 database of 400 customers; every client updates its own customers (no version
+ * conflicts) and changes the job title each time, so every update records an event. H2 inserts are
+ * cheap, so this mostly shows the cost left on the command path; point spring.datasource at MySQL to
+ * include a real event insert and index update.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(CustomerUpdateAuditBenchmark.CLIENTS)
+@Fork(1)
+public class CustomerUpdateAuditBenchmark {
+
+    static final int CLIENTS = 8;
+    private static final int CUSTOMERS = 400;
+
+    @Param({"false", "true"})
+    private boolean async;
+
+    private ConfigurableApplicationContext context;
+    private CustomerCommandHandler customerCommandHandler;
+    private List<UUID> customerIds;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start("app.outbox.async.enabled=" + async,
+                "app.outbox.async.wal-path=target/outbox-benchmark-" + UUID.randomUUID() + "/events.wal");
+        customerCommandHandler = context.getBean(CustomerCommandHandler.class);
+        customerIds = BenchmarkApplication.seed(context, CUSTOMERS, 0, 0, 0, 0);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public CustomerDTO update(Client client) {
+        UUID customerId = customerIds.get(client.nextCustomer());
+        return customerCommandHandler.handle(UpdateCustomerCommand.builder()
+                .customerId(customerId)
+                .jobTitle("Title " + client.updates)
+                .build());
+    }
+
+    /**
+     * One client's share of the customers, updated in turn
+     */
+    @State(Scope.Thread)
+    public static class Client {
+
+        private int first;
+        private int count;
+        private long updates;
+
+        @Setup
+        public void setUp(ThreadParams threadParams) {
+            count = CUSTOMERS / threadParams.getThreadCount();
+            first = threadParams.getThreadIndex() * count;
+        }
+
+        private int nextCustomer() {
+            return first + (int) (updates++ % count);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.backbase.customer_master.infrastructure.persistence.loader;
+
+import com.backbase.customer_master.benchmark.BenchmarkApplication;
+import com.backbase.customer_master.domain.model.Customer;
+import com.backbase.customer_master.infrastructure.persistence.mapper.CustomerMapper;
+import com.backbase.customer_master.infrastructure.persistence.specification.CustomerSpecifications;
+import com.backbase.customer_master.presentation.dto.CustomerDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH throughput of summary pages read as entities (fetch graph, then CustomerMapper.toSummaryDTO)
+ * and as tuple projections ({@link CustomerSummaryLoader}), in a read-only transaction like the
+ * list queries, against an in-memory H2 database seeded with 5000 customers. Both go through the
+ * same ID page and count. Run with -Djmh.prof=gc for the bytes allocated per page
+ * (gc.alloc.rate.norm).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CustomerSummaryLoaderBenchmark {
+
+    private static final int CUSTOMERS = 5000;
+
+    @Param({"20", "200", "1000"})
+    private int pageSize;
+
+    private ConfigurableApplicationContext context;
+    private CustomerPageLoader customerPageLoader;
+    private CustomerSummaryLoader customerSummaryLoader;
+    private CustomerMapper customerMapper;
+    private TransactionTemplate readOnly;
+    private Specification<Customer> predicate;
+    private int pages;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        customerPageLoader = context.getBean(CustomerPageLoader.class);
+        customerSummaryLoader = context.getBean(CustomerSummaryLoader.class);
+        customerMapper = context.getBean(CustomerMapper.class);
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+        predicate = Specification.where(CustomerSpecifications.excludeClosed());
+        pages = CUSTOMERS / pageSize;
+        BenchmarkApplication.seed(context, CUSTOMERS, 2, 1, 2, 1);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<CustomerDTO> entityPage() {
+        Pageable pageable = nextPage();
+        return readOnly.execute(status -> customerPageLoader.findPage(predicate,
+                CustomerSpecifications.withSummaryData(), pageable, customerMapper::toSummaryDTO));
+    }
+
+    @Benchmark
+    public Page<CustomerDTO> projectionPage() {
+        Pageable pageable = nextPage();
+        return readOnly.execute(status -> customerPageLoader.findPage(predicate, pageable,
+                customerSummaryLoader::findByIds));
+    }
+
+    // Helper methods
+
+    // Walks the pages so that every row is read in turn
+    private Pageable nextPage() {
+        next = (next + 1) % pages;
+        return PageRequest.of(next, pageSize, Sort.by("fullName"));
+    }
+}
@@ -0,0 +1,182 @@
+package com.backbase.customer_master.infrastructure.persistence.mapper;
+
+import com.backbase.customer_master.common.id.EntityIds;
+import com.backbase.customer_master.domain.model.*;
+import com.backbase.customer_master.presentation.dto.CustomerDTO;
+import com.backbase.customer_master.support.VietnameseNames;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH throughput of the customer mappings on fully populated graphs: every reference set, and
+ * children collections sized by the children parameter (addresses, identifications, products and
+ * relationships each). toDTO maps the children, toBasicDTO and toSummaryDTO skip them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CustomerMapperBenchmark {
+
+    private static final int CUSTOMERS = 256;
+
+    @Param({"0", "3"})
+    private int children;
+
+    private final CustomerMapper customerMapper = Mappers.getMapper(CustomerMapper.class);
+    private Customer[] customers;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        List<String> names = VietnameseNames.generate(42, CUSTOMERS);
+        customers = new Customer[CUSTOMERS];
+        for (int i = 0; i < CUSTOMERS; i++) {
+            customers[i] = customer(i, names.get(i));
+        }
+    }
+
+    @Benchmark
+    public CustomerDTO toDTO() {
+        return customerMapper.toDTO(nextCustomer());
+    }
+
+    @Benchmark
+    public CustomerDTO toBasicDTO() {
+        return customerMapper.toBasicDTO(nextCustomer());
+    }
+
+    @Benchmark
+    public CustomerDTO toSummaryDTO() {
+        return customerMapper.toSummaryDTO(nextCustomer());
+    }
+
+    // Helper methods
+
+    // Cycles through the graphs so that the mapping does not run on one hot object
+    private Customer nextCustomer() {
+        next = (next + 1) & (CUSTOMERS - 1);
+        return customers[next];
+    }
+
+    private Customer customer(int i, String fullName) {
+        LocalDateTime now = LocalDateTime.now();
+        Country vietnam = Country.builder().countryId(EntityIds.next()).countryCode("VN").countryName("Viet Nam").build();
+        Customer customer = Customer.builder()
+                .customerId(EntityIds.next())
+                .cifStatus("ACTIVE")
+                .fullName(fullName)
+                .dateOfBirth(LocalDate.of(1960 + i % 40, 1 + i % 12, 1 + i % 28))
+                .cifCreatedDate(LocalDate.of(2015 + i % 10, 1 + i % 12, 1))
+                .primaryPhone(String.format("+8490%07d", i))
+                .email("customer" + i + "@example.com")
+                .gender(Gender.builder().genderCode(i % 2 == 0 ? "M" : "F").genderName(i % 2 == 0 ? "Nam" : "Nữ").build())
+                .nationality(vietnam)
+                .maritalStatus(MaritalStatus.builder().maritalStatusCode("MARRIED").maritalStatusName("Đã kết hôn").build())
+                .clientType(ClientType.builder().clientTypeCode("INDIVIDUAL").clientTypeName("Cá nhân").build())
+                .category(Category.builder().categoryCode("RETAIL").categoryName("Bán lẻ").build())
+                .preferredContactChannel(ContactChannel.builder().contactChannelCode("SMS").contactChannelName("Tin nhắn").build())
+                .occupation(Occupation.builder().occupationCode("ENG").occupationName("Kỹ sư").build())
+                .classificationIndustry(Industry.builder().industryCode("IT").industryName("Công nghệ thông tin").build())
+                .classificationBusiness(BusinessClassification.builder().businessClassCode("PRIVATE").businessClassName("Tư nhân").build())
+                .classificationSector(EconomicSector.builder().sectorCode("SERVICE").sectorName("Dịch vụ").build())
+                .preferredLanguage(Language.builder().languageCode("vi").languageName("Tiếng Việt").build())
+                .customerSegment(CustomerSegment.builder().segmentCode(i % 2 == 0 ? "MASS" : "AFFLUENT").segmentName("Phân khúc").build())
+                .jobTitle("Kỹ sư phần mềm")
+                .monthlyIncome("20-50M")
+                .mainIncomeSource("SALARY")
+                .accountUsagePurpose("SAVING")
+                .internalClient("N")
+                .taxFileNo(String.format("%010d", i))
+                .taxable("Y")
+                .registrationChannel("BRANCH")
+                .notes("Khách hàng mở tài khoản tại quầy")
+                .customerClassification("STANDARD")
+                .versionNo(1)
+                .createdAt(now)
+                .createdBy("SEED")
+                .updatedAt(now)
+                .updatedBy("SEED")
+                .sourceApp("BENCHMARK")
+                .addresses(new ArrayList<>())
+                .identifications(new ArrayList<>())
+                .relationships(new ArrayList<>())
+                .products(new ArrayList<>())
+                .build();
+
+        Province province = Province.builder().provinceCode("79").provinceName("Hồ Chí Minh").country(vietnam).build();
+        District district = District.builder().districtCode("760").districtName("Quận 1").province(province).build();
+        Ward ward = Ward.builder().wardCode("26734").wardName("Phường Bến Nghé").district(district).build();
+        for (int c = 0; c < children; c++) {
+            customer.getAddresses().add(Address.builder()
+                    .addressId(EntityIds.next())
+                    .customer(customer)
+                    .domicileCountry(vietnam)
+                    .permanentAddress(c + 1 + " Lê Lợi, Phường Bến Nghé, Quận 1")
+                    .contactAddress(c + 1 + " Lê Lợi, Phường Bến Nghé, Quận 1")
+                    .province(province)
+                    .district(district)
+                    .ward(ward)
+                    .postalCode(PostalCode.builder().postalCode("700000").build())
+                    .versionNo(1)
+                    .createdAt(now)
+                    .createdBy("SEED")
+                    .build());
+            customer.getIdentifications().add(Identification.builder()
+                    .identificationId(EntityIds.next())
+                    .customer(customer)
+                    .kycStatus("VERIFIED")
+                    .identificationType("CCCD")
+                    .identificationNumber(String.format("0790%08d", i * 10 + c))
+                    .issueDate(LocalDate.of(2021, 1, 1))
+                    .issuingPlace("Cục Cảnh sát QLHC về TTXH")
+                    .expiryDate(LocalDate.of(2046, 1, 1))
+                    .residencyStatus(ResidencyStatus.builder().residencyStatusCode("CITIZEN").build())
+                    .riskRating("LOW")
+                    .versionNo(1)
+                    .createdAt(now)
+                    .createdBy("SEED")
+                    .build());
+            customer.getProducts().add(CustomerProduct.builder()
+                    .customerProductId(EntityIds.next())
+                    .customer(customer)
+                    .productGroup(ProductGroup.builder().productGroupCode("CASA").build())
+                    .productName("Tài khoản thanh toán")
+                    .productId("CASA-" + i + "-" + c)
+                    .productStatus("ACTIVE")
+                    .versionNo(1)
+                    .createdAt(now)
+                    .createdBy("SEED")
+                    .build());
+            customer.getRelationships().add(CustomerRelationship.builder()
+                    .relationshipId(EntityIds.next())
+                    .customer(customer)
+                    .relatedCustomer(Customer.builder().customerId(EntityIds.next()).build())
+                    .relationshipType(RelationshipType.builder().relationshipTypeCode("SPOUSE").build())
+                    .status("ACTIVE")
+                    .versionNo(1)
+                    .createdAt(now)
+                    .createdBy("SEED")
+                    .build());
+        }
+        return customer;
+    }
+}
@@ -0,0 +1,107 @@
+package com.backbase.customer_master.infrastructure.persistence.specification;
+
+import com.backbase.customer_master.benchmark.BenchmarkApplication;
+import com.backbase.customer_master.domain.model.Customer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH average time of building the customer specifications the domain service uses: composing
+ * them, turning them into a criteria query (fetches, joins and predicates on a fresh root), and
+ * for the lookup by ID also having Hibernate interpret the criteria into an executable query.
+ * Nothing is executed against the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CustomerSpecificationsBenchmark {
+
+    private final UUID customerId = UUID.randomUUID();
+
+    private ConfigurableApplicationContext context;
+    private EntityManager entityManager;
+    private CriteriaBuilder criteriaBuilder;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        entityManager = context.getBean(EntityManagerFactory.class).createEntityManager();
+        criteriaBuilder = entityManager.getCriteriaBuilder();
+    }
+
+    @TearDown
+    public void tearDown() {
+        entityManager.close();
+        context.close();
+    }
+
+    @Benchmark
+    public Specification<Customer> composeById() {
+        return byId();
+    }
+
+    @Benchmark
+    public CriteriaQuery<Customer> criteriaById() {
+        return criteria(byId());
+    }
+
+    @Benchmark
+    public TypedQuery<Customer> queryById() {
+        return entityManager.createQuery(criteria(byId()));
+    }
+
+    // Filters only: list pages apply their fetch specification separately (see CustomerPageLoader)
+    @Benchmark
+    public CriteriaQuery<Customer> criteriaFilteredList() {
+        return criteria(Specification.where(CustomerSpecifications.hasSegmentCode("AFFLUENT"))
+                .and(CustomerSpecifications.hasClientTypeCode("INDIVIDUAL"))
+                .and(CustomerSpecifications.hasDateOfBirthBetween(LocalDate.of(1970, 1, 1), LocalDate.of(1990, 12, 31)))
+                .and(CustomerSpecifications.hasAddressInProvince("79"))
+                .and(CustomerSpecifications.isActive()));
+    }
+
+    @Benchmark
+    public CriteriaQuery<Customer> criteriaComplexSearch() {
+        return criteria(Specification.where(CustomerSpecifications.withSummaryData())
+                .and(CustomerSpecifications.complexSearch("Nguyễn Văn"))
+                .and(CustomerSpecifications.excludeClosed()));
+    }
+
+    // Helper methods
+
+    private Specification<Customer> byId() {
+        return Specification.where(CustomerSpecifications.withReferenceData())
+                .and(CustomerSpecifications.hasCustomerId(customerId))
+                .and(CustomerSpecifications.excludeClosed());
+    }
+
+    private CriteriaQuery<Customer> criteria(Specification<Customer> spec) {
+        CriteriaQuery<Customer> query = criteriaBuilder.createQuery(Customer.class);
+        Root<Customer> root = query.from(Customer.class);
+        return query.select(root).where(spec.toPredicate(root, query, criteriaBuilder));
+    }
+}
@@ -0,0 +1,186 @@
+package com.backbase.customer_master.presentation.query.controller;
+
+import com.backbase.customer_master.benchmark.BenchmarkApplication;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * JMH time to serve a burst of concurrent GET requests over HTTP, with Tomcat on its platform worker
+ * pool and on virtual threads. The application runs on a random port over an in-memory H2 database of
+ * 2000 customers, every SQL statement delayed by 5 ms to stand in for a networked database. A burst
+ * is `concurrency` requests for random customers, either served from the near-cache (filled at setup)
+ * or reading the basic view from the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class CustomerQueryLoadBenchmark {
+
+    private static final int CUSTOMERS = 2000;
+    private static final int FILL_CONCURRENCY = 20;
+    private static final long STATEMENT_LATENCY_MS = 5;
+    private static final String USER = "load";
+    private static final String PASSWORD = "load";
+
+    @Param({"false", "true"})
+    private boolean virtualThreads;
+
+    @Param({"1000"})
+    private int concurrency;
+
+    private ConfigurableApplicationContext context;
+    private List<UUID> customerIds;
+    private HttpClient client;
+    private String baseUrl;
+    private String authorization;
+
+    @Setup
+    public void setUp() throws InterruptedException {
+        context = BenchmarkApplication.startServer(Map.of("loadUserDetailsService", loadUser()),
+                "spring.threads.virtual.enabled=" + virtualThreads,
+                "app.cache.customer.enabled=true",
+                "app.cache.customer.ttl-ms=3600000",
+                "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                        + SimulatedNetworkLatency.class.getName());
+        customerIds = BenchmarkApplication.seed(context, CUSTOMERS, 1, 1, 0, 0);
+
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        authorization = "Basic " + Base64.getEncoder()
+                .encodeToString((USER + ":" + PASSWORD).getBytes(StandardCharsets.UTF_8));
+
+        // Fill the near-cache without queueing the whole table at the server
+        Semaphore filling = new Semaphore(FILL_CONCURRENCY);
+        AtomicLong failed = new AtomicLong();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (UUID customerId : customerIds) {
+                filling.acquire();
+                executor.execute(() -> {
+                    try {
+                        request("/api/v1/customers/" + customerId, failed);
+                    } finally {
+                        filling.release();
+                    }
+                });
+            }
+        }
+        check(failed, "filling the cache");
+    }
+
+    @TearDown
+    public void tearDown() {
+        client.close();
+        context.close();
+    }
+
+    @Benchmark
+    public int cachedBurst() throws InterruptedException {
+        return burst("");
+    }
+
+    @Benchmark
+    public int databaseBurst() throws InterruptedException {
+        return burst("/basic");
+    }
+
+    /**
+     * Delays every SQL statement while its connection is held, like a round trip to a database server
+     */
+    public static class SimulatedNetworkLatency implements StatementInspector {
+
+        @Override
+        public String inspect(String sql) {
+            try {
+                Thread.sleep(STATEMENT_LATENCY_MS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            return sql;
+        }
+    }
+
+    // Helper methods
+
+    private int burst(String view) throws InterruptedException {
+        AtomicLong failed = new AtomicLong();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                UUID customerId = customerIds.get(ThreadLocalRandom.current().nextInt(CUSTOMERS));
+                executor.execute(() -> request("/api/v1/customers/" + customerId + view, failed));
+            }
+        }
+        check(failed, "the burst");
+        return concurrency;
+    }
+
+    private void request(String path, AtomicLong failed) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Authorization", authorization)
+                .GET()
+                .build();
+        try {
+            if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() != 200) {
+                failed.incrementAndGet();
+            }
+        } catch (Exception ex) {
+            failed.incrementAndGet();
+        }
+    }
+
+    private static void check(AtomicLong failed, String phase) {
+        if (failed.get() > 0) {
+            throw new IllegalStateException(failed.get() + " requests failed while " + phase);
+        }
+    }
+
+    /**
+     * Basic-auth user with a plain-text password. Boot's default in-memory user is upgraded to
+     * bcrypt on first login, which would make every request spend its time checking the password.
+     */
+    private static UserDetailsService loadUser() {
+        // A new instance per lookup: credentials are erased from the one that authenticated
+        return username -> {
+            if (!USER.equals(username)) {
+                throw new UsernameNotFoundException(username);
+            }
+            return User.withUsername(USER).password("{noop}" + PASSWORD).roles("USER").build();
+        };
+    }
+}
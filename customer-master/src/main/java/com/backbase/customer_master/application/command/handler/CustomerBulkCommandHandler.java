@@ -0,0 +1,225 @@
+package com.backbase.customer_master.application.command.handler;
+
+import com.backbase.customer_master.application.command.model.BulkCreateCustomersCommand;
+import com.backbase.customer_master.application.command.model.CreateCustomerCommand;
+import com.backbase.customer_master.common.exception.ValidationException;
+import com.backbase.customer_master.domain.model.Customer;
+import com.backbase.customer_master.domain.repository.CustomerRepository;
+import com.backbase.customer_master.domain.service.CustomerChangeFeedService;
+import com.backbase.customer_master.domain.service.CustomerDtoCache;
+import com.backbase.customer_master.domain.service.CustomerDuplicateService;
+import com.backbase.customer_master.domain.service.CustomerEventRecorder;
+import com.backbase.customer_master.domain.service.CustomerStatisticsService;
+import com.backbase.customer_master.domain.service.CustomerStatisticsService.Contribution;
+import com.backbase.customer_master.infrastructure.persistence.search.CustomerNameIndex;
+import com.backbase.customer_master.presentation.dto.BulkCreateResultDTO;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Handles bulk customer creation.
+ * The whole request is checked up front: bean validation per record, then uniqueness of emails and
+ * phones against each other and against the table ({@link CustomerDuplicateService}), then reference
+ * codes (served by the in-memory reference data registry). Accepted records are inserted in transactions of
+ * app.bulk.transaction-size customers, which Hibernate sends as ordered JDBC batches. When a
+ * transaction fails (e.g. a concurrent insert took an email), only its records are retried one by
+ * one, so a bad record never rolls back the rest of the request.
+ */
+@Component
+@Slf4j
+public class CustomerBulkCommandHandler {
+
+    private static final String CREATED = "CREATED";
+    private static final String FAILED = "FAILED";
+    private static final String DUPLICATE = "Customer already exists with email or phone number";
+
+    private final CustomerCommandHandler customerCommandHandler;
+    private final CustomerRepository customerRepository;
+    private final CustomerStatisticsService customerStatisticsService;
+    private final CustomerNameIndex customerNameIndex;
+    private final CustomerDuplicateService customerDuplicateService;
+    private final CustomerEventRecorder customerEventRecorder;
+    private final CustomerChangeFeedService customerChangeFeedService;
+    private final CustomerDtoCache customerDtoCache;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final int transactionSize;
+
+    public CustomerBulkCommandHandler(CustomerCommandHandler customerCommandHandler,
+                                      CustomerRepository customerRepository,
+                                      CustomerStatisticsService customerStatisticsService,
+                                      CustomerNameIndex customerNameIndex,
+                                      CustomerDuplicateService customerDuplicateService,
+                                      CustomerEventRecorder customerEventRecorder,
+                                      CustomerChangeFeedService customerChangeFeedService,
+                                      CustomerDtoCache customerDtoCache,
+                                      Validator validator,
+                                      PlatformTransactionManager transactionManager,
+                                      @Value("${app.bulk.transaction-size:500}") int transactionSize) {
+        this.customerCommandHandler = customerCommandHandler;
+        this.customerRepository = customerRepository;
+        this.customerStatisticsService = customerStatisticsService;
+        this.customerNameIndex = customerNameIndex;
+        this.customerDuplicateService = customerDuplicateService;
+        this.customerEventRecorder = customerEventRecorder;
+        this.customerChangeFeedService = customerChangeFeedService;
+        this.customerDtoCache = customerDtoCache;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionSize = transactionSize;
+    }
+
+    public BulkCreateResultDTO handle(BulkCreateCustomersCommand command) {
+        List<CreateCustomerCommand> records = command.getCustomers();
+        log.debug("Handling BulkCreateCustomersCommand with {} records", records.size());
+
+        BulkCreateResultDTO.RecordResult[] results = new BulkCreateResultDTO.RecordResult[records.size()];
+        List<Integer> valid = validate(records, results);
+        List<Integer> unique = checkUniqueness(records, valid, results);
+
+        // Index of the record -> customer ready to insert
+        Map<Integer, Customer> accepted = new LinkedHashMap<>();
+        for (Integer index : unique) {
+            try {
+                accepted.put(index, customerCommandHandler.newCustomer(records.get(index)));
+            } catch (ValidationException ex) {
+                results[index] = failed(index, ex.getMessage());
+            }
+        }
+
+        List<Integer> indexes = new ArrayList<>(accepted.keySet());
+        for (int from = 0; from < indexes.size(); from += transactionSize) {
+            List<Integer> chunk = indexes.subList(from, Math.min(from + transactionSize, indexes.size()));
+            try {
+                insert(chunk.stream().map(accepted::get).toList());
+                for (Integer index : chunk) {
+                    results[index] = created(index, accepted.get(index));
+                }
+            } catch (RuntimeException ex) {
+                log.warn("Bulk insert of {} customers failed, retrying them one by one: {}",
+                        chunk.size(), NestedExceptionUtils.getMostSpecificCause(ex).getMessage());
+                insertOneByOne(records, chunk, results);
+            }
+        }
+
+        List<BulkCreateResultDTO.RecordResult> resultList = Arrays.asList(results);
+        int created = (int) resultList.stream().filter(result -> CREATED.equals(result.getStatus())).count();
+        log.info("Bulk create finished: {} of {} customers created", created, records.size());
+
+        return BulkCreateResultDTO.builder()
+                .total(records.size())
+                .created(created)
+                .failed(records.size() - created)
+                .results(resultList)
+                .build();
+    }
+
+    // Helper methods
+
+    private List<Integer> validate(List<CreateCustomerCommand> records, BulkCreateResultDTO.RecordResult[] results) {
+        List<Integer> valid = new ArrayList<>();
+        for (int index = 0; index < records.size(); index++) {
+            CreateCustomerCommand record = records.get(index);
+            if (record == null) {
+                results[index] = failed(index, "Customer record is empty");
+                continue;
+            }
+
+            Set<ConstraintViolation<CreateCustomerCommand>> violations = validator.validate(record);
+            if (violations.isEmpty()) {
+                valid.add(index);
+            } else {
+                results[index] = failed(index, violations.stream()
+                        .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+            }
+        }
+        return valid;
+    }
+
+    /**
+     * Same rule as a single create (email or primary phone taken), applied to the existing customers
+     * with one filtered lookup for the whole request, and to earlier records of the same request
+     */
+    private List<Integer> checkUniqueness(List<CreateCustomerCommand> records, List<Integer> candidates,
+                                          BulkCreateResultDTO.RecordResult[] results) {
+        List<String> emails = new ArrayList<>();
+        List<String> phones = new ArrayList<>();
+        for (Integer index : candidates) {
+            emails.add(records.get(index).getEmail());
+            phones.add(records.get(index).getPrimaryPhone());
+        }
+        CustomerDuplicateService.Taken taken = customerDuplicateService.findTaken(emails, phones);
+
+        List<Integer> unique = new ArrayList<>();
+        for (Integer index : candidates) {
+            CreateCustomerCommand record = records.get(index);
+            if (taken.contains(record.getEmail(), record.getPrimaryPhone())) {
+                results[index] = failed(index, DUPLICATE);
+                continue;
+            }
+            unique.add(index);
+            taken.add(record.getEmail(), record.getPrimaryPhone());
+        }
+        return unique;
+    }
+
+    private void insertOneByOne(List<CreateCustomerCommand> records, List<Integer> chunk,
+                                BulkCreateResultDTO.RecordResult[] results) {
+        for (Integer index : chunk) {
+            // Rebuilt: the rolled back entity already went through its persist callbacks
+            Customer customer = customerCommandHandler.newCustomer(records.get(index));
+            try {
+                insert(List.of(customer));
+                results[index] = created(index, customer);
+            } catch (RuntimeException ex) {
+                results[index] = failed(index, NestedExceptionUtils.getMostSpecificCause(ex).getMessage());
+            }
+        }
+    }
+
+    private void insert(List<Customer> customers) {
+        transactionTemplate.executeWithoutResult(status -> {
+            customerRepository.saveAll(customers);
+            customerNameIndex.indexNew(customers);
+
+            Contribution added = Contribution.NONE;
+            for (Customer customer : customers) {
+                added = added.plus(Contribution.of(customer));
+            }
+            customerStatisticsService.recordChange(Contribution.NONE, added);
+            for (Customer customer : customers) {
+                customerDuplicateService.register(customer.getEmail(), customer.getPrimaryPhone());
+                customerEventRecorder.created(customer);
+            }
+            customerChangeFeedService.changed();
+            customerDtoCache.createdAfterCommit();
+        });
+    }
+
+    private BulkCreateResultDTO.RecordResult created(int index, Customer customer) {
+        return BulkCreateResultDTO.RecordResult.builder()
+                .index(index)
+                .status(CREATED)
+                .customerId(customer.getCustomerId())
+                .build();
+    }
+
+    private BulkCreateResultDTO.RecordResult failed(int index, String error) {
+        return BulkCreateResultDTO.RecordResult.builder()
+                .index(index)
+                .status(FAILED)
+                .error(error)
+                .build();
+    }
+}
@@ -2,18 +2,29 @@ package com.backbase.customer_master.application.command.handler;
 
 import com.backbase.customer_master.application.command.model.*;
 import com.backbase.customer_master.common.exception.*;
+import com.backbase.customer_master.common.id.IdGenerator;
 import com.backbase.customer_master.domain.model.*;
 import com.backbase.customer_master.domain.repository.*;
+import com.backbase.customer_master.domain.service.CustomerChangeFeedService;
+import com.backbase.customer_master.domain.service.CustomerDtoCache;
+import com.backbase.customer_master.domain.service.CustomerDuplicateService;
+import com.backbase.customer_master.domain.service.CustomerEventRecorder;
+import com.backbase.customer_master.domain.service.CustomerStatisticsService;
+import com.backbase.customer_master.domain.service.CustomerStatisticsService.Contribution;
 import com.backbase.customer_master.presentation.dto.CustomerDTO;
 import com.backbase.customer_master.infrastructure.persistence.mapper.CustomerMapper;
+import com.backbase.customer_master.infrastructure.persistence.reference.ReferenceDataRegistry;
+import com.backbase.customer_master.infrastructure.persistence.search.CustomerNameIndex;
+import com.backbase.customer_master.infrastructure.metrics.SqlBudget;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.util.UUID;
+import java.util.Map;
 
 @Component
 @RequiredArgsConstructor
@@ -24,32 +35,63 @@ public class CustomerCommandHandler {
     private final CustomerRepository customerRepository;
     private final CustomerMapper customerMapper;
 
-    // Reference data repositories
-    private final GenderRepository genderRepository;
-    private final CountryRepository countryRepository;
-    private final MaritalStatusRepository maritalStatusRepository;
-    private final ClientTypeRepository clientTypeRepository;
-    private final CategoryRepository categoryRepository;
-    private final OccupationRepository occupationRepository;
-    private final IndustryRepository industryRepository;
-    private final BusinessClassificationRepository businessClassificationRepository;
-    private final EconomicSectorRepository economicSectorRepository;
-    private final LanguageRepository languageRepository;
-    private final ContactChannelRepository contactChannelRepository;
-    private final CustomerSegmentRepository customerSegmentRepository;
+    // Reference data lookups (in-memory, falls back to repositories on miss)
+    private final ReferenceDataRegistry referenceDataRegistry;
 
+    // Incremental statistics snapshot, updated in the same transaction as the customer row
+    private final CustomerStatisticsService customerStatisticsService;
+
+    // Name-search trigram index, updated in the same transaction as the customer row
+    private final CustomerNameIndex customerNameIndex;
+
+    // Time-ordered primary keys
+    private final IdGenerator idGenerator;
+
+    // Email/phone duplicate detection (Bloom filter + indexed lookups)
+    private final CustomerDuplicateService customerDuplicateService;
+
+    // Event outbox, appended in the same transaction as the customer row
+    private final CustomerEventRecorder customerEventRecorder;
+
+    // Wakes change feed long polls once the write commits
+    private final CustomerChangeFeedService customerChangeFeedService;
+
+    // Near-cache of full customer DTOs, evicted once the write commits
+    private final CustomerDtoCache customerDtoCache;
+
+    @SqlBudget(statements = 14)
     public CustomerDTO handle(CreateCustomerCommand command) {
         log.debug("Handling CreateCustomerCommand for: {}", command.getFullName());
 
         // Validate uniqueness
-        if (command.getEmail() != null &&
-                customerRepository.existsByEmailOrPrimaryPhone(command.getEmail(), command.getPrimaryPhone())) {
+        if (customerDuplicateService.exists(command.getEmail(), command.getPrimaryPhone())) {
             throw new CustomerAlreadyExistsException("Customer already exists with email or phone number");
         }
 
-        // Build customer entity
+        Customer customer = newCustomer(command);
+
+        // Save customer
+        Customer savedCustomer = customerRepository.save(customer);
+        customerStatisticsService.recordChange(Contribution.NONE, Contribution.of(savedCustomer));
+        customerNameIndex.index(savedCustomer);
+        customerDuplicateService.register(savedCustomer.getEmail(), savedCustomer.getPrimaryPhone());
+        customerEventRecorder.created(savedCustomer);
+        customerDtoCache.createdAfterCommit();
+        customerChangeFeedService.changed();
+
+        log.info("Customer created with ID: {}", savedCustomer.getCustomerId());
+        return customerMapper.toDTO(savedCustomer);
+    }
+
+    /**
+     * Build an unsaved customer from the command, resolving its reference codes.
+     * Throws ValidationException for an unknown code.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Customer newCustomer(CreateCustomerCommand command) {
+        // versionNo left null so save() persists instead of merging; Customer.onCreate initialises it
         Customer customer = Customer.builder()
-                .customerId(UUID.randomUUID())
+                .customerId(idGenerator.generate())
                 .cifStatus(command.getCifStatus())
                 .fullName(command.getFullName())
                 .dateOfBirth(command.getDateOfBirth())
@@ -67,7 +109,6 @@ public class CustomerCommandHandler {
                 .cifCreatedDate(command.getCifCreatedDate())
                 .notes(command.getNotes())
                 .customerClassification(command.getCustomerClassification())
-                .versionNo(0)
                 .createdAt(LocalDateTime.now())
                 .createdBy(command.getCreatedBy())
                 .updatedAt(LocalDateTime.now())
@@ -79,19 +120,19 @@ public class CustomerCommandHandler {
         // Set reference data
         setReferenceData(customer, command);
 
-        // Save customer
-        Customer savedCustomer = customerRepository.save(customer);
-
-        log.info("Customer created with ID: {}", savedCustomer.getCustomerId());
-        return customerMapper.toDTO(savedCustomer);
+        return customer;
     }
 
+    @SqlBudget(statements = 22)
     public CustomerDTO handle(UpdateCustomerCommand command) {
         log.debug("Handling UpdateCustomerCommand for customer: {}", command.getCustomerId());
 
         Customer customer = customerRepository.findById(command.getCustomerId())
                 .orElseThrow(() -> new CustomerNotFoundException("Customer not found with ID: " + command.getCustomerId()));
 
+        Contribution before = Contribution.of(customer);
+        Map<String, String> snapshot = CustomerEventRecorder.snapshot(customer);
+
         try {
             // Update basic fields
             if (command.getFullName() != null) {
@@ -149,6 +190,16 @@ public class CustomerCommandHandler {
             }
 
             Customer savedCustomer = customerRepository.save(customer);
+            customerStatisticsService.recordChange(before, Contribution.of(savedCustomer));
+            if (command.getFullName() != null) {
+                customerNameIndex.index(savedCustomer);
+            }
+            if (command.getEmail() != null) {
+                customerDuplicateService.register(savedCustomer.getEmail(), null);
+            }
+            customerEventRecorder.updated(snapshot, savedCustomer, command.getUpdatedBy());
+            customerDtoCache.evictAfterCommit(savedCustomer);
+            customerChangeFeedService.changed();
 
             log.info("Customer updated: {}", savedCustomer.getCustomerId());
             return customerMapper.toDTO(savedCustomer);
@@ -158,46 +209,67 @@ public class CustomerCommandHandler {
         }
     }
 
+    @SqlBudget(statements = 22)
     public CustomerDTO handle(UpdateCustomerStatusCommand command) {
         log.debug("Handling UpdateCustomerStatusCommand for customer: {}", command.getCustomerId());
 
         Customer customer = customerRepository.findById(command.getCustomerId())
                 .orElseThrow(() -> new CustomerNotFoundException("Customer not found with ID: " + command.getCustomerId()));
 
+        Contribution before = Contribution.of(customer);
+        Map<String, String> snapshot = CustomerEventRecorder.snapshot(customer);
         customer.updateStatus(command.getStatus());
         if (command.getLastModifiedBy() != null) {
             customer.setUpdatedBy(command.getLastModifiedBy());
         }
 
         Customer savedCustomer = customerRepository.save(customer);
+        customerStatisticsService.recordChange(before, Contribution.of(savedCustomer));
+        customerEventRecorder.updated(snapshot, savedCustomer, command.getLastModifiedBy());
+        customerDtoCache.evictAfterCommit(savedCustomer);
+        customerChangeFeedService.changed();
 
         log.info("Customer status updated to: {} for customer: {}", command.getStatus(), command.getCustomerId());
         return customerMapper.toDTO(savedCustomer);
     }
 
+    @SqlBudget(statements = 14)
     public void handle(DeactivateCustomerCommand command) {
         log.debug("Handling DeactivateCustomerCommand for customer: {}", command.getCustomerId());
 
         Customer customer = customerRepository.findById(command.getCustomerId())
                 .orElseThrow(() -> new CustomerNotFoundException("Customer not found with ID: " + command.getCustomerId()));
 
+        Contribution before = Contribution.of(customer);
+        Map<String, String> snapshot = CustomerEventRecorder.snapshot(customer);
         customer.updateStatus("INACTIVE");
         if (command.getLastModifiedBy() != null) {
             customer.setUpdatedBy(command.getLastModifiedBy());
         }
 
-        customerRepository.save(customer);
+        Customer savedCustomer = customerRepository.save(customer);
+        customerStatisticsService.recordChange(before, Contribution.of(savedCustomer));
+        customerEventRecorder.updated(snapshot, savedCustomer, command.getLastModifiedBy());
+        customerDtoCache.evictAfterCommit(savedCustomer);
+        customerChangeFeedService.changed();
 
         log.info("Customer deactivated: {}", command.getCustomerId());
     }
 
+    @SqlBudget(statements = 32)
     public void handle(DeleteCustomerCommand command) {
         log.warn("Handling DeleteCustomerCommand for customer: {}", command.getCustomerId());
 
         Customer customer = customerRepository.findById(command.getCustomerId())
                 .orElseThrow(() -> new CustomerNotFoundException("Customer not found with ID: " + command.getCustomerId()));
 
+        Contribution before = Contribution.of(customer);
+        Map<String, String> snapshot = CustomerEventRecorder.snapshot(customer);
         customerRepository.delete(customer);
+        customerNameIndex.remove(command.getCustomerId());
+        customerStatisticsService.recordChange(before, Contribution.NONE);
+        customerEventRecorder.deleted(snapshot, customer, command.getLastModifiedBy());
+        customerDtoCache.evictDeletedAfterCommit(command.getCustomerId());
 
         log.warn("Customer hard deleted: {}", command.getCustomerId());
     }
@@ -206,84 +278,84 @@ public class CustomerCommandHandler {
     private void setReferenceData(Customer customer, CreateCustomerCommand command) {
         // Set gender
         if (command.getGenderCode() != null) {
-            Gender gender = genderRepository.findByGenderCode(command.getGenderCode())
+            Gender gender = referenceDataRegistry.findGender(command.getGenderCode())
                     .orElseThrow(() -> new ValidationException("Invalid gender code: " + command.getGenderCode()));
             customer.setGender(gender);
         }
 
         // Set nationality
         if (command.getNationalityCode() != null) {
-            Country nationality = countryRepository.findByCountryCode(command.getNationalityCode())
+            Country nationality = referenceDataRegistry.findCountry(command.getNationalityCode())
                     .orElseThrow(() -> new ValidationException("Invalid nationality code: " + command.getNationalityCode()));
             customer.setNationality(nationality);
         }
 
         // Set marital status
         if (command.getMaritalStatusCode() != null) {
-            MaritalStatus maritalStatus = maritalStatusRepository.findByMaritalStatusCode(command.getMaritalStatusCode())
+            MaritalStatus maritalStatus = referenceDataRegistry.findMaritalStatus(command.getMaritalStatusCode())
                     .orElseThrow(() -> new ValidationException("Invalid marital status code: " + command.getMaritalStatusCode()));
             customer.setMaritalStatus(maritalStatus);
         }
 
         // Set client type
         if (command.getClientTypeCode() != null) {
-            ClientType clientType = clientTypeRepository.findByClientTypeCode(command.getClientTypeCode())
+            ClientType clientType = referenceDataRegistry.findClientType(command.getClientTypeCode())
                     .orElseThrow(() -> new ValidationException("Invalid client type code: " + command.getClientTypeCode()));
             customer.setClientType(clientType);
         }
 
         // Set category
         if (command.getCategoryCode() != null) {
-            Category category = categoryRepository.findByCategoryCode(command.getCategoryCode())
+            Category category = referenceDataRegistry.findCategory(command.getCategoryCode())
                     .orElseThrow(() -> new ValidationException("Invalid category code: " + command.getCategoryCode()));
             customer.setCategory(category);
         }
 
         // Set occupation
         if (command.getOccupationCode() != null) {
-            Occupation occupation = occupationRepository.findByOccupationCode(command.getOccupationCode())
+            Occupation occupation = referenceDataRegistry.findOccupation(command.getOccupationCode())
                     .orElseThrow(() -> new ValidationException("Invalid occupation code: " + command.getOccupationCode()));
             customer.setOccupation(occupation);
         }
 
         // Set industry
         if (command.getIndustryCode() != null) {
-            Industry industry = industryRepository.findByIndustryCode(command.getIndustryCode())
+            Industry industry = referenceDataRegistry.findIndustry(command.getIndustryCode())
                     .orElseThrow(() -> new ValidationException("Invalid industry code: " + command.getIndustryCode()));
             customer.setClassificationIndustry(industry);
         }
 
         // Set business classification
         if (command.getBusinessClassCode() != null) {
-            BusinessClassification businessClass = businessClassificationRepository.findByBusinessClassCode(command.getBusinessClassCode())
+            BusinessClassification businessClass = referenceDataRegistry.findBusinessClassification(command.getBusinessClassCode())
                     .orElseThrow(() -> new ValidationException("Invalid business class code: " + command.getBusinessClassCode()));
             customer.setClassificationBusiness(businessClass);
         }
 
         // Set economic sector
         if (command.getSectorCode() != null) {
-            EconomicSector sector = economicSectorRepository.findBySectorCode(command.getSectorCode())
+            EconomicSector sector = referenceDataRegistry.findEconomicSector(command.getSectorCode())
                     .orElseThrow(() -> new ValidationException("Invalid sector code: " + command.getSectorCode()));
             customer.setClassificationSector(sector);
         }
 
         // Set preferred language
         if (command.getPreferredLanguageCode() != null) {
-            Language language = languageRepository.findByLanguageCode(command.getPreferredLanguageCode())
+            Language language = referenceDataRegistry.findLanguage(command.getPreferredLanguageCode())
                     .orElseThrow(() -> new ValidationException("Invalid language code: " + command.getPreferredLanguageCode()));
             customer.setPreferredLanguage(language);
         }
 
         // Set contact channel
         if (command.getContactChannelCode() != null) {
-            ContactChannel channel = contactChannelRepository.findByContactChannelCode(command.getContactChannelCode())
+            ContactChannel channel = referenceDataRegistry.findContactChannel(command.getContactChannelCode())
                     .orElseThrow(() -> new ValidationException("Invalid contact channel code: " + command.getContactChannelCode()));
             customer.setPreferredContactChannel(channel);
         }
 
         // Set customer segment
         if (command.getSegmentCode() != null) {
-            CustomerSegment segment = customerSegmentRepository.findBySegmentCode(command.getSegmentCode())
+            CustomerSegment segment = referenceDataRegistry.findCustomerSegment(command.getSegmentCode())
                     .orElseThrow(() -> new ValidationException("Invalid segment code: " + command.getSegmentCode()));
             customer.setCustomerSegment(segment);
         }
@@ -292,56 +364,56 @@ public class CustomerCommandHandler {
     private void updateReferenceData(Customer customer, UpdateCustomerCommand command) {
         // Update marital status
         if (command.getMaritalStatusCode() != null) {
-            MaritalStatus maritalStatus = maritalStatusRepository.findByMaritalStatusCode(command.getMaritalStatusCode())
+            MaritalStatus maritalStatus = referenceDataRegistry.findMaritalStatus(command.getMaritalStatusCode())
                     .orElseThrow(() -> new ValidationException("Invalid marital status code"));
             customer.setMaritalStatus(maritalStatus);
         }
 
         // Update occupation
         if (command.getOccupationCode() != null) {
-            Occupation occupation = occupationRepository.findByOccupationCode(command.getOccupationCode())
+            Occupation occupation = referenceDataRegistry.findOccupation(command.getOccupationCode())
                     .orElseThrow(() -> new ValidationException("Invalid occupation code"));
             customer.setOccupation(occupation);
         }
 
         // Update industry
         if (command.getIndustryCode() != null) {
-            Industry industry = industryRepository.findByIndustryCode(command.getIndustryCode())
+            Industry industry = referenceDataRegistry.findIndustry(command.getIndustryCode())
                     .orElseThrow(() -> new ValidationException("Invalid industry code"));
             customer.setClassificationIndustry(industry);
         }
 
         // Update business classification
         if (command.getBusinessClassCode() != null) {
-            BusinessClassification businessClass = businessClassificationRepository.findByBusinessClassCode(command.getBusinessClassCode())
+            BusinessClassification businessClass = referenceDataRegistry.findBusinessClassification(command.getBusinessClassCode())
                     .orElseThrow(() -> new ValidationException("Invalid business class code"));
             customer.setClassificationBusiness(businessClass);
         }
 
         // Update economic sector
         if (command.getSectorCode() != null) {
-            EconomicSector sector = economicSectorRepository.findBySectorCode(command.getSectorCode())
+            EconomicSector sector = referenceDataRegistry.findEconomicSector(command.getSectorCode())
                     .orElseThrow(() -> new ValidationException("Invalid sector code"));
             customer.setClassificationSector(sector);
         }
 
         // Update preferred language
         if (command.getPreferredLanguageCode() != null) {
-            Language language = languageRepository.findByLanguageCode(command.getPreferredLanguageCode())
+            Language language = referenceDataRegistry.findLanguage(command.getPreferredLanguageCode())
                     .orElseThrow(() -> new ValidationException("Invalid language code"));
             customer.setPreferredLanguage(language);
         }
 
         // Update contact channel
         if (command.getContactChannelCode() != null) {
-            ContactChannel channel = contactChannelRepository.findByContactChannelCode(command.getContactChannelCode())
+            ContactChannel channel = referenceDataRegistry.findContactChannel(command.getContactChannelCode())
                     .orElseThrow(() -> new ValidationException("Invalid contact channel code"));
             customer.setPreferredContactChannel(channel);
         }
 
         // Update customer segment
         if (command.getSegmentCode() != null) {
-            CustomerSegment segment = customerSegmentRepository.findBySegmentCode(command.getSegmentCode())
+            CustomerSegment segment = referenceDataRegistry.findCustomerSegment(command.getSegmentCode())
                     .orElseThrow(() -> new ValidationException("Invalid segment code"));
             customer.setCustomerSegment(segment);
         }
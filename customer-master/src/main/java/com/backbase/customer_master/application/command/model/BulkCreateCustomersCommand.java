@@ -0,0 +1,25 @@
+package com.backbase.customer_master.application.command.model;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Command to create many customers at once (onboarding, migration).
+ * Records are validated one by one, so an invalid record fails on its own instead of the request.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkCreateCustomersCommand {
+
+    @NotEmpty(message = "At least one customer is required")
+    @Size(max = 5000, message = "At most 5000 customers per request")
+    private List<CreateCustomerCommand> customers;
+}
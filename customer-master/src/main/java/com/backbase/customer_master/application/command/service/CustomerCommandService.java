@@ -1,7 +1,9 @@
 package com.backbase.customer_master.application.command.service;
 
+import com.backbase.customer_master.application.command.handler.CustomerBulkCommandHandler;
 import com.backbase.customer_master.application.command.handler.CustomerCommandHandler;
 import com.backbase.customer_master.application.command.model.*;
+import com.backbase.customer_master.presentation.dto.BulkCreateResultDTO;
 import com.backbase.customer_master.presentation.dto.CustomerDTO;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -17,6 +19,7 @@ import org.springframework.stereotype.Service;
 public class CustomerCommandService {
 
     private final CustomerCommandHandler customerCommandHandler;
+    private final CustomerBulkCommandHandler customerBulkCommandHandler;
 
     /**
      * Create a new customer
@@ -26,6 +29,14 @@ public class CustomerCommandService {
         return customerCommandHandler.handle(command);
     }
 
+    /**
+     * Create many customers, reporting the outcome of each record
+     */
+    public BulkCreateResultDTO bulkCreateCustomers(BulkCreateCustomersCommand command) {
+        log.info("Processing bulk create customers command with {} records", command.getCustomers().size());
+        return customerBulkCommandHandler.handle(command);
+    }
+
     /**
      * Update an existing customer
      */
@@ -2,17 +2,31 @@ package com.backbase.customer_master.application.query.handler;
 
 import com.backbase.customer_master.application.query.model.*;
 import com.backbase.customer_master.common.exception.CustomerNotFoundException;
+import com.backbase.customer_master.domain.model.Customer;
+import com.backbase.customer_master.domain.service.CustomerChangeFeedService;
 import com.backbase.customer_master.domain.service.CustomerDomainService;
+import com.backbase.customer_master.domain.service.CustomerDtoCache;
+import com.backbase.customer_master.infrastructure.metrics.SqlBudget;
+import com.backbase.customer_master.infrastructure.persistence.pagination.CursorPageRequest;
+import com.backbase.customer_master.infrastructure.persistence.specification.CustomerSpecifications;
+import com.backbase.customer_master.presentation.dto.BatchGetResultDTO;
+import com.backbase.customer_master.presentation.dto.CursorPageDTO;
 import com.backbase.customer_master.presentation.dto.CustomerDTO;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * Query Handler sử dụng CustomerDomainService
@@ -25,22 +39,33 @@ import java.util.UUID;
 public class CustomerQueryHandler {
 
     private final CustomerDomainService customerDomainService;
+    private final CustomerChangeFeedService customerChangeFeedService;
+    private final CustomerDtoCache customerDtoCache;
 
     /**
      * Handle GetCustomerByIdQuery - trả về customer đầy đủ thông tin
+     * Đọc từ near-cache trước; cache hit không mở transaction, cache miss thì domain service tự mở
      */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    @SqlBudget(statements = 6)
     public CustomerDTO handle(GetCustomerByIdQuery query) {
         log.debug("Handling GetCustomerByIdQuery for customer ID: {}", query.getCustomerId());
 
         UUID customerId = parseCustomerId(query.getCustomerId());
 
+        CustomerDTO cached = customerDtoCache.get(customerId);
+        if (cached != null) {
+            return cached;
+        }
         return customerDomainService.findCustomerById(customerId)
+                .map(customerDtoCache::put)
                 .orElseThrow(() -> new CustomerNotFoundException("Customer not found with ID: " + query.getCustomerId()));
     }
 
     /**
      * Handle GetCustomerBasicByIdQuery - trả về customer thông tin cơ bản
      */
+    @SqlBudget(statements = 6)
     public CustomerDTO handle(GetCustomerBasicByIdQuery query) {
         log.debug("Handling GetCustomerBasicByIdQuery for customer ID: {}", query.getCustomerId());
 
@@ -53,6 +78,7 @@ public class CustomerQueryHandler {
     /**
      * Handle GetAllCustomersQuery - trả về danh sách customer với pagination
      */
+    @SqlBudget(statements = 10)
     public Page<CustomerDTO> handle(GetAllCustomersQuery query) {
         log.debug("Handling GetAllCustomersQuery with pagination");
 
@@ -62,6 +88,7 @@ public class CustomerQueryHandler {
     /**
      * Handle SearchCustomersByNameQuery - tìm kiếm customer theo tên
      */
+    @SqlBudget(statements = 10)
     public Page<CustomerDTO> handle(SearchCustomersByNameQuery query) {
         log.debug("Handling SearchCustomersByNameQuery for name: {}", query.getName());
 
@@ -71,6 +98,7 @@ public class CustomerQueryHandler {
     /**
      * Handle GetCustomersByBranchQuery - lấy customer theo chi nhánh
      */
+    @SqlBudget(statements = 10)
     public Page<CustomerDTO> handle(GetCustomersByBranchQuery query) {
         log.debug("Handling GetCustomersByBranchQuery for branch: {}", query.getBranchId());
 
@@ -83,15 +111,134 @@ public class CustomerQueryHandler {
     /**
      * Handle GetCustomersByTypeQuery - lấy customer theo loại
      */
+    @SqlBudget(statements = 10)
     public Page<CustomerDTO> handle(GetCustomersByTypeQuery query) {
         log.debug("Handling GetCustomersByTypeQuery for type: {}", query.getCustomerType());
 
         return customerDomainService.findCustomersByType(query.getCustomerType(), query.getPageable());
     }
 
+    /**
+     * Handle GetCustomersByCursorQuery - lấy customer theo cursor (keyset pagination)
+     */
+    @SqlBudget(statements = 10)
+    public CursorPageDTO<CustomerDTO> handle(GetCustomersByCursorQuery query) {
+        log.debug("Handling GetCustomersByCursorQuery - name: {}, type: {}, segment: {}",
+                query.getName(), query.getCustomerType(), query.getCustomerSegment());
+
+        if (query.getName() != null) {
+            return customerDomainService.searchCustomersByName(query.getName(), query.getPageRequest());
+        }
+        if (query.getCustomerType() != null) {
+            return customerDomainService.findCustomersByType(query.getCustomerType(), query.getPageRequest());
+        }
+        if (query.getCustomerSegment() != null) {
+            return customerDomainService.findCustomersBySegment(query.getCustomerSegment(), query.getPageRequest());
+        }
+        return customerDomainService.findAllCustomers(query.getPageRequest());
+    }
+
+    /**
+     * Handle GetCustomerChangesQuery - change feed theo cursor (updated_at, customer_id), long-poll nếu chưa có thay đổi
+     */
+    public CompletableFuture<CursorPageDTO<CustomerDTO>> handle(GetCustomerChangesQuery query) {
+        log.debug("Handling GetCustomerChangesQuery - size: {}, wait: {} ms", query.getSize(), query.getWaitMs());
+
+        CursorPageRequest pageRequest = customerChangeFeedService.pageRequest(query.getCursor(), query.getSize());
+        return customerChangeFeedService.awaitChanges(pageRequest, query.getWaitMs());
+    }
+
+    /**
+     * Handle ExportCustomersQuery - stream customer theo bộ lọc kết hợp
+     */
+    public long handle(ExportCustomersQuery query, Consumer<CustomerDTO> sink) {
+        log.debug("Handling ExportCustomersQuery: {}", query);
+
+        Specification<Customer> spec = Specification
+                .where(query.getStatus() != null
+                        ? CustomerSpecifications.hasCifStatus(query.getStatus())
+                        : CustomerSpecifications.excludeClosed())
+                .and(CustomerSpecifications.hasFullNameContaining(query.getName()))
+                .and(CustomerSpecifications.hasClientTypeCode(query.getClientType()))
+                .and(CustomerSpecifications.hasSegmentCode(query.getSegment()))
+                .and(CustomerSpecifications.hasCategoryCode(query.getCategory()))
+                .and(CustomerSpecifications.hasOccupationCode(query.getOccupation()))
+                .and(CustomerSpecifications.hasIndustryCode(query.getIndustry()))
+                .and(CustomerSpecifications.hasBusinessClassCode(query.getBusinessClass()))
+                .and(CustomerSpecifications.hasSectorCode(query.getSector()))
+                .and(CustomerSpecifications.hasLanguageCode(query.getLanguage()))
+                .and(CustomerSpecifications.hasContactChannelCode(query.getContactChannel()))
+                .and(CustomerSpecifications.hasRegistrationChannel(query.getRegistrationChannel()))
+                .and(CustomerSpecifications.hasAddressInProvince(query.getProvince()))
+                .and(CustomerSpecifications.hasAddressInDistrict(query.getDistrict()))
+                .and(CustomerSpecifications.hasProductType(query.getProductType()))
+                .and(CustomerSpecifications.isInternalClient(query.getInternalClient()))
+                .and(CustomerSpecifications.isTaxable(query.getTaxable()))
+                .and(CustomerSpecifications.hasSourceApp(query.getSourceApp()))
+                .and(CustomerSpecifications.createdBetween(
+                        query.getCreatedFrom() != null ? query.getCreatedFrom().atStartOfDay() : null,
+                        query.getCreatedTo() != null ? query.getCreatedTo().plusDays(1).atStartOfDay() : null))
+                .and(CustomerSpecifications.hasCifCreatedDateBetween(query.getCifCreatedFrom(), query.getCifCreatedTo()));
+
+        return customerDomainService.streamCustomers(spec, sink);
+    }
+
+    /**
+     * Handle BatchGetCustomersQuery - lấy nhiều customer theo danh sách ID, giữ nguyên thứ tự yêu cầu
+     * ID sai định dạng được báo lỗi riêng, không làm hỏng cả request
+     */
+    public BatchGetResultDTO handle(BatchGetCustomersQuery query) {
+        List<BatchGetResultDTO.ItemResult> results = new ArrayList<>(query.getCustomerIds().size());
+        long found = handle(query, results::add);
+
+        List<String> missingIds = results.stream()
+                .filter(result -> BatchGetResultDTO.ItemResult.NOT_FOUND.equals(result.getStatus()))
+                .map(BatchGetResultDTO.ItemResult::getCustomerId)
+                .toList();
+        return BatchGetResultDTO.builder()
+                .total(results.size())
+                .found(Math.toIntExact(found))
+                .missingIds(missingIds)
+                .invalid(results.size() - Math.toIntExact(found) - missingIds.size())
+                .results(results)
+                .build();
+    }
+
+    /**
+     * Handle BatchGetCustomersQuery - stream kết quả từng ID theo thứ tự yêu cầu
+     *
+     * @return số customer tìm thấy
+     */
+    public long handle(BatchGetCustomersQuery query, Consumer<BatchGetResultDTO.ItemResult> sink) {
+        log.debug("Handling BatchGetCustomersQuery for {} IDs", query.getCustomerIds().size());
+
+        List<String> requested = query.getCustomerIds();
+        List<UUID> customerIds = new ArrayList<>(requested.size());
+        String[] errors = new String[requested.size()];
+        for (int i = 0; i < requested.size(); i++) {
+            try {
+                customerIds.add(parseCustomerId(requested.get(i)));
+            } catch (IllegalArgumentException e) {
+                customerIds.add(null);
+                errors[i] = e.getMessage();
+            }
+        }
+
+        long[] found = new long[1];
+        customerDomainService.findCustomersByIds(customerIds, query.getView() == BatchGetCustomersQuery.View.SUMMARY,
+                (customer, index) -> {
+                    if (customer != null) {
+                        found[0]++;
+                    }
+                    sink.accept(itemResult(index, requested.get(index), customer, errors[index]));
+                });
+        return found[0];
+    }
+
     /**
      * Handle GetCustomersByStatusQuery - lấy customer theo trạng thái
      */
+    @SqlBudget(statements = 10)
     public List<CustomerDTO> handle(GetCustomersByStatusQuery query) {
         log.debug("Handling GetCustomersByStatusQuery for status: {}", query.getStatus());
 
@@ -103,30 +250,42 @@ public class CustomerQueryHandler {
     }
 
     /**
-     * Handle FindCustomerByEmailQuery - tìm customer theo email
+     * Handle FindCustomerByEmailQuery - tìm customer theo email (qua near-cache)
      */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    @SqlBudget(statements = 6)
     public Optional<CustomerDTO> handle(FindCustomerByEmailQuery query) {
         log.debug("Handling FindCustomerByEmailQuery");
 
-        return customerDomainService.findCustomerByEmail(query.getEmail());
+        if (query.getEmail() == null) {
+            return customerDomainService.findCustomerByEmail(null);
+        }
+        return findCached(CustomerDtoCache.EMAIL_KEY + query.getEmail().toLowerCase(),
+                () -> customerDomainService.findCustomerByEmail(query.getEmail()));
     }
 
     /**
-     * Handle FindCustomerByPhoneNumberQuery - tìm customer theo số điện thoại
+     * Handle FindCustomerByPhoneNumberQuery - tìm customer theo số điện thoại (qua near-cache)
      */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    @SqlBudget(statements = 6)
     public Optional<CustomerDTO> handle(FindCustomerByPhoneNumberQuery query) {
         log.debug("Handling FindCustomerByPhoneNumberQuery");
 
-        return customerDomainService.findCustomerByPhoneNumber(query.getPhoneNumber());
+        return findCached(CustomerDtoCache.PHONE_KEY + query.getPhoneNumber(),
+                () -> customerDomainService.findCustomerByPhoneNumber(query.getPhoneNumber()));
     }
 
     /**
-     * Handle FindCustomerByIdentificationNumberQuery - tìm customer theo số CMND/CCCD
+     * Handle FindCustomerByIdentificationNumberQuery - tìm customer theo số CMND/CCCD (qua near-cache)
      */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    @SqlBudget(statements = 6)
     public Optional<CustomerDTO> handle(FindCustomerByIdentificationNumberQuery query) {
         log.debug("Handling FindCustomerByIdentificationNumberQuery");
 
-        return customerDomainService.findCustomerByIdentificationNumber(query.getIdentificationNumber());
+        return findCached(CustomerDtoCache.IDENTIFICATION_KEY + query.getIdentificationNumber(),
+                () -> customerDomainService.findCustomerByIdentificationNumber(query.getIdentificationNumber()));
     }
 
     /**
@@ -183,6 +342,7 @@ public class CustomerQueryHandler {
     /**
      * Handle GetCustomersBySegmentQuery - lấy customer theo phân khúc
      */
+    @SqlBudget(statements = 10)
     public Page<CustomerDTO> handle(GetCustomersBySegmentQuery query) {
         log.debug("Handling GetCustomersBySegmentQuery for segment: {}", query.getCustomerSegment());
 
@@ -192,6 +352,7 @@ public class CustomerQueryHandler {
     /**
      * Handle CountCustomersByStatusQuery - đếm customer theo trạng thái
      */
+    @SqlBudget(statements = 1)
     public Long handle(CountCustomersByStatusQuery query) {
         log.debug("Handling CountCustomersByStatusQuery for status: {}", query.getStatus());
 
@@ -201,6 +362,7 @@ public class CustomerQueryHandler {
     /**
      * Handle CustomerExistsQuery - kiểm tra customer có tồn tại
      */
+    @SqlBudget(statements = 1)
     public Boolean handle(CustomerExistsQuery query) {
         log.debug("Handling CustomerExistsQuery for customer: {}", query.getCustomerId());
 
@@ -463,10 +625,40 @@ public class CustomerQueryHandler {
 
     // Helper methods
 
+    /**
+     * Look up a customer by secondary key in the near-cache, loading and caching it on a miss
+     */
+    private Optional<CustomerDTO> findCached(String key, Supplier<Optional<CustomerDTO>> loader) {
+        CustomerDTO cached = customerDtoCache.getByKey(key);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        return loader.get().map(customer -> customerDtoCache.put(customer, key));
+    }
+
+    /**
+     * Result of one ID of a batch get: the parse error if it had one, else found or not found
+     */
+    private BatchGetResultDTO.ItemResult itemResult(int index, String customerId, CustomerDTO customer, String error) {
+        String status = error != null ? BatchGetResultDTO.ItemResult.INVALID
+                : customer != null ? BatchGetResultDTO.ItemResult.FOUND
+                : BatchGetResultDTO.ItemResult.NOT_FOUND;
+        return BatchGetResultDTO.ItemResult.builder()
+                .index(index)
+                .customerId(customerId)
+                .status(status)
+                .customer(customer)
+                .error(error)
+                .build();
+    }
+
     /**
      * Parse customer ID from String to UUID
      */
     private UUID parseCustomerId(String customerIdStr) {
+        if (customerIdStr == null) {
+            throw new IllegalArgumentException("Customer ID is required");
+        }
         try {
             return UUID.fromString(customerIdStr);
         } catch (IllegalArgumentException e) {
@@ -0,0 +1,34 @@
+package com.backbase.customer_master.application.query.model;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Query for many customers by ID at once (statement generation, reconciliation jobs).
+ * IDs are parsed one by one, so a malformed ID is reported on its own instead of failing the request.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchGetCustomersQuery {
+
+    @NotEmpty(message = "At least one customer ID is required")
+    @Size(max = 5000, message = "At most 5000 customer IDs per request")
+    private List<String> customerIds;
+
+    // BASIC carries the customer row with its gender, nationality, type and segment; SUMMARY only list fields
+    @Builder.Default
+    private View view = View.BASIC;
+
+    public enum View {
+        BASIC,
+        SUMMARY
+    }
+}
@@ -0,0 +1,69 @@
+package com.backbase.customer_master.application.query.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+/**
+ * Query to export customers as a stream.
+ * Every filter is optional and they combine with AND; closed customers are excluded unless
+ * a status is given.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExportCustomersQuery {
+
+    private String status;
+
+    private String name;
+
+    private String clientType;
+
+    private String segment;
+
+    private String category;
+
+    private String occupation;
+
+    private String industry;
+
+    private String businessClass;
+
+    private String sector;
+
+    private String language;
+
+    private String contactChannel;
+
+    private String registrationChannel;
+
+    private String province;
+
+    private String district;
+
+    private String productType;
+
+    private String internalClient;
+
+    private String taxable;
+
+    private String sourceApp;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate createdFrom;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate createdTo;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate cifCreatedFrom;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate cifCreatedTo;
+}
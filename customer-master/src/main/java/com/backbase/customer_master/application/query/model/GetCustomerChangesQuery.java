@@ -0,0 +1,24 @@
+package com.backbase.customer_master.application.query.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Query for the customers changed after a change feed cursor, optionally waiting for new changes
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GetCustomerChangesQuery {
+
+    // Opaque cursor from the previous slice; null starts from the oldest change
+    private String cursor;
+
+    private int size;
+
+    // How long to wait when there are no changes yet; 0 answers at once
+    private long waitMs;
+}
@@ -0,0 +1,28 @@
+package com.backbase.customer_master.application.query.model;
+
+import com.backbase.customer_master.infrastructure.persistence.pagination.CursorPageRequest;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Query to list customers with cursor (keyset) pagination.
+ * At most one filter is set; none means all customers.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GetCustomersByCursorQuery {
+
+    private String name;
+
+    private String customerType;
+
+    private String customerSegment;
+
+    @NotNull(message = "Cursor page request is required")
+    private CursorPageRequest pageRequest;
+}
@@ -2,29 +2,74 @@ package com.backbase.customer_master.application.query.service;
 
 import com.backbase.customer_master.application.query.handler.CustomerQueryHandler;
 import com.backbase.customer_master.application.query.model.*;
+import com.backbase.customer_master.common.concurrent.SingleFlight;
+import com.backbase.customer_master.common.exception.QueryWaitTimeoutException;
 import com.backbase.customer_master.domain.service.CustomerDomainService;
+import com.backbase.customer_master.domain.service.CustomerDtoCache;
+import com.backbase.customer_master.infrastructure.persistence.pagination.CursorPageRequest;
+import com.backbase.customer_master.infrastructure.persistence.routing.ReadYourWritesTracker;
+import com.backbase.customer_master.presentation.dto.BatchGetResultDTO;
+import com.backbase.customer_master.presentation.dto.CursorPageDTO;
 import com.backbase.customer_master.presentation.dto.CustomerDTO;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * Query Service for Customer operations (CQRS Pattern)
  * Acts as a facade/orchestrator for query operations
+ * Lookups of a single customer (by ID, basic by ID, email, phone, identification number) are
+ * coalesced (app.coalescing): identical queries arriving while one is running wait for its result
+ * instead of querying again, for up to wait-timeout-ms. Queries are only merged within one
+ * {@link CustomerDtoCache#generation() generation}, so a lookup made after a command committed
+ * never receives a result read before it; users pinned to the primary after a write query alone.
+ * Metric: customer.query.coalesced{query}.
  */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class CustomerQueryService {
 
     private final CustomerQueryHandler customerQueryHandler;
+    private final CustomerDtoCache customerDtoCache;
+    private final ObjectProvider<ReadYourWritesTracker> readYourWritesTracker;
+    private final MeterRegistry meterRegistry;
+    private final boolean coalescingEnabled;
+    private final Duration coalescingTimeout;
+    private final SingleFlight<FlightKey, Object> singleFlight;
+
+    public CustomerQueryService(CustomerQueryHandler customerQueryHandler,
+                                CustomerDtoCache customerDtoCache,
+                                ObjectProvider<ReadYourWritesTracker> readYourWritesTracker,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.coalescing.enabled:true}") boolean coalescingEnabled,
+                                @Value("${app.coalescing.wait-timeout-ms:5000}") long coalescingTimeoutMs) {
+        this.customerQueryHandler = customerQueryHandler;
+        this.customerDtoCache = customerDtoCache;
+        this.readYourWritesTracker = readYourWritesTracker;
+        this.meterRegistry = meterRegistry;
+        this.coalescingEnabled = coalescingEnabled;
+        this.coalescingTimeout = Duration.ofMillis(coalescingTimeoutMs);
+        this.singleFlight = new SingleFlight<>(key -> Counter.builder("customer.query.coalesced")
+                .description("Queries answered by an identical query already running")
+                .tag("query", key.query().getClass().getSimpleName())
+                .register(this.meterRegistry)
+                .increment());
+    }
 
     // Basic queries
 
@@ -38,7 +83,7 @@ public class CustomerQueryService {
                 .customerId(customerId)
                 .build();
 
-        return customerQueryHandler.handle(query);
+        return coalesce(query, () -> customerQueryHandler.handle(query));
     }
 
     /**
@@ -51,7 +96,7 @@ public class CustomerQueryService {
                 .customerId(customerId)
                 .build();
 
-        return customerQueryHandler.handle(query);
+        return coalesce(query, () -> customerQueryHandler.handle(query));
     }
 
     /**
@@ -109,6 +154,66 @@ public class CustomerQueryService {
         return customerQueryHandler.handle(query);
     }
 
+    /**
+     * Get customers with cursor pagination, optionally filtered by name, type or segment
+     */
+    public CursorPageDTO<CustomerDTO> getCustomersByCursor(String name, String customerType, String customerSegment,
+                                                           CursorPageRequest pageRequest) {
+        log.debug("Processing get customers by cursor query - name: {}, type: {}, segment: {}",
+                name, customerType, customerSegment);
+
+        GetCustomersByCursorQuery query = GetCustomersByCursorQuery.builder()
+                .name(name)
+                .customerType(customerType)
+                .customerSegment(customerSegment)
+                .pageRequest(pageRequest)
+                .build();
+
+        return customerQueryHandler.handle(query);
+    }
+
+    /**
+     * Get the customers changed after the cursor, waiting up to waitMs for a change when there is none yet
+     */
+    public CompletableFuture<CursorPageDTO<CustomerDTO>> getCustomerChanges(String cursor, int size, long waitMs) {
+        log.debug("Processing get customer changes query - wait: {} ms", waitMs);
+
+        GetCustomerChangesQuery query = GetCustomerChangesQuery.builder()
+                .cursor(cursor)
+                .size(size)
+                .waitMs(waitMs)
+                .build();
+
+        return customerQueryHandler.handle(query);
+    }
+
+    /**
+     * Export customers matching the query, handing each one to the sink as it is read
+     */
+    public long exportCustomers(ExportCustomersQuery query, Consumer<CustomerDTO> sink) {
+        log.debug("Processing export customers query");
+
+        return customerQueryHandler.handle(query, sink);
+    }
+
+    /**
+     * Get many customers by ID, with one result per requested ID in request order
+     */
+    public BatchGetResultDTO batchGetCustomers(BatchGetCustomersQuery query) {
+        log.debug("Processing batch get customers query");
+
+        return customerQueryHandler.handle(query);
+    }
+
+    /**
+     * Get many customers by ID, handing the result of each requested ID to the sink in request order
+     */
+    public long batchGetCustomers(BatchGetCustomersQuery query, Consumer<BatchGetResultDTO.ItemResult> sink) {
+        log.debug("Processing streamed batch get customers query");
+
+        return customerQueryHandler.handle(query, sink);
+    }
+
     /**
      * Get customers by status
      */
@@ -132,7 +237,7 @@ public class CustomerQueryService {
                 .email(email)
                 .build();
 
-        return customerQueryHandler.handle(query);
+        return coalesce(query, () -> customerQueryHandler.handle(query));
     }
 
     /**
@@ -145,7 +250,7 @@ public class CustomerQueryService {
                 .phoneNumber(phoneNumber)
                 .build();
 
-        return customerQueryHandler.handle(query);
+        return coalesce(query, () -> customerQueryHandler.handle(query));
     }
 
     /**
@@ -158,7 +263,7 @@ public class CustomerQueryService {
                 .identificationNumber(identificationNumber)
                 .build();
 
-        return customerQueryHandler.handle(query);
+        return coalesce(query, () -> customerQueryHandler.handle(query));
     }
 
     /**
@@ -510,4 +615,30 @@ public class CustomerQueryService {
 
         return customerQueryHandler.handleGetCustomerStatistics();
     }
-}
\ No newline at end of file
+
+    // Helper methods
+
+    /**
+     * Run the query, or share the result of the identical query already running
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T coalesce(Object query, Supplier<T> handler) {
+        ReadYourWritesTracker tracker = readYourWritesTracker.getIfAvailable();
+        if (!coalescingEnabled || (tracker != null && tracker.isCurrentPinned())) {
+            return handler.get();
+        }
+        FlightKey key = new FlightKey(query, customerDtoCache.generation());
+        try {
+            return (T) singleFlight.execute(key, (Supplier<Object>) handler, coalescingTimeout);
+        } catch (TimeoutException ex) {
+            throw new QueryWaitTimeoutException("Timed out waiting for an identical query: " + query.getClass().getSimpleName());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new QueryWaitTimeoutException("Interrupted waiting for an identical query: " + query.getClass().getSimpleName());
+        }
+    }
+
+    // Query objects compare by type and arguments
+    private record FlightKey(Object query, long generation) {
+    }
+}
@@ -0,0 +1,105 @@
+package com.backbase.customer_master.common.bloom;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe Bloom filter over strings. {@link #mightContain} never returns false for a string
+ * that was added; it returns true for a string that was not added with a probability that grows
+ * as the filter fills up, see {@link #expectedFalsePositiveRate()}.
+ * Bits are set with lock-free updates, so adds and lookups can run concurrently.
+ */
+public final class BloomFilter {
+
+    private static final double LN2 = Math.log(2);
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+    private final LongAdder setBits = new LongAdder();
+
+    private BloomFilter(long bitCount, int hashCount) {
+        this.words = new AtomicLongArray((int) ((bitCount + 63) / 64));
+        this.bitCount = bitCount;
+        this.hashCount = hashCount;
+    }
+
+    /**
+     * Filter sized for the given number of strings at the given false positive rate
+     */
+    public static BloomFilter create(long expectedInsertions, double falsePositiveRate) {
+        long insertions = Math.max(1, expectedInsertions);
+        long bits = Math.max(64, (long) Math.ceil(-insertions * Math.log(falsePositiveRate) / (LN2 * LN2)));
+        int hashes = Math.max(1, (int) Math.round((double) bits / insertions * LN2));
+        return new BloomFilter(bits, hashes);
+    }
+
+    public void put(String value) {
+        long hash = hash(value);
+        long h1 = mix(hash);
+        long h2 = mix(hash ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, bitCount);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long previous = words.getAndUpdate(word, current -> current | mask);
+            if ((previous & mask) == 0) {
+                setBits.increment();
+            }
+        }
+    }
+
+    public boolean mightContain(String value) {
+        long hash = hash(value);
+        long h1 = mix(hash);
+        long h2 = mix(hash ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, bitCount);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Probability that a string never added is reported as present, from the share of bits set
+     */
+    public double expectedFalsePositiveRate() {
+        return Math.pow(fillRatio(), hashCount);
+    }
+
+    public double fillRatio() {
+        return (double) setBits.sum() / bitCount;
+    }
+
+    public long bitCount() {
+        return bitCount;
+    }
+
+    public int hashCount() {
+        return hashCount;
+    }
+
+    // Helper methods
+
+    private static long hash(String value) {
+        // FNV-1a over the UTF-16 code units, finished by mix()
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001B3L;
+        }
+        return hash;
+    }
+
+    private static long mix(long value) {
+        // MurmurHash3 fmix64
+        value ^= value >>> 33;
+        value *= 0xFF51AFD7ED558CCDL;
+        value ^= value >>> 33;
+        value *= 0xC4CEB93FE1A85394L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
@@ -0,0 +1,84 @@
+package com.backbase.customer_master.common.concurrent;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Merges concurrent calls for the same key into one execution.
+ * The first caller for a key runs the loader on its own thread; callers arriving while it runs wait
+ * for its result, or its exception, instead of running their own. A waiter that times out or is
+ * interrupted leaves alone: the execution and the other waiters carry on. Nothing is kept once an
+ * execution completes, so the next call for the key runs a fresh one.
+ */
+public class SingleFlight<K, V> {
+
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Consumer<K> onCoalesced;
+
+    /**
+     * @param onCoalesced called for every call that joined an execution already running
+     */
+    public SingleFlight(Consumer<K> onCoalesced) {
+        this.onCoalesced = onCoalesced;
+    }
+
+    /**
+     * Run the loader, or wait up to the timeout for the execution already running for the key.
+     * The caller that runs the loader is not bound by the timeout.
+     *
+     * @throws TimeoutException     when the running execution did not complete in time
+     * @throws InterruptedException when the waiting thread was interrupted
+     */
+    public V execute(K key, Supplier<V> loader, Duration timeout) throws TimeoutException, InterruptedException {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, flight);
+        if (running == null) {
+            return lead(key, flight, loader);
+        }
+
+        onCoalesced.accept(key);
+        try {
+            return running.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    /**
+     * Number of keys with an execution running
+     */
+    public int inFlight() {
+        return inFlight.size();
+    }
+
+    // Helper methods
+
+    private V lead(K key, CompletableFuture<V> flight, Supplier<V> loader) {
+        V value;
+        try {
+            value = loader.get();
+        } catch (RuntimeException | Error ex) {
+            inFlight.remove(key, flight);
+            flight.completeExceptionally(ex);
+            throw ex;
+        }
+        // Removed first, so a call arriving from now on starts its own execution
+        inFlight.remove(key, flight);
+        flight.complete(value);
+        return value;
+    }
+}
@@ -0,0 +1,10 @@
+package com.backbase.customer_master.common.exception;
+
+/**
+ * Exception thrown when a query waiting for an identical query already running gives up
+ */
+public class QueryWaitTimeoutException extends CustomerException {
+    public QueryWaitTimeoutException(String message) {
+        super(message, "QUERY_WAIT_TIMEOUT");
+    }
+}
@@ -0,0 +1,33 @@
+package com.backbase.customer_master.common.id;
+
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Static access to the configured {@link IdGenerator} for entity lifecycle callbacks, which are not
+ * Spring beans. Defaults to time-ordered IDs until the application context installs its generator.
+ */
+public final class EntityIds {
+
+    private static final IdGenerator TIME_ORDERED = new TimeOrderedIdGenerator();
+
+    private static volatile IdGenerator generator = new TimeOrderedIdGenerator();
+
+    private EntityIds() {
+    }
+
+    public static UUID next() {
+        return generator.generate();
+    }
+
+    /**
+     * Time-ordered ID whatever the configured strategy, for rows read back in ID order (outbox events)
+     */
+    public static UUID nextTimeOrdered() {
+        return TIME_ORDERED.generate();
+    }
+
+    public static void use(IdGenerator idGenerator) {
+        generator = Objects.requireNonNull(idGenerator, "idGenerator");
+    }
+}
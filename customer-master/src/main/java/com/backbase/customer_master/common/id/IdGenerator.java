@@ -0,0 +1,12 @@
+package com.backbase.customer_master.common.id;
+
+import java.util.UUID;
+
+/**
+ * Source of primary keys for the BINARY(16) entity IDs
+ */
+@FunctionalInterface
+public interface IdGenerator {
+
+    UUID generate();
+}
@@ -0,0 +1,14 @@
+package com.backbase.customer_master.common.id;
+
+import java.util.UUID;
+
+/**
+ * Random (version 4) UUIDs, the original key scheme
+ */
+public final class RandomIdGenerator implements IdGenerator {
+
+    @Override
+    public UUID generate() {
+        return UUID.randomUUID();
+    }
+}
@@ -0,0 +1,31 @@
+package com.backbase.customer_master.common.text;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Folds Vietnamese text to a plain search key: tone and vowel marks stripped, đ mapped to d,
+ * lower-cased and whitespace collapsed. "Nguyễn  Văn Đức" and "nguyen van duc" fold to the same key.
+ */
+public final class VietnameseTextFolder {
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private VietnameseTextFolder() {
+    }
+
+    public static String fold(String text) {
+        if (text == null) {
+            return null;
+        }
+        // NFD splits each precomposed letter into its base letter and combining marks;
+        // đ/Đ is a letter of its own, not d plus a mark, so it has to be mapped explicitly
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        String stripped = COMBINING_MARKS.matcher(decomposed).replaceAll("")
+                .replace('đ', 'd')
+                .replace('Đ', 'D');
+        return WHITESPACE.matcher(stripped.trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+}
@@ -1,5 +1,6 @@
 package com.backbase.customer_master.domain.model;
 
+import com.backbase.customer_master.common.id.EntityIds;
 import jakarta.persistence.*;
 import lombok.*;
 import java.time.LocalDateTime;
@@ -80,7 +81,7 @@ public class Address {
     @PrePersist
     protected void onCreate() {
         if (addressId == null) {
-            addressId = UUID.randomUUID();
+            addressId = EntityIds.next();
         }
         if (versionNo == null) {
             versionNo = 0;
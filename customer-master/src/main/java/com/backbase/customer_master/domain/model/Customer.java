@@ -1,5 +1,7 @@
 package com.backbase.customer_master.domain.model;
 
+import com.backbase.customer_master.common.id.EntityIds;
+import com.backbase.customer_master.common.text.VietnameseTextFolder;
 import jakarta.persistence.*;
 import lombok.*;
 import java.time.LocalDate;
@@ -20,7 +22,12 @@ import java.util.UUID;
                 @Index(name = "idx_customer_status", columnList = "cif_status"),
                 @Index(name = "idx_customer_client_type", columnList = "client_type"),
                 @Index(name = "idx_customer_segment", columnList = "customer_segment_code"),
-                @Index(name = "idx_customer_created", columnList = "created_at")
+                @Index(name = "idx_customer_created", columnList = "created_at"),
+                @Index(name = "idx_customer_updated", columnList = "updated_at, customer_id"),
+                @Index(name = "idx_customer_full_name", columnList = "full_name, customer_id"),
+                @Index(name = "idx_customer_name_search_key", columnList = "name_search_key, customer_id"),
+                @Index(name = "idx_customer_tax_file_no", columnList = "tax_file_no"),
+                @Index(name = "idx_customer_cif_created_date", columnList = "cif_created_date, customer_id")
         }
 )
 @Data
@@ -47,6 +54,10 @@ public class Customer {
     @Column(name = "full_name", length = 120, nullable = false)
     private String fullName;
 
+    // Diacritic-folded full name, derived on every write; see VietnameseTextFolder
+    @Column(name = "name_search_key", length = 120)
+    private String nameSearchKey;
+
     @Column(name = "date_of_birth", nullable = false)
     private LocalDate dateOfBirth;
 
@@ -217,7 +228,7 @@ public class Customer {
     @PrePersist
     protected void onCreate() {
         if (customerId == null) {
-            customerId = UUID.randomUUID();
+            customerId = EntityIds.next();
         }
         if (versionNo == null) {
             versionNo = 0;
@@ -225,11 +236,13 @@ public class Customer {
         LocalDateTime now = LocalDateTime.now();
         createdAt = now;
         updatedAt = now;
+        nameSearchKey = VietnameseTextFolder.fold(fullName);
     }
 
     @PreUpdate
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
+        nameSearchKey = VietnameseTextFolder.fold(fullName);
     }
 
     // ============================================
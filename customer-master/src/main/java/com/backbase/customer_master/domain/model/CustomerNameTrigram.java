@@ -0,0 +1,40 @@
+package com.backbase.customer_master.domain.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.io.Serializable;
+import java.util.UUID;
+
+/**
+ * Posting of the name-search index: one row per distinct trigram of a customer's normalized name.
+ * Maintained by CustomerNameIndex; rebuildable from the customer table.
+ */
+@Entity
+@Table(name = "customer_name_trigram",
+        indexes = {
+                @Index(name = "idx_name_trigram_lookup", columnList = "trigram, customer_id"),
+                @Index(name = "idx_name_trigram_customer", columnList = "customer_id")
+        }
+)
+@IdClass(CustomerNameTrigram.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CustomerNameTrigram {
+    @Id
+    @Column(name = "trigram", length = 3, nullable = false)
+    private String trigram;
+
+    @Id
+    @Column(name = "customer_id", nullable = false, columnDefinition = "BINARY(16)")
+    private UUID customerId;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private String trigram;
+        private UUID customerId;
+    }
+}
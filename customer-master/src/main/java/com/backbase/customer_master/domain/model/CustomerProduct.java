@@ -1,5 +1,6 @@
 package com.backbase.customer_master.domain.model;
 
+import com.backbase.customer_master.common.id.EntityIds;
 import jakarta.persistence.*;
 import lombok.*;
 import java.time.LocalDateTime;
@@ -66,7 +67,7 @@ public class CustomerProduct {
     @PrePersist
     protected void onCreate() {
         if (customerProductId == null) {
-            customerProductId = UUID.randomUUID();
+            customerProductId = EntityIds.next();
         }
         if (versionNo == null) {
             versionNo = 0;
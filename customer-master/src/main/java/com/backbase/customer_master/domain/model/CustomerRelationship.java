@@ -1,5 +1,6 @@
 package com.backbase.customer_master.domain.model;
 
+import com.backbase.customer_master.common.id.EntityIds;
 import jakarta.persistence.*;
 import lombok.*;
 import java.time.LocalDateTime;
@@ -72,4 +73,11 @@ public class CustomerRelationship {
 
     @Column(name = "correlation_id", length = 50)
     private String correlationId;
-}
\ No newline at end of file
+
+    @PrePersist
+    protected void onCreate() {
+        if (relationshipId == null) {
+            relationshipId = EntityIds.next();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.backbase.customer_master.domain.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+/**
+ * One slot of the incrementally maintained customer statistics.
+ * The totals are the sum over all slots; see CustomerStatisticsService.
+ */
+@Entity
+@Table(name = "customer_statistics_counter")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CustomerStatisticsCounter {
+    @Id
+    @Column(name = "slot")
+    private Integer slot;
+
+    @Column(name = "total_active", nullable = false)
+    private Long totalActive;
+
+    @Column(name = "total_inactive", nullable = false)
+    private Long totalInactive;
+
+    @Column(name = "total_suspended", nullable = false)
+    private Long totalSuspended;
+
+    @Column(name = "total_closed", nullable = false)
+    private Long totalClosed;
+
+    @Column(name = "internal_clients", nullable = false)
+    private Long internalClients;
+
+    @Column(name = "taxable_customers", nullable = false)
+    private Long taxableCustomers;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -1,12 +1,25 @@
 package com.backbase.customer_master.domain.model;
 
+import com.backbase.customer_master.common.id.EntityIds;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
 import java.time.LocalDateTime;
+import java.util.Map;
 import java.util.UUID;
 
+/**
+ * Outbox row: one change of one entity, written in the transaction that made it.
+ * Rows with a null published_at are still waiting for the outbox relay.
+ */
 @Entity
-@Table(name = "event")
+@Table(name = "event",
+        indexes = {
+                @Index(name = "idx_event_unpublished", columnList = "published_at, event_id"),
+                @Index(name = "idx_event_entity", columnList = "entity_name, entity_id")
+        })
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -28,8 +41,10 @@ public class Event {
     @Column(name = "operation_type", length = 10, nullable = false)
     private String operationType;
 
+    // Field name -> {"old": ..., "new": ...}
+    @JdbcTypeCode(SqlTypes.JSON)
     @Column(name = "changed_fields", columnDefinition = "JSON", nullable = false)
-    private String changedFields;
+    private Map<String, Object> changedFields;
 
     @Column(name = "event_time", nullable = false)
     private LocalDateTime eventTime;
@@ -45,4 +60,15 @@ public class Event {
 
     @Column(name = "remark", length = 255)
     private String remark;
-}
\ No newline at end of file
+
+    @Column(name = "published_at")
+    private LocalDateTime publishedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (eventId == null) {
+            // Time-ordered even with random keys: the relay publishes in event_id order
+            eventId = EntityIds.nextTimeOrdered();
+        }
+    }
+}
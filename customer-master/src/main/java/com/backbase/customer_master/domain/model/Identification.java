@@ -1,5 +1,6 @@
 package com.backbase.customer_master.domain.model;
 
+import com.backbase.customer_master.common.id.EntityIds;
 import jakarta.persistence.*;
 import lombok.*;
 import java.time.LocalDate;
@@ -101,7 +102,7 @@ public class Identification {
     @PrePersist
     protected void onCreate() {
         if (identificationId == null) {
-            identificationId = UUID.randomUUID();
+            identificationId = EntityIds.next();
         }
         if (versionNo == null) {
             versionNo = 0;
@@ -1,5 +1,6 @@
 package com.backbase.customer_master.domain.model;
 
+import com.backbase.customer_master.common.id.EntityIds;
 import jakarta.persistence.*;
 import lombok.*;
 import java.time.LocalDateTime;
@@ -67,7 +68,7 @@ public class PostalCode {
     @PrePersist
     protected void onCreate() {
         if (postalCodeId == null) {
-            postalCodeId = UUID.randomUUID();
+            postalCodeId = EntityIds.next();
         }
         LocalDateTime now = LocalDateTime.now();
         createdAt = now;
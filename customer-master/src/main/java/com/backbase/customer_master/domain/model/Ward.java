@@ -1,5 +1,6 @@
 package com.backbase.customer_master.domain.model;
 
+import com.backbase.customer_master.common.id.EntityIds;
 import jakarta.persistence.*;
 import lombok.*;
 import java.time.LocalDateTime;
@@ -91,7 +92,7 @@ public class Ward {
     @PrePersist
     protected void onCreate() {
         if (wardId == null) {
-            wardId = UUID.randomUUID();
+            wardId = EntityIds.next();
         }
         LocalDateTime now = LocalDateTime.now();
         createdAt = now;
@@ -8,8 +8,10 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 /**
  * Repository interface for Address entity
@@ -17,6 +19,18 @@ import java.util.Optional;
 @Repository
 public interface AddressRepository extends JpaRepository<Address, String> {
 
+    /**
+     * Find addresses of the given customers with their code-referenced lookups in one query
+     */
+    @Query("SELECT a FROM Address a " +
+            "LEFT JOIN FETCH a.domicileCountry " +
+            "LEFT JOIN FETCH a.province " +
+            "LEFT JOIN FETCH a.district " +
+            "LEFT JOIN FETCH a.ward " +
+            "LEFT JOIN FETCH a.postalCode " +
+            "WHERE a.customer.customerId IN :customerIds")
+    List<Address> findByCustomerIdsWithReferences(@Param("customerIds") Collection<UUID> customerIds);
+
 //    /**
 //     * Find addresses by customer ID
 //     */
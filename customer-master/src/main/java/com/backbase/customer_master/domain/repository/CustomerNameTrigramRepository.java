@@ -0,0 +1,39 @@
+package com.backbase.customer_master.domain.repository;
+
+import com.backbase.customer_master.domain.model.CustomerNameTrigram;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface CustomerNameTrigramRepository extends JpaRepository<CustomerNameTrigram, CustomerNameTrigram.Key> {
+
+    @Query("SELECT t.trigram FROM CustomerNameTrigram t WHERE t.customerId = :customerId")
+    List<String> findTrigramsByCustomerId(@Param("customerId") UUID customerId);
+
+    @Query("SELECT t.trigram, COUNT(t) FROM CustomerNameTrigram t GROUP BY t.trigram")
+    List<Object[]> countPostingsByTrigram();
+
+    @Modifying
+    @Query("DELETE FROM CustomerNameTrigram t WHERE t.customerId = :customerId")
+    int deleteByCustomerId(@Param("customerId") UUID customerId);
+
+    // ID ranges for the chunked rebuild of the name index
+
+    @Modifying
+    @Query("DELETE FROM CustomerNameTrigram t WHERE t.customerId <= :upTo")
+    int deleteByCustomerIdUpTo(@Param("upTo") UUID upTo);
+
+    @Modifying
+    @Query("DELETE FROM CustomerNameTrigram t WHERE t.customerId > :after AND t.customerId <= :upTo")
+    int deleteByCustomerIdBetween(@Param("after") UUID after, @Param("upTo") UUID upTo);
+
+    @Modifying
+    @Query("DELETE FROM CustomerNameTrigram t WHERE t.customerId > :after")
+    int deleteByCustomerIdAfter(@Param("after") UUID after);
+}
@@ -0,0 +1,26 @@
+package com.backbase.customer_master.domain.repository;
+
+import com.backbase.customer_master.domain.model.CustomerProduct;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repository interface for CustomerProduct entity
+ */
+@Repository
+public interface CustomerProductRepository extends JpaRepository<CustomerProduct, UUID> {
+
+    /**
+     * Find products of the given customers with their product group in one query
+     */
+    @Query("SELECT p FROM CustomerProduct p " +
+            "LEFT JOIN FETCH p.productGroup " +
+            "WHERE p.customer.customerId IN :customerIds")
+    List<CustomerProduct> findByCustomerIdsWithReferences(@Param("customerIds") Collection<UUID> customerIds);
+}
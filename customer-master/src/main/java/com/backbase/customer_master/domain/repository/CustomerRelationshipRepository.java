@@ -0,0 +1,27 @@
+package com.backbase.customer_master.domain.repository;
+
+import com.backbase.customer_master.domain.model.CustomerRelationship;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repository interface for CustomerRelationship entity
+ */
+@Repository
+public interface CustomerRelationshipRepository extends JpaRepository<CustomerRelationship, UUID> {
+
+    /**
+     * Find relationships of the given customers with their type and managing branch in one query
+     */
+    @Query("SELECT r FROM CustomerRelationship r " +
+            "LEFT JOIN FETCH r.relationshipType " +
+            "LEFT JOIN FETCH r.managingBranch " +
+            "WHERE r.customer.customerId IN :customerIds")
+    List<CustomerRelationship> findByCustomerIdsWithReferences(@Param("customerIds") Collection<UUID> customerIds);
+}
@@ -1,18 +1,23 @@
 package com.backbase.customer_master.domain.repository;
 
 import com.backbase.customer_master.domain.model.Customer;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface CustomerRepository extends JpaRepository<Customer, UUID>, JpaSpecificationExecutor<Customer> {
@@ -41,6 +46,9 @@ public interface CustomerRepository extends JpaRepository<Customer, UUID>, JpaSp
     @Query("SELECT c FROM Customer c WHERE UPPER(c.fullName) LIKE UPPER(CONCAT('%', :name, '%'))")
     Page<Customer> findByFullNameContainingIgnoreCase(@Param("name") String name, Pageable pageable);
 
+    // Rows whose folded name key has not been derived yet (written outside JPA)
+    boolean existsByNameSearchKeyIsNull();
+
     // Date of birth queries
     @Query("SELECT c FROM Customer c WHERE c.dateOfBirth BETWEEN :startDate AND :endDate")
     List<Customer> findByDateOfBirthBetween(@Param("startDate") LocalDate startDate,
@@ -114,15 +122,28 @@ public interface CustomerRepository extends JpaRepository<Customer, UUID>, JpaSp
             "WHERE i.identificationNumber = :idNumber")
     Optional<Customer> findByIdentificationNumber(@Param("idNumber") String identificationNumber);
 
-    // Existence checks
-    @Query("SELECT CASE WHEN COUNT(c) > 0 THEN true ELSE false END " +
-            "FROM Customer c WHERE c.email = :email OR c.primaryPhone = :phone")
-    boolean existsByEmailOrPrimaryPhone(@Param("email") String email, @Param("phone") String phone);
+    // Duplicate detection: one indexed lookup per column
+    @Query("SELECT c.email FROM Customer c WHERE c.email IN :emails")
+    List<String> findEmailsIn(@Param("emails") Collection<String> emails);
+
+    @Query("SELECT c.primaryPhone FROM Customer c WHERE c.primaryPhone IN :phones")
+    List<String> findPrimaryPhonesIn(@Param("phones") Collection<String> phones);
+
+    @Query("SELECT c.email, c.primaryPhone FROM Customer c")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<Object[]> streamEmailsAndPhones();
 
     // Statistics queries
     @Query("SELECT c.cifStatus, COUNT(c) FROM Customer c GROUP BY c.cifStatus")
     List<Object[]> countByStatusGrouped();
 
+    // One scan: per status, the row count plus how many of those rows are internal clients / taxable
+    @Query("SELECT c.cifStatus, COUNT(c), " +
+            "SUM(CASE WHEN c.internalClient = 'Y' THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN c.taxable = 'Y' THEN 1 ELSE 0 END) " +
+            "FROM Customer c GROUP BY c.cifStatus")
+    List<Object[]> aggregateStatisticsByStatus();
+
     @Query("SELECT c.clientType.clientTypeCode, COUNT(c) FROM Customer c GROUP BY c.clientType.clientTypeCode")
     List<Object[]> countByClientTypeGrouped();
 
@@ -0,0 +1,41 @@
+package com.backbase.customer_master.domain.repository;
+
+import com.backbase.customer_master.domain.model.CustomerStatisticsCounter;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface CustomerStatisticsCounterRepository extends JpaRepository<CustomerStatisticsCounter, Integer> {
+
+    // Relative update: concurrent writers to the same slot serialize on the row lock, never lose an increment
+    @Modifying
+    @Query("UPDATE CustomerStatisticsCounter s SET " +
+            "s.totalActive = s.totalActive + :active, " +
+            "s.totalInactive = s.totalInactive + :inactive, " +
+            "s.totalSuspended = s.totalSuspended + :suspended, " +
+            "s.totalClosed = s.totalClosed + :closed, " +
+            "s.internalClients = s.internalClients + :internalClients, " +
+            "s.taxableCustomers = s.taxableCustomers + :taxableCustomers, " +
+            "s.updatedAt = :updatedAt " +
+            "WHERE s.slot = :slot")
+    int applyDelta(@Param("slot") Integer slot,
+                   @Param("active") long active,
+                   @Param("inactive") long inactive,
+                   @Param("suspended") long suspended,
+                   @Param("closed") long closed,
+                   @Param("internalClients") long internalClients,
+                   @Param("taxableCustomers") long taxableCustomers,
+                   @Param("updatedAt") LocalDateTime updatedAt);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM CustomerStatisticsCounter s ORDER BY s.slot")
+    List<CustomerStatisticsCounter> findAllForUpdate();
+}
@@ -0,0 +1,28 @@
+package com.backbase.customer_master.domain.repository;
+
+import com.backbase.customer_master.domain.model.Event;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface EventRepository extends JpaRepository<Event, UUID> {
+
+    // Served by idx_event_unpublished: the relay reads the head of the outbox, oldest first (event IDs are time-ordered)
+    @Query("SELECT e FROM Event e WHERE e.publishedAt IS NULL ORDER BY e.eventId")
+    List<Event> findUnpublished(Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE Event e SET e.publishedAt = :publishedAt WHERE e.eventId IN :eventIds")
+    int markPublished(@Param("eventIds") Collection<UUID> eventIds, @Param("publishedAt") LocalDateTime publishedAt);
+
+    List<Event> findByEntityNameAndEntityIdOrderByEventId(String entityName, String entityId);
+}
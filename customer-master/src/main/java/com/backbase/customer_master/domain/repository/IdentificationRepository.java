@@ -9,8 +9,10 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 /**
  * Repository interface for Identification entity
@@ -18,6 +20,14 @@ import java.util.Optional;
 @Repository
 public interface IdentificationRepository extends JpaRepository<Identification, String> {
 
+    /**
+     * Find identifications of the given customers with their residency status in one query
+     */
+    @Query("SELECT i FROM Identification i " +
+            "LEFT JOIN FETCH i.residencyStatus " +
+            "WHERE i.customer.customerId IN :customerIds")
+    List<Identification> findByCustomerIdsWithReferences(@Param("customerIds") Collection<UUID> customerIds);
+
     /**
      * Find identifications by customer ID
      */
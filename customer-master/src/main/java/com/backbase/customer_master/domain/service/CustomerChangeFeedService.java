@@ -0,0 +1,176 @@
+package com.backbase.customer_master.domain.service;
+
+import com.backbase.customer_master.infrastructure.persistence.loader.CustomerPageLoader;
+import com.backbase.customer_master.infrastructure.persistence.loader.CustomerSummaryLoader;
+import com.backbase.customer_master.infrastructure.persistence.pagination.CursorPageRequest;
+import com.backbase.customer_master.infrastructure.persistence.specification.CustomerSpecifications;
+import com.backbase.customer_master.presentation.dto.CursorPageDTO;
+import com.backbase.customer_master.presentation.dto.CustomerDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Feed of changed customers for downstream sync, in (updated_at, customer_id) order.
+ * The cursor holds both keys of the last row returned, so customers sharing a timestamp are never
+ * skipped or repeated. A change only enters the feed once it is settle-ms old: updated_at is taken
+ * before the commit, so a row may become visible with a timestamp older than rows already served;
+ * settle-ms must exceed the longest customer-writing transaction (bulk create included).
+ * Hard deletes leave no row here; the event outbox carries them.
+ * Long polls hold no thread while they wait: each waits on a shared future that is completed
+ * settle-ms after a change commits, then re-reads the feed on the task executor.
+ */
+@Service
+@Slf4j
+public class CustomerChangeFeedService {
+
+    public static final String SORT_PROPERTY = "updatedAt";
+
+    private static final String FILTER = "changes";
+
+    private final CustomerPageLoader customerPageLoader;
+    private final CustomerSummaryLoader customerSummaryLoader;
+    private final AsyncTaskExecutor feedExecutor;
+    private final Executor wakeExecutor;
+    private final TransactionTemplate readTransaction;
+    private final long settleMs;
+    private final long maxWaitMs;
+
+    private final Object signalLock = new Object();
+    // Completed (and replaced) when a committed change becomes visible in the feed
+    private CompletableFuture<Void> nextChange = new CompletableFuture<>();
+
+    public CustomerChangeFeedService(CustomerPageLoader customerPageLoader,
+                                     CustomerSummaryLoader customerSummaryLoader,
+                                     @Qualifier("applicationTaskExecutor") AsyncTaskExecutor feedExecutor,
+                                     PlatformTransactionManager transactionManager,
+                                     @Value("${app.changes.settle-ms:5000}") long settleMs,
+                                     @Value("${app.changes.max-wait-ms:30000}") long maxWaitMs) {
+        this.customerPageLoader = customerPageLoader;
+        this.customerSummaryLoader = customerSummaryLoader;
+        this.feedExecutor = feedExecutor;
+        this.wakeExecutor = CompletableFuture.delayedExecutor(settleMs, TimeUnit.MILLISECONDS, feedExecutor);
+        // Not read-only, so the feed reads the primary: a lagging replica could show a row only after
+        // the cursor has moved past its timestamp
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.settleMs = settleMs;
+        this.maxWaitMs = maxWaitMs;
+    }
+
+    /**
+     * Build a change feed request; the cursor must come from this feed
+     */
+    public CursorPageRequest pageRequest(String cursor, int size) {
+        // The cursor's scope ties it to this filter and sort, so listing cursors are rejected
+        return CursorPageRequest.of(cursor, FILTER, SORT_PROPERTY, Sort.Direction.ASC, size, false);
+    }
+
+    /**
+     * The settled changes after the request's cursor. The slice always carries a cursor to resume from.
+     */
+    public CursorPageDTO<CustomerDTO> findChanges(CursorPageRequest request) {
+        LocalDateTime settled = LocalDateTime.now().minus(settleMs, ChronoUnit.MILLIS);
+        return readTransaction.execute(status -> customerPageLoader.findFeedSlice(
+                CustomerSpecifications.modifiedNotAfter(settled), request, customerSummaryLoader::findByIds));
+    }
+
+    /**
+     * The changes after the cursor, waiting up to waitMs (capped at max-wait-ms) for one when there
+     * are none yet. Completes with an empty slice, cursor unchanged, when the wait runs out.
+     */
+    public CompletableFuture<CursorPageDTO<CustomerDTO>> awaitChanges(CursorPageRequest request, long waitMs) {
+        // Taken before reading, so a change settling in between still wakes this poll
+        CompletableFuture<Void> signal = nextChange();
+        CursorPageDTO<CustomerDTO> page = findChanges(request);
+        long wait = Math.min(Math.max(waitMs, 0), maxWaitMs);
+        if (!page.getContent().isEmpty() || wait == 0) {
+            return CompletableFuture.completedFuture(page);
+        }
+
+        CompletableFuture<CursorPageDTO<CustomerDTO>> result = new CompletableFuture<>();
+        awaitSignal(signal, request, result);
+        return result.completeOnTimeout(page, wait, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Wake long polls once the current transaction's customer changes are visible in the feed.
+     * Call inside the writing transaction; at most one wake-up is scheduled per transaction.
+     */
+    public void changed() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            scheduleWake();
+            return;
+        }
+        if (TransactionSynchronizationManager.hasResource(this)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                scheduleWake();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(CustomerChangeFeedService.this);
+            }
+        });
+    }
+
+    // Helper methods
+
+    private void awaitSignal(CompletableFuture<Void> signal, CursorPageRequest request,
+                             CompletableFuture<CursorPageDTO<CustomerDTO>> result) {
+        signal.thenRunAsync(() -> {
+            if (result.isDone()) {
+                return;
+            }
+            try {
+                CompletableFuture<Void> next = nextChange();
+                CursorPageDTO<CustomerDTO> page = findChanges(request);
+                if (page.getContent().isEmpty()) {
+                    awaitSignal(next, request, result);
+                } else {
+                    result.complete(page);
+                }
+            } catch (RuntimeException ex) {
+                result.completeExceptionally(ex);
+            }
+        }, feedExecutor);
+    }
+
+    private CompletableFuture<Void> nextChange() {
+        synchronized (signalLock) {
+            return nextChange;
+        }
+    }
+
+    private void scheduleWake() {
+        // One delayed task per write transaction, even with no poll waiting: a poll that took the
+        // signal but has not read the table yet must still be woken
+        wakeExecutor.execute(this::wake);
+    }
+
+    private void wake() {
+        CompletableFuture<Void> woken;
+        synchronized (signalLock) {
+            woken = nextChange;
+            nextChange = new CompletableFuture<>();
+        }
+        woken.complete(null);
+    }
+}
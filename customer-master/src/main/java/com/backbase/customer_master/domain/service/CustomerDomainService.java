@@ -2,8 +2,16 @@ package com.backbase.customer_master.domain.service;
 
 import com.backbase.customer_master.domain.model.Customer;
 import com.backbase.customer_master.domain.repository.CustomerRepository;
+import com.backbase.customer_master.infrastructure.persistence.loader.CustomerBatchLoader;
+import com.backbase.customer_master.infrastructure.persistence.loader.CustomerGraphLoader;
+import com.backbase.customer_master.infrastructure.persistence.loader.CustomerPageLoader;
+import com.backbase.customer_master.infrastructure.persistence.loader.CustomerStreamLoader;
+import com.backbase.customer_master.infrastructure.persistence.loader.CustomerSummaryLoader;
 import com.backbase.customer_master.infrastructure.persistence.mapper.CustomerMapper;
+import com.backbase.customer_master.infrastructure.persistence.pagination.CursorPageRequest;
+import com.backbase.customer_master.infrastructure.persistence.search.CustomerNameIndex;
 import com.backbase.customer_master.infrastructure.persistence.specification.CustomerSpecifications;
+import com.backbase.customer_master.presentation.dto.CursorPageDTO;
 import com.backbase.customer_master.presentation.dto.CustomerDTO;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -18,6 +26,8 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.ObjIntConsumer;
 import java.util.stream.Collectors;
 
 @Service
@@ -28,20 +38,29 @@ public class CustomerDomainService {
 
     private final CustomerRepository customerRepository;
     private final CustomerMapper customerMapper;
+    private final CustomerGraphLoader customerGraphLoader;
+    private final CustomerPageLoader customerPageLoader;
+    private final CustomerSummaryLoader customerSummaryLoader;
+    private final CustomerStreamLoader customerStreamLoader;
+    private final CustomerBatchLoader customerBatchLoader;
+    private final CustomerStatisticsService customerStatisticsService;
+    private final CustomerNameIndex customerNameIndex;
+    private final CustomerSearchService customerSearchService;
 
     /**
      * Find customer by ID with all related data
+     * Loads the root with its reference data, then each collection with its own keyed query
      */
     public Optional<CustomerDTO> findCustomerById(UUID customerId) {
         log.debug("Finding customer by ID: {}", customerId);
 
         Specification<Customer> spec = Specification
-                .where(CustomerSpecifications.withAllRelatedData())
+                .where(CustomerSpecifications.withReferenceData())
                 .and(CustomerSpecifications.hasCustomerId(customerId))
                 .and(CustomerSpecifications.excludeClosed());
 
         return customerRepository.findOne(spec)
-                .map(customerMapper::toDTO);
+                .map(customerGraphLoader::toFullDTO);
     }
 
     /**
@@ -70,12 +89,12 @@ public class CustomerDomainService {
         }
 
         Specification<Customer> spec = Specification
-                .where(CustomerSpecifications.withAllRelatedData())
+                .where(CustomerSpecifications.withReferenceData())
                 .and(CustomerSpecifications.hasEmail(email.toLowerCase()))
                 .and(CustomerSpecifications.excludeClosed());
 
         return customerRepository.findOne(spec)
-                .map(customerMapper::toDTO);
+                .map(customerGraphLoader::toFullDTO);
     }
 
     /**
@@ -91,12 +110,12 @@ public class CustomerDomainService {
         String normalizedPhone = normalizePhoneNumber(phoneNumber);
 
         Specification<Customer> spec = Specification
-                .where(CustomerSpecifications.withAllRelatedData())
+                .where(CustomerSpecifications.withReferenceData())
                 .and(CustomerSpecifications.hasPrimaryPhone(normalizedPhone))
                 .and(CustomerSpecifications.excludeClosed());
 
         return customerRepository.findOne(spec)
-                .map(customerMapper::toDTO);
+                .map(customerGraphLoader::toFullDTO);
     }
 
     /**
@@ -106,12 +125,12 @@ public class CustomerDomainService {
         log.debug("Finding customer by identification number");
 
         Specification<Customer> spec = Specification
-                .where(CustomerSpecifications.withAllRelatedData())
+                .where(CustomerSpecifications.withReferenceData())
                 .and(CustomerSpecifications.hasIdentificationNumber(identificationNumber))
                 .and(CustomerSpecifications.excludeClosed());
 
         return customerRepository.findOne(spec)
-                .map(customerMapper::toDTO);
+                .map(customerGraphLoader::toFullDTO);
     }
 
     /**
@@ -121,12 +140,12 @@ public class CustomerDomainService {
         log.debug("Finding customer by tax file number");
 
         Specification<Customer> spec = Specification
-                .where(CustomerSpecifications.withAllRelatedData())
+                .where(CustomerSpecifications.withReferenceData())
                 .and(CustomerSpecifications.hasTaxFileNo(taxFileNo))
                 .and(CustomerSpecifications.excludeClosed());
 
         return customerRepository.findOne(spec)
-                .map(customerMapper::toDTO);
+                .map(customerGraphLoader::toFullDTO);
     }
 
     /**
@@ -136,11 +155,9 @@ public class CustomerDomainService {
         log.debug("Finding all customers with pagination");
 
         Specification<Customer> spec = Specification
-                .where(CustomerSpecifications.withSummaryData())
-                .and(CustomerSpecifications.excludeClosed());
+                .where(CustomerSpecifications.excludeClosed());
 
-        return customerRepository.findAll(spec, pageable)
-                .map(customerMapper::toSummaryDTO);
+        return customerPageLoader.findPage(spec, pageable, customerSummaryLoader::findByIds);
     }
 
     /**
@@ -150,11 +167,9 @@ public class CustomerDomainService {
         log.debug("Finding customers by status: {}", status);
 
         Specification<Customer> spec = Specification
-                .where(CustomerSpecifications.withSummaryData())
-                .and(CustomerSpecifications.hasCifStatus(status));
+                .where(CustomerSpecifications.hasCifStatus(status));
 
-        return customerRepository.findAll(spec, pageable)
-                .map(customerMapper::toSummaryDTO);
+        return customerPageLoader.findPage(spec, pageable, customerSummaryLoader::findByIds);
     }
 
     /**
@@ -164,12 +179,10 @@ public class CustomerDomainService {
         log.debug("Finding customers by client type: {}", clientTypeCode);
 
         Specification<Customer> spec = Specification
-                .where(CustomerSpecifications.withSummaryData())
-                .and(CustomerSpecifications.hasClientTypeCode(clientTypeCode))
+                .where(CustomerSpecifications.hasClientTypeCode(clientTypeCode))
                 .and(CustomerSpecifications.excludeClosed());
 
-        return customerRepository.findAll(spec, pageable)
-                .map(customerMapper::toSummaryDTO);
+        return customerPageLoader.findPage(spec, pageable, customerSummaryLoader::findByIds);
     }
 
     /**
@@ -178,13 +191,9 @@ public class CustomerDomainService {
     public Page<CustomerDTO> searchCustomersByName(String name, Pageable pageable) {
         log.debug("Searching customers by name: {}", name);
 
-        Specification<Customer> spec = Specification
-                .where(CustomerSpecifications.withSummaryData())
-                .and(CustomerSpecifications.hasFullNameContaining(name))
-                .and(CustomerSpecifications.excludeClosed());
-
-        return customerRepository.findAll(spec, pageable)
-                .map(customerMapper::toSummaryDTO);
+        // Diacritic-insensitive: prefix matches on the folded key first, then other substrings via the trigram index
+        Page<UUID> ids = customerNameIndex.search(name, CustomerSpecifications.excludeClosed(), pageable);
+        return customerPageLoader.hydratePage(ids, customerSummaryLoader::findByIds);
     }
 
     /**
@@ -194,12 +203,10 @@ public class CustomerDomainService {
         log.debug("Finding customers by segment: {}", segmentCode);
 
         Specification<Customer> spec = Specification
-                .where(CustomerSpecifications.withSummaryData())
-                .and(CustomerSpecifications.hasSegmentCode(segmentCode))
+                .where(CustomerSpecifications.hasSegmentCode(segmentCode))
                 .and(CustomerSpecifications.isActive());
 
-        return customerRepository.findAll(spec, pageable)
-                .map(customerMapper::toSummaryDTO);
+        return customerPageLoader.findPage(spec, pageable, customerSummaryLoader::findByIds);
     }
 
     /**
@@ -209,12 +216,100 @@ public class CustomerDomainService {
         log.debug("Finding customers by category: {}", categoryCode);
 
         Specification<Customer> spec = Specification
-                .where(CustomerSpecifications.withSummaryData())
-                .and(CustomerSpecifications.hasCategoryCode(categoryCode))
+                .where(CustomerSpecifications.hasCategoryCode(categoryCode))
                 .and(CustomerSpecifications.excludeClosed());
 
-        return customerRepository.findAll(spec, pageable)
-                .map(customerMapper::toSummaryDTO);
+        return customerPageLoader.findPage(spec, pageable, customerSummaryLoader::findByIds);
+    }
+
+    // Cursor (keyset) pagination
+
+    /**
+     * Get all customers, one cursor slice at a time
+     */
+    public CursorPageDTO<CustomerDTO> findAllCustomers(CursorPageRequest pageRequest) {
+        log.debug("Finding all customers with cursor pagination");
+
+        Specification<Customer> spec = Specification
+                .where(CustomerSpecifications.excludeClosed());
+
+        return customerPageLoader.findSlice(spec, pageRequest, customerSummaryLoader::findByIds);
+    }
+
+    /**
+     * Find customers by client type, one cursor slice at a time
+     */
+    public CursorPageDTO<CustomerDTO> findCustomersByType(String clientTypeCode, CursorPageRequest pageRequest) {
+        log.debug("Finding customers by client type with cursor pagination: {}", clientTypeCode);
+
+        Specification<Customer> spec = Specification
+                .where(CustomerSpecifications.hasClientTypeCode(clientTypeCode))
+                .and(CustomerSpecifications.excludeClosed());
+
+        return customerPageLoader.findSlice(spec, pageRequest, customerSummaryLoader::findByIds);
+    }
+
+    /**
+     * Search customers by name, one cursor slice at a time
+     * Same matches as the paged search (folded key through the trigram index), in the slice's key order
+     */
+    public CursorPageDTO<CustomerDTO> searchCustomersByName(String name, CursorPageRequest pageRequest) {
+        log.debug("Searching customers by name with cursor pagination: {}", name);
+
+        Specification<Customer> spec = Specification
+                .where(customerNameIndex.matching(name))
+                .and(CustomerSpecifications.excludeClosed());
+
+        return customerPageLoader.findSlice(spec, pageRequest, customerSummaryLoader::findByIds);
+    }
+
+    /**
+     * Find customers by segment, one cursor slice at a time
+     */
+    public CursorPageDTO<CustomerDTO> findCustomersBySegment(String segmentCode, CursorPageRequest pageRequest) {
+        log.debug("Finding customers by segment with cursor pagination: {}", segmentCode);
+
+        Specification<Customer> spec = Specification
+                .where(CustomerSpecifications.hasSegmentCode(segmentCode))
+                .and(CustomerSpecifications.isActive());
+
+        return customerPageLoader.findSlice(spec, pageRequest, customerSummaryLoader::findByIds);
+    }
+
+    // Streaming
+
+    /**
+     * Stream every customer matching the specification to the sink as a summary DTO.
+     * Rows are read with a forward-only cursor, so the result is never held in memory.
+     *
+     * @return number of customers streamed
+     */
+    public long streamCustomers(Specification<Customer> spec, Consumer<CustomerDTO> sink) {
+        log.debug("Streaming customers");
+
+        return customerStreamLoader.forEach(spec, CustomerSpecifications.withSummaryData(),
+                customerMapper::toSummaryDTO, sink);
+    }
+
+    // Multi-get
+
+    /**
+     * Hand the sink each listed customer that is not closed, as a basic DTO (or a summary DTO when
+     * summary is set), with its position in the list; null for unknown, closed and null IDs.
+     * Results arrive in list order, loaded a chunk of IDs at a time.
+     */
+    public void findCustomersByIds(List<UUID> customerIds, boolean summary, ObjIntConsumer<CustomerDTO> sink) {
+        log.debug("Finding {} customers by ID", customerIds.size());
+
+        if (summary) {
+            customerBatchLoader.forEachInOrder(customerIds,
+                    Specification.where(CustomerSpecifications.withSummaryData()).and(CustomerSpecifications.excludeClosed()),
+                    customerMapper::toSummaryDTO, sink);
+        } else {
+            customerBatchLoader.forEachInOrder(customerIds,
+                    Specification.where(CustomerSpecifications.withBasicRelatedData()).and(CustomerSpecifications.excludeClosed()),
+                    customerMapper::toBasicDTO, sink);
+        }
     }
 
     /**
@@ -414,14 +509,10 @@ public class CustomerDomainService {
         LocalDateTime endDateTime = endDate.plusDays(1).atStartOfDay();
 
         Specification<Customer> spec = Specification
-                .where(CustomerSpecifications.withSummaryData())
-                .and(CustomerSpecifications.createdBetween(startDateTime, endDateTime))
+                .where(CustomerSpecifications.createdBetween(startDateTime, endDateTime))
                 .and(CustomerSpecifications.excludeClosed());
 
-        return customerRepository.findAll(spec)
-                .stream()
-                .map(customerMapper::toSummaryDTO)
-                .collect(Collectors.toList());
+        return customerSummaryLoader.findAll(spec);
     }
 
     /**
@@ -431,14 +522,10 @@ public class CustomerDomainService {
         log.debug("Finding customers by CIF created date: {} to {}", startDate, endDate);
 
         Specification<Customer> spec = Specification
-                .where(CustomerSpecifications.withSummaryData())
-                .and(CustomerSpecifications.hasCifCreatedDateBetween(startDate, endDate))
+                .where(CustomerSpecifications.hasCifCreatedDateBetween(startDate, endDate))
                 .and(CustomerSpecifications.excludeClosed());
 
-        return customerRepository.findAll(spec)
-                .stream()
-                .map(customerMapper::toSummaryDTO)
-                .collect(Collectors.toList());
+        return customerSummaryLoader.findAll(spec);
     }
 
     /**
@@ -482,14 +569,11 @@ public class CustomerDomainService {
         log.debug("Finding customers by product type: {}", productType);
 
         Specification<Customer> spec = Specification
-                .where(CustomerSpecifications.withAllRelatedData())
+                .where(CustomerSpecifications.withReferenceData())
                 .and(CustomerSpecifications.hasProductType(productType))
                 .and(CustomerSpecifications.isActive());
 
-        return customerRepository.findAll(spec)
-                .stream()
-                .map(customerMapper::toDTO)
-                .collect(Collectors.toList());
+        return customerGraphLoader.toFullDTOs(customerRepository.findAll(spec));
     }
 
     /**
@@ -532,17 +616,14 @@ public class CustomerDomainService {
         log.debug("Finding customers for periodic review since: {}", reviewDate);
 
         Specification<Customer> spec = Specification
-                .where(CustomerSpecifications.withAllRelatedData())
+                .where(CustomerSpecifications.withReferenceData())
                 .and(CustomerSpecifications.isActive())
                 .and(Specification.anyOf(
                         Specification.where((root, query, cb) -> cb.isNull(root.get("updatedAt"))),
                         CustomerSpecifications.modifiedAfter(reviewDate)
                 ));
 
-        return customerRepository.findAll(spec)
-                .stream()
-                .map(customerMapper::toDTO)
-                .collect(Collectors.toList());
+        return customerGraphLoader.toFullDTOs(customerRepository.findAll(spec));
     }
 
     /**
@@ -559,8 +640,7 @@ public class CustomerDomainService {
                 status, segment, clientType, category);
 
         Specification<Customer> spec = Specification
-                .where(CustomerSpecifications.withSummaryData())
-                .and(CustomerSpecifications.excludeClosed());
+                .where(CustomerSpecifications.excludeClosed());
 
         if (status != null) {
             spec = spec.and(CustomerSpecifications.hasCifStatus(status));
@@ -575,23 +655,16 @@ public class CustomerDomainService {
             spec = spec.and(CustomerSpecifications.hasCategoryCode(category));
         }
 
-        return customerRepository.findAll(spec, pageable)
-                .map(customerMapper::toSummaryDTO);
+        return customerPageLoader.findPage(spec, pageable, customerSummaryLoader::findByIds);
     }
 
     /**
-     * Complex text search
+     * Complex text search, ranked by relevance (see {@link CustomerSearchService})
      */
     public Page<CustomerDTO> complexSearch(String searchTerm, Pageable pageable) {
         log.debug("Performing complex search with term: {}", searchTerm);
 
-        Specification<Customer> spec = Specification
-                .where(CustomerSpecifications.withSummaryData())
-                .and(CustomerSpecifications.complexSearch(searchTerm))
-                .and(CustomerSpecifications.excludeClosed());
-
-        return customerRepository.findAll(spec, pageable)
-                .map(customerMapper::toSummaryDTO);
+        return customerSearchService.search(searchTerm, pageable);
     }
 
     // Count and existence methods
@@ -696,29 +769,7 @@ public class CustomerDomainService {
     public CustomerStatistics getCustomerStatistics() {
         log.debug("Getting customer statistics");
 
-        long totalActive = countCustomersByStatus("ACTIVE");
-        long totalInactive = countCustomersByStatus("INACTIVE");
-        long totalSuspended = countCustomersByStatus("SUSPENDED");
-        long totalClosed = countCustomersByStatus("CLOSED");
-
-        long internalClients = customerRepository.count(
-                Specification.where(CustomerSpecifications.isInternalClient("Y"))
-                        .and(CustomerSpecifications.isActive())
-        );
-
-        long taxableCustomers = customerRepository.count(
-                Specification.where(CustomerSpecifications.isTaxable("Y"))
-                        .and(CustomerSpecifications.isActive())
-        );
-
-        return CustomerStatistics.builder()
-                .totalActive(totalActive)
-                .totalInactive(totalInactive)
-                .totalSuspended(totalSuspended)
-                .totalClosed(totalClosed)
-                .internalClients(internalClients)
-                .taxableCustomers(taxableCustomers)
-                .build();
+        return customerStatisticsService.getStatistics();
     }
 
     // Helper methods
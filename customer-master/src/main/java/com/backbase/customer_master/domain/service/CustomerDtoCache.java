@@ -0,0 +1,326 @@
+package com.backbase.customer_master.domain.service;
+
+import com.backbase.customer_master.domain.model.Customer;
+import com.backbase.customer_master.presentation.dto.CustomerDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Near-cache of full customer DTOs (app.cache.customer), keyed by customer ID and guarded by version.
+ * Bounded by the approximate size of the cached DTOs (their JSON length) and evicted least recently
+ * used first; no entry outlives ttl-ms, which caps staleness for rows changed outside the command
+ * handlers. Commands evict their customer only once the transaction commits. The eviction leaves
+ * a version fence behind, so a read that loaded the old version before the commit (or from a
+ * lagging replica) cannot put it back. Lookups by email, phone or identification number go
+ * through a small key-to-ID index onto the same entries; the index keys of a customer are dropped
+ * with its entry. Cached DTOs are shared: callers must not modify them.
+ * The generation counts committed customer changes (also with the cache disabled): a read started
+ * in an earlier generation may return a customer as it was before the latest change.
+ * Metrics: customer.cache.requests{result=hit|miss}, customer.cache.evictions{cause=size|expired|invalidated},
+ * customer.cache.size.bytes and customer.cache.entries.
+ */
+@Service
+@Slf4j
+public class CustomerDtoCache {
+
+    public static final String EMAIL_KEY = "email:";
+    public static final String PHONE_KEY = "phone:";
+    public static final String IDENTIFICATION_KEY = "identification:";
+
+    // Bookkeeping per entry (map node, key, version, expiry), on top of the DTO's JSON length
+    private static final long ENTRY_OVERHEAD = 128;
+
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final long maxWeight;
+    private final long ttlNanos;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter sizeEvictions;
+    private final Counter expiredEvictions;
+    private final Counter invalidations;
+
+    // Access-ordered: iteration starts at the least recently used entry (guarded by this)
+    private final LinkedHashMap<UUID, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private final Map<String, UUID> keyIndex = new HashMap<>();
+    private long weight;
+
+    private final AtomicLong generation = new AtomicLong();
+
+    public CustomerDtoCache(ObjectMapper objectMapper,
+                            MeterRegistry meterRegistry,
+                            @Value("${app.cache.customer.enabled:true}") boolean enabled,
+                            @Value("${app.cache.customer.max-size-bytes:67108864}") long maxWeight,
+                            @Value("${app.cache.customer.ttl-ms:60000}") long ttlMs) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.maxWeight = maxWeight;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMs);
+
+        this.hits = requests(meterRegistry, "hit");
+        this.misses = requests(meterRegistry, "miss");
+        this.sizeEvictions = evictions(meterRegistry, "size");
+        this.expiredEvictions = evictions(meterRegistry, "expired");
+        this.invalidations = evictions(meterRegistry, "invalidated");
+        Gauge.builder("customer.cache.size.bytes", this, CustomerDtoCache::weight)
+                .description("Approximate size of the cached customer DTOs")
+                .register(meterRegistry);
+        Gauge.builder("customer.cache.entries", this, CustomerDtoCache::size)
+                .description("Customer DTOs in the cache")
+                .register(meterRegistry);
+    }
+
+    /**
+     * The cached DTO of the customer, or null
+     */
+    public CustomerDTO get(UUID customerId) {
+        if (!enabled) {
+            return null;
+        }
+        synchronized (this) {
+            return record(live(customerId));
+        }
+    }
+
+    /**
+     * The cached DTO of the customer the secondary key (e.g. EMAIL_KEY + email) resolved to, or null
+     */
+    public CustomerDTO getByKey(String key) {
+        if (!enabled) {
+            return null;
+        }
+        synchronized (this) {
+            UUID customerId = keyIndex.get(key);
+            return record(customerId == null ? null : live(customerId));
+        }
+    }
+
+    /**
+     * Cache a DTO just loaded, reachable by its ID and the given secondary keys.
+     * A DTO older than the cached one, or than the fence left by a committed change, is not cached.
+     *
+     * @return the DTO now cached for the customer (the given one, or an equal version already cached)
+     */
+    public CustomerDTO put(CustomerDTO customer, String... keys) {
+        if (!enabled) {
+            return customer;
+        }
+        long entryWeight = weigh(customer);
+        int version = Objects.requireNonNullElse(customer.getVersionNo(), 0);
+
+        synchronized (this) {
+            Entry current = entries.get(customer.getCustomerId());
+            if (current != null && current.expiresAt - System.nanoTime() > 0) {
+                if (version < current.version) {
+                    return customer;
+                }
+                if (version == current.version && current.customer != null) {
+                    index(current, keys);
+                    return current.customer;
+                }
+            }
+            if (entryWeight > maxWeight) {
+                return customer;
+            }
+
+            Entry entry = new Entry(customer.getCustomerId(), customer, version, entryWeight, System.nanoTime() + ttlNanos);
+            if (current != null) {
+                remove(current);
+            }
+            entries.put(entry.customerId, entry);
+            weight += entry.weight;
+            index(entry, keys);
+            evictToSize();
+            return customer;
+        }
+    }
+
+    /**
+     * Evict the customer once the current transaction commits; nothing happens if it rolls back.
+     * Reads of a version older than the committed one are not cached afterwards.
+     */
+    public void evictAfterCommit(Customer customer) {
+        // The version is read after the commit, once the flush has incremented it
+        afterCommit(() -> fence(customer.getCustomerId(), Objects.requireNonNullElse(customer.getVersionNo(), 0)));
+    }
+
+    /**
+     * Evict a deleted customer once the current transaction commits; no version of it is cached afterwards
+     */
+    public void evictDeletedAfterCommit(UUID customerId) {
+        afterCommit(() -> fence(customerId, Integer.MAX_VALUE));
+    }
+
+    /**
+     * Record customers created by the current transaction once it commits: nothing is evicted, but
+     * the generation ends, so lookups that found no customer before the commit are not reused
+     */
+    public void createdAfterCommit() {
+        afterCommit(generation::incrementAndGet);
+    }
+
+    public long generation() {
+        return generation.get();
+    }
+
+    public synchronized long weight() {
+        return weight;
+    }
+
+    public synchronized int size() {
+        return (int) entries.values().stream().filter(entry -> entry.customer != null).count();
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        keyIndex.clear();
+        weight = 0;
+    }
+
+    // Helper methods
+
+    private void afterCommit(Runnable eviction) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            eviction.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                eviction.run();
+            }
+        });
+    }
+
+    private synchronized void fence(UUID customerId, int version) {
+        generation.incrementAndGet();
+        if (!enabled) {
+            return;
+        }
+        Entry current = entries.get(customerId);
+        if (current != null) {
+            if (current.customer != null) {
+                invalidations.increment();
+            }
+            remove(current);
+        }
+        // A fence holds no DTO, only the oldest version that may be cached again
+        Entry fence = new Entry(customerId, null, version, ENTRY_OVERHEAD, System.nanoTime() + ttlNanos);
+        entries.put(customerId, fence);
+        weight += fence.weight;
+        evictToSize();
+    }
+
+    private Entry live(UUID customerId) {
+        Entry entry = entries.get(customerId);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt - System.nanoTime() <= 0) {
+            if (entry.customer != null) {
+                expiredEvictions.increment();
+            }
+            remove(entry);
+            return null;
+        }
+        return entry.customer == null ? null : entry;
+    }
+
+    private CustomerDTO record(Entry entry) {
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.customer;
+    }
+
+    private void index(Entry entry, String... keys) {
+        for (String key : keys) {
+            UUID previous = keyIndex.put(key, entry.customerId);
+            if (previous != null && !previous.equals(entry.customerId)) {
+                Entry other = entries.get(previous);
+                if (other != null) {
+                    other.keys.remove(key);
+                }
+            }
+            entry.keys.add(key);
+        }
+    }
+
+    private void remove(Entry entry) {
+        entries.remove(entry.customerId, entry);
+        weight -= entry.weight;
+        for (String key : entry.keys) {
+            keyIndex.remove(key, entry.customerId);
+        }
+    }
+
+    private void evictToSize() {
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (weight > maxWeight && eldest.hasNext()) {
+            Entry entry = eldest.next();
+            eldest.remove();
+            weight -= entry.weight;
+            for (String key : entry.keys) {
+                keyIndex.remove(key, entry.customerId);
+            }
+            if (entry.customer != null) {
+                sizeEvictions.increment();
+            }
+        }
+    }
+
+    private long weigh(CustomerDTO customer) {
+        try {
+            return ENTRY_OVERHEAD + objectMapper.writeValueAsBytes(customer).length;
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Cannot size customer " + customer.getCustomerId(), ex);
+        }
+    }
+
+    private static Counter requests(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("customer.cache.requests")
+                .description("Customer DTO cache lookups")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static Counter evictions(MeterRegistry meterRegistry, String cause) {
+        return Counter.builder("customer.cache.evictions")
+                .description("Customer DTOs dropped from the cache")
+                .tag("cause", cause)
+                .register(meterRegistry);
+    }
+
+    private static final class Entry {
+
+        private final UUID customerId;
+        private final CustomerDTO customer;
+        private final int version;
+        private final long weight;
+        private final long expiresAt;
+        private final Set<String> keys = new HashSet<>(4);
+
+        private Entry(UUID customerId, CustomerDTO customer, int version, long weight, long expiresAt) {
+            this.customerId = customerId;
+            this.customer = customer;
+            this.version = version;
+            this.weight = weight;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,311 @@
+package com.backbase.customer_master.domain.service;
+
+import com.backbase.customer_master.common.bloom.BloomFilter;
+import com.backbase.customer_master.domain.repository.CustomerRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+
+/**
+ * Detects customers whose email or primary phone is already taken.
+ * A Bloom filter over the normalized emails and phones of all customers answers the common
+ * "definitely new" case without a query; only values the filter might contain are checked with
+ * indexed IN lookups on the email and primary_phone columns. The filter is built at startup,
+ * updated on every create and rebuilt periodically, which also drops values of deleted customers.
+ * Until the first build completes, and with app.duplicates.filter.enabled=false, every value goes
+ * to the database.
+ * Metrics: customer.duplicates.checks{outcome=definitely_new|false_positive|duplicate},
+ * customer.duplicates.filter.false_positive_rate (observed) and
+ * customer.duplicates.filter.expected_false_positive_rate (from the filter's fill).
+ */
+@Service
+@Slf4j
+public class CustomerDuplicateService {
+
+    private static final String EMAIL_KEY = "e:";
+    private static final String PHONE_KEY = "p:";
+
+    private final CustomerRepository customerRepository;
+    private final boolean filterEnabled;
+    private final long minExpectedInsertions;
+    private final double falsePositiveRate;
+
+    private final Counter definitelyNew;
+    private final Counter falsePositives;
+    private final Counter duplicates;
+
+    private final Object filterLock = new Object();
+    private volatile BloomFilter filter;
+    // Filter being rebuilt; receives the values registered meanwhile (guarded by filterLock)
+    private BloomFilter pending;
+
+    public CustomerDuplicateService(CustomerRepository customerRepository,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${app.duplicates.filter.enabled:true}") boolean filterEnabled,
+                                    @Value("${app.duplicates.filter.expected-insertions:1000000}") long minExpectedInsertions,
+                                    @Value("${app.duplicates.filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.customerRepository = customerRepository;
+        this.filterEnabled = filterEnabled;
+        this.minExpectedInsertions = minExpectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+
+        this.definitelyNew = checks(meterRegistry, "definitely_new");
+        this.falsePositives = checks(meterRegistry, "false_positive");
+        this.duplicates = checks(meterRegistry, "duplicate");
+        Gauge.builder("customer.duplicates.filter.false_positive_rate", this, CustomerDuplicateService::observedFalsePositiveRate)
+                .description("Share of new emails/phones the filter reported as possibly taken")
+                .register(meterRegistry);
+        Gauge.builder("customer.duplicates.filter.expected_false_positive_rate", this,
+                        service -> service.filter == null ? Double.NaN : service.filter.expectedFalsePositiveRate())
+                .description("False positive rate implied by the share of filter bits set")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Whether a customer already has this email or this primary phone (either may be null)
+     */
+    @Transactional(readOnly = true)
+    public boolean exists(String email, String primaryPhone) {
+        return !findTaken(Collections.singleton(email), Collections.singleton(primaryPhone)).isEmpty();
+    }
+
+    /**
+     * The given emails and phones that are already taken, normalized
+     */
+    @Transactional(readOnly = true)
+    public Taken findTaken(Collection<String> emails, Collection<String> primaryPhones) {
+        Set<String> candidateEmails = candidates(emails, CustomerDuplicateService::normalizeEmail, EMAIL_KEY);
+        Set<String> candidatePhones = candidates(primaryPhones, CustomerDuplicateService::normalizePhone, PHONE_KEY);
+
+        Taken taken = new Taken();
+        if (!candidateEmails.isEmpty()) {
+            Set<String> lookup = new HashSet<>(candidateEmails);
+            for (String email : emails) {
+                if (email != null && candidateEmails.contains(normalizeEmail(email))) {
+                    lookup.add(email.trim());
+                }
+            }
+            customerRepository.findEmailsIn(lookup).forEach(email -> taken.emails.add(normalizeEmail(email)));
+        }
+        if (!candidatePhones.isEmpty()) {
+            Set<String> lookup = new HashSet<>();
+            for (String phone : candidatePhones) {
+                lookup.addAll(phoneVariants(phone));
+            }
+            customerRepository.findPrimaryPhonesIn(lookup).forEach(phone -> taken.phones.add(normalizePhone(phone)));
+        }
+
+        count(candidateEmails, taken.emails);
+        count(candidatePhones, taken.phones);
+        return taken;
+    }
+
+    /**
+     * Add a new customer's email and phone to the filter. Called inside the creating transaction so
+     * concurrent creates see it at once, and again after commit so a rebuild reading the table
+     * meanwhile cannot miss it.
+     */
+    public void register(String email, String primaryPhone) {
+        add(email, primaryPhone);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    add(email, primaryPhone);
+                }
+            });
+        }
+    }
+
+    /**
+     * Build a new filter from the customer table and swap it in.
+     *
+     * @return number of values added
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.duplicates.filter.rebuild-interval-ms:86400000}",
+            initialDelayString = "${app.duplicates.filter.rebuild-interval-ms:86400000}")
+    @Transactional(readOnly = true)
+    public long rebuild() {
+        if (!filterEnabled) {
+            return 0;
+        }
+
+        long started = System.currentTimeMillis();
+        // Two values per customer, with room for the table to double before the next rebuild
+        long expected = Math.max(minExpectedInsertions, customerRepository.count() * 4);
+        BloomFilter next = BloomFilter.create(expected, falsePositiveRate);
+        synchronized (filterLock) {
+            pending = next;
+        }
+
+        long added = 0;
+        try (Stream<Object[]> rows = customerRepository.streamEmailsAndPhones()) {
+            Iterator<Object[]> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                Object[] row = iterator.next();
+                added += put(next, (String) row[0], (String) row[1]);
+            }
+        } catch (RuntimeException ex) {
+            synchronized (filterLock) {
+                pending = null;
+            }
+            throw ex;
+        }
+
+        synchronized (filterLock) {
+            filter = next;
+            pending = null;
+        }
+        log.info("Customer duplicate filter rebuilt with {} values ({} bits, {} hashes) in {} ms",
+                added, next.bitCount(), next.hashCount(), System.currentTimeMillis() - started);
+        return added;
+    }
+
+    public static String normalizeEmail(String email) {
+        return email == null || email.isBlank() ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Digits and '+' only, with a leading 0 replaced by +84
+     */
+    public static String normalizePhone(String phone) {
+        if (phone == null) {
+            return null;
+        }
+        String normalized = phone.replaceAll("[^0-9+]", "");
+        if (normalized.startsWith("0")) {
+            normalized = "+84" + normalized.substring(1);
+        }
+        return normalized.isEmpty() ? null : normalized;
+    }
+
+    // Helper methods
+
+    private Set<String> candidates(Collection<String> values, UnaryOperator<String> normalizer,
+                                   String keyPrefix) {
+        BloomFilter current = filter;
+        Set<String> candidates = new HashSet<>();
+        for (String value : values) {
+            String normalized = normalizer.apply(value);
+            if (normalized == null) {
+                continue;
+            }
+            if (current == null || current.mightContain(keyPrefix + normalized)) {
+                candidates.add(normalized);
+            } else {
+                definitelyNew.increment();
+            }
+        }
+        return candidates;
+    }
+
+    private void count(Set<String> candidates, Set<String> taken) {
+        if (filter == null) {
+            return;
+        }
+        for (String candidate : candidates) {
+            if (taken.contains(candidate)) {
+                duplicates.increment();
+            } else {
+                falsePositives.increment();
+            }
+        }
+    }
+
+    private void add(String email, String primaryPhone) {
+        synchronized (filterLock) {
+            if (filter != null) {
+                put(filter, email, primaryPhone);
+            }
+            if (pending != null) {
+                put(pending, email, primaryPhone);
+            }
+        }
+    }
+
+    private int put(BloomFilter target, String email, String primaryPhone) {
+        int added = 0;
+        String normalizedEmail = normalizeEmail(email);
+        if (normalizedEmail != null) {
+            target.put(EMAIL_KEY + normalizedEmail);
+            added++;
+        }
+        String normalizedPhone = normalizePhone(primaryPhone);
+        if (normalizedPhone != null) {
+            target.put(PHONE_KEY + normalizedPhone);
+            added++;
+        }
+        return added;
+    }
+
+    private Set<String> phoneVariants(String normalizedPhone) {
+        // Stored as typed: either +84... or 0...
+        Set<String> variants = new HashSet<>();
+        variants.add(normalizedPhone);
+        if (normalizedPhone.startsWith("+84")) {
+            variants.add("0" + normalizedPhone.substring(3));
+        }
+        return variants;
+    }
+
+    private double observedFalsePositiveRate() {
+        double positives = falsePositives.count();
+        double negatives = positives + definitelyNew.count();
+        return negatives == 0 ? 0.0 : positives / negatives;
+    }
+
+    private static Counter checks(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("customer.duplicates.checks")
+                .description("Email/phone duplicate checks by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Normalized emails and phones found taken
+     */
+    public static final class Taken {
+
+        private final Set<String> emails = new HashSet<>();
+        private final Set<String> phones = new HashSet<>();
+
+        public boolean contains(String email, String primaryPhone) {
+            String normalizedEmail = normalizeEmail(email);
+            String normalizedPhone = normalizePhone(primaryPhone);
+            return (normalizedEmail != null && emails.contains(normalizedEmail))
+                    || (normalizedPhone != null && phones.contains(normalizedPhone));
+        }
+
+        /**
+         * Mark the values as taken, e.g. by an earlier record of the same request
+         */
+        public void add(String email, String primaryPhone) {
+            String normalizedEmail = normalizeEmail(email);
+            if (normalizedEmail != null) {
+                emails.add(normalizedEmail);
+            }
+            String normalizedPhone = normalizePhone(primaryPhone);
+            if (normalizedPhone != null) {
+                phones.add(normalizedPhone);
+            }
+        }
+
+        public boolean isEmpty() {
+            return emails.isEmpty() && phones.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.backbase.customer_master.domain.service;
+
+import com.backbase.customer_master.common.id.EntityIds;
+import com.backbase.customer_master.domain.model.Customer;
+import com.backbase.customer_master.domain.model.Event;
+import com.backbase.customer_master.domain.repository.EventRepository;
+import com.backbase.customer_master.infrastructure.outbox.AsyncEventWriter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Appends customer changes to the event outbox.
+ * Must be called inside the transaction that changes the customer, so the event commits or rolls
+ * back with it; the outbox relay publishes committed events. Each event carries a field-level diff
+ * of the customer's columns (reference data by code, dates as ISO strings):
+ * {"email": {"old": "a@x.vn", "new": "b@x.vn"}}. Audit columns (created/updated at, version,
+ * search key) are not diffed; updates that change nothing else record no event.
+ * With app.outbox.async.enabled, update events are handed to the {@link AsyncEventWriter} instead of
+ * being inserted by the transaction: logged to its write-ahead log at commit, written after it;
+ * creates and deletes stay in the transaction.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(propagation = Propagation.MANDATORY)
+public class CustomerEventRecorder {
+
+    public static final String ENTITY_NAME = "CUSTOMER";
+    public static final String CREATE = "CREATE";
+    public static final String UPDATE = "UPDATE";
+    public static final String DELETE = "DELETE";
+
+    private static final String SYSTEM = "SYSTEM";
+    private static final String SOURCE_APP = "customer-master";
+
+    // Diffed columns, in the order they appear in the event
+    private static final Map<String, Function<Customer, Object>> FIELDS = new LinkedHashMap<>();
+
+    static {
+        FIELDS.put("cifStatus", Customer::getCifStatus);
+        FIELDS.put("fullName", Customer::getFullName);
+        FIELDS.put("dateOfBirth", Customer::getDateOfBirth);
+        FIELDS.put("cifCreatedDate", Customer::getCifCreatedDate);
+        FIELDS.put("primaryPhone", Customer::getPrimaryPhone);
+        FIELDS.put("secondaryPhone", Customer::getSecondaryPhone);
+        FIELDS.put("email", Customer::getEmail);
+        FIELDS.put("genderCode", customer -> customer.getGender() == null ? null : customer.getGender().getGenderCode());
+        FIELDS.put("nationalityCode", customer -> customer.getNationality() == null ? null : customer.getNationality().getCountryCode());
+        FIELDS.put("maritalStatusCode", customer -> customer.getMaritalStatus() == null ? null : customer.getMaritalStatus().getMaritalStatusCode());
+        FIELDS.put("clientTypeCode", customer -> customer.getClientType() == null ? null : customer.getClientType().getClientTypeCode());
+        FIELDS.put("categoryCode", customer -> customer.getCategory() == null ? null : customer.getCategory().getCategoryCode());
+        FIELDS.put("contactChannelCode", customer -> customer.getPreferredContactChannel() == null ? null : customer.getPreferredContactChannel().getContactChannelCode());
+        FIELDS.put("occupationCode", customer -> customer.getOccupation() == null ? null : customer.getOccupation().getOccupationCode());
+        FIELDS.put("industryCode", customer -> customer.getClassificationIndustry() == null ? null : customer.getClassificationIndustry().getIndustryCode());
+        FIELDS.put("businessClassCode", customer -> customer.getClassificationBusiness() == null ? null : customer.getClassificationBusiness().getBusinessClassCode());
+        FIELDS.put("sectorCode", customer -> customer.getClassificationSector() == null ? null : customer.getClassificationSector().getSectorCode());
+        FIELDS.put("preferredLanguageCode", customer -> customer.getPreferredLanguage() == null ? null : customer.getPreferredLanguage().getLanguageCode());
+        FIELDS.put("segmentCode", customer -> customer.getCustomerSegment() == null ? null : customer.getCustomerSegment().getSegmentCode());
+        FIELDS.put("jobTitle", Customer::getJobTitle);
+        FIELDS.put("monthlyIncome", Customer::getMonthlyIncome);
+        FIELDS.put("mainIncomeSource", Customer::getMainIncomeSource);
+        FIELDS.put("accountUsagePurpose", Customer::getAccountUsagePurpose);
+        FIELDS.put("internalClient", Customer::getInternalClient);
+        FIELDS.put("taxFileNo", Customer::getTaxFileNo);
+        FIELDS.put("taxable", Customer::getTaxable);
+        FIELDS.put("registrationChannel", Customer::getRegistrationChannel);
+        FIELDS.put("notes", Customer::getNotes);
+        FIELDS.put("customerClassification", Customer::getCustomerClassification);
+        FIELDS.put("createdBy", Customer::getCreatedBy);
+        FIELDS.put("updatedBy", Customer::getUpdatedBy);
+        FIELDS.put("sourceApp", Customer::getSourceApp);
+    }
+
+    private final EventRepository eventRepository;
+    private final AsyncEventWriter asyncEventWriter;
+
+    /**
+     * The customer's diffed columns, taken before a change
+     */
+    public static Map<String, String> snapshot(Customer customer) {
+        Map<String, String> snapshot = new LinkedHashMap<>();
+        FIELDS.forEach((field, getter) -> {
+            Object value = getter.apply(customer);
+            snapshot.put(field, value == null ? null : value.toString());
+        });
+        return snapshot;
+    }
+
+    public void created(Customer customer) {
+        eventRepository.save(event(customer, CREATE, customer.getVersionNo(),
+                diff(Collections.emptyMap(), snapshot(customer)), customer.getCreatedBy()));
+    }
+
+    /**
+     * Record the difference between the snapshot and the customer's current state.
+     * Hibernate bumps the version when it flushes the change, so the event carries the next one.
+     */
+    public void updated(Map<String, String> before, Customer customer, String eventBy) {
+        Map<String, Object> changes = diff(before, snapshot(customer));
+        if (changes.isEmpty()) {
+            log.debug("No field changed on customer {}, no event recorded", customer.getCustomerId());
+            return;
+        }
+        Event event = event(customer, UPDATE, customer.getVersionNo() + 1, changes, eventBy);
+        if (!asyncEventWriter.isEnabled()) {
+            eventRepository.save(event);
+            return;
+        }
+
+        // ID taken now so the event keeps its place in event_id order
+        event.setEventId(EntityIds.nextTimeOrdered());
+        asyncEventWriter.submitOnCommit(event);
+    }
+
+    public void deleted(Map<String, String> before, Customer customer, String eventBy) {
+        eventRepository.save(event(customer, DELETE, customer.getVersionNo(),
+                diff(before, Collections.emptyMap()), eventBy));
+    }
+
+    // Helper methods
+
+    private Event event(Customer customer, String operationType, Integer versionNo,
+                        Map<String, Object> changes, String eventBy) {
+        return Event.builder()
+                .entityName(ENTITY_NAME)
+                .entityId(customer.getCustomerId().toString())
+                .versionNo(versionNo)
+                .operationType(operationType)
+                .changedFields(changes)
+                .eventTime(LocalDateTime.now())
+                .eventBy(eventBy != null ? eventBy : Objects.requireNonNullElse(customer.getUpdatedBy(), SYSTEM))
+                .correlationId(customer.getCorrelationId())
+                .sourceApp(customer.getSourceApp() != null ? customer.getSourceApp() : SOURCE_APP)
+                .build();
+    }
+
+    private Map<String, Object> diff(Map<String, String> before, Map<String, String> after) {
+        Map<String, Object> changes = new LinkedHashMap<>();
+        for (String field : FIELDS.keySet()) {
+            String oldValue = before.get(field);
+            String newValue = after.get(field);
+            if (!Objects.equals(oldValue, newValue)) {
+                Map<String, String> change = new LinkedHashMap<>();
+                change.put("old", oldValue);
+                change.put("new", newValue);
+                changes.put(field, change);
+            }
+        }
+        return changes;
+    }
+}
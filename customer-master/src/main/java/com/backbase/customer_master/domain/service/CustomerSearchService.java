@@ -0,0 +1,195 @@
+package com.backbase.customer_master.domain.service;
+
+import com.backbase.customer_master.domain.model.Customer;
+import com.backbase.customer_master.infrastructure.persistence.loader.CustomerPageLoader;
+import com.backbase.customer_master.infrastructure.persistence.loader.CustomerSummaryLoader;
+import com.backbase.customer_master.infrastructure.persistence.search.CustomerNameIndex;
+import com.backbase.customer_master.infrastructure.persistence.specification.CustomerSpecifications;
+import com.backbase.customer_master.presentation.dto.CustomerDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * Free-text customer search across name, phone, email and tax file number.
+ * Each term is classified first and sent to the lookups its shape allows: digits to phone and
+ * tax number (equality, then prefix), an '@' to email (equality, then prefix), letters to the
+ * folded name index only. Every lookup is served by an index and returns at most max-candidates IDs.
+ * Job titles are only searched for terms that fit no class (e.g. "KT-2023A"), which fall back to the
+ * old five-column LIKE scan, capped at residual-scan-limit rows: a plain word such as "ke toan"
+ * does not match a job title. Hits are merged per customer and ranked by how many terms
+ * matched, then by match strength (exact over prefix over scan), then by lookup order.
+ */
+@Service
+@Slf4j
+@Transactional(readOnly = true)
+public class CustomerSearchService {
+
+    private static final Pattern DIGITS = Pattern.compile("\\+?[0-9][0-9().\\-]*");
+    private static final Pattern WORD = Pattern.compile("[\\p{L}\\p{M}'\\-]+");
+    private static final int MIN_DIGITS = 3;
+
+    private static final int EXACT = 3;
+    private static final int PREFIX = 2;
+    private static final int SCAN = 1;
+
+    private final CustomerPageLoader customerPageLoader;
+    private final CustomerNameIndex customerNameIndex;
+    private final CustomerSummaryLoader customerSummaryLoader;
+    private final int maxCandidates;
+    private final int residualScanLimit;
+
+    public CustomerSearchService(CustomerPageLoader customerPageLoader,
+                                 CustomerNameIndex customerNameIndex,
+                                 CustomerSummaryLoader customerSummaryLoader,
+                                 @Value("${app.search.max-candidates:200}") int maxCandidates,
+                                 @Value("${app.search.residual-scan-limit:500}") int residualScanLimit) {
+        this.customerPageLoader = customerPageLoader;
+        this.customerNameIndex = customerNameIndex;
+        this.customerSummaryLoader = customerSummaryLoader;
+        this.maxCandidates = maxCandidates;
+        this.residualScanLimit = residualScanLimit;
+    }
+
+    /**
+     * Search non-closed customers matching any of the terms, best matches first.
+     * The pageable's sort is ignored: results are in relevance order.
+     */
+    public Page<CustomerDTO> search(String searchTerm, Pageable pageable) {
+        List<Term> terms = classify(searchTerm);
+        log.debug("Search terms for '{}': {}", searchTerm, terms);
+        if (terms.isEmpty()) {
+            return customerPageLoader.findPage(CustomerSpecifications.excludeClosed(), pageable, customerSummaryLoader::findByIds);
+        }
+
+        // Best strength per customer per term, in order of first hit
+        Map<UUID, int[]> hits = new LinkedHashMap<>();
+        for (int i = 0; i < terms.size(); i++) {
+            Term term = terms.get(i);
+            switch (term.kind()) {
+                case DIGITS -> searchDigits(term.text(), hits, i, terms.size());
+                case EMAIL -> searchEmail(term.text(), hits, i, terms.size());
+                case NAME -> record(hits, i, terms.size(), PREFIX, customerNameIndex.search(term.text(),
+                        CustomerSpecifications.excludeClosed(), PageRequest.of(0, maxCandidates)).getContent());
+                case RESIDUAL -> record(hits, i, terms.size(), SCAN, lookup(
+                        CustomerSpecifications.complexSearch(term.text()), PageRequest.of(0, residualScanLimit)));
+            }
+        }
+
+        List<UUID> ranked = new ArrayList<>(hits.keySet());
+        // Stable sort: ties keep lookup order, which already puts exact and indexed hits first
+        ranked.sort(Comparator.<UUID>comparingInt(id -> matched(hits.get(id))).reversed()
+                .thenComparing(Comparator.<UUID>comparingInt(id -> Arrays.stream(hits.get(id)).sum()).reversed()));
+
+        List<UUID> page = ranked;
+        if (pageable.isPaged()) {
+            int from = (int) Math.min(pageable.getOffset(), ranked.size());
+            page = ranked.subList(from, Math.min(from + pageable.getPageSize(), ranked.size()));
+        }
+        return customerPageLoader.hydratePage(new PageImpl<>(page, pageable, ranked.size()), customerSummaryLoader::findByIds);
+    }
+
+    // Helper methods
+
+    private void searchDigits(String text, Map<UUID, int[]> hits, int term, int termCount) {
+        String digits = text.replaceAll("[^0-9+]", "");
+        // Phones are stored either as typed (0901234567) or normalized (+84901234567)
+        Set<String> phones = new LinkedHashSet<>();
+        phones.add(digits);
+        if (digits.startsWith("0")) {
+            phones.add("+84" + digits.substring(1));
+        } else if (digits.startsWith("+84")) {
+            phones.add("0" + digits.substring(3));
+        }
+
+        Pageable candidates = PageRequest.of(0, maxCandidates);
+        record(hits, term, termCount, EXACT, lookup(CustomerSpecifications.hasPrimaryPhoneIn(phones), candidates));
+        record(hits, term, termCount, EXACT, lookup(CustomerSpecifications.hasTaxFileNoIn(variants(text, digits)), candidates));
+        for (String phone : phones) {
+            record(hits, term, termCount, PREFIX, lookup(CustomerSpecifications.hasPrimaryPhoneStartingWith(phone),
+                    PageRequest.of(0, maxCandidates, Sort.by("primaryPhone"))));
+        }
+        record(hits, term, termCount, PREFIX, lookup(CustomerSpecifications.hasTaxFileNoStartingWith(text),
+                PageRequest.of(0, maxCandidates, Sort.by("taxFileNo"))));
+    }
+
+    private void searchEmail(String text, Map<UUID, int[]> hits, int term, int termCount) {
+        String lowerCase = text.toLowerCase(Locale.ROOT);
+        record(hits, term, termCount, EXACT, lookup(CustomerSpecifications.hasEmailIn(variants(text, lowerCase)),
+                PageRequest.of(0, maxCandidates)));
+        record(hits, term, termCount, PREFIX, lookup(CustomerSpecifications.hasEmailStartingWith(lowerCase),
+                PageRequest.of(0, maxCandidates, Sort.by("email"))));
+    }
+
+    private List<UUID> lookup(Specification<Customer> predicate, Pageable pageable) {
+        return customerPageLoader.findIds(predicate.and(CustomerSpecifications.excludeClosed()), pageable);
+    }
+
+    private void record(Map<UUID, int[]> hits, int term, int termCount, int strength, List<UUID> ids) {
+        for (UUID id : ids) {
+            int[] strengths = hits.computeIfAbsent(id, key -> new int[termCount]);
+            strengths[term] = Math.max(strengths[term], strength);
+        }
+    }
+
+    private Set<String> variants(String... values) {
+        return new LinkedHashSet<>(Arrays.asList(values));
+    }
+
+    private int matched(int[] strengths) {
+        return (int) Arrays.stream(strengths).filter(strength -> strength > 0).count();
+    }
+
+    /**
+     * Split the input on whitespace and classify each token. Adjacent words form one name phrase
+     * and adjacent digit groups one number, so "Nguyen Van An" and "090 123 4567" stay whole.
+     */
+    static List<Term> classify(String searchTerm) {
+        List<Term> terms = new ArrayList<>();
+        if (StringUtils.isBlank(searchTerm)) {
+            return terms;
+        }
+
+        for (String token : searchTerm.trim().split("\\s+")) {
+            Kind kind = kindOf(token);
+            Term previous = terms.isEmpty() ? null : terms.get(terms.size() - 1);
+            if (previous != null && previous.kind() == kind && kind == Kind.NAME) {
+                terms.set(terms.size() - 1, new Term(kind, previous.text() + " " + token));
+            } else if (previous != null && previous.kind() == kind && kind == Kind.DIGITS) {
+                terms.set(terms.size() - 1, new Term(kind, previous.text() + token));
+            } else {
+                terms.add(new Term(kind, token));
+            }
+        }
+        return terms;
+    }
+
+    private static Kind kindOf(String token) {
+        if (token.indexOf('@') >= 0) {
+            return Kind.EMAIL;
+        }
+        if (DIGITS.matcher(token).matches() && token.replaceAll("[^0-9]", "").length() >= MIN_DIGITS) {
+            return Kind.DIGITS;
+        }
+        if (WORD.matcher(token).matches()) {
+            return Kind.NAME;
+        }
+        return Kind.RESIDUAL;
+    }
+
+    enum Kind { DIGITS, EMAIL, NAME, RESIDUAL }
+
+    record Term(Kind kind, String text) {
+    }
+}
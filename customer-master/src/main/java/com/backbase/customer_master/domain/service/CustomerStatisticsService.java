@@ -0,0 +1,224 @@
+package com.backbase.customer_master.domain.service;
+
+import com.backbase.customer_master.domain.model.Customer;
+import com.backbase.customer_master.domain.model.CustomerStatisticsCounter;
+import com.backbase.customer_master.domain.repository.CustomerRepository;
+import com.backbase.customer_master.domain.repository.CustomerStatisticsCounterRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Customer statistics, either aggregated from the customer table in one scan or served from an
+ * incrementally maintained snapshot (app.statistics.snapshot.enabled).
+ * With the snapshot on, command handlers apply each customer's before/after contribution inside
+ * their own transaction, so the dashboard only sums a fixed number of counter rows. Deltas land on
+ * a random slot so concurrent commands do not all queue on one row lock. A periodic reconciliation
+ * recounts the table and corrects drift from writes that bypass the command handlers.
+ */
+@Service
+@Slf4j
+public class CustomerStatisticsService {
+
+    static final int SLOTS = 8;
+
+    private static final String ACTIVE = "ACTIVE";
+    private static final String INACTIVE = "INACTIVE";
+    private static final String SUSPENDED = "SUSPENDED";
+    private static final String CLOSED = "CLOSED";
+
+    private final CustomerRepository customerRepository;
+    private final CustomerStatisticsCounterRepository counterRepository;
+    private final boolean snapshotEnabled;
+
+    private volatile boolean snapshotReady;
+
+    public CustomerStatisticsService(CustomerRepository customerRepository,
+                                     CustomerStatisticsCounterRepository counterRepository,
+                                     @Value("${app.statistics.snapshot.enabled:false}") boolean snapshotEnabled) {
+        this.customerRepository = customerRepository;
+        this.counterRepository = counterRepository;
+        this.snapshotEnabled = snapshotEnabled;
+    }
+
+    /**
+     * Current statistics: the snapshot once it has been reconciled, otherwise a fresh aggregate
+     */
+    @Transactional(readOnly = true)
+    public CustomerDomainService.CustomerStatistics getStatistics() {
+        if (snapshotEnabled && snapshotReady) {
+            return getSnapshot();
+        }
+        return aggregate();
+    }
+
+    /**
+     * Count every statistic with a single grouped query over the customer table
+     */
+    @Transactional(readOnly = true)
+    public CustomerDomainService.CustomerStatistics aggregate() {
+        Map<String, Object[]> byStatus = new HashMap<>();
+        for (Object[] row : customerRepository.aggregateStatisticsByStatus()) {
+            byStatus.put((String) row[0], row);
+        }
+
+        Object[] active = byStatus.get(ACTIVE);
+        return CustomerDomainService.CustomerStatistics.builder()
+                .totalActive(column(active, 1))
+                .totalInactive(column(byStatus.get(INACTIVE), 1))
+                .totalSuspended(column(byStatus.get(SUSPENDED), 1))
+                .totalClosed(column(byStatus.get(CLOSED), 1))
+                .internalClients(column(active, 2))
+                .taxableCustomers(column(active, 3))
+                .build();
+    }
+
+    /**
+     * Sum of the snapshot counters
+     */
+    @Transactional(readOnly = true)
+    public CustomerDomainService.CustomerStatistics getSnapshot() {
+        return sum(counterRepository.findAll());
+    }
+
+    /**
+     * Apply the change of one customer to the snapshot, in the caller's transaction.
+     * Pass {@link Contribution#NONE} as before for a create and as after for a delete.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordChange(Contribution before, Contribution after) {
+        if (!snapshotEnabled) {
+            return;
+        }
+
+        Contribution delta = after.minus(before);
+        if (delta.isZero()) {
+            return;
+        }
+
+        int slot = ThreadLocalRandom.current().nextInt(SLOTS);
+        int updated = counterRepository.applyDelta(slot, delta.active(), delta.inactive(), delta.suspended(),
+                delta.closed(), delta.internalClients(), delta.taxableCustomers(), LocalDateTime.now());
+        if (updated == 0) {
+            // Counters not created yet; the first reconciliation counts this change
+            log.debug("Statistics slot {} missing, change left to reconciliation", slot);
+        }
+    }
+
+    /**
+     * Recount the customer table and reset the snapshot to the result
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.statistics.snapshot.reconcile-interval-ms:3600000}",
+            initialDelayString = "${app.statistics.snapshot.reconcile-interval-ms:3600000}")
+    @Transactional
+    public void reconcile() {
+        if (!snapshotEnabled) {
+            return;
+        }
+
+        // Lock the counters before recounting: commands that already applied a delta commit first and
+        // are counted, commands that have not applied theirs yet wait and apply it on top of the recount
+        Map<Integer, CustomerStatisticsCounter> counters = new HashMap<>();
+        for (CustomerStatisticsCounter counter : counterRepository.findAllForUpdate()) {
+            counters.put(counter.getSlot(), counter);
+        }
+        CustomerDomainService.CustomerStatistics snapshot = sum(counters.values());
+        CustomerDomainService.CustomerStatistics actual = aggregate();
+
+        if (!counters.isEmpty() && !snapshot.equals(actual)) {
+            log.warn("Customer statistics snapshot drifted, correcting: snapshot={}, actual={}", snapshot, actual);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        for (int slot = 0; slot < SLOTS; slot++) {
+            CustomerStatisticsCounter counter = counters.computeIfAbsent(slot,
+                    key -> CustomerStatisticsCounter.builder().slot(key).build());
+            boolean first = slot == 0;
+            counter.setTotalActive(first ? actual.getTotalActive() : 0L);
+            counter.setTotalInactive(first ? actual.getTotalInactive() : 0L);
+            counter.setTotalSuspended(first ? actual.getTotalSuspended() : 0L);
+            counter.setTotalClosed(first ? actual.getTotalClosed() : 0L);
+            counter.setInternalClients(first ? actual.getInternalClients() : 0L);
+            counter.setTaxableCustomers(first ? actual.getTaxableCustomers() : 0L);
+            counter.setUpdatedAt(now);
+        }
+        counterRepository.saveAll(counters.values());
+        snapshotReady = true;
+
+        log.debug("Customer statistics snapshot reconciled: {}", actual);
+    }
+
+    // Helper methods
+
+    private long column(Object[] row, int index) {
+        return row == null || row[index] == null ? 0L : ((Number) row[index]).longValue();
+    }
+
+    private CustomerDomainService.CustomerStatistics sum(Iterable<CustomerStatisticsCounter> counters) {
+        long active = 0, inactive = 0, suspended = 0, closed = 0, internalClients = 0, taxableCustomers = 0;
+        for (CustomerStatisticsCounter counter : counters) {
+            active += counter.getTotalActive();
+            inactive += counter.getTotalInactive();
+            suspended += counter.getTotalSuspended();
+            closed += counter.getTotalClosed();
+            internalClients += counter.getInternalClients();
+            taxableCustomers += counter.getTaxableCustomers();
+        }
+        return CustomerDomainService.CustomerStatistics.builder()
+                .totalActive(active)
+                .totalInactive(inactive)
+                .totalSuspended(suspended)
+                .totalClosed(closed)
+                .internalClients(internalClients)
+                .taxableCustomers(taxableCustomers)
+                .build();
+    }
+
+    /**
+     * What one customer adds to each counter
+     */
+    public record Contribution(long active, long inactive, long suspended, long closed,
+                               long internalClients, long taxableCustomers) {
+
+        public static final Contribution NONE = new Contribution(0, 0, 0, 0, 0, 0);
+
+        public static Contribution of(Customer customer) {
+            String status = customer.getCifStatus();
+            boolean active = ACTIVE.equals(status);
+            return new Contribution(
+                    active ? 1 : 0,
+                    INACTIVE.equals(status) ? 1 : 0,
+                    SUSPENDED.equals(status) ? 1 : 0,
+                    CLOSED.equals(status) ? 1 : 0,
+                    active && customer.isInternalClient() ? 1 : 0,
+                    active && customer.isTaxable() ? 1 : 0);
+        }
+
+        public Contribution plus(Contribution other) {
+            return new Contribution(active + other.active, inactive + other.inactive,
+                    suspended + other.suspended, closed + other.closed,
+                    internalClients + other.internalClients, taxableCustomers + other.taxableCustomers);
+        }
+
+        public Contribution minus(Contribution other) {
+            return new Contribution(active - other.active, inactive - other.inactive,
+                    suspended - other.suspended, closed - other.closed,
+                    internalClients - other.internalClients, taxableCustomers - other.taxableCustomers);
+        }
+
+        public boolean isZero() {
+            return this.equals(NONE);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.backbase.customer_master.infrastructure.config;
+
+import com.backbase.customer_master.infrastructure.persistence.pool.BulkheadDataSource;
+import com.backbase.customer_master.infrastructure.persistence.pool.ConnectionBulkheadProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Puts a {@link BulkheadDataSource} in front of the application's connection pool
+ * (app.datasource.bulkhead). With read replica routing, ReadReplicaConfig guards the primary and
+ * replica pools itself, since the application's DataSource is then a routing proxy, not a pool.
+ */
+@Configuration
+@EnableConfigurationProperties(ConnectionBulkheadProperties.class)
+public class ConnectionBulkheadConfig {
+
+    private static final String DATA_SOURCE_BEAN = "dataSource";
+
+    @Bean
+    static BeanPostProcessor connectionBulkheadPostProcessor(ObjectProvider<ConnectionBulkheadProperties> properties,
+                                                             ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (DATA_SOURCE_BEAN.equals(beanName) && bean instanceof HikariDataSource pool) {
+                    return properties.getObject().guard(pool, "primary", meterRegistry.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+}
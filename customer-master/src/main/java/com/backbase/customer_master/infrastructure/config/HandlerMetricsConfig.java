@@ -0,0 +1,32 @@
+package com.backbase.customer_master.infrastructure.config;
+
+import com.backbase.customer_master.infrastructure.metrics.HandlerMetricsAspect;
+import com.backbase.customer_master.infrastructure.metrics.SqlActivityStatistics;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Latency and SQL metrics per command and query handler call (app.metrics.handlers), see
+ * {@link HandlerMetricsAspect}
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.metrics.handlers", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class HandlerMetricsConfig {
+
+    @Bean
+    public HandlerMetricsAspect handlerMetricsAspect(MeterRegistry meterRegistry) {
+        return new HandlerMetricsAspect(meterRegistry);
+    }
+
+    /**
+     * Per-thread statement and row counters fed by Hibernate's statistics hooks; full Hibernate
+     * statistics only with hibernate.generate_statistics
+     */
+    @Bean
+    public HibernatePropertiesCustomizer sqlActivityStatisticsCustomizer() {
+        return SqlActivityStatistics::install;
+    }
+}
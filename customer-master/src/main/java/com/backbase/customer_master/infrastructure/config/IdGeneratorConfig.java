@@ -0,0 +1,33 @@
+package com.backbase.customer_master.infrastructure.config;
+
+import com.backbase.customer_master.common.id.EntityIds;
+import com.backbase.customer_master.common.id.IdGenerator;
+import com.backbase.customer_master.common.id.RandomIdGenerator;
+import com.backbase.customer_master.common.id.TimeOrderedIdGenerator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Primary key generation (app.ids.strategy: time-ordered or random)
+ */
+@Configuration
+@Slf4j
+public class IdGeneratorConfig {
+
+    /**
+     * The ID generator, also installed for entity callbacks through {@link EntityIds}
+     */
+    @Bean
+    public IdGenerator idGenerator(@Value("${app.ids.strategy:time-ordered}") String strategy) {
+        IdGenerator idGenerator = switch (strategy) {
+            case "time-ordered" -> new TimeOrderedIdGenerator();
+            case "random" -> new RandomIdGenerator();
+            default -> throw new IllegalArgumentException("Unknown app.ids.strategy: " + strategy);
+        };
+        EntityIds.use(idGenerator);
+        log.info("Using {} primary keys", strategy);
+        return idGenerator;
+    }
+}
@@ -0,0 +1,33 @@
+package com.backbase.customer_master.infrastructure.config;
+
+import com.backbase.customer_master.infrastructure.outbox.FileOutboxSink;
+import com.backbase.customer_master.infrastructure.outbox.InMemoryOutboxSink;
+import com.backbase.customer_master.infrastructure.outbox.OutboxSink;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+/**
+ * Outbox relay destination (app.outbox.sink: file or memory)
+ */
+@Configuration
+@Slf4j
+public class OutboxConfig {
+
+    @Bean
+    public OutboxSink outboxSink(@Value("${app.outbox.sink:file}") String sink,
+                                 @Value("${app.outbox.file.path:outbox/customer-events.jsonl}") String path,
+                                 ObjectMapper objectMapper) {
+        OutboxSink outboxSink = switch (sink) {
+            case "file" -> new FileOutboxSink(Path.of(path), objectMapper);
+            case "memory" -> new InMemoryOutboxSink();
+            default -> throw new IllegalArgumentException("Unknown app.outbox.sink: " + sink);
+        };
+        log.info("Publishing outbox events to the {} sink", sink);
+        return outboxSink;
+    }
+}
@@ -0,0 +1,26 @@
+package com.backbase.customer_master.infrastructure.config;
+
+import com.backbase.customer_master.infrastructure.persistence.reference.ReferenceDataInterceptor;
+import com.backbase.customer_master.infrastructure.persistence.reference.ReferenceDataRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Hibernate/JPA tuning configuration
+ */
+@Configuration
+public class PersistenceConfig {
+
+    /**
+     * Register the reference data interceptor on the session factory
+     */
+    @Bean
+    public HibernatePropertiesCustomizer referenceDataInterceptorCustomizer(
+            ObjectProvider<ReferenceDataRegistry> referenceDataRegistry) {
+        return properties -> properties.put(AvailableSettings.INTERCEPTOR,
+                new ReferenceDataInterceptor(referenceDataRegistry));
+    }
+}
@@ -0,0 +1,106 @@
+package com.backbase.customer_master.infrastructure.config;
+
+import com.backbase.customer_master.infrastructure.persistence.pool.ConnectionBulkheadProperties;
+import com.backbase.customer_master.infrastructure.persistence.routing.ReadReplicaProperties;
+import com.backbase.customer_master.infrastructure.persistence.routing.ReadYourWritesFilter;
+import com.backbase.customer_master.infrastructure.persistence.routing.ReadYourWritesTracker;
+import com.backbase.customer_master.infrastructure.persistence.routing.ReplicaDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Routes read-only transactions to read replicas (app.datasource.routing.enabled).
+ * The application's DataSource becomes a lazy proxy over the primary pool (spring.datasource):
+ * it takes the real connection at the first statement, once the transaction has marked it
+ * read-only, and read-only connections come from the {@link ReplicaDataSource}. Everything else,
+ * including writes and reads outside a transaction, stays on the primary. Every pool is guarded by
+ * its own connection bulkhead (see {@link ConnectionBulkheadProperties}).
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.datasource.routing", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(ReadReplicaProperties.class)
+@Slf4j
+public class ReadReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker(ReadReplicaProperties properties) {
+        return new ReadYourWritesTracker(properties.getReadYourWritesSeconds());
+    }
+
+    /**
+     * The primary pool behind its connection bulkhead, shared by writes and by reads that fall back to the primary
+     */
+    @Bean
+    public DataSource guardedPrimaryDataSource(HikariDataSource primaryDataSource,
+                                               ConnectionBulkheadProperties bulkheadProperties,
+                                               MeterRegistry meterRegistry) {
+        return bulkheadProperties.guard(primaryDataSource, "primary", meterRegistry);
+    }
+
+    @Bean
+    public ReplicaDataSource replicaDataSource(@Qualifier("guardedPrimaryDataSource") DataSource guardedPrimaryDataSource,
+                                               DataSourceProperties dataSourceProperties,
+                                               ReadReplicaProperties properties,
+                                               ConnectionBulkheadProperties bulkheadProperties,
+                                               ReadYourWritesTracker readYourWritesTracker,
+                                               MeterRegistry meterRegistry) {
+        List<HikariDataSource> pools = new ArrayList<>();
+        for (ReadReplicaProperties.Replica replica : properties.getReplicas()) {
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName(replica.getName());
+            pool.setJdbcUrl(replica.getUrl());
+            pool.setUsername(replica.getUsername() != null ? replica.getUsername() : dataSourceProperties.determineUsername());
+            pool.setPassword(replica.getPassword() != null ? replica.getPassword() : dataSourceProperties.determinePassword());
+            pool.setDriverClassName(dataSourceProperties.determineDriverClassName());
+            pool.setMaximumPoolSize(properties.getPoolSize());
+            pool.setConnectionTimeout(properties.getConnectionTimeoutMs());
+            pool.setReadOnly(true);
+            // A replica that is down at startup must not stop the application
+            pool.setInitializationFailTimeout(-1);
+            pools.add(pool);
+        }
+        log.info("Routing read-only transactions to {} replicas", pools.size());
+
+        return new ReplicaDataSource(guardedPrimaryDataSource, pools,
+                pool -> bulkheadProperties.guard(pool, pool.getPoolName(), meterRegistry),
+                readYourWritesTracker, properties.getLagQuery(), properties.getMaxLagSeconds(), meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("guardedPrimaryDataSource") DataSource guardedPrimaryDataSource,
+                                 ReplicaDataSource replicaDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(guardedPrimaryDataSource);
+        dataSource.setReadOnlyDataSource(replicaDataSource);
+        return dataSource;
+    }
+
+    /**
+     * Runs after the security filter chain (default order), which resolves the principal
+     */
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(ReadYourWritesTracker readYourWritesTracker) {
+        return new FilterRegistrationBean<>(new ReadYourWritesFilter(readYourWritesTracker));
+    }
+}
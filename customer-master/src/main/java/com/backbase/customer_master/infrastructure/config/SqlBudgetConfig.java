@@ -0,0 +1,37 @@
+package com.backbase.customer_master.infrastructure.config;
+
+import com.backbase.customer_master.infrastructure.metrics.SqlActivityDataSource;
+import com.backbase.customer_master.infrastructure.metrics.SqlActivityStatistics;
+import com.backbase.customer_master.infrastructure.metrics.SqlBudgetAspect;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * SQL budget guard for {@link com.backbase.customer_master.infrastructure.metrics.SqlBudget} methods
+ * (app.metrics.sql-budget: enabled, action log or fail). Meant for tests and staging: Hibernate gets a
+ * row counting view of the DataSource, so only JPA work pays for the counting.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.metrics.sql-budget", name = "enabled", havingValue = "true")
+public class SqlBudgetConfig {
+
+    @Bean
+    public SqlBudgetAspect sqlBudgetAspect(@Value("${app.metrics.sql-budget.action:log}") String action) {
+        return new SqlBudgetAspect(SqlBudgetAspect.Action.valueOf(action.toUpperCase()));
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlBudgetHibernateCustomizer(DataSource dataSource) {
+        return properties -> {
+            SqlActivityStatistics.install(properties);
+            // Takes precedence over the DataSource Spring hands to the persistence unit
+            properties.put(AvailableSettings.JAKARTA_NON_JTA_DATASOURCE, SqlActivityDataSource.wrap(dataSource));
+        };
+    }
+}
@@ -0,0 +1,115 @@
+package com.backbase.customer_master.infrastructure.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures every handle(...) overload of the command and query handlers:
+ * customer.handler.duration (timer with histogram buckets), customer.handler.sql.statements and
+ * customer.handler.sql.rows (per call, see {@link SqlActivity}), tagged with kind (query or command)
+ * and type (the query or command class). The timer also carries the exception, "none" on success.
+ * Runs outside the handlers' transactions, so commit and flush are included. For a CompletableFuture
+ * the duration runs until it completes; SQL done on other threads is not counted.
+ */
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class HandlerMetricsAspect {
+
+    private static final String NO_EXCEPTION = "none";
+
+    private final MeterRegistry meterRegistry;
+    // Meters per handler method, so a call does no registry lookup
+    private final Map<Method, HandlerMeters> meters = new ConcurrentHashMap<>();
+
+    public HandlerMetricsAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("execution(public * com.backbase.customer_master.application..handler.*Handler.handle(..))")
+    public Object measure(ProceedingJoinPoint joinPoint) throws Throwable {
+        HandlerMeters handler = meters.computeIfAbsent(((MethodSignature) joinPoint.getSignature()).getMethod(),
+                HandlerMeters::new);
+        long statements = SqlActivity.statements();
+        long rows = SqlActivity.rows();
+        long started = System.nanoTime();
+        Object result;
+        try {
+            result = joinPoint.proceed();
+        } catch (Throwable ex) {
+            handler.timer(ex).record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            throw ex;
+        } finally {
+            handler.statements.record(SqlActivity.statements() - statements);
+            handler.rows.record(SqlActivity.rows() - rows);
+        }
+
+        if (result instanceof CompletableFuture<?> future && !future.isDone()) {
+            future.whenComplete((value, ex) -> handler.timer(ex).record(System.nanoTime() - started, TimeUnit.NANOSECONDS));
+        } else {
+            handler.success.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+        return result;
+    }
+
+    private final class HandlerMeters {
+
+        private final String kind;
+        private final String type;
+        private final Timer success;
+        private final DistributionSummary statements;
+        private final DistributionSummary rows;
+
+        HandlerMeters(Method method) {
+            this.kind = method.getDeclaringClass().getPackageName().contains(".command.") ? "command" : "query";
+            this.type = method.getParameterCount() > 0 ? method.getParameterTypes()[0].getSimpleName() : method.getName();
+            this.success = timer(NO_EXCEPTION);
+            this.statements = DistributionSummary.builder("customer.handler.sql.statements")
+                    .description("SQL statements prepared per handler call")
+                    .tags("kind", kind, "type", type)
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(1.0)
+                    .maximumExpectedValue(1000.0)
+                    .register(meterRegistry);
+            this.rows = DistributionSummary.builder("customer.handler.sql.rows")
+                    .description("Rows returned by queries and entity fetches per handler call")
+                    .tags("kind", kind, "type", type)
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(1.0)
+                    .maximumExpectedValue(100000.0)
+                    .register(meterRegistry);
+        }
+
+        Timer timer(Throwable ex) {
+            if (ex == null) {
+                return success;
+            }
+            Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+            return timer(cause.getClass().getSimpleName());
+        }
+
+        private Timer timer(String exception) {
+            return Timer.builder("customer.handler.duration")
+                    .description("Handler call latency, transaction included")
+                    .tags("kind", kind, "type", type, "exception", exception)
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofMillis(1))
+                    .maximumExpectedValue(Duration.ofSeconds(30))
+                    .register(meterRegistry);
+        }
+    }
+}
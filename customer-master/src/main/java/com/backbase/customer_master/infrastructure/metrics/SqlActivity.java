@@ -0,0 +1,48 @@
+package com.backbase.customer_master.infrastructure.metrics;
+
+/**
+ * SQL work done by the current thread: statements Hibernate prepared and rows it returned, counted
+ * by {@link SqlActivityStatistics}, and, when {@link SqlActivityDataSource} is installed, the rows read
+ * from JDBC result sets. The counters only grow; measure a piece of work as the difference
+ * between two readings.
+ */
+public final class SqlActivity {
+
+    private static final int STATEMENTS = 0;
+    private static final int ROWS = 1;
+    private static final int RESULT_SET_ROWS = 2;
+
+    private static final ThreadLocal<long[]> COUNTERS = ThreadLocal.withInitial(() -> new long[3]);
+
+    private SqlActivity() {
+    }
+
+    public static long statements() {
+        return COUNTERS.get()[STATEMENTS];
+    }
+
+    public static long rows() {
+        return COUNTERS.get()[ROWS];
+    }
+
+    /**
+     * Rows read from JDBC result sets: a collection fetch join reads one per joined row, where
+     * {@link #rows()} counts one per root entity. Only counted while {@link SqlActivityDataSource} is
+     * installed
+     */
+    public static long resultSetRows() {
+        return COUNTERS.get()[RESULT_SET_ROWS];
+    }
+
+    static void statementPrepared() {
+        COUNTERS.get()[STATEMENTS]++;
+    }
+
+    static void rowsReturned(long rows) {
+        COUNTERS.get()[ROWS] += rows;
+    }
+
+    static void resultSetRowRead() {
+        COUNTERS.get()[RESULT_SET_ROWS]++;
+    }
+}
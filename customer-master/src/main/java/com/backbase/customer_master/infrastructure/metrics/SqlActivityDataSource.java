@@ -0,0 +1,52 @@
+package com.backbase.customer_master.infrastructure.metrics;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * Wraps a DataSource so that every row read from its result sets is counted in
+ * {@link SqlActivity#resultSetRows()}. Dynamic proxies on every JDBC call: meant for tests and
+ * staging, where the SQL budget guard needs the row counts.
+ */
+public final class SqlActivityDataSource {
+
+    private SqlActivityDataSource() {
+    }
+
+    public static DataSource wrap(DataSource dataSource) {
+        return proxy(DataSource.class, dataSource);
+    }
+
+    // Helper methods
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T target) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException ex) {
+                throw ex.getTargetException();
+            }
+            if (result instanceof ResultSet resultSet && !Proxy.isProxyClass(result.getClass())) {
+                return proxy(ResultSet.class, resultSet);
+            }
+            if (result instanceof Statement statement && method.getReturnType().isInterface()) {
+                return proxy((Class<Statement>) method.getReturnType(), statement);
+            }
+            if (result instanceof Connection connection) {
+                return proxy(Connection.class, connection);
+            }
+            if (type == ResultSet.class && "next".equals(method.getName()) && Boolean.TRUE.equals(result)) {
+                SqlActivity.resultSetRowRead();
+            }
+            return result;
+        };
+        return (T) Proxy.newProxyInstance(SqlActivityDataSource.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+}
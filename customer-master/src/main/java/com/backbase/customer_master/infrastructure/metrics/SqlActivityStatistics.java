@@ -0,0 +1,334 @@
+package com.backbase.customer_master.infrastructure.metrics;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.metamodel.model.domain.NavigableRole;
+import org.hibernate.stat.internal.StatisticsImpl;
+import org.hibernate.stat.spi.StatisticsFactory;
+
+import java.util.Map;
+
+/**
+ * Hibernate statistics that count, per thread, the statements prepared and the rows returned:
+ * query results plus entities fetched by their own select (find, lazy and batch loads). Rows are
+ * results as Hibernate hands them out, so a fetch join counts its root entities, not the joined rows.
+ * Installed as the statistics factory (hibernate.stats.factory) by {@link #install(Map)}; Hibernate
+ * only reports to enabled statistics. Full statistics keep per-entity, per-collection and per-query
+ * counters in shared maps on every call, so unless hibernate.generate_statistics was set this class
+ * only bumps the per-thread counters and the Hibernate statistics stay at zero.
+ */
+public class SqlActivityStatistics extends StatisticsImpl {
+
+    private final boolean full;
+
+    public SqlActivityStatistics(SessionFactoryImplementor sessionFactory, boolean full) {
+        super(sessionFactory);
+        this.full = full;
+    }
+
+    public static StatisticsFactory factory(boolean full) {
+        return new Factory(full);
+    }
+
+    /**
+     * Enable statistics backed by this class, full ones only if hibernate.generate_statistics is
+     * already set; without the per-session log lines statistics would otherwise turn on. Installing
+     * twice keeps the first choice.
+     */
+    public static void install(Map<String, Object> hibernateProperties) {
+        if (hibernateProperties.get(AvailableSettings.STATS_BUILDER) instanceof Factory) {
+            return;
+        }
+        boolean full = Boolean.parseBoolean(String.valueOf(hibernateProperties.get(AvailableSettings.GENERATE_STATISTICS)));
+        hibernateProperties.put(AvailableSettings.GENERATE_STATISTICS, true);
+        hibernateProperties.put(AvailableSettings.STATS_BUILDER, factory(full));
+        hibernateProperties.put(AvailableSettings.LOG_SESSION_METRICS, false);
+    }
+
+    @Override
+    public void prepareStatement() {
+        if (full) {
+            super.prepareStatement();
+        }
+        SqlActivity.statementPrepared();
+    }
+
+    @Override
+    public void queryExecuted(String hql, int rows, long time) {
+        if (full) {
+            super.queryExecuted(hql, rows, time);
+        }
+        SqlActivity.rowsReturned(rows);
+    }
+
+    @Override
+    public void fetchEntity(String entityName) {
+        if (full) {
+            super.fetchEntity(entityName);
+        }
+        SqlActivity.rowsReturned(1);
+    }
+
+    // Only recorded as full statistics
+
+    @Override
+    public void openSession() {
+        if (full) {
+            super.openSession();
+        }
+    }
+
+    @Override
+    public void closeSession() {
+        if (full) {
+            super.closeSession();
+        }
+    }
+
+    @Override
+    public void flush() {
+        if (full) {
+            super.flush();
+        }
+    }
+
+    @Override
+    public void connect() {
+        if (full) {
+            super.connect();
+        }
+    }
+
+    @Override
+    public void closeStatement() {
+        if (full) {
+            super.closeStatement();
+        }
+    }
+
+    @Override
+    public void endTransaction(boolean success) {
+        if (full) {
+            super.endTransaction(success);
+        }
+    }
+
+    @Override
+    public void loadEntity(String entityName) {
+        if (full) {
+            super.loadEntity(entityName);
+        }
+    }
+
+    @Override
+    public void updateEntity(String entityName) {
+        if (full) {
+            super.updateEntity(entityName);
+        }
+    }
+
+    @Override
+    public void insertEntity(String entityName) {
+        if (full) {
+            super.insertEntity(entityName);
+        }
+    }
+
+    @Override
+    public void deleteEntity(String entityName) {
+        if (full) {
+            super.deleteEntity(entityName);
+        }
+    }
+
+    @Override
+    public void optimisticFailure(String entityName) {
+        if (full) {
+            super.optimisticFailure(entityName);
+        }
+    }
+
+    @Override
+    public void loadCollection(String role) {
+        if (full) {
+            super.loadCollection(role);
+        }
+    }
+
+    @Override
+    public void fetchCollection(String role) {
+        if (full) {
+            super.fetchCollection(role);
+        }
+    }
+
+    @Override
+    public void updateCollection(String role) {
+        if (full) {
+            super.updateCollection(role);
+        }
+    }
+
+    @Override
+    public void recreateCollection(String role) {
+        if (full) {
+            super.recreateCollection(role);
+        }
+    }
+
+    @Override
+    public void removeCollection(String role) {
+        if (full) {
+            super.removeCollection(role);
+        }
+    }
+
+    @Override
+    public void entityCachePut(NavigableRole entityName, String regionName) {
+        if (full) {
+            super.entityCachePut(entityName, regionName);
+        }
+    }
+
+    @Override
+    public void entityCacheHit(NavigableRole entityName, String regionName) {
+        if (full) {
+            super.entityCacheHit(entityName, regionName);
+        }
+    }
+
+    @Override
+    public void entityCacheMiss(NavigableRole entityName, String regionName) {
+        if (full) {
+            super.entityCacheMiss(entityName, regionName);
+        }
+    }
+
+    @Override
+    public void collectionCachePut(NavigableRole collectionRole, String regionName) {
+        if (full) {
+            super.collectionCachePut(collectionRole, regionName);
+        }
+    }
+
+    @Override
+    public void collectionCacheHit(NavigableRole collectionRole, String regionName) {
+        if (full) {
+            super.collectionCacheHit(collectionRole, regionName);
+        }
+    }
+
+    @Override
+    public void collectionCacheMiss(NavigableRole collectionRole, String regionName) {
+        if (full) {
+            super.collectionCacheMiss(collectionRole, regionName);
+        }
+    }
+
+    @Override
+    public void naturalIdCachePut(NavigableRole rootEntityName, String regionName) {
+        if (full) {
+            super.naturalIdCachePut(rootEntityName, regionName);
+        }
+    }
+
+    @Override
+    public void naturalIdCacheHit(NavigableRole rootEntityName, String regionName) {
+        if (full) {
+            super.naturalIdCacheHit(rootEntityName, regionName);
+        }
+    }
+
+    @Override
+    public void naturalIdCacheMiss(NavigableRole rootEntityName, String regionName) {
+        if (full) {
+            super.naturalIdCacheMiss(rootEntityName, regionName);
+        }
+    }
+
+    @Override
+    public void naturalIdQueryExecuted(String rootEntityName, long time) {
+        if (full) {
+            super.naturalIdQueryExecuted(rootEntityName, time);
+        }
+    }
+
+    @Override
+    public void queryCachePut(String hql, String regionName) {
+        if (full) {
+            super.queryCachePut(hql, regionName);
+        }
+    }
+
+    @Override
+    public void queryCacheHit(String hql, String regionName) {
+        if (full) {
+            super.queryCacheHit(hql, regionName);
+        }
+    }
+
+    @Override
+    public void queryCacheMiss(String hql, String regionName) {
+        if (full) {
+            super.queryCacheMiss(hql, regionName);
+        }
+    }
+
+    @Override
+    public void updateTimestampsCacheHit() {
+        if (full) {
+            super.updateTimestampsCacheHit();
+        }
+    }
+
+    @Override
+    public void updateTimestampsCacheMiss() {
+        if (full) {
+            super.updateTimestampsCacheMiss();
+        }
+    }
+
+    @Override
+    public void updateTimestampsCachePut() {
+        if (full) {
+            super.updateTimestampsCachePut();
+        }
+    }
+
+    @Override
+    public void queryPlanCacheHit(String hql) {
+        if (full) {
+            super.queryPlanCacheHit(hql);
+        }
+    }
+
+    @Override
+    public void queryPlanCacheMiss(String hql) {
+        if (full) {
+            super.queryPlanCacheMiss(hql);
+        }
+    }
+
+    @Override
+    public void queryCompiled(String hql, long microseconds) {
+        if (full) {
+            super.queryCompiled(hql, microseconds);
+        }
+    }
+
+    @Override
+    public void slowQuery(String sql, long executionTime) {
+        if (full) {
+            super.slowQuery(sql, executionTime);
+        }
+    }
+
+    // Marks the factory as ours, so a second install does not take our own setting for the user's
+    private record Factory(boolean full) implements StatisticsFactory {
+
+        @Override
+        public SqlActivityStatistics buildStatistics(SessionFactoryImplementor sessionFactory) {
+            return new SqlActivityStatistics(sessionFactory, full);
+        }
+    }
+}
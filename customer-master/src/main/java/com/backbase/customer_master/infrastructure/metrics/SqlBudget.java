@@ -0,0 +1,32 @@
+package com.backbase.customer_master.infrastructure.metrics;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * SQL budget of one call of a handler method, checked by {@link SqlBudgetAspect} when
+ * app.metrics.sql-budget is enabled. A statement budget that does not grow with the result size is
+ * what catches N+1 selects: a lazy reference loaded per row adds one statement per row. The rows per
+ * entity ratio catches row explosion: a collection fetch join reads one row per child for every
+ * entity it returns, and joining two collections reads every combination of their children.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SqlBudget {
+
+    /**
+     * Most statements one call may prepare, flush and commit included
+     */
+    int statements();
+
+    /**
+     * Most JDBC rows one call may read per result Hibernate returns (entities, projections and
+     * entities fetched by their own select, see {@link SqlActivity}); about 1 without collection fetch
+     * joins. Calls that get no results are not checked
+     */
+    double rowsPerEntity() default 2.0;
+}
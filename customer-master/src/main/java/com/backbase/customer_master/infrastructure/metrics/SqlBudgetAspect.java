@@ -0,0 +1,77 @@
+package com.backbase.customer_master.infrastructure.metrics;
+
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Checks calls of {@link SqlBudget} methods against their budget: fails the call with a
+ * {@link SqlBudgetExceededException} (tests) or logs the violation with the caller's stack trace
+ * (staging). Runs outside the handlers' transactions, so flush and commit statements count, and only
+ * counts SQL of the calling thread. Calls that throw are not checked.
+ */
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@Slf4j
+public class SqlBudgetAspect {
+
+    public enum Action {
+        LOG, FAIL
+    }
+
+    private final Action action;
+
+    public SqlBudgetAspect(Action action) {
+        this.action = action;
+    }
+
+    @Around("@annotation(budget)")
+    public Object enforce(ProceedingJoinPoint joinPoint, SqlBudget budget) throws Throwable {
+        long statements = SqlActivity.statements();
+        long rows = SqlActivity.rows();
+        long resultSetRows = SqlActivity.resultSetRows();
+
+        Object result = joinPoint.proceed();
+
+        String violation = violation(budget, SqlActivity.statements() - statements,
+                SqlActivity.rows() - rows, SqlActivity.resultSetRows() - resultSetRows);
+        if (violation != null) {
+            SqlBudgetExceededException exception = new SqlBudgetExceededException(
+                    describe(((MethodSignature) joinPoint.getSignature()).getMethod()) + " " + violation);
+            if (action == Action.FAIL) {
+                throw exception;
+            }
+            log.warn(exception.getMessage(), exception);
+        }
+        return result;
+    }
+
+    // Helper methods
+
+    private static String violation(SqlBudget budget, long statements, long rows, long resultSetRows) {
+        if (statements > budget.statements()) {
+            return "prepared " + statements + " SQL statements, budget " + budget.statements()
+                    + " (lazy loads per row?)";
+        }
+        if (rows > 0 && (double) resultSetRows / rows > budget.rowsPerEntity()) {
+            return "read " + resultSetRows + " rows for " + rows + " results, budget "
+                    + budget.rowsPerEntity() + " per result (collection fetch joins multiplying rows?)";
+        }
+        return null;
+    }
+
+    private static String describe(Method method) {
+        return method.getDeclaringClass().getSimpleName() + "." + method.getName()
+                + Arrays.stream(method.getParameterTypes())
+                .map(Class::getSimpleName)
+                .collect(Collectors.joining(", ", "(", ")"));
+    }
+}
@@ -0,0 +1,11 @@
+package com.backbase.customer_master.infrastructure.metrics;
+
+/**
+ * A handler call went over its {@link SqlBudget}
+ */
+public class SqlBudgetExceededException extends IllegalStateException {
+
+    public SqlBudgetExceededException(String message) {
+        super(message);
+    }
+}
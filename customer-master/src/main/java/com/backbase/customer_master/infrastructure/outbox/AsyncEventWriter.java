@@ -0,0 +1,408 @@
+package com.backbase.customer_master.infrastructure.outbox;
+
+import com.backbase.customer_master.common.concurrent.RingBuffer;
+import com.backbase.customer_master.domain.model.Event;
+import com.backbase.customer_master.domain.repository.EventRepository;
+import com.backbase.customer_master.domain.service.CustomerEventRecorder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.PropertyValueException;
+import org.hibernate.exception.ConstraintViolationException;
+import org.hibernate.exception.DataException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.sql.SQLDataException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Writes outbox events off the command path (app.outbox.async.enabled).
+ * A command's event is appended to the {@link EventWriteAheadLog} (forced to disk, one force shared
+ * by concurrent committers) before its transaction commits; once it has, a commit line is logged and
+ * the event is put into a bounded lock-free {@link RingBuffer}. One writer thread drains the ring
+ * every flush-interval-ms and persists up to batch-size events per transaction, which Hibernate sends
+ * as one JDBC batch (a multi-row INSERT on MySQL), releasing them in the log only after that commit.
+ * When the ring is full a producer waits up to backpressure-timeout-ms for room, then leaves its
+ * event to be replayed from the log; events of failed batches are replayed too, as are the pending
+ * events a crashed process left in the log. Replay runs whenever the ring is empty and at startup: it
+ * skips events already stored, stores the events with a commit line, and judges the others (the
+ * process died around the commit) by their customer's version: still below the event's, the
+ * transaction never committed and the event is dropped; equal to it, the event is stored; past it,
+ * or with the customer gone, the event cannot be decided and goes to the dead-letter file, as do
+ * events the database rejects.
+ */
+@Component
+@Slf4j
+public class AsyncEventWriter {
+
+    private final EventRepository eventRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final EventWriteAheadLog writeAheadLog;
+    private final boolean enabled;
+    private final RingBuffer<Event> buffer;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final long backpressureTimeoutNanos;
+
+    private final Counter written;
+    private final Counter spilled;
+    private final Counter deadLettered;
+    // Serializes flush and replay; not a monitor, so a virtual caller is not pinned during the write
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    private volatile boolean running;
+    private volatile Thread writer;
+
+    public AsyncEventWriter(EventRepository eventRepository,
+                            EntityManager entityManager,
+                            PlatformTransactionManager transactionManager,
+                            ObjectMapper objectMapper,
+                            MeterRegistry meterRegistry,
+                            @Value("${app.outbox.async.enabled:false}") boolean enabled,
+                            @Value("${app.outbox.async.buffer-size:8192}") int bufferSize,
+                            @Value("${app.outbox.async.batch-size:500}") int batchSize,
+                            @Value("${app.outbox.async.flush-interval-ms:20}") long flushIntervalMs,
+                            @Value("${app.outbox.async.backpressure-timeout-ms:50}") long backpressureTimeoutMs,
+                            @Value("${app.outbox.async.wal-path:outbox/events.wal}") String walPath,
+                            @Value("${app.outbox.async.wal-segment-bytes:67108864}") long walSegmentBytes) {
+        this.eventRepository = eventRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.writeAheadLog = new EventWriteAheadLog(Path.of(walPath), objectMapper, walSegmentBytes);
+        this.enabled = enabled;
+        this.buffer = new RingBuffer<>(bufferSize);
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        this.backpressureTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(backpressureTimeoutMs);
+
+        this.written = Counter.builder("outbox.async.events.written")
+                .description("Events persisted by the asynchronous outbox writer")
+                .register(meterRegistry);
+        this.spilled = Counter.builder("outbox.async.events.spilled")
+                .description("Events left to write-ahead log replay (ring full or insert failed)")
+                .register(meterRegistry);
+        this.deadLettered = Counter.builder("outbox.async.events.dead-lettered")
+                .description("Events rejected by the database or in doubt on replay, moved to the dead-letter file")
+                .register(meterRegistry);
+        Gauge.builder("outbox.async.buffer.size", buffer, RingBuffer::size)
+                .description("Events waiting in the ring buffer")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    EventWriteAheadLog getWriteAheadLog() {
+        return writeAheadLog;
+    }
+
+    /**
+     * Hand an event to the writer with the current transaction: it is appended to the write-ahead log
+     * before the commit (a failed append fails the commit), marked committed in the log and queued
+     * after it, and marked aborted in the log when the transaction rolls back.
+     */
+    public void submitOnCommit(Event event) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                writeAheadLog.append(List.of(event));
+            }
+
+            @Override
+            public void afterCommit() {
+                try {
+                    writeAheadLog.committed(event.getEventId());
+                } catch (UncheckedIOException ex) {
+                    // The update is committed; without the line a replay falls back to the customer's version
+                    log.warn("Cannot log the commit of outbox event {}", event.getEventId(), ex);
+                }
+                submit(event);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    writeAheadLog.abort(event.getEventId());
+                }
+            }
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled || running) {
+            return;
+        }
+        replay();
+        running = true;
+        writer = Thread.ofPlatform().name("outbox-async-writer").daemon(true).start(this::run);
+        log.info("Asynchronous outbox writer started (buffer {}, batch {})", buffer.capacity(), batchSize);
+    }
+
+    @PreDestroy
+    public void stop() {
+        Thread current = writer;
+        if (current == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(current);
+        try {
+            current.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+
+        // Whatever the writer could not store in time is still pending in the log
+        List<Event> left = new ArrayList<>();
+        buffer.drainTo(left, Integer.MAX_VALUE);
+        if (!left.isEmpty()) {
+            writeAheadLog.markForReplay(left);
+            spilled.increment(left.size());
+        }
+        writeAheadLog.close();
+        writer = null;
+    }
+
+    /**
+     * Write everything queued so far, on the calling thread
+     *
+     * @return number of events written
+     */
+    public int flush() {
+        writeLock.lock();
+        try {
+            int flushed = 0;
+            List<Event> batch = new ArrayList<>(batchSize);
+            while (buffer.drainTo(batch, batchSize) > 0) {
+                flushed += write(batch);
+                batch.clear();
+            }
+            return flushed;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // Helper methods
+
+    // Queues a committed event; waits for room while the ring is full, then leaves it to replay from the log
+    private void submit(Event event) {
+        if (buffer.offer(event)) {
+            return;
+        }
+
+        long deadline = System.nanoTime() + backpressureTimeoutNanos;
+        Thread current = writer;
+        while (System.nanoTime() < deadline) {
+            if (current != null) {
+                LockSupport.unpark(current);
+            }
+            LockSupport.parkNanos(100_000);
+            if (buffer.offer(event)) {
+                return;
+            }
+        }
+
+        writeAheadLog.markForReplay(List.of(event));
+        spilled.increment();
+        log.warn("Outbox ring buffer full, event {} left to replay from {}", event.getEventId(), writeAheadLog.getPath());
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                int drained = flush();
+                if (drained == 0 && writeAheadLog.hasReplayable()) {
+                    replay();
+                }
+                LockSupport.parkNanos(flushIntervalNanos);
+            } catch (RuntimeException ex) {
+                log.error("Asynchronous outbox writer failed, retrying", ex);
+                LockSupport.parkNanos(flushIntervalNanos);
+            }
+        }
+        flush();
+    }
+
+    private int write(List<Event> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                batch.forEach(entityManager::persist);
+                entityManager.flush();
+            });
+            writeAheadLog.stored(batch.stream().map(Event::getEventId).toList());
+            written.increment(batch.size());
+            return batch.size();
+        } catch (RuntimeException ex) {
+            log.error("Writing {} outbox events failed, leaving them to replay from {}", batch.size(),
+                    writeAheadLog.getPath(), ex);
+            writeAheadLog.markForReplay(batch);
+            spilled.increment(batch.size());
+            return 0;
+        }
+    }
+
+    private void replay() {
+        writeLock.lock();
+        try {
+            List<Event> events = writeAheadLog.replayable();
+            if (events.isEmpty()) {
+                return;
+            }
+
+            int replayed = 0;
+            for (int from = 0; from < events.size(); from += batchSize) {
+                List<Event> chunk = events.subList(from, Math.min(from + batchSize, events.size()));
+                try {
+                    replayed += store(chunk);
+                } catch (RuntimeException ex) {
+                    if (!rejected(ex)) {
+                        throw ex;
+                    }
+                    // One event the database refuses must not hold back the others
+                    for (Event event : chunk) {
+                        try {
+                            replayed += store(List.of(event));
+                        } catch (RuntimeException single) {
+                            if (!rejected(single)) {
+                                throw single;
+                            }
+                            log.error("Outbox event {} rejected, moved to {}", event.getEventId(),
+                                    writeAheadLog.getDeadLetterPath(), single);
+                            writeAheadLog.deadLetter(event, String.valueOf(single));
+                            deadLettered.increment();
+                        }
+                    }
+                }
+            }
+            written.increment(replayed);
+            log.info("Replayed {} outbox events from {}", replayed, writeAheadLog.getPath());
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // Inserts the events not stored yet whose update committed, dead-letters the undecided ones,
+    // then releases all of them in the log
+    private int store(List<Event> chunk) {
+        List<Event> undecided = new ArrayList<>();
+        int inserted = transactionTemplate.execute(status -> {
+            // A crash between insert and release in the log must not store an event twice
+            Set<UUID> stored = new HashSet<>();
+            eventRepository.findAllById(chunk.stream().map(Event::getEventId).toList())
+                    .forEach(event -> stored.add(event.getEventId()));
+            Map<UUID, Integer> versions = customerVersions(chunk);
+            int count = 0;
+            for (Event event : chunk) {
+                if (stored.contains(event.getEventId())) {
+                    continue;
+                }
+                Outcome outcome = outcome(event, versions);
+                if (outcome == Outcome.ROLLED_BACK) {
+                    log.info("Outbox event {} dropped: its transaction never committed", event.getEventId());
+                    continue;
+                }
+                if (outcome == Outcome.UNKNOWN) {
+                    undecided.add(event);
+                    continue;
+                }
+                entityManager.persist(event);
+                count++;
+            }
+            entityManager.flush();
+            return count;
+        });
+        for (Event event : undecided) {
+            log.warn("Outbox event {} in doubt (no commit line, customer past its version or gone), moved to {}",
+                    event.getEventId(), writeAheadLog.getDeadLetterPath());
+            writeAheadLog.deadLetter(event, "In doubt: no commit line and the customer's version does not match");
+            deadLettered.increment();
+        }
+        writeAheadLog.stored(chunk.stream().map(Event::getEventId).toList());
+        return inserted;
+    }
+
+    private Map<UUID, Integer> customerVersions(List<Event> events) {
+        List<UUID> customerIds = events.stream()
+                .filter(event -> CustomerEventRecorder.ENTITY_NAME.equals(event.getEntityName()))
+                .map(AsyncEventWriter::customerId)
+                .filter(Objects::nonNull)
+                .toList();
+        Map<UUID, Integer> versions = new HashMap<>();
+        if (customerIds.isEmpty()) {
+            return versions;
+        }
+        entityManager.createQuery("SELECT c.customerId, c.versionNo FROM Customer c WHERE c.customerId IN :ids",
+                        Object[].class)
+                .setParameter("ids", customerIds)
+                .getResultList()
+                .forEach(row -> versions.put((UUID) row[0], (Integer) row[1]));
+        return versions;
+    }
+
+    // Whether the event's transaction committed: known from its commit line, otherwise inferred from
+    // the customer's version, which only a committed update can have moved to the event's. Any later
+    // update moves it past, so past it (or with the customer gone) nothing can be inferred
+    private Outcome outcome(Event event, Map<UUID, Integer> versions) {
+        if (writeAheadLog.isCommitted(event.getEventId())) {
+            return Outcome.COMMITTED;
+        }
+        if (!CustomerEventRecorder.ENTITY_NAME.equals(event.getEntityName()) || event.getVersionNo() == null) {
+            return Outcome.UNKNOWN;
+        }
+        Integer version = versions.get(customerId(event));
+        if (version == null) {
+            return Outcome.UNKNOWN;
+        }
+        int compared = Integer.compare(version, event.getVersionNo());
+        return compared < 0 ? Outcome.ROLLED_BACK : compared == 0 ? Outcome.COMMITTED : Outcome.UNKNOWN;
+    }
+
+    private static UUID customerId(Event event) {
+        try {
+            return UUID.fromString(event.getEntityId());
+        } catch (IllegalArgumentException | NullPointerException ex) {
+            return null;
+        }
+    }
+
+    private enum Outcome {
+        COMMITTED, ROLLED_BACK, UNKNOWN
+    }
+
+    // The database refused the data itself, as opposed to being unreachable
+    private static boolean rejected(Throwable ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof DataIntegrityViolationException
+                    || cause instanceof ConstraintViolationException
+                    || cause instanceof DataException
+                    || cause instanceof PropertyValueException
+                    || cause instanceof SQLIntegrityConstraintViolationException
+                    || cause instanceof SQLDataException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,507 @@
+package com.backbase.customer_master.infrastructure.outbox;
+
+import com.backbase.customer_master.domain.model.Event;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Local log of the outbox events handed to the asynchronous writer, as JSON lines forced to disk
+ * before append returns. Appends are group-committed: each caller writes its lines, then waits for
+ * one force that covers every line written so far, so concurrent committers share a single disk
+ * flush. An event is appended before its transaction commits and stays pending until the writer
+ * reports it stored; a commit line is appended once its transaction commits (not forced: without it
+ * the writer falls back to the customer's version), an abort line when it rolls back.
+ * Appends go to the newest segment file (path + ".000001", ...), which rolls over at segment-bytes;
+ * older segments are deleted once none of their events is pending, and the newest is truncated.
+ * Segments left by a previous process are read back at construction: their pending events are
+ * offered for replay, together with the events the writer could not queue or store.
+ * Lines that cannot be read, and events the database rejects, go to the dead-letter file
+ * (path + ".dead") so that they do not block the others.
+ */
+public class EventWriteAheadLog {
+
+    private static final String ABORT = "abort";
+    private static final String COMMIT = "commit";
+
+    private final Path path;
+    private final Path deadLetterPath;
+    private final Pattern segmentName;
+    private final ObjectMapper objectMapper;
+    private final long segmentBytes;
+    // Not monitors: appends run on request threads, which may be virtual, and wait for the disk.
+    // The force lock is held by the one caller forcing the log while the others write behind it
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ReentrantLock forceLock = new ReentrantLock();
+
+    // Oldest first; only the last one, once opened by this process, takes appends
+    private final Deque<Segment> segments = new ArrayDeque<>();
+    private final Map<UUID, Segment> pending = new HashMap<>();
+    private final Map<UUID, Event> replayable = new LinkedHashMap<>();
+    private final Set<UUID> committed = new HashSet<>();
+    private long nextSequence = 1;
+    // Writes to the log so far, and how many of them are known to be on disk
+    private long writes;
+    private volatile long forced;
+
+    public EventWriteAheadLog(Path path, ObjectMapper objectMapper, long segmentBytes) {
+        this.path = path;
+        this.deadLetterPath = path.resolveSibling(path.getFileName() + ".dead");
+        this.segmentName = Pattern.compile(Pattern.quote(path.getFileName().toString()) + "\\.(\\d+)");
+        this.objectMapper = objectMapper;
+        this.segmentBytes = segmentBytes;
+        recover();
+    }
+
+    /**
+     * Append events and force them to disk; they are pending until {@link #stored} or {@link #abort}
+     */
+    public void append(List<Event> events) {
+        StringBuilder lines = new StringBuilder();
+        for (Event event : events) {
+            lines.append(json(event)).append('\n');
+        }
+
+        long write;
+        lock.lock();
+        try {
+            Segment segment = writableSegment();
+            segment.write(lines);
+            write = ++writes;
+            for (Event event : events) {
+                pending.put(event.getEventId(), segment);
+                segment.pending++;
+            }
+        } finally {
+            lock.unlock();
+        }
+        force(write);
+    }
+
+    /**
+     * Record that a pending event's transaction committed. Not forced: an event whose commit line
+     * did not reach the disk is judged by its customer's version on replay.
+     */
+    public void committed(UUID eventId) {
+        lock.lock();
+        try {
+            Segment segment = pending.get(eventId);
+            if (segment == null) {
+                return;
+            }
+            segment.write(marker(COMMIT, eventId));
+            writes++;
+            committed.add(eventId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Whether the event's transaction is known to have committed (a commit line was written)
+     */
+    public boolean isCommitted(UUID eventId) {
+        lock.lock();
+        try {
+            return committed.contains(eventId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Mark a pending event as rolled back and force the mark, so that it is not replayed after a crash
+     */
+    public void abort(UUID eventId) {
+        long write;
+        lock.lock();
+        try {
+            Segment segment = pending.get(eventId);
+            if (segment == null) {
+                return;
+            }
+            segment.write(marker(ABORT, eventId));
+            write = ++writes;
+            resolve(List.of(eventId));
+        } finally {
+            lock.unlock();
+        }
+        force(write);
+    }
+
+    /**
+     * The events are in the database: release them, and their segments once nothing else is pending there
+     */
+    public void stored(Collection<UUID> eventIds) {
+        lock.lock();
+        try {
+            resolve(eventIds);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Offer pending events for replay (the ring was full, or their batch failed)
+     */
+    public void markForReplay(Collection<Event> events) {
+        lock.lock();
+        try {
+            for (Event event : events) {
+                if (pending.containsKey(event.getEventId())) {
+                    replayable.put(event.getEventId(), event);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean hasReplayable() {
+        lock.lock();
+        try {
+            return !replayable.isEmpty();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Pending events offered for replay, in log order
+     */
+    public List<Event> replayable() {
+        lock.lock();
+        try {
+            return new ArrayList<>(replayable.values());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Move an event that cannot be stored (rejected by the database, or in doubt) to the dead-letter
+     * file and release it
+     */
+    public void deadLetter(Event event, String reason) {
+        ObjectNode line = objectMapper.createObjectNode().put("reason", reason);
+        line.set("event", objectMapper.valueToTree(event));
+        lock.lock();
+        try {
+            appendDeadLetter(line);
+            resolve(List.of(event.getEventId()));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Close the segment taking appends; the next append starts a new one
+     */
+    public void close() {
+        lock.lock();
+        try {
+            for (Segment segment : segments) {
+                segment.force();
+                segment.close();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public Path getDeadLetterPath() {
+        return deadLetterPath;
+    }
+
+    // Helper methods
+
+    // Group commit: the first caller to get here forces every write made so far, the callers that
+    // wrote meanwhile queue on the lock and usually find their write covered once they get it
+    private void force(long write) {
+        if (forced >= write) {
+            return;
+        }
+        forceLock.lock();
+        try {
+            if (forced >= write) {
+                return;
+            }
+            long upTo;
+            Segment segment;
+            lock.lock();
+            try {
+                upTo = writes;
+                segment = segments.peekLast();
+            } finally {
+                lock.unlock();
+            }
+            // Earlier segments were forced when the log rolled over to this one
+            if (segment != null) {
+                segment.force();
+            }
+            forced = upTo;
+        } finally {
+            forceLock.unlock();
+        }
+    }
+
+    private void recover() {
+        Path directory = path.toAbsolutePath().getParent();
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+
+        SortedMap<Long, Path> files = new TreeMap<>();
+        try (Stream<Path> listing = Files.list(directory)) {
+            listing.forEach(file -> {
+                Matcher matcher = segmentName.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    files.put(Long.parseLong(matcher.group(1)), file);
+                }
+            });
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot list outbox write-ahead log segments in " + directory, ex);
+        }
+
+        for (Map.Entry<Long, Path> file : files.entrySet()) {
+            Segment segment = new Segment(file.getValue());
+            segments.addLast(segment);
+            for (Event event : read(segment)) {
+                pending.put(event.getEventId(), segment);
+                replayable.put(event.getEventId(), event);
+                segment.pending++;
+            }
+            nextSequence = file.getKey() + 1;
+        }
+        release();
+    }
+
+    // Events of a segment left by a previous process, less the aborted ones; notes the committed ones
+    private List<Event> read(Segment segment) {
+        try {
+            List<String> lines = Files.readAllLines(segment.file, StandardCharsets.UTF_8);
+            segment.bytes = Files.size(segment.file);
+            Map<UUID, Event> events = new LinkedHashMap<>();
+            Set<UUID> commits = new HashSet<>();
+            for (int i = 0; i < lines.size(); i++) {
+                String line = lines.get(i);
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    JsonNode node = objectMapper.readTree(line);
+                    if (node.has(ABORT)) {
+                        events.remove(UUID.fromString(node.get(ABORT).asText()));
+                    } else if (node.has(COMMIT)) {
+                        commits.add(UUID.fromString(node.get(COMMIT).asText()));
+                    } else {
+                        Event event = objectMapper.treeToValue(node, Event.class);
+                        events.put(event.getEventId(), event);
+                    }
+                } catch (JsonProcessingException | IllegalArgumentException ex) {
+                    // A torn last line is an append that never returned, so it was never acknowledged
+                    if (i < lines.size() - 1) {
+                        appendDeadLetter(objectMapper.createObjectNode()
+                                .put("reason", String.valueOf(ex))
+                                .put("line", line));
+                    }
+                }
+            }
+            // Commit and abort lines go to the segment holding their event
+            commits.retainAll(events.keySet());
+            committed.addAll(commits);
+            return new ArrayList<>(events.values());
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot read outbox write-ahead log " + segment.file, ex);
+        }
+    }
+
+    private Segment writableSegment() {
+        Segment last = segments.peekLast();
+        if (last != null && last.channel != null && last.bytes < segmentBytes) {
+            return last;
+        }
+        if (last != null) {
+            // Its lines may not have been forced yet; force() only covers the newest segment
+            last.force();
+            last.close();
+        }
+
+        Path file = path.resolveSibling(path.getFileName() + String.format(".%06d", nextSequence++));
+        Segment segment = new Segment(file);
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            segment.channel = FileChannel.open(file,
+                    StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot create outbox write-ahead log segment " + file, ex);
+        }
+        segments.addLast(segment);
+        release();
+        return segment;
+    }
+
+    private void resolve(Collection<UUID> eventIds) {
+        for (UUID eventId : eventIds) {
+            Segment segment = pending.remove(eventId);
+            if (segment != null) {
+                segment.pending--;
+            }
+            replayable.remove(eventId);
+            committed.remove(eventId);
+        }
+        release();
+    }
+
+    // Drops the segments with nothing pending; the one taking appends is truncated instead
+    private void release() {
+        Segment writable = segments.peekLast() != null && segments.peekLast().channel != null
+                ? segments.peekLast()
+                : null;
+        Iterator<Segment> iterator = segments.iterator();
+        while (iterator.hasNext()) {
+            Segment segment = iterator.next();
+            if (segment.pending > 0) {
+                continue;
+            }
+            if (segment == writable) {
+                segment.truncate();
+            } else {
+                segment.delete();
+                iterator.remove();
+            }
+        }
+    }
+
+    private void appendDeadLetter(ObjectNode line) {
+        try {
+            Files.createDirectories(deadLetterPath.toAbsolutePath().getParent());
+            try (FileChannel channel = FileChannel.open(deadLetterPath,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                write(channel, line.toString() + '\n');
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot append to outbox dead-letter file " + deadLetterPath, ex);
+        }
+    }
+
+    private StringBuilder marker(String kind, UUID eventId) {
+        return new StringBuilder(objectMapper.createObjectNode().put(kind, eventId.toString()).toString()).append('\n');
+    }
+
+    private String json(Event event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Cannot serialize outbox event " + event.getEventId(), ex);
+        }
+    }
+
+    private static long write(FileChannel channel, CharSequence lines) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+        long written = buffer.remaining();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        return written;
+    }
+
+    private static final class Segment {
+
+        private final Path file;
+        private FileChannel channel;
+        private long bytes;
+        private int pending;
+
+        private Segment(Path file) {
+            this.file = file;
+        }
+
+        // Lines to the segment taking appends wait for force(); segments this process no longer
+        // appends to are opened just for the line (commit and abort lines only) and forced at once
+        private void write(CharSequence lines) {
+            try {
+                if (channel != null) {
+                    bytes += EventWriteAheadLog.write(channel, lines);
+                    return;
+                }
+                try (FileChannel appender = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                    bytes += EventWriteAheadLog.write(appender, lines);
+                    appender.force(false);
+                }
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Cannot append to outbox write-ahead log " + file, ex);
+            }
+        }
+
+        // A channel closed meanwhile was forced by whoever closed it, or held nothing pending
+        private void force() {
+            FileChannel current = channel;
+            if (current == null) {
+                return;
+            }
+            try {
+                current.force(false);
+            } catch (ClosedChannelException ex) {
+                // See above
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Cannot force outbox write-ahead log " + file, ex);
+            }
+        }
+
+        private void truncate() {
+            if (bytes == 0) {
+                return;
+            }
+            try {
+                channel.truncate(0);
+                channel.force(false);
+                bytes = 0;
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Cannot truncate outbox write-ahead log " + file, ex);
+            }
+        }
+
+        private void delete() {
+            try {
+                close();
+                Files.deleteIfExists(file);
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Cannot delete outbox write-ahead log " + file, ex);
+            }
+        }
+
+        private void close() {
+            if (channel == null) {
+                return;
+            }
+            try {
+                channel.close();
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Cannot close outbox write-ahead log " + file, ex);
+            } finally {
+                channel = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.backbase.customer_master.infrastructure.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends messages to a file as JSON lines, forced to disk before the batch counts as published
+ */
+public class FileOutboxSink implements OutboxSink {
+
+    private final Path path;
+    private final ObjectMapper objectMapper;
+
+    public FileOutboxSink(Path path, ObjectMapper objectMapper) {
+        this.path = path;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public synchronized void publish(List<OutboxMessage> messages) {
+        StringBuilder lines = new StringBuilder();
+        for (OutboxMessage message : messages) {
+            try {
+                lines.append(objectMapper.writeValueAsString(message)).append('\n');
+            } catch (JsonProcessingException ex) {
+                throw new IllegalStateException("Cannot serialize outbox event " + message.getEventId(), ex);
+            }
+        }
+
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            try (FileChannel channel = FileChannel.open(path,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(false);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot append outbox events to " + path, ex);
+        }
+    }
+
+    public Path getPath() {
+        return path;
+    }
+}
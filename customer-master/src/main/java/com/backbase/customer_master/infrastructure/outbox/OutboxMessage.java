@@ -0,0 +1,43 @@
+package com.backbase.customer_master.infrastructure.outbox;
+
+import com.backbase.customer_master.domain.model.Event;
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * An outbox event as handed to a sink
+ */
+@Value
+@Builder
+public class OutboxMessage {
+
+    UUID eventId;
+    String entityName;
+    String entityId;
+    Integer versionNo;
+    String operationType;
+    Map<String, Object> changedFields;
+    LocalDateTime eventTime;
+    String eventBy;
+    String correlationId;
+    String sourceApp;
+
+    public static OutboxMessage of(Event event) {
+        return OutboxMessage.builder()
+                .eventId(event.getEventId())
+                .entityName(event.getEntityName())
+                .entityId(event.getEntityId())
+                .versionNo(event.getVersionNo())
+                .operationType(event.getOperationType())
+                .changedFields(event.getChangedFields())
+                .eventTime(event.getEventTime())
+                .eventBy(event.getEventBy())
+                .correlationId(event.getCorrelationId())
+                .sourceApp(event.getSourceApp())
+                .build();
+    }
+}
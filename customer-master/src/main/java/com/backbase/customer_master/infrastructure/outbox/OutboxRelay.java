@@ -0,0 +1,106 @@
+package com.backbase.customer_master.infrastructure.outbox;
+
+import com.backbase.customer_master.domain.model.Event;
+import com.backbase.customer_master.domain.repository.EventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Publishes committed outbox events to the configured {@link OutboxSink}; off unless
+ * app.outbox.relay.enabled is set, since the only sinks so far are the file and memory ones.
+ * Reads unpublished events in batches of app.outbox.relay.batch-size, ordered by event_id (events
+ * take time-ordered IDs whatever app.ids.strategy says), hands each batch to the sink and marks it
+ * published in the same transaction. A sink
+ * failure rolls the marks back and the batch is retried on the next run. An event committed after
+ * a later-numbered one was already relayed is still picked up, since the relay selects on
+ * published_at rather than a cursor; consumers order by versionNo per entity.
+ * Runs on one scheduler thread per instance; several instances may publish an event twice.
+ */
+@Component
+@Slf4j
+public class OutboxRelay {
+
+    private final EventRepository eventRepository;
+    private final OutboxSink outboxSink;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    // A lock rather than a monitor: a virtual scheduler thread waiting for a connection inside
+    // synchronized would stay pinned to its carrier
+    private final ReentrantLock relayLock = new ReentrantLock();
+
+    public OutboxRelay(EventRepository eventRepository,
+                       OutboxSink outboxSink,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${app.outbox.relay.enabled:false}") boolean enabled,
+                       @Value("${app.outbox.relay.batch-size:500}") int batchSize) {
+        this.eventRepository = eventRepository;
+        this.outboxSink = outboxSink;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        if (!enabled) {
+            log.info("Outbox relay disabled: events stay unpublished in the outbox");
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.relay.interval-ms:1000}")
+    public void scheduledRelay() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            relay();
+        } catch (RuntimeException ex) {
+            log.error("Outbox relay failed, retrying on the next run", ex);
+        }
+    }
+
+    /**
+     * Publish all events waiting in the outbox
+     *
+     * @return number of events published
+     */
+    public int relay() {
+        relayLock.lock();
+        try {
+            int published = 0;
+            int batch;
+            do {
+                batch = transactionTemplate.execute(status -> relayBatch());
+                published += batch;
+            } while (batch == batchSize);
+
+            if (published > 0) {
+                log.debug("Outbox relay published {} events", published);
+            }
+            return published;
+        } finally {
+            relayLock.unlock();
+        }
+    }
+
+    // Helper methods
+
+    private int relayBatch() {
+        List<Event> events = eventRepository.findUnpublished(PageRequest.of(0, batchSize));
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        outboxSink.publish(events.stream().map(OutboxMessage::of).toList());
+        List<UUID> eventIds = events.stream().map(Event::getEventId).toList();
+        eventRepository.markPublished(eventIds, LocalDateTime.now());
+        return events.size();
+    }
+}
@@ -0,0 +1,13 @@
+package com.backbase.customer_master.infrastructure.outbox;
+
+import java.util.List;
+
+/**
+ * Destination of the outbox relay (app.outbox.sink).
+ * A batch counts as published once publish returns; on an exception the whole batch is sent again
+ * on the next run, so sinks must tolerate duplicates (delivery is at least once).
+ */
+public interface OutboxSink {
+
+    void publish(List<OutboxMessage> messages);
+}
@@ -0,0 +1,75 @@
+package com.backbase.customer_master.infrastructure.persistence.loader;
+
+import com.backbase.customer_master.domain.model.Customer;
+import com.backbase.customer_master.domain.repository.CustomerRepository;
+import com.backbase.customer_master.infrastructure.persistence.specification.CustomerSpecifications;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Multi-get of customers by a list of IDs.
+ * The list is walked in chunks of chunk-size positions; each chunk is loaded with one IN query
+ * under the fetch graph and handed to the sink in list order before the next chunk is read, and
+ * the persistence context is cleared between chunks, so memory use is bounded by the chunk.
+ * Must be called inside a (read-only) transaction.
+ */
+@Component
+public class CustomerBatchLoader {
+
+    private final EntityManager entityManager;
+    private final CustomerRepository customerRepository;
+    private final int chunkSize;
+
+    public CustomerBatchLoader(EntityManager entityManager,
+                               CustomerRepository customerRepository,
+                               @Value("${app.batch-get.chunk-size:500}") int chunkSize) {
+        this.entityManager = entityManager;
+        this.customerRepository = customerRepository;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Hand the sink one result per position of the list, in list order: the mapped customer, or
+     * null when the ID is null or no customer matches it under the specification.
+     * Duplicate IDs are loaded once per chunk and reported at every position.
+     *
+     * @param spec fetch graph, optionally combined with a filter (e.g. excluding closed customers)
+     */
+    public <D> void forEachInOrder(List<UUID> ids,
+                                   Specification<Customer> spec,
+                                   Function<Customer, D> mapper,
+                                   ObjIntConsumer<D> sink) {
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            List<UUID> chunk = ids.subList(from, Math.min(from + chunkSize, ids.size()));
+            Map<UUID, D> byId = load(chunk, spec, mapper);
+            for (int i = 0; i < chunk.size(); i++) {
+                UUID id = chunk.get(i);
+                sink.accept(id == null ? null : byId.get(id), from + i);
+            }
+            entityManager.clear();
+        }
+    }
+
+    // Helper methods
+
+    private <D> Map<UUID, D> load(List<UUID> chunk, Specification<Customer> spec, Function<Customer, D> mapper) {
+        Set<UUID> distinct = new LinkedHashSet<>(chunk);
+        distinct.remove(null);
+        if (distinct.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<UUID, D> byId = new HashMap<>();
+        for (Customer customer : customerRepository.findAll(Specification.where(spec)
+                .and(CustomerSpecifications.hasCustomerIdIn(distinct)))) {
+            byId.put(customer.getCustomerId(), mapper.apply(customer));
+        }
+        return byId;
+    }
+}
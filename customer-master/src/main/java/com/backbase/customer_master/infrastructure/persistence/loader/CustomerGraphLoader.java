@@ -0,0 +1,87 @@
+package com.backbase.customer_master.infrastructure.persistence.loader;
+
+import com.backbase.customer_master.domain.model.Customer;
+import com.backbase.customer_master.domain.repository.AddressRepository;
+import com.backbase.customer_master.domain.repository.CustomerProductRepository;
+import com.backbase.customer_master.domain.repository.CustomerRelationshipRepository;
+import com.backbase.customer_master.domain.repository.IdentificationRepository;
+import com.backbase.customer_master.infrastructure.persistence.mapper.CustomerMapper;
+import com.backbase.customer_master.presentation.dto.AddressDTO;
+import com.backbase.customer_master.presentation.dto.CustomerDTO;
+import com.backbase.customer_master.presentation.dto.CustomerProductDTO;
+import com.backbase.customer_master.presentation.dto.CustomerRelationshipDTO;
+import com.backbase.customer_master.presentation.dto.IdentificationDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Multi-phase loader for the full customer graph.
+ * The roots are expected to be loaded with their to-one reference data already fetched
+ * (see CustomerSpecifications.withReferenceData()); each collection is then loaded with one
+ * keyed query and stitched onto the DTOs, so the row count is the sum of the collection
+ * sizes instead of their product.
+ */
+@Component
+@RequiredArgsConstructor
+public class CustomerGraphLoader {
+
+    private final AddressRepository addressRepository;
+    private final IdentificationRepository identificationRepository;
+    private final CustomerProductRepository customerProductRepository;
+    private final CustomerRelationshipRepository customerRelationshipRepository;
+    private final CustomerMapper customerMapper;
+
+    /**
+     * Map a single root customer to a full DTO
+     */
+    public CustomerDTO toFullDTO(Customer customer) {
+        return toFullDTOs(List.of(customer)).get(0);
+    }
+
+    /**
+     * Map root customers to full DTOs, preserving the input order
+     */
+    public List<CustomerDTO> toFullDTOs(List<Customer> customers) {
+        if (customers.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<UUID> customerIds = customers.stream()
+                .map(Customer::getCustomerId)
+                .toList();
+
+        Map<UUID, List<AddressDTO>> addresses = groupByCustomer(addressRepository.findByCustomerIdsWithReferences(customerIds),
+                address -> address.getCustomer().getCustomerId(), customerMapper::toAddressDTO);
+        Map<UUID, List<IdentificationDTO>> identifications = groupByCustomer(identificationRepository.findByCustomerIdsWithReferences(customerIds),
+                identification -> identification.getCustomer().getCustomerId(), customerMapper::toIdentificationDTO);
+        Map<UUID, List<CustomerProductDTO>> products = groupByCustomer(customerProductRepository.findByCustomerIdsWithReferences(customerIds),
+                product -> product.getCustomer().getCustomerId(), customerMapper::toCustomerProductDTO);
+        Map<UUID, List<CustomerRelationshipDTO>> relationships = groupByCustomer(customerRelationshipRepository.findByCustomerIdsWithReferences(customerIds),
+                relationship -> relationship.getCustomer().getCustomerId(), customerMapper::toCustomerRelationshipDTO);
+
+        List<CustomerDTO> result = new ArrayList<>(customers.size());
+        for (Customer customer : customers) {
+            UUID customerId = customer.getCustomerId();
+            CustomerDTO dto = customerMapper.toRootDTO(customer);
+            dto.setAddressDTOs(addresses.getOrDefault(customerId, new ArrayList<>()));
+            dto.setIdentificationDTOs(identifications.getOrDefault(customerId, new ArrayList<>()));
+            dto.setProductDTOs(products.getOrDefault(customerId, new ArrayList<>()));
+            dto.setRelationshipDTOs(relationships.getOrDefault(customerId, new ArrayList<>()));
+            result.add(dto);
+        }
+        return result;
+    }
+
+    // Helper methods
+
+    private <E, D> Map<UUID, List<D>> groupByCustomer(List<E> rows, Function<E, UUID> customerId, Function<E, D> mapper) {
+        Map<UUID, List<D>> grouped = new HashMap<>();
+        for (E row : rows) {
+            grouped.computeIfAbsent(customerId.apply(row), id -> new ArrayList<>()).add(mapper.apply(row));
+        }
+        return grouped;
+    }
+}
@@ -0,0 +1,253 @@
+package com.backbase.customer_master.infrastructure.persistence.loader;
+
+import com.backbase.customer_master.domain.model.Customer;
+import com.backbase.customer_master.domain.repository.CustomerRepository;
+import com.backbase.customer_master.infrastructure.persistence.pagination.CursorPageRequest;
+import com.backbase.customer_master.infrastructure.persistence.pagination.CustomerCursor;
+import com.backbase.customer_master.infrastructure.persistence.specification.CustomerSpecifications;
+import com.backbase.customer_master.presentation.dto.CursorPageDTO;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Two-step page engine for customer listings.
+ * A page of customer IDs is selected with the predicate and sort (LIMIT/OFFSET or a keyset
+ * predicate applied in SQL, no fetch joins), then only those IDs are hydrated with the fetch
+ * graph, or read by a content loader such as the summary projection. The count query runs with the
+ * bare predicate in the caller's transaction, so it sees what the page sees and holds no second
+ * connection, and is skipped when the page itself shows the total.
+ */
+@Component
+public class CustomerPageLoader {
+
+    private static final String ID_ATTRIBUTE = "customerId";
+
+    private final EntityManager entityManager;
+    private final CustomerRepository customerRepository;
+
+    public CustomerPageLoader(EntityManager entityManager, CustomerRepository customerRepository) {
+        this.entityManager = entityManager;
+        this.customerRepository = customerRepository;
+    }
+
+    /**
+     * Load a page of customers matching the predicate, hydrated with the fetch graph and mapped to DTOs.
+     * The predicate must not fetch; the fetch graph must not filter.
+     */
+    public <D> Page<D> findPage(Specification<Customer> predicate,
+                                Specification<Customer> fetchGraph,
+                                Pageable pageable,
+                                Function<Customer, D> mapper) {
+        return findPage(predicate, pageable, ids -> hydrate(ids, fetchGraph, mapper));
+    }
+
+    /**
+     * Load a page of customers matching the predicate, its content read by the content loader from
+     * the page's IDs (e.g. a projection, see {@link CustomerSummaryLoader}). The loader returns the
+     * rows in ID order. The predicate must not fetch.
+     */
+    public <D> Page<D> findPage(Specification<Customer> predicate,
+                                Pageable pageable,
+                                Function<List<UUID>, List<D>> contentLoader) {
+        if (pageable.isUnpaged()) {
+            List<D> content = contentLoader.apply(findIds(predicate, pageable));
+            return new PageImpl<>(content, pageable, content.size());
+        }
+
+        List<D> content = contentLoader.apply(findIds(predicate, pageable));
+        return PageableExecutionUtils.getPage(content, pageable, () -> customerRepository.count(predicate));
+    }
+
+    /**
+     * Hydrate a page of customer IDs selected elsewhere (e.g. by a search index), keeping its order
+     */
+    public <D> Page<D> hydratePage(Page<UUID> ids, Specification<Customer> fetchGraph, Function<Customer, D> mapper) {
+        return hydratePage(ids, content -> hydrate(content, fetchGraph, mapper));
+    }
+
+    /**
+     * Load the content of a page of customer IDs selected elsewhere with the content loader, keeping its order
+     */
+    public <D> Page<D> hydratePage(Page<UUID> ids, Function<List<UUID>, List<D>> contentLoader) {
+        return new PageImpl<>(contentLoader.apply(ids.getContent()), ids.getPageable(), ids.getTotalElements());
+    }
+
+    /**
+     * Load the slice of customers that follows the request's cursor (keyset pagination).
+     * No OFFSET is involved, so every slice costs the same however deep the traversal is; the
+     * total is only counted when the request asks for it.
+     */
+    public <D> CursorPageDTO<D> findSlice(Specification<Customer> predicate,
+                                          Specification<Customer> fetchGraph,
+                                          CursorPageRequest request,
+                                          Function<Customer, D> mapper) {
+        return slice(predicate, request, ids -> hydrate(ids, fetchGraph, mapper), false);
+    }
+
+    /**
+     * {@link #findSlice} with the slice's content read by the content loader
+     */
+    public <D> CursorPageDTO<D> findSlice(Specification<Customer> predicate,
+                                          CursorPageRequest request,
+                                          Function<List<UUID>, List<D>> contentLoader) {
+        return slice(predicate, request, contentLoader, false);
+    }
+
+    /**
+     * Like {@link #findSlice}, for a feed that is followed rather than traversed to its end: every
+     * slice carries a cursor, the last one included (the request's own when the slice is empty), so
+     * the client can resume there once more rows qualify.
+     */
+    public <D> CursorPageDTO<D> findFeedSlice(Specification<Customer> predicate,
+                                              Specification<Customer> fetchGraph,
+                                              CursorPageRequest request,
+                                              Function<Customer, D> mapper) {
+        return slice(predicate, request, ids -> hydrate(ids, fetchGraph, mapper), true);
+    }
+
+    /**
+     * {@link #findFeedSlice} with the slice's content read by the content loader
+     */
+    public <D> CursorPageDTO<D> findFeedSlice(Specification<Customer> predicate,
+                                              CursorPageRequest request,
+                                              Function<List<UUID>, List<D>> contentLoader) {
+        return slice(predicate, request, contentLoader, true);
+    }
+
+    /**
+     * IDs of the customers matching the predicate, for one page in the requested sort (ID as tie-breaker)
+     */
+    public List<UUID> findIds(Specification<Customer> predicate, Pageable pageable) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<UUID> query = criteriaBuilder.createQuery(UUID.class);
+        Root<Customer> root = query.from(Customer.class);
+
+        Predicate where = predicate.toPredicate(root, query, criteriaBuilder);
+        if (where != null) {
+            query.where(where);
+        }
+        query.select(root.get(ID_ATTRIBUTE));
+        query.orderBy(QueryUtils.toOrders(withTieBreaker(pageable.getSort()), root, criteriaBuilder));
+
+        TypedQuery<UUID> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult(Math.toIntExact(pageable.getOffset()));
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+        return typedQuery.getResultList();
+    }
+
+    // Helper methods
+
+    private <D> CursorPageDTO<D> slice(Specification<Customer> predicate,
+                                       CursorPageRequest request,
+                                       Function<List<UUID>, List<D>> contentLoader,
+                                       boolean cursorOnLastSlice) {
+        List<Tuple> keys = findKeys(predicate, request);
+        boolean hasNext = keys.size() > request.getSize();
+        if (hasNext) {
+            keys = keys.subList(0, request.getSize());
+        }
+
+        List<UUID> ids = keys.stream()
+                .map(key -> key.get(1, UUID.class))
+                .toList();
+        String nextCursor = null;
+        if ((hasNext || cursorOnLastSlice) && !keys.isEmpty()) {
+            Tuple last = keys.get(keys.size() - 1);
+            nextCursor = new CustomerCursor(request.getSortProperty(), request.getDirection(),
+                    (Comparable<?>) last.get(0), last.get(1, UUID.class), request.getScope()).encode();
+        } else if (cursorOnLastSlice && request.getAfter() != null) {
+            nextCursor = request.getAfter().encode();
+        }
+
+        return CursorPageDTO.<D>builder()
+                .content(contentLoader.apply(ids))
+                .size(request.getSize())
+                .hasNext(hasNext)
+                .nextCursor(nextCursor)
+                .totalElements(request.isIncludeTotal() ? count(predicate, request, hasNext, ids.size()) : null)
+                .build();
+    }
+
+    private List<Tuple> findKeys(Specification<Customer> predicate, CursorPageRequest request) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = criteriaBuilder.createTupleQuery();
+        Root<Customer> root = query.from(Customer.class);
+
+        boolean ascending = request.getDirection().isAscending();
+        CustomerCursor after = request.getAfter();
+        Specification<Customer> seek = after == null
+                ? predicate
+                : predicate.and(CustomerSpecifications.isAfterKey(after.sortProperty(), ascending,
+                        after.sortValue(), after.customerId()));
+        Predicate where = seek.toPredicate(root, query, criteriaBuilder);
+        if (where != null) {
+            query.where(where);
+        }
+
+        Path<Object> key = request.isSortedById() ? null : root.get(request.getSortProperty());
+        Path<Object> id = root.get(ID_ATTRIBUTE);
+        List<Order> orders = new ArrayList<>();
+        if (key != null) {
+            orders.add(ascending ? criteriaBuilder.asc(key) : criteriaBuilder.desc(key));
+        }
+        orders.add(ascending ? criteriaBuilder.asc(id) : criteriaBuilder.desc(id));
+        query.multiselect(key != null ? key : id, id);
+        query.orderBy(orders);
+
+        return entityManager.createQuery(query)
+                .setMaxResults(request.getSize() + 1)
+                .getResultList();
+    }
+
+    private long count(Specification<Customer> predicate, CursorPageRequest request, boolean hasNext, int size) {
+        // A first slice without a next one holds every matching row
+        if (request.getAfter() == null && !hasNext) {
+            return size;
+        }
+        return customerRepository.count(predicate);
+    }
+
+    private <D> List<D> hydrate(List<UUID> ids, Specification<Customer> fetchGraph, Function<Customer, D> mapper) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Map<UUID, Customer> byId = new HashMap<>();
+        for (Customer customer : customerRepository.findAll(Specification.where(fetchGraph)
+                .and(CustomerSpecifications.hasCustomerIdIn(ids)))) {
+            byId.put(customer.getCustomerId(), customer);
+        }
+
+        List<D> content = new ArrayList<>(ids.size());
+        for (UUID id : ids) {
+            Customer customer = byId.get(id);
+            if (customer != null) {
+                content.add(mapper.apply(customer));
+            }
+        }
+        return content;
+    }
+
+    private Sort withTieBreaker(Sort sort) {
+        // A unique trailing key keeps page boundaries stable when the requested sort has ties
+        if (sort.getOrderFor(ID_ATTRIBUTE) != null) {
+            return sort;
+        }
+        return sort.and(Sort.by(ID_ATTRIBUTE));
+    }
+}
@@ -0,0 +1,93 @@
+package com.backbase.customer_master.infrastructure.persistence.loader;
+
+import com.backbase.customer_master.domain.model.Customer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.CacheMode;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.query.Query;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Forward-only streaming over customers matching a specification.
+ * Rows are read through a scrollable cursor with a bounded JDBC fetch size, mapped one at a time,
+ * and the persistence context is cleared every few hundred rows, so memory use does not grow
+ * with the size of the result. Must be called inside a (read-only) transaction.
+ */
+@Component
+@Slf4j
+public class CustomerStreamLoader {
+
+    private final EntityManager entityManager;
+    private final int fetchSize;
+    private final int clearInterval;
+
+    public CustomerStreamLoader(EntityManager entityManager,
+                                @Value("${app.export.fetch-size:500}") int fetchSize,
+                                @Value("${app.export.clear-interval:500}") int clearInterval) {
+        this.entityManager = entityManager;
+        this.fetchSize = fetchSize;
+        this.clearInterval = clearInterval;
+    }
+
+    /**
+     * Map every customer matching the predicate and hand it to the sink, in database order.
+     * The sink is called synchronously, so a slow consumer slows the read down with it.
+     *
+     * @return number of customers streamed
+     */
+    public <D> long forEach(Specification<Customer> predicate,
+                            Specification<Customer> fetchGraph,
+                            Function<Customer, D> mapper,
+                            Consumer<D> sink) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Customer> query = criteriaBuilder.createQuery(Customer.class);
+        Root<Customer> root = query.from(Customer.class);
+
+        // The filter goes into an id subquery: its joins cannot clash with the fetch joins, and
+        // collection joins in it cannot duplicate rows, so no DISTINCT has to be materialized
+        Subquery<UUID> matchingIds = query.subquery(UUID.class);
+        Root<Customer> filterRoot = matchingIds.from(Customer.class);
+        Predicate filter = predicate.toPredicate(filterRoot, criteriaBuilder.createQuery(Customer.class), criteriaBuilder);
+        matchingIds.select(filterRoot.get("customerId"));
+        if (filter != null) {
+            matchingIds.where(filter);
+        }
+
+        Predicate fetch = fetchGraph.toPredicate(root, query, criteriaBuilder);
+        Predicate in = root.get("customerId").in(matchingIds);
+        query.where(fetch == null ? in : criteriaBuilder.and(fetch, in));
+        query.select(root);
+
+        @SuppressWarnings("unchecked")
+        Query<Customer> scrollQuery = entityManager.createQuery(query).unwrap(Query.class);
+        scrollQuery.setFetchSize(fetchSize);
+        scrollQuery.setReadOnly(true);
+        scrollQuery.setCacheMode(CacheMode.IGNORE);
+
+        long count = 0;
+        try (ScrollableResults<Customer> rows = scrollQuery.scroll(ScrollMode.FORWARD_ONLY)) {
+            while (rows.next()) {
+                sink.accept(mapper.apply(rows.get()));
+                if (++count % clearInterval == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+
+        log.debug("Streamed {} customers", count);
+        return count;
+    }
+}
@@ -0,0 +1,145 @@
+package com.backbase.customer_master.infrastructure.persistence.loader;
+
+import com.backbase.customer_master.domain.model.Customer;
+import com.backbase.customer_master.infrastructure.persistence.specification.CustomerSpecifications;
+import com.backbase.customer_master.presentation.dto.CustomerDTO;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Summary DTOs of list views read as tuple projections: the columns CustomerMapper.toSummaryDTO
+ * maps, with client type and segment names joined in SQL. No entity is instantiated, so there are no
+ * dirty-checking snapshots and the persistence context does not grow with the page.
+ */
+@Component
+public class CustomerSummaryLoader {
+
+    private final EntityManager entityManager;
+
+    public CustomerSummaryLoader(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Summaries of the listed customers, in list order; IDs without a customer are skipped
+     */
+    public List<CustomerDTO> findByIds(List<UUID> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Map<UUID, CustomerDTO> byId = new HashMap<>();
+        for (CustomerDTO summary : query(CustomerSpecifications.hasCustomerIdIn(ids))) {
+            byId.put(summary.getCustomerId(), summary);
+        }
+
+        List<CustomerDTO> content = new ArrayList<>(ids.size());
+        for (UUID id : ids) {
+            CustomerDTO summary = byId.get(id);
+            if (summary != null) {
+                content.add(summary);
+            }
+        }
+        return content;
+    }
+
+    /**
+     * Summaries of all customers matching the predicate, in no particular order.
+     * The predicate must not fetch.
+     */
+    public List<CustomerDTO> findAll(Specification<Customer> predicate) {
+        return query(predicate);
+    }
+
+    // Helper methods
+
+    private List<CustomerDTO> query(Specification<Customer> predicate) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = criteriaBuilder.createTupleQuery();
+        Root<Customer> root = query.from(Customer.class);
+        Join<Object, Object> clientType = root.join("clientType", JoinType.LEFT);
+        Join<Object, Object> segment = root.join("customerSegment", JoinType.LEFT);
+
+        Predicate where = predicate.toPredicate(root, query, criteriaBuilder);
+        if (where != null) {
+            query.where(where);
+        }
+        query.multiselect(
+                root.get("customerId").alias("customerId"),
+                root.get("fullName").alias("fullName"),
+                root.get("dateOfBirth").alias("dateOfBirth"),
+                root.get("primaryPhone").alias("primaryPhone"),
+                root.get("email").alias("email"),
+                root.get("cifStatus").alias("cifStatus"),
+                clientType.get("clientTypeCode").alias("clientTypeCode"),
+                clientType.get("clientTypeName").alias("clientTypeName"),
+                segment.get("segmentCode").alias("segmentCode"),
+                segment.get("segmentName").alias("segmentName"),
+                root.get("cifCreatedDate").alias("cifCreatedDate"),
+                // Plain columns toSummaryDTO carries over by name
+                root.get("secondaryPhone").alias("secondaryPhone"),
+                root.get("internalClient").alias("internalClient"),
+                root.get("taxFileNo").alias("taxFileNo"),
+                root.get("taxable").alias("taxable"),
+                root.get("registrationChannel").alias("registrationChannel"),
+                root.get("customerClassification").alias("customerClassification"),
+                root.get("versionNo").alias("versionNo"),
+                root.get("createdAt").alias("createdAt"),
+                root.get("createdBy").alias("createdBy"),
+                root.get("updatedAt").alias("updatedAt"),
+                root.get("updatedBy").alias("updatedBy"),
+                root.get("sourceApp").alias("sourceApp"),
+                root.get("correlationId").alias("correlationId"));
+
+        List<CustomerDTO> summaries = new ArrayList<>();
+        for (Tuple row : entityManager.createQuery(query).getResultList()) {
+            summaries.add(toSummaryDTO(row));
+        }
+        return summaries;
+    }
+
+    private static CustomerDTO toSummaryDTO(Tuple row) {
+        return CustomerDTO.builder()
+                .customerId(row.get("customerId", UUID.class))
+                .fullName(row.get("fullName", String.class))
+                .dateOfBirth(row.get("dateOfBirth", LocalDate.class))
+                .primaryPhone(row.get("primaryPhone", String.class))
+                .email(row.get("email", String.class))
+                .cifStatus(row.get("cifStatus", String.class))
+                .clientTypeCode(row.get("clientTypeCode", String.class))
+                .clientTypeName(row.get("clientTypeName", String.class))
+                .segmentCode(row.get("segmentCode", String.class))
+                .segmentName(row.get("segmentName", String.class))
+                .cifCreatedDate(row.get("cifCreatedDate", LocalDate.class))
+                .secondaryPhone(row.get("secondaryPhone", String.class))
+                .internalClient(row.get("internalClient", String.class))
+                .taxFileNo(row.get("taxFileNo", String.class))
+                .taxable(row.get("taxable", String.class))
+                .registrationChannel(row.get("registrationChannel", String.class))
+                .customerClassification(row.get("customerClassification", String.class))
+                .versionNo(row.get("versionNo", Integer.class))
+                .createdAt(row.get("createdAt", LocalDateTime.class))
+                .createdBy(row.get("createdBy", String.class))
+                .updatedAt(row.get("updatedAt", LocalDateTime.class))
+                .updatedBy(row.get("updatedBy", String.class))
+                .sourceApp(row.get("sourceApp", String.class))
+                .correlationId(row.get("correlationId", String.class))
+                .build();
+    }
+}
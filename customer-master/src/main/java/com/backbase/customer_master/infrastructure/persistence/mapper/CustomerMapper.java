@@ -49,6 +49,39 @@ public interface CustomerMapper {
     @Mapping(target = "relationshipDTOs", source = "relationships")
     CustomerDTO toDTO(Customer customer);
 
+    // Root mapping with all reference data; collections are attached by CustomerGraphLoader
+    @Named("toRootDTO")
+    @Mapping(target = "customerId", source = "customerId")
+    @Mapping(target = "genderCode", source = "gender.genderCode")
+    @Mapping(target = "genderName", source = "gender.genderName")
+    @Mapping(target = "nationalityCode", source = "nationality.countryCode")
+    @Mapping(target = "nationalityName", source = "nationality.countryName")
+    @Mapping(target = "maritalStatusCode", source = "maritalStatus.maritalStatusCode")
+    @Mapping(target = "maritalStatusName", source = "maritalStatus.maritalStatusName")
+    @Mapping(target = "clientTypeCode", source = "clientType.clientTypeCode")
+    @Mapping(target = "clientTypeName", source = "clientType.clientTypeName")
+    @Mapping(target = "categoryCode", source = "category.categoryCode")
+    @Mapping(target = "categoryName", source = "category.categoryName")
+    @Mapping(target = "occupationCode", source = "occupation.occupationCode")
+    @Mapping(target = "occupationName", source = "occupation.occupationName")
+    @Mapping(target = "industryCode", source = "classificationIndustry.industryCode")
+    @Mapping(target = "industryName", source = "classificationIndustry.industryName")
+    @Mapping(target = "businessClassCode", source = "classificationBusiness.businessClassCode")
+    @Mapping(target = "businessClassName", source = "classificationBusiness.businessClassName")
+    @Mapping(target = "sectorCode", source = "classificationSector.sectorCode")
+    @Mapping(target = "sectorName", source = "classificationSector.sectorName")
+    @Mapping(target = "preferredLanguageCode", source = "preferredLanguage.languageCode")
+    @Mapping(target = "preferredLanguageName", source = "preferredLanguage.languageName")
+    @Mapping(target = "contactChannelCode", source = "preferredContactChannel.contactChannelCode")
+    @Mapping(target = "contactChannelName", source = "preferredContactChannel.contactChannelName")
+    @Mapping(target = "segmentCode", source = "customerSegment.segmentCode")
+    @Mapping(target = "segmentName", source = "customerSegment.segmentName")
+    @Mapping(target = "addressDTOs", ignore = true)
+    @Mapping(target = "identificationDTOs", ignore = true)
+    @Mapping(target = "productDTOs", ignore = true)
+    @Mapping(target = "relationshipDTOs", ignore = true)
+    CustomerDTO toRootDTO(Customer customer);
+
     // Basic mapping without relationships
     @Named("toBasicDTO")
     @Mapping(target = "customerId", source = "customerId")
@@ -0,0 +1,55 @@
+package com.backbase.customer_master.infrastructure.persistence.pagination;
+
+import com.backbase.customer_master.common.exception.ValidationException;
+import lombok.Value;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Keyset page request: where to resume, in which order, how many rows, and whether to count.
+ * When a cursor is given the sort may be left out and is taken from the cursor; a cursor issued for
+ * another filter or sort is rejected, so a client cannot change either halfway through a traversal.
+ */
+@Value
+public class CursorPageRequest {
+
+    public static final int MAX_SIZE = 1000;
+
+    String sortProperty;
+    Sort.Direction direction;
+    CustomerCursor after;
+    int size;
+    boolean includeTotal;
+    // Scope of the listing, carried by the cursors issued for it
+    String scope;
+
+    /**
+     * Build a request from the raw API parameters. The filter identifies the listing's filter
+     * values (e.g. "segment=MASS"); sort property and direction default to customerId ascending,
+     * or to the cursor's sort.
+     */
+    public static CursorPageRequest of(String cursor, String filter, String sortProperty, Sort.Direction direction,
+                                       int size, boolean includeTotal) {
+        if (size < 1 || size > MAX_SIZE) {
+            throw new ValidationException("Cursor page size must be between 1 and " + MAX_SIZE);
+        }
+        if (cursor != null && !cursor.isBlank()) {
+            CustomerCursor after = CustomerCursor.decode(cursor);
+            String scope = CustomerCursor.scope(filter,
+                    sortProperty != null ? sortProperty : after.sortProperty(),
+                    direction != null ? direction : after.direction());
+            if (!scope.equals(after.scope())) {
+                throw new ValidationException("Cursor was issued for a different filter or sort");
+            }
+            return new CursorPageRequest(after.sortProperty(), after.direction(), after, size, includeTotal, scope);
+        }
+        String property = sortProperty != null ? sortProperty : CustomerCursor.ID_PROPERTY;
+        Sort.Direction order = direction != null ? direction : Sort.Direction.ASC;
+        CustomerCursor.requireSortable(property);
+        return new CursorPageRequest(property, order, null, size, includeTotal,
+                CustomerCursor.scope(filter, property, order));
+    }
+
+    public boolean isSortedById() {
+        return CustomerCursor.ID_PROPERTY.equals(sortProperty);
+    }
+}
@@ -0,0 +1,95 @@
+package com.backbase.customer_master.infrastructure.persistence.pagination;
+
+import com.backbase.customer_master.common.exception.ValidationException;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Position in a keyset-paginated customer listing: the sort key and customer ID of the last row
+ * returned, and the scope (a hash of the filter and sort) of the listing it was issued for.
+ * Serialized as an opaque URL-safe token; clients only pass it back.
+ */
+public record CustomerCursor(String sortProperty, Sort.Direction direction, Comparable<?> sortValue, UUID customerId,
+                             String scope) {
+
+    public static final String ID_PROPERTY = "customerId";
+
+    private static final String VERSION = "v2";
+    private static final String SEPARATOR = "|";
+    private static final int SCOPE_BYTES = 9;
+
+    // Only non-null, indexed columns: a NULL key would break the row-value comparison. The name search
+    // key is derived on every write and backfilled by the name index rebuild at startup
+    private static final Map<String, Function<String, Comparable<?>>> SORTABLE = Map.of(
+            ID_PROPERTY, value -> null,
+            "fullName", value -> value,
+            "nameSearchKey", value -> value,
+            "createdAt", LocalDateTime::parse,
+            "updatedAt", LocalDateTime::parse,
+            "cifCreatedDate", LocalDate::parse
+    );
+
+    /**
+     * Check that a listing can be keyset-paginated on the given property
+     */
+    public static void requireSortable(String sortProperty) {
+        if (!SORTABLE.containsKey(sortProperty)) {
+            throw new ValidationException("Unsupported cursor sort property: " + sortProperty
+                    + ". Supported: " + String.join(", ", SORTABLE.keySet()));
+        }
+    }
+
+    /**
+     * Scope of a listing: a short hash of its filter and sort, so that a cursor can only resume the
+     * listing it came from
+     */
+    public static String scope(String filter, String sortProperty, Sort.Direction direction) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(
+                    String.join(SEPARATOR, filter, sortProperty, direction.name()).getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, SCOPE_BYTES));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Encode this position as an opaque token
+     */
+    public String encode() {
+        String value = sortValue == null ? "" : sortValue.toString();
+        String raw = String.join(SEPARATOR, VERSION, scope, sortProperty, direction.name(), customerId.toString(), value);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a token produced by {@link #encode()}
+     */
+    public static CustomerCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            // The sort value goes last so that separators inside it survive the split
+            String[] parts = raw.split("\\" + SEPARATOR, 6);
+            if (parts.length != 6 || !VERSION.equals(parts[0])) {
+                throw new ValidationException("Invalid cursor");
+            }
+            requireSortable(parts[2]);
+            Comparable<?> sortValue = SORTABLE.get(parts[2]).apply(parts[5]);
+            return new CustomerCursor(parts[2], Sort.Direction.valueOf(parts[3]), sortValue, UUID.fromString(parts[4]),
+                    parts[1]);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ValidationException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.backbase.customer_master.infrastructure.persistence.pool;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Bulkhead in front of a connection pool: a connection is only requested from the pool once a
+ * permit is taken, and the permit is returned when the connection is closed. Sized to the pool,
+ * it keeps every thread beyond the pool size parked on a fair semaphore (cheap for virtual
+ * threads, which unmount while they wait) instead of contending inside the pool, and fails a
+ * caller that waited longer than the acquire timeout.
+ * Metrics: datasource.bulkhead.active{pool}, datasource.bulkhead.waiting{pool} and
+ * datasource.bulkhead.rejected{pool}.
+ */
+public class BulkheadDataSource extends DelegatingDataSource {
+
+    private final String name;
+    private final int permits;
+    private final long acquireTimeoutMs;
+    private final Semaphore semaphore;
+
+    private final Counter rejected;
+
+    public BulkheadDataSource(DataSource pool, String name, int permits, long acquireTimeoutMs, MeterRegistry meterRegistry) {
+        super(pool);
+        this.name = name;
+        this.permits = permits;
+        this.acquireTimeoutMs = acquireTimeoutMs;
+        this.semaphore = new Semaphore(permits, true);
+
+        this.rejected = Counter.builder("datasource.bulkhead.rejected")
+                .description("Connection requests that gave up waiting for a bulkhead permit")
+                .tag("pool", name)
+                .register(meterRegistry);
+        Gauge.builder("datasource.bulkhead.active", this, BulkheadDataSource::active)
+                .description("Connections held through the bulkhead")
+                .tag("pool", name)
+                .register(meterRegistry);
+        Gauge.builder("datasource.bulkhead.waiting", this, BulkheadDataSource::waiting)
+                .description("Threads waiting for a bulkhead permit")
+                .tag("pool", name)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return guard(obtainTargetDataSource().getConnection());
+        } catch (SQLException | RuntimeException | Error ex) {
+            semaphore.release();
+            throw ex;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        try {
+            return guard(obtainTargetDataSource().getConnection(username, password));
+        } catch (SQLException | RuntimeException | Error ex) {
+            semaphore.release();
+            throw ex;
+        }
+    }
+
+    public int active() {
+        return permits - semaphore.availablePermits();
+    }
+
+    public int waiting() {
+        return semaphore.getQueueLength();
+    }
+
+    // Helper methods
+
+    private void acquire() throws SQLException {
+        try {
+            if (!semaphore.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+                rejected.increment();
+                throw new SQLTransientConnectionException(name + " - no connection available: "
+                        + permits + " in use, request waited " + acquireTimeoutMs + " ms");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException(name + " - interrupted while waiting for a connection", ex);
+        }
+    }
+
+    /**
+     * Wrap the connection so that closing it returns the permit, once
+     */
+    private Connection guard(Connection connection) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "toString":
+                            return "Bulkhead connection [" + connection + "]";
+                        default:
+                            break;
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException ex) {
+                        throw ex.getTargetException();
+                    } finally {
+                        if (method.getName().equals("close") && released.compareAndSet(false, true)) {
+                            semaphore.release();
+                        }
+                    }
+                });
+    }
+}
@@ -0,0 +1,32 @@
+package com.backbase.customer_master.infrastructure.persistence.pool;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import javax.sql.DataSource;
+
+/**
+ * Connection bulkheads (app.datasource.bulkhead), one in front of every connection pool
+ */
+@Data
+@ConfigurationProperties("app.datasource.bulkhead")
+public class ConnectionBulkheadProperties {
+
+    private boolean enabled = true;
+
+    // How long a caller waits for a permit; unset waits as long as the pool's connection timeout
+    private Long acquireTimeoutMs;
+
+    /**
+     * The pool behind a bulkhead sized to it, or the pool itself when bulkheads are disabled
+     */
+    public DataSource guard(HikariDataSource pool, String name, MeterRegistry meterRegistry) {
+        if (!enabled) {
+            return pool;
+        }
+        long timeoutMs = acquireTimeoutMs != null ? acquireTimeoutMs : pool.getConnectionTimeout();
+        return new BulkheadDataSource(pool, name, pool.getMaximumPoolSize(), timeoutMs, meterRegistry);
+    }
+}
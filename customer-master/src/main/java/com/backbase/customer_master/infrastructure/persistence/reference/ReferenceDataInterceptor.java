@@ -0,0 +1,40 @@
+package com.backbase.customer_master.infrastructure.persistence.reference;
+
+import org.hibernate.Interceptor;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * Hibernate interceptor that marks rows held by {@link ReferenceDataRegistry} as persistent.
+ * Reference tables are joined by business code rather than primary key, so an id-only proxy
+ * would still be loaded to read the code. Handing out the detached registry rows instead, and
+ * telling Hibernate they are not transient, avoids the existence snapshot query on insert.
+ */
+public class ReferenceDataInterceptor implements Interceptor {
+
+    private final ObjectProvider<ReferenceDataRegistry> registryProvider;
+
+    private volatile ReferenceDataRegistry registry;
+
+    public ReferenceDataInterceptor(ObjectProvider<ReferenceDataRegistry> registryProvider) {
+        this.registryProvider = registryProvider;
+    }
+
+    @Override
+    public Boolean isTransient(Object entity) {
+        ReferenceDataRegistry current = registry();
+        if (current != null && current.isRegistered(entity)) {
+            return Boolean.FALSE;
+        }
+        return null;
+    }
+
+    private ReferenceDataRegistry registry() {
+        ReferenceDataRegistry current = registry;
+        if (current == null) {
+            // Resolved lazily: the registry depends on repositories, which depend on this interceptor
+            current = registryProvider.getIfAvailable();
+            registry = current;
+        }
+        return current;
+    }
+}
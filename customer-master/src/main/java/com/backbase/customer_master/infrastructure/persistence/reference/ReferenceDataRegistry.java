@@ -0,0 +1,194 @@
+package com.backbase.customer_master.infrastructure.persistence.reference;
+
+import com.backbase.customer_master.domain.model.*;
+import com.backbase.customer_master.domain.repository.*;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * In-memory registry of the reference tables used to resolve codes on customer commands.
+ * Rows are loaded into an immutable snapshot that is swapped atomically on refresh, so
+ * readers never lock and never see a half-built map. Codes missing from the snapshot
+ * (e.g. added after the last refresh) fall back to the repository lookup.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ReferenceDataRegistry {
+
+    private final GenderRepository genderRepository;
+    private final CountryRepository countryRepository;
+    private final MaritalStatusRepository maritalStatusRepository;
+    private final ClientTypeRepository clientTypeRepository;
+    private final CategoryRepository categoryRepository;
+    private final OccupationRepository occupationRepository;
+    private final IndustryRepository industryRepository;
+    private final BusinessClassificationRepository businessClassificationRepository;
+    private final EconomicSectorRepository economicSectorRepository;
+    private final LanguageRepository languageRepository;
+    private final ContactChannelRepository contactChannelRepository;
+    private final CustomerSegmentRepository customerSegmentRepository;
+
+    // A lock, not a monitor: refresh waits for connections
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    // ============================================
+    // LOOKUPS
+    // ============================================
+
+    public Optional<Gender> findGender(String genderCode) {
+        return lookup(Gender.class, genderCode, genderRepository::findByGenderCode);
+    }
+
+    public Optional<Country> findCountry(String countryCode) {
+        return lookup(Country.class, countryCode, countryRepository::findByCountryCode);
+    }
+
+    public Optional<MaritalStatus> findMaritalStatus(String maritalStatusCode) {
+        return lookup(MaritalStatus.class, maritalStatusCode, maritalStatusRepository::findByMaritalStatusCode);
+    }
+
+    public Optional<ClientType> findClientType(String clientTypeCode) {
+        return lookup(ClientType.class, clientTypeCode, clientTypeRepository::findByClientTypeCode);
+    }
+
+    public Optional<Category> findCategory(String categoryCode) {
+        return lookup(Category.class, categoryCode, categoryRepository::findByCategoryCode);
+    }
+
+    public Optional<Occupation> findOccupation(String occupationCode) {
+        return lookup(Occupation.class, occupationCode, occupationRepository::findByOccupationCode);
+    }
+
+    public Optional<Industry> findIndustry(String industryCode) {
+        return lookup(Industry.class, industryCode, industryRepository::findByIndustryCode);
+    }
+
+    public Optional<BusinessClassification> findBusinessClassification(String businessClassCode) {
+        return lookup(BusinessClassification.class, businessClassCode,
+                businessClassificationRepository::findByBusinessClassCode);
+    }
+
+    public Optional<EconomicSector> findEconomicSector(String sectorCode) {
+        return lookup(EconomicSector.class, sectorCode, economicSectorRepository::findBySectorCode);
+    }
+
+    public Optional<Language> findLanguage(String languageCode) {
+        return lookup(Language.class, languageCode, languageRepository::findByLanguageCode);
+    }
+
+    public Optional<ContactChannel> findContactChannel(String contactChannelCode) {
+        return lookup(ContactChannel.class, contactChannelCode, contactChannelRepository::findByContactChannelCode);
+    }
+
+    public Optional<CustomerSegment> findCustomerSegment(String segmentCode) {
+        return lookup(CustomerSegment.class, segmentCode, customerSegmentRepository::findBySegmentCode);
+    }
+
+    /**
+     * Check whether the given instance was handed out by the current snapshot.
+     * Used by {@link ReferenceDataInterceptor} to tell Hibernate the row already exists.
+     */
+    public boolean isRegistered(Object entity) {
+        return snapshot.instances().contains(entity);
+    }
+
+    public LocalDateTime getLoadedAt() {
+        return snapshot.loadedAt();
+    }
+
+    // ============================================
+    // REFRESH
+    // ============================================
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        refresh();
+    }
+
+    @Scheduled(fixedDelayString = "${app.reference-data.refresh-interval-ms:900000}",
+            initialDelayString = "${app.reference-data.refresh-interval-ms:900000}")
+    public void scheduledRefresh() {
+        refresh();
+    }
+
+    /**
+     * Reload all reference tables and publish a new snapshot.
+     * Concurrent refreshes are serialized; readers keep using the previous snapshot until the swap.
+     */
+    public void refresh() {
+        refreshLock.lock();
+        try {
+            SnapshotBuilder builder = new SnapshotBuilder();
+            builder.index(Gender.class, genderRepository.findAll(), Gender::getGenderCode);
+            builder.index(Country.class, countryRepository.findAll(), Country::getCountryCode);
+            builder.index(MaritalStatus.class, maritalStatusRepository.findAll(), MaritalStatus::getMaritalStatusCode);
+            builder.index(ClientType.class, clientTypeRepository.findAll(), ClientType::getClientTypeCode);
+            builder.index(Category.class, categoryRepository.findAll(), Category::getCategoryCode);
+            builder.index(Occupation.class, occupationRepository.findAll(), Occupation::getOccupationCode);
+            builder.index(Industry.class, industryRepository.findAll(), Industry::getIndustryCode);
+            builder.index(BusinessClassification.class, businessClassificationRepository.findAll(),
+                    BusinessClassification::getBusinessClassCode);
+            builder.index(EconomicSector.class, economicSectorRepository.findAll(), EconomicSector::getSectorCode);
+            builder.index(Language.class, languageRepository.findAll(), Language::getLanguageCode);
+            builder.index(ContactChannel.class, contactChannelRepository.findAll(),
+                    ContactChannel::getContactChannelCode);
+            builder.index(CustomerSegment.class, customerSegmentRepository.findAll(),
+                    CustomerSegment::getSegmentCode);
+
+            snapshot = builder.build();
+            log.info("Reference data registry refreshed with {} rows", snapshot.instances().size());
+        } catch (DataAccessException ex) {
+            log.warn("Reference data refresh failed, keeping previous snapshot: {}", ex.getMessage());
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    // Helper methods
+
+    private <T> Optional<T> lookup(Class<T> type, String code, Function<String, Optional<T>> fallback) {
+        if (code == null) {
+            return Optional.empty();
+        }
+        Object cached = snapshot.tables().getOrDefault(type, Map.of()).get(code);
+        if (cached != null) {
+            return Optional.of(type.cast(cached));
+        }
+        return fallback.apply(code);
+    }
+
+    private record Snapshot(Map<Class<?>, Map<String, Object>> tables, Set<Object> instances, LocalDateTime loadedAt) {
+        static final Snapshot EMPTY = new Snapshot(Map.of(), Set.of(), null);
+    }
+
+    private static final class SnapshotBuilder {
+        private final Map<Class<?>, Map<String, Object>> tables = new HashMap<>();
+        private final Set<Object> instances = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        <T> void index(Class<T> type, List<T> rows, Function<T, String> codeExtractor) {
+            Map<String, Object> byCode = new HashMap<>();
+            for (T row : rows) {
+                byCode.put(codeExtractor.apply(row), row);
+                instances.add(row);
+            }
+            tables.put(type, Map.copyOf(byCode));
+        }
+
+        Snapshot build() {
+            return new Snapshot(Map.copyOf(tables), Collections.unmodifiableSet(instances), LocalDateTime.now());
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.backbase.customer_master.infrastructure.persistence.routing;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read replica routing settings (app.datasource.routing)
+ */
+@Data
+@ConfigurationProperties(prefix = "app.datasource.routing")
+public class ReadReplicaProperties {
+
+    private boolean enabled = false;
+
+    private List<Replica> replicas = new ArrayList<>();
+
+    // Connections per replica pool
+    private int poolSize = 10;
+
+    // Connection timeout of the replica pools, so a dead replica fails reads and health checks fast
+    private long connectionTimeoutMs = 2000;
+
+    // Query returning the replica's lag in seconds; blank checks connectivity only
+    private String lagQuery = "";
+
+    // Replicas further behind than this are ejected until they catch up
+    private long maxLagSeconds = 5;
+
+    // How long a user's reads stay on the primary after they issue a command; 0 disables
+    private long readYourWritesSeconds = 5;
+
+    @Data
+    public static class Replica {
+
+        private String name;
+
+        private String url;
+
+        // Default to the primary's credentials
+        private String username;
+
+        private String password;
+    }
+}
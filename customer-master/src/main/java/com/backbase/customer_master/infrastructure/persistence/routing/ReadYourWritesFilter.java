@@ -0,0 +1,52 @@
+package com.backbase.customer_master.infrastructure.persistence.routing;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.security.Principal;
+import java.util.Set;
+
+/**
+ * Binds the authenticated user to the request thread for {@link ReadYourWritesTracker}, and pins
+ * them to the primary when the request is a command (any method but GET, HEAD, OPTIONS, TRACE,
+ * except the queries sent as POST because of their body size, such as the batch get).
+ * The pin is taken before the command runs and renewed when it returns, so a read the client
+ * sends right after the response never lands on a replica that is missing the write.
+ * Must run after the security filter chain, which resolves the principal.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    private static final Set<String> QUERY_METHODS = Set.of("GET", "HEAD", "OPTIONS", "TRACE");
+    private static final Set<String> QUERY_PATHS = Set.of("/api/v1/customers/batch-get");
+
+    private final ReadYourWritesTracker tracker;
+
+    public ReadYourWritesFilter(ReadYourWritesTracker tracker) {
+        this.tracker = tracker;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Principal principal = request.getUserPrincipal();
+        boolean command = !QUERY_METHODS.contains(request.getMethod())
+                && !QUERY_PATHS.contains(request.getRequestURI().substring(request.getContextPath().length()));
+
+        tracker.bind(principal == null ? null : principal.getName());
+        try {
+            if (command) {
+                tracker.pinCurrent();
+            }
+            filterChain.doFilter(request, response);
+        } finally {
+            if (command) {
+                tracker.pinCurrent();
+            }
+            tracker.unbind();
+        }
+    }
+}
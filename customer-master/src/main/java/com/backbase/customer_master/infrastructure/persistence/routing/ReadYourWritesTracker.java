@@ -0,0 +1,68 @@
+package com.backbase.customer_master.infrastructure.persistence.routing;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps a user's reads on the primary for a while after they issue a command, so they see their
+ * own write even when the replicas have not applied it yet.
+ * The user of the current request is bound to the thread by {@link ReadYourWritesFilter}; threads
+ * with no user bound (scheduled jobs, async work) are never pinned.
+ */
+public class ReadYourWritesTracker {
+
+    private final long pinNanos;
+    private final Map<String, Long> pinnedUntil = new ConcurrentHashMap<>();
+    private final ThreadLocal<String> currentUser = new ThreadLocal<>();
+
+    public ReadYourWritesTracker(long pinSeconds) {
+        this.pinNanos = TimeUnit.SECONDS.toNanos(pinSeconds);
+    }
+
+    public void bind(String user) {
+        if (user == null) {
+            currentUser.remove();
+        } else {
+            currentUser.set(user);
+        }
+    }
+
+    public void unbind() {
+        currentUser.remove();
+    }
+
+    /**
+     * Pin the current user to the primary for the configured period, counted from now
+     */
+    public void pinCurrent() {
+        String user = currentUser.get();
+        if (user != null && pinNanos > 0) {
+            pinnedUntil.put(user, System.nanoTime() + pinNanos);
+        }
+    }
+
+    public boolean isCurrentPinned() {
+        String user = currentUser.get();
+        if (user == null) {
+            return false;
+        }
+        Long until = pinnedUntil.get(user);
+        if (until == null) {
+            return false;
+        }
+        if (until - System.nanoTime() > 0) {
+            return true;
+        }
+        pinnedUntil.remove(user, until);
+        return false;
+    }
+
+    /**
+     * Forget expired pins, so users who stopped writing do not stay in the map
+     */
+    public void purgeExpired() {
+        long now = System.nanoTime();
+        pinnedUntil.entrySet().removeIf(entry -> entry.getValue() - now <= 0);
+    }
+}
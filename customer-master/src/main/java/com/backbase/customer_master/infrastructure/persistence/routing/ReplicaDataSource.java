@@ -0,0 +1,206 @@
+package com.backbase.customer_master.infrastructure.persistence.routing;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Connections for read-only transactions, spread round-robin over the healthy replicas.
+ * A replica is healthy once a health check reached it and, when a lag query is configured, found
+ * it at most max-lag-seconds behind; a replica that fails to hand out a connection is ejected at
+ * once and the read moves on to the next one. With no healthy replica, and for users pinned by
+ * {@link ReadYourWritesTracker}, reads go to the primary. Replicas start unhealthy, so reads stay
+ * on the primary until the first health check.
+ */
+@Slf4j
+public class ReplicaDataSource extends AbstractDataSource implements AutoCloseable {
+
+    // Column of MySQL's SHOW REPLICA STATUS; other lag queries return the lag in their first column
+    private static final String MYSQL_LAG_COLUMN = "Seconds_Behind_Source";
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final ReadYourWritesTracker readYourWritesTracker;
+    private final String lagQuery;
+    private final long maxLagSeconds;
+    private final AtomicInteger next = new AtomicInteger();
+
+    private final Counter primaryReads;
+
+    /**
+     * @param guard wraps a replica pool for handing out read connections (e.g. behind a bulkhead)
+     */
+    public ReplicaDataSource(DataSource primary,
+                             List<HikariDataSource> replicaPools,
+                             Function<HikariDataSource, DataSource> guard,
+                             ReadYourWritesTracker readYourWritesTracker,
+                             String lagQuery,
+                             long maxLagSeconds,
+                             MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replicas = replicaPools.stream().map(pool -> new Replica(pool, guard.apply(pool), meterRegistry)).toList();
+        this.readYourWritesTracker = readYourWritesTracker;
+        this.lagQuery = lagQuery;
+        this.maxLagSeconds = maxLagSeconds;
+
+        this.primaryReads = readConnections("primary", meterRegistry);
+        Gauge.builder("datasource.replicas.healthy", this, dataSource -> dataSource.healthyReplicas().size())
+                .description("Replicas currently serving read-only transactions")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return route(DataSource::getConnection);
+    }
+
+    /**
+     * Same routing, with the credentials passed to the chosen pool (Hikari pools do not support them)
+     */
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return route(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    /**
+     * Check every replica's connectivity and lag, ejecting or restoring it
+     */
+    @Scheduled(fixedDelayString = "${app.datasource.routing.health-check-interval-ms:5000}")
+    public void checkHealth() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.pool.getConnection()) {
+                if (lagQuery == null || lagQuery.isBlank()) {
+                    replica.markUp(null);
+                    continue;
+                }
+                Long lag = lagSeconds(connection);
+                if (lag == null) {
+                    replica.markDown("replication is not running");
+                } else if (lag > maxLagSeconds) {
+                    replica.markDown("lagging " + lag + " s behind the primary");
+                } else {
+                    replica.markUp(lag);
+                }
+            } catch (SQLException ex) {
+                replica.markDown("health check failed: " + ex.getMessage());
+            }
+        }
+        readYourWritesTracker.purgeExpired();
+    }
+
+    /**
+     * Names of the replicas currently serving reads
+     */
+    public List<String> getHealthyReplicaNames() {
+        return healthyReplicas().stream().map(replica -> replica.pool.getPoolName()).toList();
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(replica -> replica.pool.close());
+    }
+
+    // Helper methods
+
+    private Connection route(ConnectionSource source) throws SQLException {
+        if (readYourWritesTracker.isCurrentPinned()) {
+            primaryReads.increment();
+            return source.connect(primary);
+        }
+
+        List<Replica> healthy = healthyReplicas();
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(healthy.size(), 1));
+        for (int i = 0; i < healthy.size(); i++) {
+            Replica replica = healthy.get((start + i) % healthy.size());
+            try {
+                Connection connection = source.connect(replica.connections);
+                replica.reads.increment();
+                return connection;
+            } catch (SQLFeatureNotSupportedException ex) {
+                // The request, not the replica, is at fault
+                throw ex;
+            } catch (SQLException ex) {
+                replica.markDown("cannot get a connection: " + ex.getMessage());
+            }
+        }
+
+        primaryReads.increment();
+        return source.connect(primary);
+    }
+
+    private List<Replica> healthyReplicas() {
+        return replicas.stream().filter(replica -> replica.healthy).toList();
+    }
+
+    private Long lagSeconds(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(lagQuery)) {
+            if (!resultSet.next()) {
+                return null;
+            }
+            int column = 1;
+            try {
+                column = resultSet.findColumn(MYSQL_LAG_COLUMN);
+            } catch (SQLException ignored) {
+                // Not SHOW REPLICA STATUS: the lag is the first column
+            }
+            long lag = resultSet.getLong(column);
+            return resultSet.wasNull() ? null : lag;
+        }
+    }
+
+    private static Counter readConnections(String target, MeterRegistry meterRegistry) {
+        return Counter.builder("datasource.read.connections")
+                .description("Connections handed to read-only transactions")
+                .tag("target", target)
+                .register(meterRegistry);
+    }
+
+    @FunctionalInterface
+    private interface ConnectionSource {
+
+        Connection connect(DataSource dataSource) throws SQLException;
+    }
+
+    private static final class Replica {
+
+        private final HikariDataSource pool;
+        private final DataSource connections;
+        private final Counter reads;
+        private volatile boolean healthy;
+
+        private Replica(HikariDataSource pool, DataSource connections, MeterRegistry meterRegistry) {
+            this.pool = pool;
+            this.connections = connections;
+            this.reads = readConnections(pool.getPoolName(), meterRegistry);
+        }
+
+        private void markUp(Long lag) {
+            if (!healthy) {
+                log.info("Replica {} is serving reads (lag: {} s)", pool.getPoolName(), lag == null ? "not checked" : lag);
+            }
+            healthy = true;
+        }
+
+        private void markDown(String reason) {
+            if (healthy) {
+                log.warn("Replica {} ejected: {}", pool.getPoolName(), reason);
+            }
+            healthy = false;
+        }
+    }
+}
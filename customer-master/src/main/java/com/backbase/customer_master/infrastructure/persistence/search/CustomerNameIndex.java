@@ -0,0 +1,371 @@
+package com.backbase.customer_master.infrastructure.persistence.search;
+
+import com.backbase.customer_master.domain.model.Customer;
+import com.backbase.customer_master.domain.model.CustomerNameTrigram;
+import com.backbase.customer_master.domain.repository.CustomerNameTrigramRepository;
+import com.backbase.customer_master.domain.repository.CustomerRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.*;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.function.BiFunction;
+
+/**
+ * Name search over the diacritic-folded key customer.name_search_key.
+ * Equality and prefix matches come from a range scan of the key index, in key order (an exact
+ * match sorts before every longer name it prefixes). Other substring matches follow, found through
+ * the trigram postings in customer_name_trigram: only customers present in the posting lists of
+ * the term's rarest trigrams are checked against the key, word-prefix matches first. Trigram
+ * frequencies are cached in memory; stale frequencies only cost speed, never matches. Terms too
+ * short for a trigram are confirmed on every customer row instead, so their substring matches are
+ * only counted up to residual-scan-limit: past it, the page total is a lower bound ("at least N").
+ * The command handlers keep the postings in step with customer writes; {@link #rebuild()}
+ * recreates them, and backfills missing keys, from the customer table chunk by chunk.
+ */
+@Component
+@Slf4j
+public class CustomerNameIndex {
+
+    private static final String ID_ATTRIBUTE = "customerId";
+    private static final String KEY_ATTRIBUTE = "nameSearchKey";
+    private static final char LIKE_ESCAPE = '\\';
+
+    private final EntityManager entityManager;
+    private final CustomerRepository customerRepository;
+    private final CustomerNameTrigramRepository trigramRepository;
+    private final TransactionTemplate chunkTransaction;
+    private final boolean rebuildIfStale;
+    private final int rebuildBatchSize;
+    private final int probeTrigrams;
+    private final int residualScanLimit;
+
+    private volatile Map<String, Long> trigramFrequencies = Map.of();
+
+    public CustomerNameIndex(EntityManager entityManager,
+                             CustomerRepository customerRepository,
+                             CustomerNameTrigramRepository trigramRepository,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${app.search.name-index.rebuild-if-stale:true}") boolean rebuildIfStale,
+                             @Value("${app.search.name-index.rebuild-batch-size:1000}") int rebuildBatchSize,
+                             @Value("${app.search.name-index.probe-trigrams:3}") int probeTrigrams,
+                             @Value("${app.search.residual-scan-limit:500}") int residualScanLimit) {
+        this.entityManager = entityManager;
+        this.customerRepository = customerRepository;
+        this.trigramRepository = trigramRepository;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.rebuildIfStale = rebuildIfStale;
+        this.rebuildBatchSize = rebuildBatchSize;
+        this.probeTrigrams = probeTrigrams;
+        this.residualScanLimit = residualScanLimit;
+    }
+
+    // ============================================
+    // SEARCH
+    // ============================================
+
+    /**
+     * Page of IDs of customers whose folded name contains the folded term and that match the filter.
+     * Prefix matches first, then other substrings, unless the pageable is sorted. For terms shorter
+     * than a trigram the total is a lower bound once the substring matches reach residual-scan-limit.
+     */
+    public Page<UUID> search(String term, Specification<Customer> filter, Pageable pageable) {
+        String key = CustomerNameNormalizer.normalize(term);
+        boolean scanned = CustomerNameNormalizer.trigrams(key).isEmpty();
+        Specification<Customer> containing = Specification.where(filter).and(hasKeyContaining(key));
+
+        if (pageable.getSort().isSorted()) {
+            Sort sort = pageable.getSort().and(Sort.by(ID_ATTRIBUTE));
+            List<UUID> ids = findIds(containing, (root, criteriaBuilder) -> QueryUtils.toOrders(sort, root, criteriaBuilder),
+                    pageable.getOffset(), pageable.getPageSize());
+            return PageableExecutionUtils.getPage(ids, pageable,
+                    () -> total(0, containing, scanned, pageable, ids.size()));
+        }
+
+        Specification<Customer> prefixed = Specification.where(filter).and(hasKeyPrefix(key));
+        Specification<Customer> rest = containing.and(Specification.not(hasKeyPrefix(key)));
+        long offset = pageable.isPaged() ? pageable.getOffset() : 0;
+        int size = pageable.isPaged() ? pageable.getPageSize() : Integer.MAX_VALUE;
+
+        // The prefix tier is an index range; the page may start in it and spill over into the rest
+        long prefixTotal = customerRepository.count(prefixed);
+        List<UUID> ids = new ArrayList<>();
+        if (offset < prefixTotal) {
+            ids.addAll(findIds(prefixed, this::byKey, offset, size));
+        }
+        if (ids.size() < size) {
+            ids.addAll(findIds(rest, (root, criteriaBuilder) -> byWordPrefix(key, root, criteriaBuilder),
+                    Math.max(0, offset - prefixTotal), size - ids.size()));
+        }
+
+        return PageableExecutionUtils.getPage(ids, pageable,
+                () -> total(prefixTotal, rest, scanned, pageable, ids.size()));
+    }
+
+    /**
+     * Customers whose folded name contains the folded term: the matches of {@link #search}, as a
+     * filter for listings that page by key instead of by offset
+     */
+    public Specification<Customer> matching(String term) {
+        return hasKeyContaining(CustomerNameNormalizer.normalize(term));
+    }
+
+    // ============================================
+    // MAINTENANCE
+    // ============================================
+
+    /**
+     * (Re)index one customer's name; a no-op when its trigrams did not change
+     */
+    @Transactional
+    public void index(Customer customer) {
+        Set<String> trigrams = CustomerNameNormalizer.trigrams(customer.getFullName());
+        if (new HashSet<>(trigramRepository.findTrigramsByCustomerId(customer.getCustomerId())).equals(trigrams)) {
+            return;
+        }
+
+        trigramRepository.deleteByCustomerId(customer.getCustomerId());
+        persist(customer.getCustomerId(), trigrams);
+    }
+
+    /**
+     * Index customers that were just created, skipping the lookup of postings they cannot have yet
+     */
+    @Transactional
+    public void indexNew(Collection<Customer> customers) {
+        for (Customer customer : customers) {
+            persist(customer.getCustomerId(), CustomerNameNormalizer.trigrams(customer.getFullName()));
+        }
+    }
+
+    /**
+     * Drop one customer from the index
+     */
+    @Transactional
+    public void remove(UUID customerId) {
+        trigramRepository.deleteByCustomerId(customerId);
+    }
+
+    /**
+     * Recreate the whole index from the customer table in chunks of rebuild-batch-size customers
+     * taken in ID order. Each chunk replaces the postings of its ID range in its own transaction, so
+     * undo, locks and the persistence context stay bounded by one chunk and searches keep working
+     * meanwhile. Search keys that are missing or stale (rows written outside JPA) are derived on the way.
+     * Must not be called inside a transaction, which the chunks would join.
+     *
+     * @return number of customers indexed
+     */
+    public long rebuild() {
+        long started = System.currentTimeMillis();
+
+        long indexed = 0;
+        UUID last = null;
+        List<UUID> chunk;
+        do {
+            UUID after = last;
+            chunk = chunkTransaction.execute(status -> rebuildChunk(after));
+            indexed += chunk.size();
+            if (!chunk.isEmpty()) {
+                last = chunk.get(chunk.size() - 1);
+            }
+        } while (chunk.size() == rebuildBatchSize);
+
+        // Postings past the last customer belong to customers deleted outside JPA
+        UUID end = last;
+        chunkTransaction.executeWithoutResult(status -> {
+            if (end == null) {
+                trigramRepository.deleteAllInBatch();
+            } else {
+                trigramRepository.deleteByCustomerIdAfter(end);
+            }
+        });
+
+        refreshFrequencies();
+        log.info("Customer name index rebuilt: {} customers in {} ms", indexed, System.currentTimeMillis() - started);
+        return indexed;
+    }
+
+    /**
+     * Reload the per-trigram posting counts used to pick which posting lists to intersect
+     */
+    @Scheduled(fixedDelayString = "${app.search.name-index.frequency-refresh-ms:3600000}",
+            initialDelayString = "${app.search.name-index.frequency-refresh-ms:3600000}")
+    @Transactional(readOnly = true)
+    public void refreshFrequencies() {
+        Map<String, Long> frequencies = new HashMap<>();
+        for (Object[] row : trigramRepository.countPostingsByTrigram()) {
+            frequencies.put((String) row[0], (Long) row[1]);
+        }
+        trigramFrequencies = Map.copyOf(frequencies);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartupIfStale() {
+        boolean empty = trigramRepository.count() == 0 && customerRepository.count() > 0;
+        if (rebuildIfStale && (empty || customerRepository.existsByNameSearchKeyIsNull())) {
+            rebuild();
+        } else {
+            refreshFrequencies();
+        }
+    }
+
+    // Helper methods
+
+    private Specification<Customer> hasKeyPrefix(String key) {
+        return (root, query, criteriaBuilder) ->
+                criteriaBuilder.like(root.get(KEY_ATTRIBUTE), escape(key) + "%", LIKE_ESCAPE);
+    }
+
+    private Specification<Customer> hasKeyContaining(String key) {
+        Set<String> trigrams = rarest(CustomerNameNormalizer.trigrams(key));
+        return (root, query, criteriaBuilder) -> {
+            Predicate contains = criteriaBuilder.like(root.get(KEY_ATTRIBUTE), "%" + escape(key) + "%", LIKE_ESCAPE);
+            if (trigrams.isEmpty()) {
+                // Too short for a trigram: confirmed on every row, see total()
+                return contains;
+            }
+
+            // Posting-list intersection over the rarest trigrams of the term. The candidates are a superset
+            // of the matches (not every trigram is probed, and trigrams do not encode their order),
+            // so the substring is still confirmed on them
+            Subquery<UUID> postings = query.subquery(UUID.class);
+            Root<CustomerNameTrigram> posting = postings.from(CustomerNameTrigram.class);
+            postings.select(posting.get(ID_ATTRIBUTE))
+                    .where(posting.get("trigram").in(trigrams))
+                    .groupBy(posting.get(ID_ATTRIBUTE))
+                    .having(criteriaBuilder.equal(criteriaBuilder.count(posting), (long) trigrams.size()));
+            return criteriaBuilder.and(root.get(ID_ATTRIBUTE).in(postings), contains);
+        };
+    }
+
+    // Matches of a scanned term are counted only up to residual-scan-limit: the count query stops at
+    // the cap, and the total is then at least the cap, and past the page when the page is full
+    private long total(long counted, Specification<Customer> spec, boolean scanned, Pageable pageable, int found) {
+        if (!scanned) {
+            return counted + customerRepository.count(spec);
+        }
+        int matches = findIds(spec, (root, criteriaBuilder) -> List.of(), 0, residualScanLimit).size();
+        if (matches < residualScanLimit) {
+            return counted + matches;
+        }
+        long seen = pageable.getOffset() + found + (found == pageable.getPageSize() ? 1 : 0);
+        return Math.max(counted + matches, seen);
+    }
+
+    private Set<String> rarest(Set<String> trigrams) {
+        if (trigrams.size() <= probeTrigrams) {
+            return trigrams;
+        }
+        // A trigram with no postings sorts first and empties the intersection straight away
+        Map<String, Long> frequencies = trigramFrequencies;
+        Set<String> rarest = new LinkedHashSet<>();
+        trigrams.stream()
+                .sorted(Comparator.comparingLong(trigram -> frequencies.getOrDefault(trigram, 0L)))
+                .limit(probeTrigrams)
+                .forEach(rarest::add);
+        return rarest;
+    }
+
+    private List<Order> byKey(Root<Customer> root, CriteriaBuilder criteriaBuilder) {
+        return List.of(criteriaBuilder.asc(root.get(KEY_ATTRIBUTE)), criteriaBuilder.asc(root.get(ID_ATTRIBUTE)));
+    }
+
+    private List<Order> byWordPrefix(String key, Root<Customer> root, CriteriaBuilder criteriaBuilder) {
+        Expression<String> name = root.get(KEY_ATTRIBUTE);
+        Expression<Integer> rank = criteriaBuilder.<Integer>selectCase()
+                .when(criteriaBuilder.like(name, "% " + escape(key) + "%", LIKE_ESCAPE), 0)
+                .otherwise(1);
+        return List.of(
+                criteriaBuilder.asc(rank),
+                criteriaBuilder.asc(criteriaBuilder.length(name)),
+                criteriaBuilder.asc(name),
+                criteriaBuilder.asc(root.get(ID_ATTRIBUTE)));
+    }
+
+    private List<UUID> findIds(Specification<Customer> spec,
+                               BiFunction<Root<Customer>, CriteriaBuilder, List<Order>> orders,
+                               long offset, int limit) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<UUID> query = criteriaBuilder.createQuery(UUID.class);
+        Root<Customer> root = query.from(Customer.class);
+        query.select(root.get(ID_ATTRIBUTE));
+        Predicate where = spec.toPredicate(root, query, criteriaBuilder);
+        if (where != null) {
+            query.where(where);
+        }
+        query.orderBy(orders.apply(root, criteriaBuilder));
+
+        return entityManager.createQuery(query)
+                .setFirstResult(Math.toIntExact(offset))
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    private String escape(String key) {
+        return key.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    // Reindexes the next chunk of customers after the given ID, returning their IDs
+    private List<UUID> rebuildChunk(UUID after) {
+        List<Object[]> batch = nextBatch(after);
+        if (batch.isEmpty()) {
+            return List.of();
+        }
+
+        List<UUID> customerIds = new ArrayList<>(batch.size());
+        UUID upTo = (UUID) batch.get(batch.size() - 1)[0];
+        if (after == null) {
+            trigramRepository.deleteByCustomerIdUpTo(upTo);
+        } else {
+            trigramRepository.deleteByCustomerIdBetween(after, upTo);
+        }
+        for (Object[] row : batch) {
+            UUID customerId = (UUID) row[0];
+            String key = CustomerNameNormalizer.normalize((String) row[1]);
+            if (!key.equals(row[2])) {
+                // Bulk update: leaves updated_at and the version alone
+                entityManager.createQuery("UPDATE Customer c SET c.nameSearchKey = :key WHERE c.customerId = :customerId")
+                        .setParameter("key", key)
+                        .setParameter("customerId", customerId)
+                        .executeUpdate();
+            }
+            persist(customerId, CustomerNameNormalizer.trigrams(key));
+            customerIds.add(customerId);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return customerIds;
+    }
+
+    private List<Object[]> nextBatch(UUID after) {
+        String jpql = after == null
+                ? "SELECT c.customerId, c.fullName, c.nameSearchKey FROM Customer c ORDER BY c.customerId"
+                : "SELECT c.customerId, c.fullName, c.nameSearchKey FROM Customer c WHERE c.customerId > :after ORDER BY c.customerId";
+        TypedQuery<Object[]> query = entityManager.createQuery(jpql, Object[].class);
+        if (after != null) {
+            query.setParameter("after", after);
+        }
+        return query.setMaxResults(rebuildBatchSize).getResultList();
+    }
+
+    private void persist(UUID customerId, Set<String> trigrams) {
+        for (String trigram : trigrams) {
+            entityManager.persist(new CustomerNameTrigram(trigram, customerId));
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.backbase.customer_master.infrastructure.persistence.search;
+
+import com.backbase.customer_master.common.text.VietnameseTextFolder;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Normalization shared by the name index and the queries against it, so both sides agree on
+ * what a trigram is.
+ */
+public final class CustomerNameNormalizer {
+
+    public static final int GRAM_LENGTH = 3;
+
+    private CustomerNameNormalizer() {
+    }
+
+    /**
+     * Fold to the search key stored in customer.name_search_key (diacritics stripped, lower case,
+     * whitespace collapsed)
+     */
+    public static String normalize(String name) {
+        if (name == null) {
+            return "";
+        }
+        return VietnameseTextFolder.fold(name);
+    }
+
+    /**
+     * Distinct trigrams of the normalized name, spaces included, in order of first occurrence.
+     * Empty when the name is shorter than a trigram.
+     */
+    public static Set<String> trigrams(String name) {
+        String normalized = normalize(name);
+        Set<String> trigrams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= normalized.length(); i++) {
+            trigrams.add(normalized.substring(i, i + GRAM_LENGTH));
+        }
+        return trigrams;
+    }
+}
@@ -8,13 +8,14 @@ import org.springframework.data.jpa.domain.Specification;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
 public class CustomerSpecifications {
 
     // Fetch joins specifications
-    public static Specification<Customer> withAllRelatedData() {
+    public static Specification<Customer> withReferenceData() {
         return (root, query, criteriaBuilder) -> {
             if (query.getResultType() != Long.class && query.getResultType() != long.class) {
                 root.fetch("gender", JoinType.LEFT);
@@ -29,26 +30,20 @@ public class CustomerSpecifications {
                 root.fetch("preferredLanguage", JoinType.LEFT);
                 root.fetch("preferredContactChannel", JoinType.LEFT);
                 root.fetch("customerSegment", JoinType.LEFT);
-                root.fetch("addresses", JoinType.LEFT);
-                root.fetch("identifications", JoinType.LEFT);
-                root.fetch("products", JoinType.LEFT);
-                root.fetch("relationships", JoinType.LEFT);
-                query.distinct(true);
             }
             return criteriaBuilder.conjunction();
         };
     }
 
     public static Specification<Customer> withBasicRelatedData() {
+        // Only the references read by the basic mapping; fetching its two bag collections as well
+        // is rejected by Hibernate (MultipleBagFetchException), and the mapping does not read them
         return (root, query, criteriaBuilder) -> {
             if (query.getResultType() != Long.class && query.getResultType() != long.class) {
                 root.fetch("gender", JoinType.LEFT);
                 root.fetch("nationality", JoinType.LEFT);
                 root.fetch("clientType", JoinType.LEFT);
                 root.fetch("customerSegment", JoinType.LEFT);
-                root.fetch("addresses", JoinType.LEFT);
-                root.fetch("identifications", JoinType.LEFT);
-                query.distinct(true);
             }
             return criteriaBuilder.conjunction();
         };
@@ -59,7 +54,6 @@ public class CustomerSpecifications {
             if (query.getResultType() != Long.class && query.getResultType() != long.class) {
                 root.fetch("clientType", JoinType.LEFT);
                 root.fetch("customerSegment", JoinType.LEFT);
-                query.distinct(true);
             }
             return criteriaBuilder.conjunction();
         };
@@ -75,6 +69,15 @@ public class CustomerSpecifications {
         };
     }
 
+    public static Specification<Customer> hasCustomerIdIn(Collection<UUID> customerIds) {
+        return (root, query, criteriaBuilder) -> {
+            if (customerIds == null || customerIds.isEmpty()) {
+                return criteriaBuilder.disjunction();
+            }
+            return root.get("customerId").in(customerIds);
+        };
+    }
+
     public static Specification<Customer> hasFullNameContaining(String fullName) {
         return (root, query, criteriaBuilder) -> {
             if (StringUtils.isBlank(fullName)) {
@@ -380,6 +383,7 @@ public class CustomerSpecifications {
             }
 
             Join<Customer, Address> addressJoin = root.join("addresses", JoinType.INNER);
+            query.distinct(true);
             Join<Address, Province> provinceJoin = addressJoin.join("province", JoinType.INNER);
             return criteriaBuilder.equal(provinceJoin.get("provinceCode"), provinceCode);
         };
@@ -392,6 +396,7 @@ public class CustomerSpecifications {
             }
 
             Join<Customer, Address> addressJoin = root.join("addresses", JoinType.INNER);
+            query.distinct(true);
             Join<Address, District> districtJoin = addressJoin.join("district", JoinType.INNER);
             return criteriaBuilder.equal(districtJoin.get("districtCode"), districtCode);
         };
@@ -404,6 +409,7 @@ public class CustomerSpecifications {
             }
 
             Join<Customer, Identification> identificationJoin = root.join("identifications", JoinType.INNER);
+            query.distinct(true);
             return criteriaBuilder.equal(identificationJoin.get("identificationNumber"), identificationNumber);
         };
     }
@@ -415,6 +421,7 @@ public class CustomerSpecifications {
             }
 
             Join<Customer, CustomerProduct> productJoin = root.join("products", JoinType.INNER);
+            query.distinct(true);
             Join<CustomerProduct, ProductGroup> groupJoin = productJoin.join("productGroup", JoinType.INNER);
             return criteriaBuilder.equal(groupJoin.get("productGroupCode"), productType);
         };
@@ -446,6 +453,10 @@ public class CustomerSpecifications {
         };
     }
 
+    public static Specification<Customer> modifiedNotAfter(LocalDateTime date) {
+        return (root, query, criteriaBuilder) -> criteriaBuilder.lessThanOrEqualTo(root.get("updatedAt"), date);
+    }
+
     // Source tracking specifications
     public static Specification<Customer> hasSourceApp(String sourceApp) {
         return (root, query, criteriaBuilder) -> {
@@ -483,6 +494,55 @@ public class CustomerSpecifications {
         };
     }
 
+    // Keyset pagination specifications
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static Specification<Customer> isAfterKey(String sortProperty, boolean ascending, Comparable sortValue, UUID customerId) {
+        return (root, query, criteriaBuilder) -> {
+            if (customerId == null) {
+                return criteriaBuilder.conjunction();
+            }
+
+            Path<UUID> idPath = root.get("customerId");
+            Predicate idAfter = ascending
+                    ? criteriaBuilder.greaterThan(idPath, customerId)
+                    : criteriaBuilder.lessThan(idPath, customerId);
+            if (sortValue == null || "customerId".equals(sortProperty)) {
+                return idAfter;
+            }
+
+            Path<Comparable> keyPath = root.get(sortProperty);
+            Predicate keyAfter = ascending
+                    ? criteriaBuilder.greaterThan(keyPath, sortValue)
+                    : criteriaBuilder.lessThan(keyPath, sortValue);
+            return criteriaBuilder.or(keyAfter, criteriaBuilder.and(criteriaBuilder.equal(keyPath, sortValue), idAfter));
+        };
+    }
+
+    // Multi-field search lookups (equality and prefix only, so each can be served by an index)
+    public static Specification<Customer> hasPrimaryPhoneIn(Collection<String> primaryPhones) {
+        return (root, query, criteriaBuilder) -> root.get("primaryPhone").in(primaryPhones);
+    }
+
+    public static Specification<Customer> hasPrimaryPhoneStartingWith(String prefix) {
+        return (root, query, criteriaBuilder) -> startsWith(root.get("primaryPhone"), prefix, criteriaBuilder);
+    }
+
+    public static Specification<Customer> hasEmailIn(Collection<String> emails) {
+        return (root, query, criteriaBuilder) -> root.get("email").in(emails);
+    }
+
+    public static Specification<Customer> hasEmailStartingWith(String prefix) {
+        return (root, query, criteriaBuilder) -> startsWith(root.get("email"), prefix, criteriaBuilder);
+    }
+
+    public static Specification<Customer> hasTaxFileNoIn(Collection<String> taxFileNos) {
+        return (root, query, criteriaBuilder) -> root.get("taxFileNo").in(taxFileNos);
+    }
+
+    public static Specification<Customer> hasTaxFileNoStartingWith(String prefix) {
+        return (root, query, criteriaBuilder) -> startsWith(root.get("taxFileNo"), prefix, criteriaBuilder);
+    }
+
     // Complex search
     public static Specification<Customer> complexSearch(String searchTerm) {
         return (root, query, criteriaBuilder) -> {
@@ -501,4 +561,11 @@ public class CustomerSpecifications {
             );
         };
     }
-}
\ No newline at end of file
+
+    // Helper methods
+
+    private static Predicate startsWith(Path<String> path, String prefix, CriteriaBuilder criteriaBuilder) {
+        String escaped = prefix.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        return criteriaBuilder.like(path, escaped + "%", '\\');
+    }
+}
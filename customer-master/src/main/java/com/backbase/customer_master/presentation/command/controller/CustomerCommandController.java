@@ -3,6 +3,7 @@ package com.backbase.customer_master.presentation.command.controller;
 import com.backbase.customer_master.application.command.handler.CustomerCommandHandler;
 import com.backbase.customer_master.application.command.model.*;
 import com.backbase.customer_master.application.command.service.CustomerCommandService;
+import com.backbase.customer_master.presentation.dto.BulkCreateResultDTO;
 import com.backbase.customer_master.presentation.dto.CustomerDTO;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -41,6 +42,17 @@ public class CustomerCommandController {
         return ResponseEntity.status(HttpStatus.CREATED).body(customerCommandService.createCustomer(command));
     }
 
+    @Operation(summary = "Create customers in bulk",
+            description = "Creates up to 5000 customers; each record is validated and created on its own, "
+                    + "so rejected records do not prevent the others from being created")
+    @ApiResponse(responseCode = "200", description = "Records processed; see the per-record results")
+    @ApiResponse(responseCode = "400", description = "Empty or oversized request")
+    @PostMapping("/bulk")
+    public ResponseEntity<BulkCreateResultDTO> bulkCreateCustomers(@Valid @RequestBody BulkCreateCustomersCommand command) {
+        log.info("Bulk creating {} customers", command.getCustomers().size());
+        return ResponseEntity.ok(customerCommandService.bulkCreateCustomers(command));
+    }
+
     @Operation(summary = "Update customer", description = "Updates an existing customer record")
     @ApiResponse(responseCode = "200", description = "Customer updated successfully")
     @ApiResponse(responseCode = "400", description = "Invalid input data")
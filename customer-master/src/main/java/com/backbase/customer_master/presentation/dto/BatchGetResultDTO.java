@@ -0,0 +1,61 @@
+package com.backbase.customer_master.presentation.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Outcome of a batch customer get, one result per requested ID")
+public class BatchGetResultDTO {
+
+    @Schema(description = "Number of IDs requested", example = "1000")
+    private Integer total;
+
+    @Schema(description = "Number of IDs resolved to a customer", example = "997")
+    private Integer found;
+
+    @Schema(description = "Well-formed IDs with no customer (unknown or closed), in request order")
+    private List<String> missingIds;
+
+    @Schema(description = "Number of malformed IDs", example = "1")
+    private Integer invalid;
+
+    @Schema(description = "Per-ID results, in request order")
+    private List<ItemResult> results;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @Schema(description = "Result of one requested ID")
+    public static class ItemResult {
+
+        public static final String FOUND = "FOUND";
+        public static final String NOT_FOUND = "NOT_FOUND";
+        public static final String INVALID = "INVALID";
+
+        @Schema(description = "Position of the ID in the request", example = "0")
+        private Integer index;
+
+        @Schema(description = "The ID as requested")
+        private String customerId;
+
+        @Schema(description = "FOUND, NOT_FOUND or INVALID", example = "FOUND")
+        private String status;
+
+        @Schema(description = "The customer, when found")
+        private CustomerDTO customer;
+
+        @Schema(description = "Why the ID was rejected", example = "Invalid customer ID format: 42")
+        private String error;
+    }
+}
@@ -0,0 +1,52 @@
+package com.backbase.customer_master.presentation.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Outcome of a bulk customer create, one result per submitted record")
+public class BulkCreateResultDTO {
+
+    @Schema(description = "Number of records submitted", example = "1000")
+    private Integer total;
+
+    @Schema(description = "Number of customers created", example = "998")
+    private Integer created;
+
+    @Schema(description = "Number of records rejected", example = "2")
+    private Integer failed;
+
+    @Schema(description = "Per-record results, in submission order")
+    private List<RecordResult> results;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @Schema(description = "Result of one submitted record")
+    public static class RecordResult {
+
+        @Schema(description = "Position of the record in the request", example = "0")
+        private Integer index;
+
+        @Schema(description = "CREATED or FAILED", example = "CREATED")
+        private String status;
+
+        @Schema(description = "ID of the created customer")
+        private UUID customerId;
+
+        @Schema(description = "Why the record was rejected", example = "Customer already exists with email or phone number")
+        private String error;
+    }
+}
@@ -0,0 +1,34 @@
+package com.backbase.customer_master.presentation.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "One slice of a cursor (keyset) paginated listing")
+public class CursorPageDTO<T> {
+
+    @Schema(description = "Items in this slice")
+    private List<T> content;
+
+    @Schema(description = "Requested slice size", example = "20")
+    private Integer size;
+
+    @Schema(description = "Whether another slice follows this one")
+    private Boolean hasNext;
+
+    @Schema(description = "Opaque token to pass as cursor for the next slice; absent on the last slice")
+    private String nextCursor;
+
+    @Schema(description = "Total number of matching items; only present when includeTotal=true")
+    private Long totalElements;
+}
@@ -0,0 +1,48 @@
+package com.backbase.customer_master.presentation.dto;
+
+import com.backbase.customer_master.infrastructure.persistence.pagination.CursorPageRequest;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Request parameters shared by the cursor (keyset) paginated listings
+ */
+@Data
+public class CursorPageParams {
+
+    @Parameter(description = "Opaque cursor from the previous slice; omit for the first slice")
+    private String cursor;
+
+    @Parameter(description = "Slice size (1-1000)", schema = @Schema(defaultValue = "20"))
+    private int size = 20;
+
+    @Parameter(description = "Sort property: customerId, fullName, nameSearchKey, createdAt, updatedAt or "
+            + "cifCreatedDate; defaults to customerId (nameSearchKey for name search), or to the cursor's sort")
+    private String sort;
+
+    @Parameter(description = "Sort direction; defaults to ASC, or to the cursor's direction")
+    private Sort.Direction direction;
+
+    @Parameter(description = "Also count all matching customers", schema = @Schema(defaultValue = "false"))
+    private boolean includeTotal;
+
+    /**
+     * Page request for the listing with the given filter (e.g. "segment=MASS"); a cursor issued
+     * for another filter or sort is rejected
+     */
+    public CursorPageRequest toPageRequest(String filter) {
+        return CursorPageRequest.of(cursor, filter, sort, direction, size, includeTotal);
+    }
+
+    /**
+     * {@link #toPageRequest(String)} for a listing whose first slice is sorted on the given property
+     * when no sort is asked for; later slices keep the cursor's sort
+     */
+    public CursorPageRequest toPageRequest(String filter, String defaultSort) {
+        boolean first = cursor == null || cursor.isBlank();
+        return CursorPageRequest.of(cursor, filter, sort == null && first ? defaultSort : sort, direction, size,
+                includeTotal);
+    }
+}
@@ -3,23 +3,38 @@ package com.backbase.customer_master.presentation.query.controller;
 import com.backbase.customer_master.application.query.handler.CustomerQueryHandler;
 import com.backbase.customer_master.application.query.model.*;
 import com.backbase.customer_master.application.query.service.CustomerQueryService;
+import com.backbase.customer_master.domain.service.CustomerDomainService;
+import com.backbase.customer_master.infrastructure.persistence.pagination.CursorPageRequest;
+import com.backbase.customer_master.presentation.dto.BatchGetResultDTO;
+import com.backbase.customer_master.presentation.dto.CursorPageDTO;
+import com.backbase.customer_master.presentation.dto.CursorPageParams;
 import com.backbase.customer_master.presentation.dto.CustomerDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletionException;
 
 /**
  * REST Controller for Customer Query operations (CQRS Pattern)
@@ -31,8 +46,12 @@ import java.util.Optional;
 @Tag(name = "Customer Queries", description = "Customer read operations (Get, Search, Find)")
 public class CustomerQueryController {
 
+    // Added to a long poll's wait for the async request timeout, so the feed answers first
+    private static final long CHANGES_TIMEOUT_MARGIN_MS = 5000;
+
     private final CustomerQueryHandler customerQueryHandler;
     private final CustomerQueryService customerQueryService;
+    private final ObjectMapper objectMapper;
 
     @Operation(summary = "Get customer by ID", description = "Retrieves a customer by their ID")
     @ApiResponse(responseCode = "200", description = "Customer found")
@@ -81,7 +100,8 @@ public class CustomerQueryController {
         return ResponseEntity.ok(customerQueryService.getAllCustomers(pageable));
     }
 
-    @Operation(summary = "Search customers by name", description = "Searches customers by full name")
+    @Operation(summary = "Search customers by name", description = "Searches customers by full name. "
+            + "For names shorter than three letters totalElements is a lower bound once it reaches the residual scan limit")
     @ApiResponse(responseCode = "200", description = "Customers found")
     @GetMapping("/search")
     public ResponseEntity<Page<CustomerDTO>> searchCustomersByName(
@@ -322,6 +342,147 @@ public class CustomerQueryController {
         return ResponseEntity.ok(customers);
     }
 
+    // Cursor (keyset) pagination endpoints
+
+    @Operation(summary = "Get all customers by cursor", description = "Retrieves all customers with cursor (keyset) pagination")
+    @ApiResponse(responseCode = "200", description = "Customers retrieved successfully")
+    @GetMapping("/cursor")
+    public ResponseEntity<CursorPageDTO<CustomerDTO>> getAllCustomersByCursor(
+            @ParameterObject CursorPageParams cursorParams) {
+        log.info("Retrieving all customers with cursor pagination");
+
+        CursorPageRequest pageRequest = cursorParams.toPageRequest("all");
+        return ResponseEntity.ok(customerQueryService.getCustomersByCursor(null, null, null, pageRequest));
+    }
+
+    @Operation(summary = "Search customers by name by cursor", description = "Searches customers by full name "
+            + "with cursor (keyset) pagination; same matches as /search, sorted by the folded name unless another sort is given")
+    @ApiResponse(responseCode = "200", description = "Customers found")
+    @GetMapping("/search/cursor")
+    public ResponseEntity<CursorPageDTO<CustomerDTO>> searchCustomersByNameByCursor(
+            @Parameter(description = "Name to search for") @RequestParam String name,
+            @ParameterObject CursorPageParams cursorParams) {
+        log.info("Searching customers by name with cursor pagination: {}", name);
+
+        CursorPageRequest pageRequest = cursorParams.toPageRequest("name=" + name, "nameSearchKey");
+        return ResponseEntity.ok(customerQueryService.getCustomersByCursor(name, null, null, pageRequest));
+    }
+
+    @Operation(summary = "Get customers by type by cursor", description = "Retrieves customers of a specific type with cursor (keyset) pagination")
+    @ApiResponse(responseCode = "200", description = "Customers found")
+    @GetMapping("/type/{customerType}/cursor")
+    public ResponseEntity<CursorPageDTO<CustomerDTO>> getCustomersByTypeByCursor(
+            @Parameter(description = "Customer type") @PathVariable String customerType,
+            @ParameterObject CursorPageParams cursorParams) {
+        log.info("Retrieving customers by type with cursor pagination: {}", customerType);
+
+        CursorPageRequest pageRequest = cursorParams.toPageRequest("type=" + customerType);
+        return ResponseEntity.ok(customerQueryService.getCustomersByCursor(null, customerType, null, pageRequest));
+    }
+
+    @Operation(summary = "Get customers by segment by cursor", description = "Retrieves customers belonging to a specific segment with cursor (keyset) pagination")
+    @ApiResponse(responseCode = "200", description = "Customers found")
+    @GetMapping("/segment/{customerSegment}/cursor")
+    public ResponseEntity<CursorPageDTO<CustomerDTO>> getCustomersBySegmentByCursor(
+            @Parameter(description = "Customer segment") @PathVariable String customerSegment,
+            @ParameterObject CursorPageParams cursorParams) {
+        log.info("Retrieving customers by segment with cursor pagination: {}", customerSegment);
+
+        CursorPageRequest pageRequest = cursorParams.toPageRequest("segment=" + customerSegment);
+        return ResponseEntity.ok(customerQueryService.getCustomersByCursor(null, null, customerSegment, pageRequest));
+    }
+
+    @Operation(summary = "Get customer changes", description = "Customers created or updated after the cursor, oldest change first. "
+            + "Resume from the returned cursor; with waitMs the request is held until a change arrives or the wait runs out")
+    @ApiResponse(responseCode = "200", description = "Changed customers (empty, cursor unchanged, when there were none)")
+    @GetMapping("/changes")
+    public DeferredResult<ResponseEntity<CursorPageDTO<CustomerDTO>>> getCustomerChanges(
+            @Parameter(description = "Cursor from the previous response; omit to start from the oldest change")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Slice size (1-1000)") @RequestParam(defaultValue = "100") int size,
+            @Parameter(description = "How long to wait for a change when there is none yet, in milliseconds")
+            @RequestParam(defaultValue = "0") long waitMs) {
+        log.debug("Retrieving customer changes, waiting up to {} ms", waitMs);
+
+        // The servlet thread is released while the poll waits; the feed completes it with an empty slice at the deadline
+        DeferredResult<ResponseEntity<CursorPageDTO<CustomerDTO>>> result = new DeferredResult<>(
+                Math.max(waitMs, 0) + CHANGES_TIMEOUT_MARGIN_MS);
+        customerQueryService.getCustomerChanges(cursor, size, waitMs).whenComplete((page, ex) -> {
+            if (ex != null) {
+                result.setErrorResult(ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex);
+            } else {
+                result.setResult(ResponseEntity.ok(page));
+            }
+        });
+        return result;
+    }
+
+    @Operation(summary = "Export customers", description = "Streams customers matching any combination of filters as newline-delimited JSON (one summary per line)")
+    @ApiResponse(responseCode = "200", description = "Export stream started")
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportCustomers(@ParameterObject ExportCustomersQuery query) {
+        log.info("Exporting customers: {}", query);
+
+        ObjectWriter writer = objectMapper.writerFor(CustomerDTO.class);
+        StreamingResponseBody body = outputStream -> {
+            // Writes block while the client is slow to read, which in turn pauses the database cursor
+            long count = customerQueryService.exportCustomers(query, customer -> {
+                try {
+                    outputStream.write(writer.writeValueAsBytes(customer));
+                    outputStream.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            outputStream.flush();
+            log.info("Exported {} customers", count);
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    @Operation(summary = "Get customers by ID list",
+            description = "Resolves up to 5000 customer IDs in request order, with the basic or summary view; "
+                    + "unknown or closed IDs are reported as missing and malformed IDs as invalid, "
+                    + "without failing the other IDs. Ask for application/x-ndjson to stream one result per line")
+    @ApiResponse(responseCode = "200", description = "IDs resolved; see the per-ID results")
+    @ApiResponse(responseCode = "400", description = "Empty or oversized request")
+    @PostMapping(value = "/batch-get", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BatchGetResultDTO> batchGetCustomers(@Valid @RequestBody BatchGetCustomersQuery query) {
+        log.info("Batch getting {} customers", query.getCustomerIds().size());
+
+        return ResponseEntity.ok(customerQueryService.batchGetCustomers(query));
+    }
+
+    @Operation(summary = "Stream customers by ID list",
+            description = "Same as the batch get, written as one per-ID result per line while the chunks are loaded")
+    @ApiResponse(responseCode = "200", description = "Per-ID results streamed as newline-delimited JSON")
+    @ApiResponse(responseCode = "400", description = "Empty or oversized request")
+    @PostMapping(value = "/batch-get", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamBatchGetCustomers(@Valid @RequestBody BatchGetCustomersQuery query) {
+        log.info("Streaming batch get of {} customers", query.getCustomerIds().size());
+
+        ObjectWriter writer = objectMapper.writerFor(BatchGetResultDTO.ItemResult.class);
+        StreamingResponseBody body = outputStream -> {
+            long found = customerQueryService.batchGetCustomers(query, result -> {
+                try {
+                    outputStream.write(writer.writeValueAsBytes(result));
+                    outputStream.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            outputStream.flush();
+            log.info("Streamed batch get: {} of {} customers found", found, query.getCustomerIds().size());
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
     @Operation(summary = "Check customer existence", description = "Checks if a customer exists")
     @ApiResponse(responseCode = "200", description = "Existence check completed")
     @GetMapping("/{customerId}/exists")
@@ -337,6 +498,15 @@ public class CustomerQueryController {
         return ResponseEntity.ok(exists);
     }
 
+    @Operation(summary = "Get customer statistics", description = "Retrieves dashboard counters by status, internal and taxable customers")
+    @ApiResponse(responseCode = "200", description = "Statistics retrieved successfully")
+    @GetMapping("/statistics")
+    public ResponseEntity<CustomerDomainService.CustomerStatistics> getCustomerStatistics() {
+        log.debug("Retrieving customer statistics");
+
+        return ResponseEntity.ok(customerQueryService.getCustomerStatistics());
+    }
+
     @Operation(summary = "Count customers by status", description = "Counts customers with a specific status")
     @ApiResponse(responseCode = "200", description = "Count retrieved successfully")
     @GetMapping("/count/status/{status}")
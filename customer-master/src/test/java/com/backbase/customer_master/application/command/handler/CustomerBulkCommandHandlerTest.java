@@ -0,0 +1,143 @@
+package com.backbase.customer_master.application.command.handler;
+
+import com.backbase.customer_master.application.command.model.BulkCreateCustomersCommand;
+import com.backbase.customer_master.application.command.model.CreateCustomerCommand;
+import com.backbase.customer_master.domain.service.CustomerDomainService;
+import com.backbase.customer_master.domain.service.CustomerDuplicateService;
+import com.backbase.customer_master.domain.service.CustomerStatisticsService;
+import com.backbase.customer_master.infrastructure.persistence.reference.ReferenceDataRegistry;
+import com.backbase.customer_master.presentation.dto.BulkCreateResultDTO;
+import com.backbase.customer_master.support.TestDataSeeder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "app.bulk.transaction-size=20",
+        "app.statistics.snapshot.enabled=true",
+        "spring.jpa.properties.hibernate.generate_statistics=true"})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class CustomerBulkCommandHandlerTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CustomerBulkCommandHandler customerBulkCommandHandler;
+
+    @Autowired
+    private CustomerStatisticsService customerStatisticsService;
+
+    @Autowired
+    private CustomerDomainService customerDomainService;
+
+    @Autowired
+    private ReferenceDataRegistry referenceDataRegistry;
+
+    @Autowired
+    private CustomerDuplicateService customerDuplicateService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeAll
+    void seed() {
+        TestDataSeeder seeder = new TestDataSeeder(jdbcTemplate);
+        seeder.seedReferenceData();
+        seeder.seedCustomers(5, 0, 0, 0, 0);
+        // Lets a record pass validation but fail on insert
+        jdbcTemplate.execute("ALTER TABLE customer ADD CONSTRAINT chk_bulk_test CHECK (job_title IS NULL OR job_title <> 'REJECT')");
+        customerStatisticsService.reconcile();
+        referenceDataRegistry.refresh();
+        customerDuplicateService.rebuild();
+    }
+
+    @Test
+    void reportsEachRecordAndKeepsTheGoodOnes() {
+        List<CreateCustomerCommand> records = new ArrayList<>();
+        for (int i = 0; i < 45; i++) {
+            records.add(record(i));
+        }
+        records.get(1).setEmail("customer3@example.com");
+        records.get(2).setFullName(null);
+        records.get(3).setGenderCode("X");
+        records.get(4).setEmail(records.get(0).getEmail());
+        records.get(30).setJobTitle("REJECT");
+
+        BulkCreateResultDTO result = customerBulkCommandHandler.handle(new BulkCreateCustomersCommand(records));
+
+        assertEquals(45, result.getTotal());
+        assertEquals(40, result.getCreated());
+        assertEquals(5, result.getFailed());
+        assertEquals("CREATED", result.getResults().get(0).getStatus());
+        assertNotNull(result.getResults().get(0).getCustomerId());
+        assertEquals("Customer already exists with email or phone number", result.getResults().get(1).getError());
+        assertEquals("fullName: Full name is required", result.getResults().get(2).getError());
+        assertEquals("Invalid gender code: X", result.getResults().get(3).getError());
+        assertEquals("Customer already exists with email or phone number", result.getResults().get(4).getError());
+        assertEquals("FAILED", result.getResults().get(30).getStatus());
+        // The rest of the failed transaction was retried and created
+        assertEquals("CREATED", result.getResults().get(29).getStatus());
+        assertEquals("CREATED", result.getResults().get(31).getStatus());
+
+        assertEquals(customerStatisticsService.aggregate(), customerStatisticsService.getSnapshot());
+        assertEquals(1, customerDomainService.searchCustomersByName("Bulk Khach Hang 7", PageRequest.of(0, 5))
+                .getTotalElements());
+    }
+
+    @Test
+    void insertsInJdbcBatches() {
+        List<CreateCustomerCommand> records = new ArrayList<>();
+        for (int i = 100; i < 200; i++) {
+            records.add(record(i));
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        BulkCreateResultDTO result = customerBulkCommandHandler.handle(new BulkCreateCustomersCommand(records));
+
+        assertEquals(100, result.getCreated());
+        assertEquals(100, statistics.getEntityStatistics("com.backbase.customer_master.domain.model.Customer")
+                .getInsertCount());
+        assertEquals(100, statistics.getEntityStatistics("com.backbase.customer_master.domain.model.Event")
+                .getInsertCount());
+        // One duplicate check plus a handful of batched statements per transaction, not one per row
+        assertTrue(statistics.getPrepareStatementCount() < 60, "statements: " + statistics.getPrepareStatementCount());
+    }
+
+    // Helper methods
+
+    private CreateCustomerCommand record(int i) {
+        return CreateCustomerCommand.builder()
+                .cifStatus("ACTIVE")
+                .fullName("Bulk Khach Hang " + i)
+                .genderCode("F")
+                .dateOfBirth(LocalDate.of(1985, 5, 5))
+                .nationalityCode("VN")
+                .clientTypeCode("INDIVIDUAL")
+                .primaryPhone(String.format("+8491%07d", i))
+                .email("bulk" + i + "@example.com")
+                .accountUsagePurpose("SAVING")
+                .internalClient(i % 2 == 0 ? "Y" : "N")
+                .taxable("N")
+                .registrationChannel("MIGRATION")
+                .cifCreatedDate(LocalDate.now())
+                .createdBy("MIGRATION")
+                .build();
+    }
+}
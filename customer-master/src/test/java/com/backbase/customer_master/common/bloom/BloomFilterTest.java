@@ -0,0 +1,33 @@
+package com.backbase.customer_master.common.bloom;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BloomFilterTest {
+
+    private static final int INSERTIONS = 100_000;
+
+    @Test
+    void neverMissesAddedValuesAndStaysNearTargetRate() {
+        BloomFilter filter = BloomFilter.create(INSERTIONS, 0.01);
+        for (int i = 0; i < INSERTIONS; i++) {
+            filter.put("p:+849" + i);
+        }
+
+        for (int i = 0; i < INSERTIONS; i++) {
+            assertTrue(filter.mightContain("p:+849" + i));
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < INSERTIONS; i++) {
+            if (filter.mightContain("e:customer" + i + "@example.com")) {
+                falsePositives++;
+            }
+        }
+        double observed = (double) falsePositives / INSERTIONS;
+        assertTrue(observed < 0.015, "observed false positive rate " + observed);
+        assertEquals(0.01, filter.expectedFalsePositiveRate(), 0.003);
+    }
+}
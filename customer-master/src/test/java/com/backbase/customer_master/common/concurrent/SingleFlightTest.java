@@ -0,0 +1,147 @@
+package com.backbase.customer_master.common.concurrent;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SingleFlightTest {
+
+    private static final Duration WAIT = Duration.ofSeconds(5);
+
+    private final AtomicInteger coalesced = new AtomicInteger();
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>(key -> coalesced.incrementAndGet());
+
+    @Test
+    void concurrentCallsShareOneExecution() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger executions = new AtomicInteger();
+        CompletableFuture<String> leader = call("customer-1", () -> {
+            executions.incrementAndGet();
+            await(release);
+            return "loaded";
+        }, WAIT);
+        awaitInFlight(1);
+
+        List<CompletableFuture<String>> waiters = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            waiters.add(call("customer-1", () -> "not coalesced", WAIT));
+        }
+        awaitCoalesced(5);
+        // Another key runs on its own
+        assertEquals("other", singleFlight.execute("customer-2", () -> "other", WAIT));
+        release.countDown();
+
+        assertEquals("loaded", leader.get(5, TimeUnit.SECONDS));
+        for (CompletableFuture<String> waiter : waiters) {
+            assertEquals("loaded", waiter.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, executions.get());
+        assertEquals(0, singleFlight.inFlight());
+        // Completed executions are not reused
+        assertEquals("fresh", singleFlight.execute("customer-1", () -> "fresh", WAIT));
+    }
+
+    @Test
+    void waiterGivesUpAloneOnTimeoutOrInterrupt() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> leader = call("customer-1", () -> {
+            await(release);
+            return "loaded";
+        }, WAIT);
+        awaitInFlight(1);
+
+        assertThrows(TimeoutException.class,
+                () -> singleFlight.execute("customer-1", () -> "not coalesced", Duration.ofMillis(50)));
+
+        CompletableFuture<String> patient = call("customer-1", () -> "not coalesced", WAIT);
+        CompletableFuture<Throwable> cancellation = new CompletableFuture<>();
+        Thread cancelled = Thread.ofPlatform().start(() -> {
+            try {
+                singleFlight.execute("customer-1", () -> "not coalesced", WAIT);
+            } catch (Throwable ex) {
+                cancellation.complete(ex);
+            }
+        });
+        awaitCoalesced(3);
+        cancelled.interrupt();
+
+        assertInstanceOf(InterruptedException.class, cancellation.get(5, TimeUnit.SECONDS));
+        release.countDown();
+        assertEquals("loaded", leader.get(5, TimeUnit.SECONDS));
+        assertEquals("loaded", patient.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void failureReachesEveryWaiterAndIsNotKept() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> leader = call("customer-1", () -> {
+            await(release);
+            throw new IllegalStateException("database down");
+        }, WAIT);
+        awaitInFlight(1);
+        CompletableFuture<String> waiter = call("customer-1", () -> "not coalesced", WAIT);
+        awaitCoalesced(1);
+        release.countDown();
+
+        ExecutionException leaderFailure = assertThrows(ExecutionException.class, () -> leader.get(5, TimeUnit.SECONDS));
+        ExecutionException waiterFailure = assertThrows(ExecutionException.class, () -> waiter.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, leaderFailure.getCause());
+        assertInstanceOf(IllegalStateException.class, waiterFailure.getCause());
+        assertEquals("recovered", singleFlight.execute("customer-1", () -> "recovered", WAIT));
+    }
+
+    // Helper methods
+
+    private CompletableFuture<String> call(String key, Supplier<String> loader, Duration timeout) {
+        CompletableFuture<String> result = new CompletableFuture<>();
+        Thread.ofPlatform().start(() -> {
+            try {
+                result.complete(singleFlight.execute(key, loader, timeout));
+            } catch (Throwable ex) {
+                result.completeExceptionally(ex);
+            }
+        });
+        return result;
+    }
+
+    private void awaitInFlight(int keys) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (singleFlight.inFlight() < keys) {
+            assertTrue(System.nanoTime() < deadline, "execution did not start");
+            Thread.sleep(1);
+        }
+    }
+
+    private void awaitCoalesced(int calls) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (coalesced.get() < calls) {
+            assertTrue(System.nanoTime() < deadline, "callers did not join");
+            Thread.sleep(1);
+        }
+        // Joined callers reach their wait right after being counted
+        Thread.sleep(20);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.backbase.customer_master.common.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimeOrderedIdGeneratorTest {
+
+    private static final long NOW = 1_760_000_000_000L;
+
+    @Test
+    void usesVersion7LayoutWithClockTimestamp() {
+        UUID id = new TimeOrderedIdGenerator(() -> NOW).generate();
+
+        assertEquals(7, id.version());
+        assertEquals(2, id.variant());
+        assertEquals(NOW, TimeOrderedIdGenerator.timestampOf(id));
+    }
+
+    @Test
+    void idsIncreaseWithinOneMillisecondAndAcrossCounterOverflow() {
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(() -> NOW);
+
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            ids.add(generator.generate());
+        }
+
+        assertSortedAsBytes(ids);
+        // 4096 counter values per millisecond, then the timestamp runs ahead
+        assertEquals(NOW, TimeOrderedIdGenerator.timestampOf(ids.get(4095)));
+        assertEquals(NOW + 1, TimeOrderedIdGenerator.timestampOf(ids.get(4096)));
+    }
+
+    @Test
+    void idsKeepIncreasingWhenClockStepsBack() {
+        AtomicLong clock = new AtomicLong(NOW);
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(clock::get);
+
+        UUID before = generator.generate();
+        clock.set(NOW - 1000);
+        UUID after = generator.generate();
+
+        assertSortedAsBytes(List.of(before, after));
+    }
+
+    @Test
+    void concurrentIdsAreUniqueAndOrderedPerThread() throws InterruptedException {
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator();
+        ConcurrentLinkedQueue<List<UUID>> perThread = new ConcurrentLinkedQueue<>();
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            executor.submit(() -> {
+                List<UUID> ids = new ArrayList<>();
+                for (int i = 0; i < 20_000; i++) {
+                    ids.add(generator.generate());
+                }
+                perThread.add(ids);
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        Set<UUID> all = new HashSet<>();
+        for (List<UUID> ids : perThread) {
+            assertSortedAsBytes(ids);
+            all.addAll(ids);
+        }
+        assertEquals(8 * 20_000, all.size());
+    }
+
+    // Helper methods
+
+    private void assertSortedAsBytes(List<UUID> ids) {
+        // BINARY(16) compares byte by byte, i.e. both halves as unsigned longs
+        List<UUID> sorted = new ArrayList<>(ids);
+        Collections.sort(sorted, (a, b) -> {
+            int high = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+            return high != 0 ? high : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+        });
+        assertEquals(ids, sorted);
+    }
+}
@@ -0,0 +1,144 @@
+package com.backbase.customer_master.domain.service;
+
+import com.backbase.customer_master.application.command.handler.CustomerCommandHandler;
+import com.backbase.customer_master.application.command.model.UpdateCustomerCommand;
+import com.backbase.customer_master.infrastructure.persistence.reference.ReferenceDataRegistry;
+import com.backbase.customer_master.presentation.dto.CursorPageDTO;
+import com.backbase.customer_master.presentation.dto.CustomerDTO;
+import com.backbase.customer_master.support.TestDataSeeder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "app.changes.settle-ms=200",
+        "app.changes.max-wait-ms=10000"})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class CustomerChangeFeedTest {
+
+    private static final int TIED_CUSTOMERS = 7;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CustomerChangeFeedService customerChangeFeedService;
+
+    @Autowired
+    private CustomerCommandHandler customerCommandHandler;
+
+    @Autowired
+    private ReferenceDataRegistry referenceDataRegistry;
+
+    @Autowired
+    private CustomerDuplicateService customerDuplicateService;
+
+    private List<UUID> customerIds;
+
+    @BeforeAll
+    void seed() {
+        TestDataSeeder seeder = new TestDataSeeder(jdbcTemplate);
+        seeder.seedReferenceData();
+        customerIds = seeder.seedCustomers(TIED_CUSTOMERS, 0, 0, 0, 0);
+        // Every seeded customer changed in the same instant
+        jdbcTemplate.update("UPDATE customer SET updated_at = TIMESTAMP '2020-01-01 08:00:00'");
+        referenceDataRegistry.refresh();
+        customerDuplicateService.rebuild();
+    }
+
+    @Test
+    void customersSharingATimestampArePagedOnceEach() {
+        List<UUID> expected = jdbcTemplate.queryForList(
+                "SELECT customer_id FROM customer WHERE updated_at = TIMESTAMP '2020-01-01 08:00:00' "
+                        + "ORDER BY updated_at, customer_id", UUID.class);
+        assertEquals(TIED_CUSTOMERS, expected.size());
+
+        List<UUID> seen = new ArrayList<>();
+        String cursor = null;
+        while (seen.size() < TIED_CUSTOMERS) {
+            CursorPageDTO<CustomerDTO> page = customerChangeFeedService.findChanges(
+                    customerChangeFeedService.pageRequest(cursor, 2));
+            assertFalse(page.getContent().isEmpty());
+            page.getContent().forEach(customer -> seen.add(customer.getCustomerId()));
+            cursor = page.getNextCursor();
+        }
+
+        assertEquals(expected, seen.subList(0, TIED_CUSTOMERS));
+    }
+
+    @Test
+    void emptySliceKeepsTheCursor() throws Exception {
+        String tail = tail();
+
+        CursorPageDTO<CustomerDTO> page = customerChangeFeedService.findChanges(
+                customerChangeFeedService.pageRequest(tail, 10));
+
+        assertTrue(page.getContent().isEmpty());
+        assertEquals(tail, page.getNextCursor());
+    }
+
+    @Test
+    void longPollCompletesOnceAnUpdateSettles() throws Exception {
+        String tail = tail();
+        CompletableFuture<CursorPageDTO<CustomerDTO>> poll = customerChangeFeedService.awaitChanges(
+                customerChangeFeedService.pageRequest(tail, 10), 10_000);
+        assertFalse(poll.isDone());
+
+        UUID customerId = customerIds.get(3);
+        customerCommandHandler.handle(UpdateCustomerCommand.builder()
+                .customerId(customerId)
+                .jobTitle("Giao dich vien")
+                .updatedBy("TELLER01")
+                .build());
+
+        CursorPageDTO<CustomerDTO> page = poll.get(5, TimeUnit.SECONDS);
+        assertEquals(List.of(customerId), page.getContent().stream().map(CustomerDTO::getCustomerId).toList());
+        assertNotEquals(tail, page.getNextCursor());
+    }
+
+    @Test
+    void longPollTimesOutWithAnEmptySlice() throws Exception {
+        String tail = tail();
+
+        long started = System.nanoTime();
+        CursorPageDTO<CustomerDTO> page = customerChangeFeedService.awaitChanges(
+                customerChangeFeedService.pageRequest(tail, 10), 300).get(5, TimeUnit.SECONDS);
+
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started) >= 300);
+        assertTrue(page.getContent().isEmpty());
+        assertEquals(tail, page.getNextCursor());
+    }
+
+    // Helper methods
+
+    /**
+     * Cursor after the last settled change
+     */
+    private String tail() throws InterruptedException {
+        // Let changes made by earlier tests settle first
+        Thread.sleep(300);
+        String cursor = null;
+        while (true) {
+            CursorPageDTO<CustomerDTO> page = customerChangeFeedService.findChanges(
+                    customerChangeFeedService.pageRequest(cursor, 100));
+            cursor = page.getNextCursor();
+            if (page.getContent().isEmpty()) {
+                return cursor;
+            }
+        }
+    }
+}
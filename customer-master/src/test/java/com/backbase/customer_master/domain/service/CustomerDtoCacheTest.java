@@ -0,0 +1,157 @@
+package com.backbase.customer_master.domain.service;
+
+import com.backbase.customer_master.application.command.handler.CustomerCommandHandler;
+import com.backbase.customer_master.application.command.model.UpdateCustomerCommand;
+import com.backbase.customer_master.application.query.service.CustomerQueryService;
+import com.backbase.customer_master.infrastructure.persistence.reference.ReferenceDataRegistry;
+import com.backbase.customer_master.presentation.dto.CustomerDTO;
+import com.backbase.customer_master.support.TestDataSeeder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "app.cache.customer.max-size-bytes=20000")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class CustomerDtoCacheTest {
+
+    private static final int CUSTOMERS = 30;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CustomerQueryService customerQueryService;
+
+    @Autowired
+    private CustomerCommandHandler customerCommandHandler;
+
+    @Autowired
+    private CustomerDtoCache customerDtoCache;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ReferenceDataRegistry referenceDataRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private List<UUID> customerIds;
+
+    @BeforeAll
+    void seed() {
+        TestDataSeeder seeder = new TestDataSeeder(jdbcTemplate);
+        seeder.seedReferenceData();
+        customerIds = seeder.seedCustomers(CUSTOMERS, 1, 1, 0, 0);
+        referenceDataRegistry.refresh();
+    }
+
+    @BeforeEach
+    void clearCache() {
+        customerDtoCache.clear();
+    }
+
+    @Test
+    void secondaryKeysResolveToTheEntryCachedById() {
+        CustomerDTO byId = customerQueryService.getCustomerById(customerIds.get(1).toString());
+        assertSame(byId, customerQueryService.getCustomerById(customerIds.get(1).toString()));
+
+        // First lookups by key load from the database, then land on the entry already cached by ID
+        assertSame(byId, customerQueryService.findCustomerByEmail("CUSTOMER1@example.com").orElseThrow());
+        assertSame(byId, customerQueryService.findCustomerByPhoneNumber("+84900000001").orElseThrow());
+        assertSame(byId, customerQueryService.findCustomerByIdentificationNumber("000000000010").orElseThrow());
+        assertSame(byId, customerDtoCache.getByKey(CustomerDtoCache.EMAIL_KEY + "customer1@example.com"));
+        assertSame(byId, customerDtoCache.getByKey(CustomerDtoCache.PHONE_KEY + "+84900000001"));
+    }
+
+    @Test
+    void commandEvictsOnlyOnceItCommits() {
+        UUID customerId = customerIds.get(2);
+        CustomerDTO cached = customerQueryService.getCustomerById(customerId.toString());
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.executeWithoutResult(status -> {
+            customerCommandHandler.handle(update(customerId, "Rolled back"));
+            assertSame(cached, customerDtoCache.get(customerId));
+            status.setRollbackOnly();
+        });
+        assertSame(cached, customerDtoCache.get(customerId));
+
+        customerCommandHandler.handle(update(customerId, "Kiem soat vien"));
+        assertNull(customerDtoCache.get(customerId));
+
+        CustomerDTO reloaded = customerQueryService.getCustomerById(customerId.toString());
+        assertNotSame(cached, reloaded);
+        assertEquals("Kiem soat vien", reloaded.getJobTitle());
+        assertEquals(cached.getVersionNo() + 1, reloaded.getVersionNo());
+        // The email index followed the eviction
+        assertNull(customerDtoCache.getByKey(CustomerDtoCache.EMAIL_KEY + "customer2@example.com"));
+    }
+
+    @Test
+    void readOlderThanACommittedChangeIsNotCached() {
+        UUID customerId = customerIds.get(3);
+        CustomerDTO stale = customerQueryService.getCustomerById(customerId.toString());
+
+        customerCommandHandler.handle(update(customerId, "Truong phong"));
+        // A read that loaded the customer before the commit finishes after it
+        customerDtoCache.put(stale);
+
+        assertNull(customerDtoCache.get(customerId));
+        assertEquals("Truong phong", customerQueryService.getCustomerById(customerId.toString()).getJobTitle());
+    }
+
+    @Test
+    void leastRecentlyUsedCustomersAreEvictedToStayWithinTheSizeBound() {
+        for (UUID customerId : customerIds) {
+            customerQueryService.getCustomerById(customerId.toString());
+        }
+
+        assertTrue(customerDtoCache.weight() <= 20000);
+        assertTrue(customerDtoCache.size() < CUSTOMERS);
+        assertNull(customerDtoCache.get(customerIds.get(0)));
+        assertNotNull(customerDtoCache.get(customerIds.get(CUSTOMERS - 1)));
+    }
+
+    @Test
+    void entriesExpireAfterTheTtl() throws InterruptedException {
+        CustomerDtoCache cache = new CustomerDtoCache(objectMapper, new SimpleMeterRegistry(), true, 20000, 50);
+        CustomerDTO customer = customerQueryService.getCustomerById(customerIds.get(4).toString());
+        cache.put(customer, CustomerDtoCache.EMAIL_KEY + "customer4@example.com");
+        assertSame(customer, cache.get(customer.getCustomerId()));
+
+        Thread.sleep(100);
+
+        assertNull(cache.get(customer.getCustomerId()));
+        assertNull(cache.getByKey(CustomerDtoCache.EMAIL_KEY + "customer4@example.com"));
+    }
+
+    // Helper methods
+
+    private UpdateCustomerCommand update(UUID customerId, String jobTitle) {
+        return UpdateCustomerCommand.builder()
+                .customerId(customerId)
+                .jobTitle(jobTitle)
+                .updatedBy("TELLER01")
+                .build();
+    }
+}
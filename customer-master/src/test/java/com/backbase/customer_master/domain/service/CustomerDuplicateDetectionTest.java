@@ -0,0 +1,104 @@
+package com.backbase.customer_master.domain.service;
+
+import com.backbase.customer_master.application.command.handler.CustomerCommandHandler;
+import com.backbase.customer_master.application.command.model.CreateCustomerCommand;
+import com.backbase.customer_master.common.exception.CustomerAlreadyExistsException;
+import com.backbase.customer_master.infrastructure.persistence.reference.ReferenceDataRegistry;
+import com.backbase.customer_master.support.TestDataSeeder;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "app.duplicates.filter.expected-insertions=1000")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class CustomerDuplicateDetectionTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CustomerDuplicateService customerDuplicateService;
+
+    @Autowired
+    private CustomerCommandHandler customerCommandHandler;
+
+    @Autowired
+    private ReferenceDataRegistry referenceDataRegistry;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeAll
+    void seed() {
+        TestDataSeeder seeder = new TestDataSeeder(jdbcTemplate);
+        seeder.seedReferenceData();
+        // Written behind the service's back: only the rebuild sees them
+        seeder.seedCustomers(50, 0, 0, 0, 0);
+        referenceDataRegistry.refresh();
+        assertEquals(100, customerDuplicateService.rebuild());
+    }
+
+    @Test
+    void findsTakenValuesInAnyNotation() {
+        assertTrue(customerDuplicateService.exists(" Customer3@Example.com ", null));
+        assertTrue(customerDuplicateService.exists(null, "0900000007"));
+        assertTrue(customerDuplicateService.exists("someone@example.com", "+84 900 000 049"));
+        assertFalse(customerDuplicateService.exists("someone@example.com", "+84999999999"));
+    }
+
+    @Test
+    void answersNewValuesFromTheFilter() {
+        double before = checks("definitely_new");
+        for (int i = 0; i < 100; i++) {
+            assertFalse(customerDuplicateService.exists("new" + i + "@example.com", String.format("+8498%07d", i)));
+        }
+
+        // At the 1% target rate nearly all of the 200 values skip the database
+        assertTrue(checks("definitely_new") - before > 190);
+        assertTrue(meterRegistry.get("customer.duplicates.filter.expected_false_positive_rate").gauge().value() < 0.01);
+        assertTrue(meterRegistry.get("customer.duplicates.filter.false_positive_rate").gauge().value() < 0.05);
+    }
+
+    @Test
+    void createRejectsPhoneOnlyDuplicatesAndRegistersNewCustomers() {
+        assertThrows(CustomerAlreadyExistsException.class, () -> customerCommandHandler.handle(command(null, "0900000012")));
+
+        customerCommandHandler.handle(command(null, "+84977777777"));
+        assertTrue(customerDuplicateService.exists(null, "0977777777"));
+        assertThrows(CustomerAlreadyExistsException.class, () -> customerCommandHandler.handle(command(null, "0977777777")));
+    }
+
+    // Helper methods
+
+    private double checks(String outcome) {
+        return meterRegistry.get("customer.duplicates.checks").tag("outcome", outcome).counter().count();
+    }
+
+    private CreateCustomerCommand command(String email, String primaryPhone) {
+        return CreateCustomerCommand.builder()
+                .cifStatus("ACTIVE")
+                .fullName("Tran Thi Trung Lap")
+                .genderCode("F")
+                .dateOfBirth(LocalDate.of(1992, 2, 2))
+                .nationalityCode("VN")
+                .clientTypeCode("INDIVIDUAL")
+                .primaryPhone(primaryPhone)
+                .email(email)
+                .accountUsagePurpose("SAVING")
+                .registrationChannel("BRANCH")
+                .cifCreatedDate(LocalDate.now())
+                .createdBy("TEST")
+                .build();
+    }
+}
@@ -0,0 +1,200 @@
+package com.backbase.customer_master.domain.service;
+
+import com.backbase.customer_master.application.command.handler.CustomerCommandHandler;
+import com.backbase.customer_master.application.command.model.CreateCustomerCommand;
+import com.backbase.customer_master.application.command.model.DeleteCustomerCommand;
+import com.backbase.customer_master.application.command.model.UpdateCustomerCommand;
+import com.backbase.customer_master.application.command.model.UpdateCustomerStatusCommand;
+import com.backbase.customer_master.common.exception.OptimisticLockingException;
+import com.backbase.customer_master.common.id.EntityIds;
+import com.backbase.customer_master.common.id.RandomIdGenerator;
+import com.backbase.customer_master.common.id.TimeOrderedIdGenerator;
+import com.backbase.customer_master.domain.model.Event;
+import com.backbase.customer_master.domain.repository.EventRepository;
+import com.backbase.customer_master.infrastructure.outbox.InMemoryOutboxSink;
+import com.backbase.customer_master.infrastructure.outbox.OutboxMessage;
+import com.backbase.customer_master.infrastructure.outbox.OutboxRelay;
+import com.backbase.customer_master.infrastructure.persistence.reference.ReferenceDataRegistry;
+import com.backbase.customer_master.presentation.dto.CustomerDTO;
+import com.backbase.customer_master.support.TestDataSeeder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "app.outbox.relay.enabled=false",
+        "app.outbox.relay.batch-size=2"})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class CustomerEventOutboxTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CustomerCommandHandler customerCommandHandler;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private InMemoryOutboxSink outboxSink;
+
+    @Autowired
+    private ReferenceDataRegistry referenceDataRegistry;
+
+    @BeforeAll
+    void seed() {
+        new TestDataSeeder(jdbcTemplate).seedReferenceData();
+        referenceDataRegistry.refresh();
+    }
+
+    @Test
+    void everyCommandAppendsItsFieldDiff() {
+        CustomerDTO created = customerCommandHandler.handle(command("outbox1@example.com", "+84911000001"));
+        UUID customerId = created.getCustomerId();
+
+        customerCommandHandler.handle(UpdateCustomerCommand.builder()
+                .customerId(customerId)
+                .email("outbox1.new@example.com")
+                .jobTitle("Ke toan")
+                .updatedBy("TELLER01")
+                .build());
+        customerCommandHandler.handle(UpdateCustomerStatusCommand.builder()
+                .customerId(customerId)
+                .status("SUSPENDED")
+                .build());
+        customerCommandHandler.handle(DeleteCustomerCommand.builder()
+                .customerId(customerId)
+                .lastModifiedBy("ADMIN")
+                .build());
+
+        List<Event> events = eventRepository.findByEntityNameAndEntityIdOrderByEventId(
+                CustomerEventRecorder.ENTITY_NAME, customerId.toString());
+        assertEquals(List.of("CREATE", "UPDATE", "UPDATE", "DELETE"),
+                events.stream().map(Event::getOperationType).toList());
+        assertEquals(List.of(0, 1, 2, 2), events.stream().map(Event::getVersionNo).toList());
+
+        Map<String, Object> createdFields = events.get(0).getChangedFields();
+        assertEquals(change(null, "Tran Van Outbox"), createdFields.get("fullName"));
+        assertEquals(change(null, "M"), createdFields.get("genderCode"));
+        assertEquals(change(null, "1990-05-17"), createdFields.get("dateOfBirth"));
+
+        Event update = events.get(1);
+        assertEquals(Map.of(
+                "email", change("outbox1@example.com", "outbox1.new@example.com"),
+                "jobTitle", change(null, "Ke toan"),
+                "updatedBy", change("TEST", "TELLER01")), update.getChangedFields());
+        assertEquals("TELLER01", update.getEventBy());
+
+        assertEquals(Map.of("cifStatus", change("ACTIVE", "SUSPENDED")), events.get(2).getChangedFields());
+        assertEquals(change("Tran Van Outbox", null), events.get(3).getChangedFields().get("fullName"));
+        assertEquals("ADMIN", events.get(3).getEventBy());
+    }
+
+    @Test
+    void rolledBackCommandLeavesNoEvent() {
+        CustomerDTO created = customerCommandHandler.handle(command("outbox2@example.com", "+84911000002"));
+        long before = eventRepository.count();
+
+        assertThrows(OptimisticLockingException.class, () -> customerCommandHandler.handle(UpdateCustomerCommand.builder()
+                .customerId(created.getCustomerId())
+                .fullName("Stale Write")
+                .versionNo(7)
+                .build()));
+
+        assertEquals(before, eventRepository.count());
+    }
+
+    @Test
+    void relayPublishesInEventOrderAndOnlyOnce() {
+        for (int i = 10; i < 15; i++) {
+            customerCommandHandler.handle(command("outbox" + i + "@example.com", "+849110000" + i));
+        }
+        outboxSink.clear();
+
+        int published = outboxRelay.relay();
+
+        List<OutboxMessage> messages = outboxSink.getMessages();
+        assertEquals(published, messages.size());
+        assertTrue(published >= 5);
+        // Batches of two, each oldest first, together in event_id order
+        for (int i = 1; i < messages.size(); i++) {
+            assertTrue(byteOrder(messages.get(i - 1).getEventId(), messages.get(i).getEventId()) < 0);
+        }
+        assertEquals(0, eventRepository.findUnpublished(PageRequest.of(0, 10)).size());
+        assertEquals(0, outboxRelay.relay());
+        assertEquals(published, outboxSink.getMessages().size());
+    }
+
+    @Test
+    void relayOrderHoldsWithRandomKeys() {
+        List<String> created = new ArrayList<>();
+        EntityIds.use(new RandomIdGenerator());
+        try {
+            for (int i = 20; i < 25; i++) {
+                created.add(customerCommandHandler.handle(command("outbox" + i + "@example.com", "+849110000" + i))
+                        .getCustomerId().toString());
+            }
+        } finally {
+            EntityIds.use(new TimeOrderedIdGenerator());
+        }
+        outboxSink.clear();
+
+        outboxRelay.relay();
+
+        List<String> published = outboxSink.getMessages().stream()
+                .map(OutboxMessage::getEntityId)
+                .filter(created::contains)
+                .toList();
+        assertEquals(created, published);
+    }
+
+    // Helper methods
+
+    private int byteOrder(UUID a, UUID b) {
+        int high = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return high != 0 ? high : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
+
+    private Map<String, String> change(String oldValue, String newValue) {
+        Map<String, String> change = new LinkedHashMap<>();
+        change.put("old", oldValue);
+        change.put("new", newValue);
+        return change;
+    }
+
+    private CreateCustomerCommand command(String email, String primaryPhone) {
+        return CreateCustomerCommand.builder()
+                .cifStatus("ACTIVE")
+                .fullName("Tran Van Outbox")
+                .genderCode("M")
+                .dateOfBirth(LocalDate.of(1990, 5, 17))
+                .nationalityCode("VN")
+                .clientTypeCode("INDIVIDUAL")
+                .primaryPhone(primaryPhone)
+                .email(email)
+                .accountUsagePurpose("SAVING")
+                .registrationChannel("BRANCH")
+                .cifCreatedDate(LocalDate.now())
+                .createdBy("TEST")
+                .build();
+    }
+}
@@ -0,0 +1,170 @@
+package com.backbase.customer_master.domain.service;
+
+import com.backbase.customer_master.application.command.handler.CustomerCommandHandler;
+import com.backbase.customer_master.application.command.model.DeleteCustomerCommand;
+import com.backbase.customer_master.application.command.model.UpdateCustomerCommand;
+import com.backbase.customer_master.infrastructure.persistence.pagination.CursorPageRequest;
+import com.backbase.customer_master.infrastructure.persistence.search.CustomerNameIndex;
+import com.backbase.customer_master.presentation.dto.CursorPageDTO;
+import com.backbase.customer_master.presentation.dto.CustomerDTO;
+import com.backbase.customer_master.support.TestDataSeeder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {"app.search.name-index.rebuild-batch-size=7", "app.search.residual-scan-limit=3"})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class CustomerNameSearchTest {
+
+    private static final List<String> NAMES = List.of(
+            "Tran Thoai",
+            "Pham Hoang Lan",
+            "Hoa",
+            "Le Van Hoa",
+            "Hoang Dan",
+            "Nguyen Van An",
+            "Nguyễn  Văn Đức");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CustomerDomainService customerDomainService;
+
+    @Autowired
+    private CustomerCommandHandler customerCommandHandler;
+
+    @Autowired
+    private CustomerNameIndex customerNameIndex;
+
+    private List<UUID> customerIds;
+
+    @BeforeAll
+    void seed() {
+        TestDataSeeder seeder = new TestDataSeeder(jdbcTemplate);
+        seeder.seedReferenceData();
+        customerIds = seeder.seedCustomers(20, 0, 0, 0, 0);
+        for (int i = 0; i < NAMES.size(); i++) {
+            jdbcTemplate.update("UPDATE customer SET full_name = ? WHERE customer_id = ?", NAMES.get(i), customerIds.get(i));
+        }
+
+        assertEquals(20, customerNameIndex.rebuild());
+    }
+
+    @Test
+    void ranksExactThenPrefixThenWordPrefixThenSubstring() {
+        assertEquals(List.of("Hoa", "Hoang Dan", "Le Van Hoa", "Pham Hoang Lan", "Tran Thoai"),
+                names(customerDomainService.searchCustomersByName("hoa", PageRequest.of(0, 20))));
+        assertEquals(List.of("Le Van Hoa"),
+                names(customerDomainService.searchCustomersByName("Van Hoa", PageRequest.of(0, 20))));
+
+        Page<CustomerDTO> page = customerDomainService.searchCustomersByName("  HOANG ", PageRequest.of(0, 1));
+        assertEquals(List.of("Hoang Dan"), names(page));
+        assertEquals(2, page.getTotalElements());
+    }
+
+    @Test
+    void shortTermsFallBackToScan() {
+        // Two characters have no trigram
+        assertEquals(6, customerDomainService.searchCustomersByName("an", PageRequest.of(0, 20)).getTotalElements());
+    }
+
+    @Test
+    void shortTermCountsStopAtTheScanLimit() {
+        // Six matches, counted up to three: the total is a lower bound that still leaves a next page
+        Page<CustomerDTO> page = customerDomainService.searchCustomersByName("an", PageRequest.of(0, 2));
+        assertEquals(3, page.getTotalElements());
+        assertTrue(page.hasNext());
+
+        page = customerDomainService.searchCustomersByName("an", PageRequest.of(1, 2));
+        assertEquals(2, page.getContent().size());
+        assertEquals(5, page.getTotalElements());
+        assertTrue(page.hasNext());
+    }
+
+    @Test
+    void matchesWithoutDiacritics() {
+        assertEquals(List.of("Nguyễn  Văn Đức"),
+                names(customerDomainService.searchCustomersByName("nguyen van duc", PageRequest.of(0, 20))));
+        assertEquals(List.of("Nguyễn  Văn Đức"),
+                names(customerDomainService.searchCustomersByName("Đức", PageRequest.of(0, 20))));
+        assertEquals(List.of("Nguyen Van An", "Nguyễn  Văn Đức"),
+                names(customerDomainService.searchCustomersByName("Nguyễn", PageRequest.of(0, 20))));
+    }
+
+    @Test
+    void cursorSearchMatchesLikeThePagedOne() {
+        CursorPageDTO<CustomerDTO> slice = customerDomainService.searchCustomersByName("Nguyễn",
+                CursorPageRequest.of(null, "name=Nguyễn", "nameSearchKey", Sort.Direction.ASC, 1, true));
+        assertEquals(List.of("Nguyen Van An"), names(slice.getContent()));
+        assertEquals(2, slice.getTotalElements());
+
+        slice = customerDomainService.searchCustomersByName("Nguyễn",
+                CursorPageRequest.of(slice.getNextCursor(), "name=Nguyễn", null, null, 1, false));
+        assertEquals(List.of("Nguyễn  Văn Đức"), names(slice.getContent()));
+        assertFalse(slice.getHasNext());
+
+        assertEquals(List.of("Hoa", "Hoang Dan", "Le Van Hoa", "Pham Hoang Lan", "Tran Thoai"),
+                names(customerDomainService.searchCustomersByName("HOA",
+                        CursorPageRequest.of(null, "name=HOA", "fullName", Sort.Direction.ASC, 20, false)).getContent()));
+    }
+
+    @Test
+    void commandsKeepIndexInStep() {
+        customerCommandHandler.handle(UpdateCustomerCommand.builder()
+                .customerId(customerIds.get(10)).fullName("Vo Thi Xuan Mai").build());
+        assertEquals(List.of("Vo Thi Xuan Mai"),
+                names(customerDomainService.searchCustomersByName("xuan", PageRequest.of(0, 20))));
+
+        customerCommandHandler.handle(DeleteCustomerCommand.builder().customerId(customerIds.get(10)).build());
+        assertTrue(customerDomainService.searchCustomersByName("xuan", PageRequest.of(0, 20)).isEmpty());
+    }
+
+    @Test
+    void rebuildDropsPostingsOfCustomersGoneOutsideJpa() {
+        // Before the first chunk and past the last one
+        for (UUID stale : List.of(new UUID(0, 0), new UUID(-1, -1))) {
+            jdbcTemplate.update("INSERT INTO customer_name_trigram (trigram, customer_id) VALUES ('zzz', ?)", bytes(stale));
+        }
+
+        customerNameIndex.rebuild();
+
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM customer_name_trigram WHERE trigram = 'zzz'", Integer.class));
+        assertEquals(List.of("Le Van Hoa"),
+                names(customerDomainService.searchCustomersByName("Van Hoa", PageRequest.of(0, 20))));
+    }
+
+    // Helper methods
+
+    private List<String> names(Page<CustomerDTO> page) {
+        return names(page.getContent());
+    }
+
+    private List<String> names(List<CustomerDTO> customers) {
+        return customers.stream()
+                .map(CustomerDTO::getFullName)
+                .toList();
+    }
+
+    private byte[] bytes(UUID id) {
+        return ByteBuffer.allocate(16)
+                .putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits())
+                .array();
+    }
+}
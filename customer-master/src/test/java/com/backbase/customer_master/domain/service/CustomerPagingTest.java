@@ -0,0 +1,226 @@
+package com.backbase.customer_master.domain.service;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.backbase.customer_master.common.exception.ValidationException;
+import com.backbase.customer_master.domain.model.Customer;
+import com.backbase.customer_master.domain.repository.CustomerRepository;
+import com.backbase.customer_master.infrastructure.persistence.mapper.CustomerMapper;
+import com.backbase.customer_master.infrastructure.persistence.specification.CustomerSpecifications;
+import com.backbase.customer_master.infrastructure.persistence.pagination.CursorPageRequest;
+import com.backbase.customer_master.presentation.dto.CursorPageDTO;
+import com.backbase.customer_master.presentation.dto.CustomerDTO;
+import com.backbase.customer_master.support.TestDataSeeder;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Paged customer listings must paginate in SQL: Hibernate warns with HHH90003004
+ * ("firstResult/maxResults specified with collection fetch; applying in memory") otherwise.
+ */
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class CustomerPagingTest {
+
+    private static final String IN_MEMORY_PAGINATION_WARNING = "firstResult/maxResults specified with collection fetch";
+    private static final int CUSTOMERS = 30;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CustomerDomainService customerDomainService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private CustomerMapper customerMapper;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+
+    @BeforeAll
+    void seed() {
+        TestDataSeeder seeder = new TestDataSeeder(jdbcTemplate);
+        seeder.seedReferenceData();
+        seeder.seedCustomers(CUSTOMERS, 2, 1, 2, 1);
+    }
+
+    @BeforeEach
+    void attachAppender() {
+        appender.list.clear();
+        appender.start();
+        hibernateLogger().addAppender(appender);
+    }
+
+    @AfterEach
+    void detachAppender() {
+        hibernateLogger().detachAppender(appender);
+        appender.stop();
+    }
+
+    @Test
+    void detectsInMemoryPagination() {
+        // Guard against the check passing vacuously: a paged collection fetch must be caught
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> entityManager
+                .createQuery("SELECT c FROM Customer c LEFT JOIN FETCH c.addresses", Customer.class)
+                .setMaxResults(5)
+                .getResultList());
+
+        assertTrue(inMemoryPaginationWarned());
+    }
+
+    @Test
+    void pagedListingsPaginateInDatabase() {
+        Pageable pageable = PageRequest.of(1, 7, Sort.by("fullName"));
+
+        Page<CustomerDTO> all = customerDomainService.findAllCustomers(pageable);
+        customerDomainService.findCustomersByStatus("ACTIVE", pageable);
+        customerDomainService.findCustomersByType("INDIVIDUAL", pageable);
+        customerDomainService.searchCustomersByName("Customer", pageable);
+        customerDomainService.findCustomersBySegment("MASS", pageable);
+        customerDomainService.findCustomersByCategory("RETAIL", pageable);
+        customerDomainService.findCustomersWithCriteria("ACTIVE", "MASS", "INDIVIDUAL", "RETAIL", pageable);
+
+        assertFalse(inMemoryPaginationWarned());
+
+        List<UUID> expected = customerRepository
+                .findAll(CustomerSpecifications.excludeClosed(), Sort.by("fullName", "customerId"))
+                .stream()
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .map(Customer::getCustomerId)
+                .toList();
+        List<UUID> actual = all.getContent().stream()
+                .map(CustomerDTO::getCustomerId)
+                .toList();
+        assertEquals(expected, actual);
+        assertEquals(CUSTOMERS, all.getTotalElements());
+    }
+
+    @Test
+    void cursorTraversalVisitsEveryCustomerOnce() {
+        // cifCreatedDate is the same for every seeded row, so ordering relies on the customerId tie-breaker
+        for (String sortProperty : List.of("customerId", "fullName", "cifCreatedDate")) {
+            for (Sort.Direction direction : Sort.Direction.values()) {
+                List<UUID> expected = customerRepository
+                        .findAll(CustomerSpecifications.excludeClosed(), Sort.by(direction, sortProperty, "customerId"))
+                        .stream()
+                        .map(Customer::getCustomerId)
+                        .toList();
+
+                List<UUID> actual = new ArrayList<>();
+                String cursor = null;
+                do {
+                    CursorPageDTO<CustomerDTO> slice = customerDomainService.findAllCustomers(
+                            CursorPageRequest.of(cursor, "all", sortProperty, direction, 7, false));
+                    slice.getContent().forEach(customer -> actual.add(customer.getCustomerId()));
+                    assertNull(slice.getTotalElements());
+                    cursor = slice.getNextCursor();
+                } while (cursor != null);
+
+                assertEquals(expected, actual, sortProperty + " " + direction);
+            }
+        }
+        assertFalse(inMemoryPaginationWarned());
+    }
+
+    @Test
+    void cursorSliceCountsOnlyWhenAsked() {
+        CursorPageDTO<CustomerDTO> slice = customerDomainService.findAllCustomers(
+                CursorPageRequest.of(null, "all", "fullName", Sort.Direction.ASC, 5, true));
+
+        assertEquals(5, slice.getContent().size());
+        assertTrue(slice.getHasNext());
+        assertEquals(CUSTOMERS, slice.getTotalElements());
+    }
+
+    @Test
+    void cursorOnlyResumesTheListingItWasIssuedFor() {
+        String cursor = customerDomainService.findCustomersBySegment("MASS",
+                CursorPageRequest.of(null, "segment=MASS", "fullName", Sort.Direction.ASC, 5, false)).getNextCursor();
+
+        // Sort left out: taken from the cursor
+        assertEquals("fullName", CursorPageRequest.of(cursor, "segment=MASS", null, null, 5, false).getSortProperty());
+        assertThrows(ValidationException.class,
+                () -> CursorPageRequest.of(cursor, "segment=AFFLUENT", null, null, 5, false));
+        assertThrows(ValidationException.class,
+                () -> CursorPageRequest.of(cursor, "segment=MASS", "createdAt", Sort.Direction.ASC, 5, false));
+        assertThrows(ValidationException.class,
+                () -> CursorPageRequest.of(cursor, "segment=MASS", "fullName", Sort.Direction.DESC, 5, false));
+    }
+
+    @Test
+    void totalsAreCountedInTheCallersTransaction() {
+        Pageable pageable = PageRequest.of(0, 5, Sort.by("fullName"));
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            // Uncommitted: a count on another connection would not see it
+            UUID closed = customerDomainService.findAllCustomers(pageable).getContent().get(0).getCustomerId();
+            jdbcTemplate.update("UPDATE customer SET cif_status = 'CLOSED' WHERE customer_id = ?", closed);
+
+            assertEquals(CUSTOMERS - 1, customerDomainService.findAllCustomers(pageable).getTotalElements());
+            assertEquals(CUSTOMERS - 1, customerDomainService.findAllCustomers(
+                    CursorPageRequest.of(null, "all", "fullName", Sort.Direction.ASC, 5, true)).getTotalElements());
+            status.setRollbackOnly();
+        });
+    }
+
+    @Test
+    void summaryPagesMatchTheEntityMappingWithoutManagingEntities() {
+        Pageable pageable = PageRequest.of(0, CUSTOMERS, Sort.by("fullName"));
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Page<CustomerDTO> page = customerDomainService.findAllCustomers(pageable);
+            assertEquals(0, entityManager.unwrap(Session.class).getStatistics().getEntityCount());
+
+            for (CustomerDTO summary : page.getContent()) {
+                Customer customer = customerRepository.findById(summary.getCustomerId()).orElseThrow();
+                assertEquals(customerMapper.toSummaryDTO(customer), summary);
+            }
+        });
+    }
+
+    // Helper methods
+
+    private Logger hibernateLogger() {
+        return (Logger) LoggerFactory.getLogger("org.hibernate");
+    }
+
+    private boolean inMemoryPaginationWarned() {
+        return appender.list.stream()
+                .anyMatch(event -> event.getFormattedMessage().contains(IN_MEMORY_PAGINATION_WARNING));
+    }
+}
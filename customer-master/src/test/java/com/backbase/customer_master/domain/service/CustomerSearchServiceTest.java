@@ -0,0 +1,108 @@
+package com.backbase.customer_master.domain.service;
+
+import com.backbase.customer_master.infrastructure.persistence.search.CustomerNameIndex;
+import com.backbase.customer_master.presentation.dto.CustomerDTO;
+import com.backbase.customer_master.support.TestDataSeeder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "app.search.max-candidates=50")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class CustomerSearchServiceTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CustomerSearchService customerSearchService;
+
+    @Autowired
+    private CustomerNameIndex customerNameIndex;
+
+    private List<UUID> customerIds;
+
+    @BeforeAll
+    void seed() {
+        TestDataSeeder seeder = new TestDataSeeder(jdbcTemplate);
+        seeder.seedReferenceData();
+        customerIds = seeder.seedCustomers(20, 0, 0, 0, 0);
+
+        jdbcTemplate.update("UPDATE customer SET full_name = 'Nguyễn Văn An' WHERE customer_id IN (?, ?)",
+                customerIds.get(4), customerIds.get(5));
+        jdbcTemplate.update("UPDATE customer SET tax_file_no = '0312345678' WHERE customer_id = ?", customerIds.get(3));
+        jdbcTemplate.update("UPDATE customer SET job_title = 'Dev/Ops' WHERE customer_id = ?", customerIds.get(8));
+        jdbcTemplate.update("UPDATE customer SET cif_status = 'CLOSED' WHERE customer_id = ?", customerIds.get(19));
+        customerNameIndex.rebuild();
+    }
+
+    @Test
+    void digitsMatchPhoneInEitherFormThenPrefix() {
+        assertEquals(List.of(customerIds.get(7)), ids(search("0900000007")));
+        assertEquals(List.of(customerIds.get(7)), ids(search("090 000 0007")));
+
+        // +84900000010 ... +84900000018 (19 is closed)
+        assertEquals(9, search("+8490000001").getTotalElements());
+    }
+
+    @Test
+    void digitsMatchTaxFileNumber() {
+        assertEquals(List.of(customerIds.get(3)), ids(search("0312345678")));
+    }
+
+    @Test
+    void emailRanksExactBeforePrefixAndSkipsClosed() {
+        Page<CustomerDTO> page = search("Customer1@example.com");
+        assertEquals(1, page.getTotalElements());
+        assertEquals(customerIds.get(1), page.getContent().get(0).getCustomerId());
+
+        // A bare local part is scanned: customer1@, customer10@ ... customer18@ (19 is closed)
+        page = search("customer1");
+        assertEquals(10, page.getTotalElements());
+        assertTrue(search("customer19@example.com").isEmpty());
+    }
+
+    @Test
+    void customersMatchingMoreTermsRankFirst() {
+        assertEquals(List.of(customerIds.get(4), customerIds.get(5)), ids(search("nguyen van an 0900000004")));
+        assertEquals(List.of(customerIds.get(5), customerIds.get(4)), ids(search("0900000005 Nguyễn Văn An")));
+    }
+
+    @Test
+    void unclassifiedTermsFallBackToScan() {
+        assertEquals(List.of(customerIds.get(8)), ids(search("dev/ops")));
+    }
+
+    @Test
+    void classifiesTerms() {
+        assertEquals(List.of(
+                        new CustomerSearchService.Term(CustomerSearchService.Kind.NAME, "Le Thi"),
+                        new CustomerSearchService.Term(CustomerSearchService.Kind.DIGITS, "090123"),
+                        new CustomerSearchService.Term(CustomerSearchService.Kind.EMAIL, "a@b.vn"),
+                        new CustomerSearchService.Term(CustomerSearchService.Kind.RESIDUAL, "KT2023")),
+                CustomerSearchService.classify(" Le  Thi 090 123 a@b.vn KT2023 "));
+    }
+
+    // Helper methods
+
+    private Page<CustomerDTO> search(String term) {
+        return customerSearchService.search(term, PageRequest.of(0, 20));
+    }
+
+    private List<UUID> ids(Page<CustomerDTO> page) {
+        return page.getContent().stream()
+                .map(CustomerDTO::getCustomerId)
+                .toList();
+    }
+}
@@ -0,0 +1,121 @@
+package com.backbase.customer_master.domain.service;
+
+import com.backbase.customer_master.application.command.handler.CustomerCommandHandler;
+import com.backbase.customer_master.application.command.model.*;
+import com.backbase.customer_master.domain.model.Customer;
+import com.backbase.customer_master.domain.repository.CustomerRepository;
+import com.backbase.customer_master.infrastructure.persistence.specification.CustomerSpecifications;
+import com.backbase.customer_master.support.TestDataSeeder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+@SpringBootTest(properties = "app.statistics.snapshot.enabled=true")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class CustomerStatisticsTest {
+
+    private static final int CUSTOMERS = 40;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CustomerStatisticsService customerStatisticsService;
+
+    @Autowired
+    private CustomerCommandHandler customerCommandHandler;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    private List<UUID> customerIds;
+
+    @BeforeAll
+    void seed() {
+        TestDataSeeder seeder = new TestDataSeeder(jdbcTemplate);
+        seeder.seedReferenceData();
+        customerIds = seeder.seedCustomers(CUSTOMERS, 0, 0, 0, 0);
+
+        jdbcTemplate.update("UPDATE customer SET cif_status = 'INACTIVE' WHERE full_name LIKE 'Customer 1%'");
+        jdbcTemplate.update("UPDATE customer SET cif_status = 'CLOSED' WHERE full_name LIKE 'Customer 2%'");
+        jdbcTemplate.update("UPDATE customer SET internal_client = 'Y' WHERE full_name LIKE '%5'");
+        jdbcTemplate.update("UPDATE customer SET taxable = 'Y' WHERE full_name LIKE '%3' OR full_name LIKE '%7'");
+        customerStatisticsService.reconcile();
+    }
+
+    @Test
+    void aggregateMatchesSeparateCounts() {
+        CustomerDomainService.CustomerStatistics statistics = customerStatisticsService.aggregate();
+
+        assertEquals(count(CustomerSpecifications.hasCifStatus("ACTIVE")), statistics.getTotalActive());
+        assertEquals(count(CustomerSpecifications.hasCifStatus("INACTIVE")), statistics.getTotalInactive());
+        assertEquals(count(CustomerSpecifications.hasCifStatus("SUSPENDED")), statistics.getTotalSuspended());
+        assertEquals(count(CustomerSpecifications.hasCifStatus("CLOSED")), statistics.getTotalClosed());
+        assertEquals(count(Specification.where(CustomerSpecifications.isInternalClient("Y"))
+                .and(CustomerSpecifications.isActive())), statistics.getInternalClients());
+        assertEquals(count(Specification.where(CustomerSpecifications.isTaxable("Y"))
+                .and(CustomerSpecifications.isActive())), statistics.getTaxableCustomers());
+    }
+
+    @Test
+    void commandsKeepSnapshotInStep() {
+        customerCommandHandler.handle(UpdateCustomerStatusCommand.builder()
+                .customerId(customerIds.get(3)).status("SUSPENDED").build());
+        assertEquals(customerStatisticsService.aggregate(), customerStatisticsService.getSnapshot());
+
+        customerCommandHandler.handle(DeactivateCustomerCommand.builder().customerId(customerIds.get(5)).build());
+        assertEquals(customerStatisticsService.aggregate(), customerStatisticsService.getSnapshot());
+
+        customerCommandHandler.handle(UpdateCustomerCommand.builder()
+                .customerId(customerIds.get(6)).taxable("Y").build());
+        assertEquals(customerStatisticsService.aggregate(), customerStatisticsService.getSnapshot());
+
+        customerCommandHandler.handle(DeleteCustomerCommand.builder().customerId(customerIds.get(7)).build());
+        assertEquals(customerStatisticsService.aggregate(), customerStatisticsService.getSnapshot());
+
+        customerCommandHandler.handle(CreateCustomerCommand.builder()
+                .cifStatus("ACTIVE")
+                .fullName("Nguyen Van Thong Ke")
+                .genderCode("M")
+                .dateOfBirth(LocalDate.of(1990, 1, 1))
+                .nationalityCode("VN")
+                .clientTypeCode("INDIVIDUAL")
+                .primaryPhone("+84909999999")
+                .accountUsagePurpose("SAVING")
+                .internalClient("Y")
+                .taxable("Y")
+                .registrationChannel("BRANCH")
+                .cifCreatedDate(LocalDate.now())
+                .createdBy("TEST")
+                .build());
+        assertEquals(customerStatisticsService.aggregate(), customerStatisticsService.getSnapshot());
+    }
+
+    @Test
+    void reconciliationCorrectsDrift() {
+        // Written behind the command handlers' back, so the snapshot does not see it
+        jdbcTemplate.update("UPDATE customer SET cif_status = 'SUSPENDED' WHERE full_name = 'Customer 30'");
+        assertNotEquals(customerStatisticsService.aggregate(), customerStatisticsService.getSnapshot());
+
+        customerStatisticsService.reconcile();
+
+        assertEquals(customerStatisticsService.aggregate(), customerStatisticsService.getSnapshot());
+    }
+
+    // Helper methods
+
+    private Long count(Specification<Customer> spec) {
+        return customerRepository.count(spec);
+    }
+}
@@ -0,0 +1,115 @@
+package com.backbase.customer_master.infrastructure.metrics;
+
+import com.backbase.customer_master.application.query.handler.CustomerQueryHandler;
+import com.backbase.customer_master.application.query.model.GetCustomerByIdQuery;
+import com.backbase.customer_master.domain.repository.CustomerRepository;
+import com.backbase.customer_master.support.TestDataSeeder;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Without the near-cache every lookup reaches the database
+@SpringBootTest(properties = "app.cache.customer.enabled=false")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class HandlerMetricsTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CustomerQueryHandler customerQueryHandler;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private List<UUID> customerIds;
+
+    @BeforeAll
+    void seed() {
+        TestDataSeeder seeder = new TestDataSeeder(jdbcTemplate);
+        seeder.seedReferenceData();
+        customerIds = seeder.seedCustomers(3, 1, 1, 0, 0);
+    }
+
+    @Test
+    void handlerCallsRecordLatencyAndSqlActivity() {
+        // The other test may already have recorded a (failed) lookup
+        double[] before = {count("customer.handler.sql.statements"), total("customer.handler.sql.statements"),
+                total("customer.handler.sql.rows")};
+
+        for (UUID customerId : customerIds) {
+            customerQueryHandler.handle(new GetCustomerByIdQuery(customerId.toString()));
+        }
+
+        Timer timer = meterRegistry.get("customer.handler.duration")
+                .tags("kind", "query", "type", "GetCustomerByIdQuery", "exception", "none").timer();
+        assertEquals(customerIds.size(), timer.count());
+        assertEquals(before[0] + customerIds.size(), count("customer.handler.sql.statements"));
+        assertTrue(total("customer.handler.sql.statements") - before[1] >= customerIds.size(),
+                "each lookup runs at least one statement");
+        assertTrue(total("customer.handler.sql.rows") - before[2] >= customerIds.size(),
+                "each lookup returns its customer");
+    }
+
+    @Test
+    void failedCallsAreTaggedWithTheException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> customerQueryHandler.handle(new GetCustomerByIdQuery("not-a-uuid")));
+
+        Timer timer = meterRegistry.get("customer.handler.duration")
+                .tags("type", "GetCustomerByIdQuery", "exception", "IllegalArgumentException").timer();
+        assertEquals(1, timer.count());
+    }
+
+    @Test
+    void onlyThePerThreadCountersAreKept() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long statements = SqlActivity.statements();
+
+        customerRepository.findById(customerIds.get(0)).orElseThrow();
+
+        assertTrue(SqlActivity.statements() > statements);
+        // Full Hibernate statistics were not asked for (hibernate.generate_statistics)
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getQueryExecutionCount());
+        assertEquals(0, statistics.getSessionOpenCount());
+    }
+
+    // Helper methods
+
+    private double count(String name) {
+        DistributionSummary summary = summary(name);
+        return summary == null ? 0 : summary.count();
+    }
+
+    private double total(String name) {
+        DistributionSummary summary = summary(name);
+        return summary == null ? 0 : summary.totalAmount();
+    }
+
+    private DistributionSummary summary(String name) {
+        return meterRegistry.find(name).tags("kind", "query", "type", "GetCustomerByIdQuery").summary();
+    }
+}
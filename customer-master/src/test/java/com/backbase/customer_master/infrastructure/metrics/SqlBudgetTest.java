@@ -0,0 +1,150 @@
+package com.backbase.customer_master.infrastructure.metrics;
+
+import com.backbase.customer_master.application.command.handler.CustomerCommandHandler;
+import com.backbase.customer_master.application.command.model.DeleteCustomerCommand;
+import com.backbase.customer_master.application.command.model.UpdateCustomerCommand;
+import com.backbase.customer_master.application.query.handler.CustomerQueryHandler;
+import com.backbase.customer_master.application.query.model.GetAllCustomersQuery;
+import com.backbase.customer_master.application.query.model.GetCustomerByIdQuery;
+import com.backbase.customer_master.application.query.model.GetCustomersByCursorQuery;
+import com.backbase.customer_master.application.query.model.GetCustomersBySegmentQuery;
+import com.backbase.customer_master.application.query.model.GetCustomersByTypeQuery;
+import com.backbase.customer_master.domain.model.Customer;
+import com.backbase.customer_master.infrastructure.persistence.pagination.CursorPageRequest;
+import com.backbase.customer_master.infrastructure.persistence.reference.ReferenceDataRegistry;
+import com.backbase.customer_master.support.TestDataSeeder;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// The test overlay runs the guard with action fail
+@SpringBootTest(properties = "app.cache.customer.enabled=false")
+@Import(SqlBudgetTest.Config.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class SqlBudgetTest {
+
+    private static final int CUSTOMERS = 120;
+    private static final int CHILDREN = 4;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CustomerQueryHandler customerQueryHandler;
+
+    @Autowired
+    private CustomerCommandHandler customerCommandHandler;
+
+    @Autowired
+    private ReferenceDataRegistry referenceDataRegistry;
+
+    @Autowired
+    private CustomerLoader customerLoader;
+
+    private List<UUID> customerIds;
+
+    @BeforeAll
+    void seed() {
+        TestDataSeeder seeder = new TestDataSeeder(jdbcTemplate);
+        seeder.seedReferenceData();
+        customerIds = seeder.seedCustomers(CUSTOMERS, CHILDREN, CHILDREN, CHILDREN, CHILDREN);
+        referenceDataRegistry.refresh();
+    }
+
+    @Test
+    void handlersStayWithinTheirBudgetWhateverThePageSize() {
+        for (int size : new int[]{5, 100}) {
+            customerQueryHandler.handle(new GetAllCustomersQuery(PageRequest.of(0, size)));
+            customerQueryHandler.handle(new GetCustomersByTypeQuery("INDIVIDUAL", PageRequest.of(0, size)));
+            customerQueryHandler.handle(new GetCustomersBySegmentQuery("MASS", PageRequest.of(0, size)));
+            customerQueryHandler.handle(GetCustomersByCursorQuery.builder()
+                    .pageRequest(CursorPageRequest.of(null, "all", "customerId", Sort.Direction.ASC, size, true))
+                    .build());
+        }
+        customerQueryHandler.handle(new GetCustomerByIdQuery(customerIds.get(0).toString()));
+        customerCommandHandler.handle(UpdateCustomerCommand.builder()
+                .customerId(customerIds.get(1)).jobTitle("Teller").updatedBy("TELLER01").build());
+        customerCommandHandler.handle(DeleteCustomerCommand.builder()
+                .customerId(customerIds.get(2)).lastModifiedBy("TELLER01").build());
+    }
+
+    @Test
+    void lazyLoadsPerRowExceedTheStatementBudget() {
+        SqlBudgetExceededException exception = assertThrows(SqlBudgetExceededException.class,
+                () -> customerLoader.findOneByOne(customerIds.subList(10, 20)));
+        assertTrue(exception.getMessage().startsWith("CustomerLoader.findOneByOne(List) prepared "),
+                exception.getMessage());
+    }
+
+    @Test
+    void collectionFetchJoinsExceedTheRowBudget() {
+        SqlBudgetExceededException exception = assertThrows(SqlBudgetExceededException.class,
+                () -> customerLoader.findWithAddresses(customerIds.subList(20, 30)));
+        assertTrue(exception.getMessage().startsWith("CustomerLoader.findWithAddresses(List) read "),
+                exception.getMessage());
+    }
+
+    @Test
+    void callsWithinBudgetPass() {
+        assertEquals(10, customerLoader.findNames(customerIds.subList(30, 40)));
+    }
+
+    @TestConfiguration
+    static class Config {
+
+        @Bean
+        CustomerLoader customerLoader() {
+            return new CustomerLoader();
+        }
+    }
+
+    static class CustomerLoader {
+
+        @PersistenceContext
+        private EntityManager entityManager;
+
+        @SqlBudget(statements = 2)
+        @Transactional(readOnly = true)
+        public int findOneByOne(List<UUID> ids) {
+            ids.forEach(id -> entityManager.find(Customer.class, id));
+            return ids.size();
+        }
+
+        @SqlBudget(statements = 100)
+        @Transactional(readOnly = true)
+        public int findWithAddresses(List<UUID> ids) {
+            return entityManager.createQuery("select distinct c from Customer c join fetch c.addresses "
+                            + "where c.customerId in :ids", Customer.class)
+                    .setParameter("ids", ids)
+                    .getResultList()
+                    .size();
+        }
+
+        @SqlBudget(statements = 1)
+        @Transactional(readOnly = true)
+        public int findNames(List<UUID> ids) {
+            return entityManager.createQuery("select c.fullName from Customer c where c.customerId in :ids", String.class)
+                    .setParameter("ids", ids)
+                    .getResultList()
+                    .size();
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.backbase.customer_master.infrastructure.outbox;
+
+import com.backbase.customer_master.application.command.handler.CustomerCommandHandler;
+import com.backbase.customer_master.application.command.model.UpdateCustomerCommand;
+import com.backbase.customer_master.common.id.EntityIds;
+import com.backbase.customer_master.domain.model.Event;
+import com.backbase.customer_master.domain.repository.EventRepository;
+import com.backbase.customer_master.domain.service.CustomerEventRecorder;
+import com.backbase.customer_master.support.TestDataSeeder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "app.outbox.relay.enabled=false",
+        "app.outbox.async.enabled=true",
+        "app.outbox.async.buffer-size=4",
+        "app.outbox.async.flush-interval-ms=60000",
+        "app.outbox.async.backpressure-timeout-ms=1",
+        "app.outbox.async.wal-path=target/outbox-test-${random.uuid}/events.wal"})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class AsyncEventWriterTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CustomerCommandHandler customerCommandHandler;
+
+    @Autowired
+    private AsyncEventWriter asyncEventWriter;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private List<UUID> customerIds;
+
+    @BeforeAll
+    void seed() {
+        TestDataSeeder seeder = new TestDataSeeder(jdbcTemplate);
+        seeder.seedReferenceData();
+        customerIds = seeder.seedCustomers(20, 0, 0, 0, 0);
+    }
+
+    @Test
+    void updateEventsAreWrittenAfterTheCommit() {
+        UUID customerId = customerIds.get(0);
+        update(customerId, "Kiem toan");
+        assertTrue(events(customerId).isEmpty());
+
+        asyncEventWriter.flush();
+
+        List<Event> events = events(customerId);
+        assertEquals(1, events.size());
+        assertEquals(Map.of("jobTitle", change(null, "Kiem toan")), events.get(0).getChangedFields());
+        assertEquals(1, events.get(0).getVersionNo());
+    }
+
+    @Test
+    void fullBufferSpillsToTheWriteAheadLogAndIsReplayed() {
+        // Writer parked for good: the ring fills after four events
+        asyncEventWriter.stop();
+        for (int i = 10; i < 20; i++) {
+            update(customerIds.get(i), "Giao dich vien");
+        }
+
+        assertEquals(4, asyncEventWriter.flush());
+        asyncEventWriter.start();
+
+        for (int i = 10; i < 20; i++) {
+            assertEquals(1, events(customerIds.get(i)).size(), "customer " + i);
+        }
+    }
+
+    @Test
+    void committedEventsAreInTheWriteAheadLogBeforeTheyAreWritten(@TempDir Path copy) throws IOException {
+        UUID customerId = customerIds.get(1);
+        update(customerId, "Thu quy");
+
+        // What a crash right after the commit would leave: the copy is read like a restarted process would
+        Path log = asyncEventWriter.getWriteAheadLog().getPath();
+        try (Stream<Path> files = Files.list(log.getParent())) {
+            for (Path file : files.toList()) {
+                Files.copy(file, copy.resolve(file.getFileName()));
+            }
+        }
+        EventWriteAheadLog recovered = new EventWriteAheadLog(copy.resolve(log.getFileName()), objectMapper, 1 << 20);
+        Event pending = recovered.replayable().stream()
+                .filter(event -> customerId.toString().equals(event.getEntityId()))
+                .findFirst()
+                .orElseThrow();
+        assertTrue(recovered.isCommitted(pending.getEventId()));
+
+        asyncEventWriter.flush();
+        assertEquals(1, events(customerId).size());
+    }
+
+    @Test
+    void replaySkipsUncommittedEventsAndDeadLettersRejectedOnes() throws IOException {
+        asyncEventWriter.stop();
+        EventWriteAheadLog writeAheadLog = asyncEventWriter.getWriteAheadLog();
+        // Seeded customers are at version 0; customers 5 and 6 were updated twice since their event's version
+        jdbcTemplate.update("UPDATE customer SET version_no = 3 WHERE customer_id IN (?, ?)",
+                bytes(customerIds.get(5)), bytes(customerIds.get(6)));
+        Event atVersion = event(customerIds.get(2), 0, "UPDATE");
+        Event neverCommitted = event(customerIds.get(3), 99, "UPDATE");
+        Event rejected = event(customerIds.get(4), 0, "X".repeat(50));
+        Event superseded = event(customerIds.get(5), 1, "UPDATE");
+        Event committed = event(customerIds.get(6), 1, "UPDATE");
+        Event customerGone = event(UUID.randomUUID(), 1, "UPDATE");
+        List<Event> events = List.of(rejected, neverCommitted, atVersion, superseded, committed, customerGone);
+        writeAheadLog.append(events);
+        writeAheadLog.committed(committed.getEventId());
+        writeAheadLog.markForReplay(events);
+
+        asyncEventWriter.start();
+
+        assertEquals(1, events(customerIds.get(2)).size());
+        assertEquals(1, events(customerIds.get(6)).size());
+        assertTrue(events(customerIds.get(3)).isEmpty());
+        assertTrue(events(customerIds.get(4)).isEmpty());
+        assertTrue(events(customerIds.get(5)).isEmpty());
+        assertFalse(writeAheadLog.hasReplayable());
+        String deadLetters = Files.readString(writeAheadLog.getDeadLetterPath());
+        for (Event event : List.of(rejected, superseded, customerGone)) {
+            assertTrue(deadLetters.contains(event.getEventId().toString()));
+        }
+        assertFalse(deadLetters.contains(neverCommitted.getEventId().toString()));
+    }
+
+    // Helper methods
+
+    private Event event(UUID customerId, int versionNo, String operationType) {
+        return Event.builder()
+                .eventId(EntityIds.next())
+                .entityName(CustomerEventRecorder.ENTITY_NAME)
+                .entityId(customerId.toString())
+                .versionNo(versionNo)
+                .operationType(operationType)
+                .changedFields(Map.of("jobTitle", change(null, "Kiem soat vien")))
+                .eventTime(LocalDateTime.now())
+                .eventBy("TELLER01")
+                .build();
+    }
+
+    private byte[] bytes(UUID id) {
+        return ByteBuffer.allocate(16)
+                .putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits())
+                .array();
+    }
+
+    private void update(UUID customerId, String jobTitle) {
+        customerCommandHandler.handle(UpdateCustomerCommand.builder()
+                .customerId(customerId)
+                .jobTitle(jobTitle)
+                .build());
+    }
+
+    private List<Event> events(UUID customerId) {
+        return eventRepository.findByEntityNameAndEntityIdOrderByEventId(CustomerEventRecorder.ENTITY_NAME,
+                customerId.toString());
+    }
+
+    private Map<String, String> change(String oldValue, String newValue) {
+        Map<String, String> change = new LinkedHashMap<>();
+        change.put("old", oldValue);
+        change.put("new", newValue);
+        return change;
+    }
+}
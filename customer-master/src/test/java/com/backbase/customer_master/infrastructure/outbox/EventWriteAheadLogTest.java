@@ -0,0 +1,140 @@
+package com.backbase.customer_master.infrastructure.outbox;
+
+import com.backbase.customer_master.common.id.EntityIds;
+import com.backbase.customer_master.domain.model.Event;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EventWriteAheadLogTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void pendingEventsSurviveACrashLessTheAbortedOnes() {
+        Event committed = event();
+        Event inDoubt = event();
+        Event rolledBack = event();
+        EventWriteAheadLog log = open(1 << 20);
+        log.append(List.of(committed, inDoubt, rolledBack));
+        log.committed(committed.getEventId());
+        log.abort(rolledBack.getEventId());
+
+        // Never closed or stored: what a crashed process leaves behind
+        EventWriteAheadLog recovered = open(1 << 20);
+        assertEquals(List.of(committed.getEventId(), inDoubt.getEventId()), ids(recovered.replayable()));
+        assertTrue(recovered.isCommitted(committed.getEventId()));
+        assertFalse(recovered.isCommitted(inDoubt.getEventId()));
+    }
+
+    @Test
+    void concurrentAppendsAreAllRecovered() {
+        EventWriteAheadLog log = open(4096);
+        List<Event> events = Stream.generate(this::event).limit(200).toList();
+        try (ExecutorService executor = Executors.newFixedThreadPool(16)) {
+            for (Event event : events) {
+                executor.execute(() -> log.append(List.of(event)));
+            }
+        }
+
+        assertEquals(Set.copyOf(ids(events)), Set.copyOf(ids(open(4096).replayable())));
+    }
+
+    @Test
+    void segmentsAreReleasedOnceTheirEventsAreStored() throws IOException {
+        EventWriteAheadLog log = open(1);
+        Event first = event();
+        Event second = event();
+        log.append(List.of(first));
+        log.append(List.of(second));
+        assertEquals(2, segments().size());
+
+        log.stored(List.of(first.getEventId()));
+        assertEquals(1, segments().size());
+
+        log.stored(List.of(second.getEventId()));
+        assertEquals(0, Files.size(segments().get(0)));
+        assertTrue(open(1).replayable().isEmpty());
+    }
+
+    @Test
+    void onlyEventsMarkedForReplayAreReplayedInTheSameProcess() {
+        EventWriteAheadLog log = open(1 << 20);
+        Event queued = event();
+        Event spilled = event();
+        log.append(List.of(queued, spilled));
+        assertFalse(log.hasReplayable());
+
+        log.markForReplay(List.of(spilled));
+        assertEquals(List.of(spilled.getEventId()), ids(log.replayable()));
+    }
+
+    @Test
+    void unreadableLinesGoToTheDeadLetterFile() throws IOException {
+        Event before = event();
+        Event after = event();
+        EventWriteAheadLog log = open(1 << 20);
+        log.append(List.of(before));
+        Files.writeString(segments().get(0), "{not json\n", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+        log.append(List.of(after));
+
+        EventWriteAheadLog recovered = open(1 << 20);
+        assertEquals(List.of(before.getEventId(), after.getEventId()), ids(recovered.replayable()));
+        assertTrue(Files.readString(recovered.getDeadLetterPath()).contains("{not json"));
+    }
+
+    // Helper methods
+
+    private EventWriteAheadLog open(long segmentBytes) {
+        return new EventWriteAheadLog(directory.resolve("events.wal"), objectMapper, segmentBytes);
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().matches("events\\.wal\\.\\d+"))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private List<UUID> ids(List<Event> events) {
+        return events.stream()
+                .map(Event::getEventId)
+                .toList();
+    }
+
+    private Event event() {
+        return Event.builder()
+                .eventId(EntityIds.next())
+                .entityName("CUSTOMER")
+                .entityId(UUID.randomUUID().toString())
+                .versionNo(1)
+                .operationType("UPDATE")
+                .changedFields(Map.of("jobTitle", Map.of("new", "Teller")))
+                .eventTime(LocalDateTime.now())
+                .eventBy("TELLER01")
+                .build();
+    }
+}
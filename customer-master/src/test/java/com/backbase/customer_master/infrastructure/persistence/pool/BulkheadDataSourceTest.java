@@ -0,0 +1,83 @@
+package com.backbase.customer_master.infrastructure.persistence.pool;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BulkheadDataSourceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void permitIsHeldUntilTheConnectionIsClosedOnce() throws Exception {
+        BulkheadDataSource bulkhead = new BulkheadDataSource(h2(), "primary", 2, 50, meterRegistry);
+
+        Connection first = bulkhead.getConnection();
+        Connection second = bulkhead.getConnection();
+        assertEquals(2, bulkhead.active());
+        assertThrows(SQLTransientConnectionException.class, bulkhead::getConnection);
+        assertEquals(1.0, meterRegistry.get("datasource.bulkhead.rejected").tag("pool", "primary").counter().count());
+
+        first.close();
+        // Closing again does not hand out a second permit
+        first.close();
+        assertEquals(1, bulkhead.active());
+        try (Connection third = bulkhead.getConnection()) {
+            assertTrue(third.isValid(1));
+            assertThrows(SQLTransientConnectionException.class, bulkhead::getConnection);
+        }
+        second.close();
+        assertEquals(0, bulkhead.active());
+    }
+
+    @Test
+    void waitingVirtualThreadsAreServedAsConnectionsReturn() throws Exception {
+        BulkheadDataSource bulkhead = new BulkheadDataSource(h2(), "primary", 1, 5000, meterRegistry);
+        Connection held = bulkhead.getConnection();
+
+        AtomicInteger served = new AtomicInteger();
+        List<Thread> waiters = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            waiters.add(Thread.ofVirtual().start(() -> {
+                try (Connection connection = bulkhead.getConnection()) {
+                    connection.createStatement().execute("SELECT 1");
+                    served.incrementAndGet();
+                } catch (Exception ex) {
+                    throw new IllegalStateException(ex);
+                }
+            }));
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (bulkhead.waiting() < 100) {
+            assertTrue(System.nanoTime() < deadline, "threads did not queue");
+            Thread.sleep(1);
+        }
+
+        held.close();
+        for (Thread waiter : waiters) {
+            waiter.join(5000);
+        }
+        assertEquals(100, served.get());
+        assertEquals(0, bulkhead.active());
+        assertEquals(0, bulkhead.waiting());
+    }
+
+    // Helper methods
+
+    private static JdbcDataSource h2() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:bulkhead;DB_CLOSE_DELAY=-1");
+        return dataSource;
+    }
+}
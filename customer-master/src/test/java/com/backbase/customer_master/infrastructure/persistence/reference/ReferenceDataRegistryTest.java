@@ -0,0 +1,163 @@
+package com.backbase.customer_master.infrastructure.persistence.reference;
+
+import com.backbase.customer_master.application.command.handler.CustomerCommandHandler;
+import com.backbase.customer_master.application.command.model.CreateCustomerCommand;
+import com.backbase.customer_master.domain.model.Customer;
+import com.backbase.customer_master.domain.model.Gender;
+import com.backbase.customer_master.domain.repository.ClientTypeRepository;
+import com.backbase.customer_master.domain.repository.CountryRepository;
+import com.backbase.customer_master.domain.repository.GenderRepository;
+import com.backbase.customer_master.infrastructure.metrics.SqlActivity;
+import com.backbase.customer_master.support.TestDataSeeder;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Scheduled refresh pushed out of the way: each test decides when the snapshot is swapped
+@SpringBootTest(properties = "app.reference-data.refresh-interval-ms=3600000")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ReferenceDataRegistryTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ReferenceDataRegistry referenceDataRegistry;
+
+    @Autowired
+    private CustomerCommandHandler customerCommandHandler;
+
+    @Autowired
+    private GenderRepository genderRepository;
+
+    @Autowired
+    private CountryRepository countryRepository;
+
+    @Autowired
+    private ClientTypeRepository clientTypeRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @BeforeAll
+    void seed() {
+        new TestDataSeeder(jdbcTemplate).seedReferenceData();
+        referenceDataRegistry.refresh();
+    }
+
+    @Test
+    void refreshSwapsTheSnapshot() {
+        Gender before = referenceDataRegistry.findGender("F").orElseThrow();
+        jdbcTemplate.update("UPDATE gender SET gender_name = 'Nu' WHERE gender_code = 'F'");
+
+        // Readers keep the old snapshot until the swap
+        assertSame(before, referenceDataRegistry.findGender("F").orElseThrow());
+
+        referenceDataRegistry.refresh();
+
+        Gender after = referenceDataRegistry.findGender("F").orElseThrow();
+        assertNotSame(before, after);
+        assertEquals("Nu", after.getGenderName());
+        assertTrue(referenceDataRegistry.isRegistered(after));
+        assertFalse(referenceDataRegistry.isRegistered(before));
+    }
+
+    @Test
+    void codesMissingFromTheSnapshotFallBackToTheRepository() {
+        jdbcTemplate.update("INSERT INTO gender (gender_id, gender_code, gender_name, record_status, created_at,"
+                + " created_by, updated_at, updated_by) VALUES (?, 'U', 'Unknown', 'ACTIVE', CURRENT_TIMESTAMP, 'SEED',"
+                + " CURRENT_TIMESTAMP, 'SEED')", UUID.randomUUID());
+
+        assertEquals(0, statements(() -> referenceDataRegistry.findGender("M").orElseThrow()));
+        assertEquals(1, statements(() -> referenceDataRegistry.findGender("U").orElseThrow()));
+        assertFalse(referenceDataRegistry.isRegistered(referenceDataRegistry.findGender("U").orElseThrow()));
+        assertTrue(referenceDataRegistry.findGender("X").isEmpty());
+
+        referenceDataRegistry.refresh();
+
+        assertEquals(0, statements(() -> referenceDataRegistry.findGender("U").orElseThrow()));
+    }
+
+    @Test
+    void onlyRegisteredInstancesAreReportedPersistent() {
+        ReferenceDataInterceptor interceptor = new ReferenceDataInterceptor(
+                applicationContext.getBeanProvider(ReferenceDataRegistry.class));
+        Gender registered = referenceDataRegistry.findGender("M").orElseThrow();
+        // Same row, loaded outside the registry
+        Gender loaded = genderRepository.findByGenderCode("M").orElseThrow();
+
+        assertEquals(Boolean.FALSE, interceptor.isTransient(registered));
+        assertNull(interceptor.isTransient(loaded));
+        assertNull(interceptor.isTransient(new Gender()));
+    }
+
+    @Test
+    void creatingWithRegisteredCodesOnlyInsertsTheCustomer() {
+        // Codes resolve from the snapshot, and the insert checks none of the rows for existence
+        assertEquals(0, statements(() -> customerCommandHandler.newCustomer(command(1))));
+        assertEquals(1, persistStatements(customerCommandHandler.newCustomer(command(2))));
+
+        // The same rows loaded outside the registry: Hibernate reads each one back before the insert
+        Customer customer = customerCommandHandler.newCustomer(command(3));
+        customer.setGender(genderRepository.findByGenderCode("M").orElseThrow());
+        customer.setNationality(countryRepository.findByCountryCode("VN").orElseThrow());
+        customer.setClientType(clientTypeRepository.findByClientTypeCode("INDIVIDUAL").orElseThrow());
+        assertEquals(4, persistStatements(customer));
+    }
+
+    // Helper methods
+
+    private long statements(Runnable work) {
+        long before = SqlActivity.statements();
+        work.run();
+        return SqlActivity.statements() - before;
+    }
+
+    private long persistStatements(Customer customer) {
+        return statements(() -> new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            entityManager.persist(customer);
+            entityManager.flush();
+        }));
+    }
+
+    private CreateCustomerCommand command(int i) {
+        return CreateCustomerCommand.builder()
+                .cifStatus("ACTIVE")
+                .fullName("Tran Van Danh Muc")
+                .genderCode("M")
+                .dateOfBirth(LocalDate.of(1988, 8, 8))
+                .nationalityCode("VN")
+                .clientTypeCode("INDIVIDUAL")
+                .primaryPhone(String.format("+8498%07d", i))
+                .email("danhmuc" + i + "@example.com")
+                .accountUsagePurpose("SAVING")
+                .registrationChannel("BRANCH")
+                .cifCreatedDate(LocalDate.now())
+                .createdBy("TEST")
+                .build();
+    }
+}
@@ -0,0 +1,167 @@
+package com.backbase.customer_master.infrastructure.persistence.routing;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Two in-memory H2 databases stand in for the replicas. Each database holds a replica_lag row
+ * naming it, so a query tells which one served it; the lag query reads the same row.
+ */
+@SpringBootTest(properties = {
+        "app.datasource.routing.enabled=true",
+        "app.datasource.routing.replicas[0].name=replica-a",
+        "app.datasource.routing.replicas[0].url=jdbc:h2:mem:replica_a_${random.uuid};MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "app.datasource.routing.replicas[1].name=replica-b",
+        "app.datasource.routing.replicas[1].url=jdbc:h2:mem:replica_b_${random.uuid};MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "app.datasource.routing.lag-query=SELECT lag_seconds FROM replica_lag",
+        "app.datasource.routing.max-lag-seconds=5",
+        "app.datasource.routing.health-check-interval-ms=3600000",
+        "app.datasource.routing.read-your-writes-seconds=60"})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ReadReplicaRoutingTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ReplicaDataSource replicaDataSource;
+
+    @Autowired
+    private ReadYourWritesTracker readYourWritesTracker;
+
+    @Autowired
+    private ReadReplicaProperties properties;
+
+    @BeforeAll
+    void createReplicas() {
+        jdbcTemplate.execute("CREATE TABLE replica_lag (name VARCHAR(20), lag_seconds INT)");
+        jdbcTemplate.update("INSERT INTO replica_lag VALUES ('primary', 0)");
+        for (ReadReplicaProperties.Replica replica : properties.getReplicas()) {
+            replica(replica).execute("CREATE TABLE replica_lag (name VARCHAR(20), lag_seconds INT)");
+            replica(replica).update("INSERT INTO replica_lag VALUES (?, 0)", replica.getName());
+        }
+        replicaDataSource.checkHealth();
+    }
+
+    @AfterEach
+    void catchUp() {
+        properties.getReplicas().forEach(replica -> replica(replica).update("UPDATE replica_lag SET lag_seconds = 0"));
+        replicaDataSource.checkHealth();
+        readYourWritesTracker.unbind();
+    }
+
+    @Test
+    void readOnlyTransactionsAreSpreadOverTheReplicas() {
+        Set<String> served = new HashSet<>();
+        for (int i = 0; i < 4; i++) {
+            served.add(read(true));
+        }
+
+        assertEquals(Set.of("replica-a", "replica-b"), served);
+        assertEquals("primary", read(false));
+        // Outside a transaction the connection is never marked read-only
+        assertEquals("primary", jdbcTemplate.queryForObject("SELECT name FROM replica_lag", String.class));
+    }
+
+    @Test
+    void laggingReplicaIsEjectedUntilItCatchesUp() {
+        replica(properties.getReplicas().get(1)).update("UPDATE replica_lag SET lag_seconds = 30");
+        replicaDataSource.checkHealth();
+
+        assertEquals(List.of("replica-a"), replicaDataSource.getHealthyReplicaNames());
+        for (int i = 0; i < 4; i++) {
+            assertEquals("replica-a", read(true));
+        }
+
+        replica(properties.getReplicas().get(1)).update("UPDATE replica_lag SET lag_seconds = 0");
+        replicaDataSource.checkHealth();
+        assertEquals(List.of("replica-a", "replica-b"), replicaDataSource.getHealthyReplicaNames());
+    }
+
+    @Test
+    void readsFallBackToThePrimaryWithoutAHealthyReplica() {
+        properties.getReplicas().forEach(replica -> replica(replica).update("UPDATE replica_lag SET lag_seconds = 30"));
+        replicaDataSource.checkHealth();
+
+        assertEquals("primary", read(true));
+    }
+
+    @Test
+    void commandPinsItsUserToThePrimary() throws Exception {
+        AtomicReference<String> servedAfterCommand = new AtomicReference<>();
+        new ReadYourWritesFilter(readYourWritesTracker).doFilter(
+                request("PUT", "teller01"), new MockHttpServletResponse(), new MockFilterChain());
+        new ReadYourWritesFilter(readYourWritesTracker).doFilter(
+                request("GET", "teller01"), new MockHttpServletResponse(), new MockFilterChain(new HttpServlet() {
+                    @Override
+                    protected void doGet(HttpServletRequest request, HttpServletResponse response) {
+                        servedAfterCommand.set(read(true));
+                    }
+                }));
+
+        assertEquals("primary", servedAfterCommand.get());
+
+        // Other users, and the same user outside a request, still read from the replicas
+        readYourWritesTracker.bind("teller02");
+        assertTrue(read(true).startsWith("replica-"));
+        readYourWritesTracker.unbind();
+        assertTrue(read(true).startsWith("replica-"));
+    }
+
+    @Test
+    void credentialsArePassedToTheChosenPool() {
+        // Hikari pools refuse per-call credentials; that must not eject the replica
+        for (int i = 0; i < 4; i++) {
+            assertThrows(SQLFeatureNotSupportedException.class, () -> replicaDataSource.getConnection("sa", ""));
+        }
+
+        assertEquals(List.of("replica-a", "replica-b"), replicaDataSource.getHealthyReplicaNames());
+    }
+
+    // Helper methods
+
+    private String read(boolean readOnly) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(readOnly);
+        return transactionTemplate.execute(status ->
+                jdbcTemplate.queryForObject("SELECT name FROM replica_lag", String.class));
+    }
+
+    private JdbcTemplate replica(ReadReplicaProperties.Replica replica) {
+        return new JdbcTemplate(new SingleConnectionDataSource(replica.getUrl(), "sa", "", true));
+    }
+
+    private MockHttpServletRequest request(String method, String user) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, "/api/v1/customers");
+        request.setUserPrincipal(new TestingAuthenticationToken(user, null));
+        return request;
+    }
+}
@@ -0,0 +1,150 @@
+package com.backbase.customer_master.presentation.query.controller;
+
+import com.backbase.customer_master.support.TestDataSeeder;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "app.batch-get.chunk-size=7")
+@AutoConfigureMockMvc
+@WithMockUser
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class CustomerBatchGetTest {
+
+    private static final int CUSTOMERS = 40;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private List<UUID> customerIds;
+
+    @BeforeAll
+    void seed() {
+        TestDataSeeder seeder = new TestDataSeeder(jdbcTemplate);
+        seeder.seedReferenceData();
+        customerIds = seeder.seedCustomers(CUSTOMERS, 1, 1, 0, 0);
+        jdbcTemplate.update("UPDATE customer SET cif_status = 'CLOSED' WHERE customer_id = ?", customerIds.get(5));
+    }
+
+    @Test
+    void resultsFollowTheRequestOrderAcrossChunks() throws Exception {
+        List<String> requested = new ArrayList<>();
+        for (UUID customerId : customerIds) {
+            requested.add(customerId.toString());
+        }
+        Collections.reverse(requested);
+        String unknown = UUID.randomUUID().toString();
+        requested.add(3, unknown);
+        requested.add(10, "42");
+        requested.add(requested.get(0));
+
+        JsonNode result = objectMapper.readTree(mockMvc.perform(post("/api/v1/customers/batch-get").with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("customerIds", requested))))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString());
+
+        assertEquals(requested.size(), result.get("total").asInt());
+        // Every seeded customer but the closed one, the duplicate counted again
+        assertEquals(CUSTOMERS, result.get("found").asInt());
+        assertEquals(1, result.get("invalid").asInt());
+        assertEquals(List.of(unknown, customerIds.get(5).toString()),
+                Arrays.asList(objectMapper.treeToValue(result.get("missingIds"), String[].class)));
+
+        JsonNode results = result.get("results");
+        for (int i = 0; i < requested.size(); i++) {
+            JsonNode item = results.get(i);
+            assertEquals(i, item.get("index").asInt());
+            assertEquals(requested.get(i), item.get("customerId").asText());
+            if (item.get("status").asText().equals("FOUND")) {
+                assertEquals(requested.get(i), item.get("customer").get("customerId").asText());
+                assertTrue(item.get("customer").has("genderCode"));
+            }
+        }
+        assertEquals("NOT_FOUND", results.get(3).get("status").asText());
+        assertEquals("INVALID", results.get(10).get("status").asText());
+        assertEquals("Invalid customer ID format: 42", results.get(10).get("error").asText());
+        assertNull(results.get(10).get("customer"));
+    }
+
+    @Test
+    void streamWritesOneSummaryResultPerLine() throws Exception {
+        List<String> requested = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            requested.add(customerIds.get(i * 2 % CUSTOMERS).toString());
+        }
+        requested.add(null);
+
+        MvcResult started = mockMvc.perform(post("/api/v1/customers/batch-get").with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_NDJSON)
+                        .content(objectMapper.writeValueAsString(Map.of("customerIds", requested, "view", "SUMMARY"))))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String[] lines = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andReturn()
+                .getResponse()
+                .getContentAsString()
+                .split("\n");
+
+        assertEquals(requested.size(), lines.length);
+        for (int i = 0; i < 20; i++) {
+            JsonNode item = objectMapper.readTree(lines[i]);
+            assertEquals(requested.get(i), item.get("customer").get("customerId").asText());
+            assertFalse(item.get("customer").has("genderCode"));
+        }
+        JsonNode last = objectMapper.readTree(lines[20]);
+        assertEquals("INVALID", last.get("status").asText());
+        assertTrue(last.get("error").asText().contains("required"));
+    }
+
+    @Test
+    void oversizedRequestIsRejected() throws Exception {
+        List<String> requested = Collections.nCopies(5001, customerIds.get(0).toString());
+
+        mockMvc.perform(post("/api/v1/customers/batch-get").with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("customerIds", requested))))
+                .andExpect(status().isBadRequest());
+    }
+}
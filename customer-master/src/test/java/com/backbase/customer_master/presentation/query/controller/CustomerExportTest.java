@@ -0,0 +1,96 @@
+package com.backbase.customer_master.presentation.query.controller;
+
+import com.backbase.customer_master.domain.service.CustomerDomainService;
+import com.backbase.customer_master.infrastructure.persistence.specification.CustomerSpecifications;
+import com.backbase.customer_master.support.TestDataSeeder;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "app.export.clear-interval=100")
+@AutoConfigureMockMvc
+@WithMockUser
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class CustomerExportTest {
+
+    private static final int CUSTOMERS = 1200;
+    private static final int CLEAR_INTERVAL = 100;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CustomerDomainService customerDomainService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @BeforeAll
+    void seed() {
+        TestDataSeeder seeder = new TestDataSeeder(jdbcTemplate);
+        seeder.seedReferenceData();
+        seeder.seedCustomers(CUSTOMERS, 1, 1, 1, 1);
+    }
+
+    @Test
+    void exportWritesOneSummaryPerLine() throws Exception {
+        MvcResult started = mockMvc.perform(get("/api/v1/customers/export").param("segment", "MASS"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(CUSTOMERS / 2, lines.length);
+        for (String line : lines) {
+            JsonNode customer = objectMapper.readTree(line);
+            assertEquals("MASS", customer.get("segmentCode").asText());
+            assertNull(customer.get("addressDTOs"));
+        }
+    }
+
+    @Test
+    void persistenceContextStaysBounded() {
+        AtomicInteger maxManaged = new AtomicInteger();
+
+        long count = customerDomainService.streamCustomers(CustomerSpecifications.excludeClosed(), customer ->
+                maxManaged.accumulateAndGet(entityManager.unwrap(Session.class).getStatistics().getEntityCount(), Math::max));
+
+        assertEquals(CUSTOMERS, count);
+        // Customers since the last clear, plus the seeded reference rows they point to
+        assertTrue(maxManaged.get() <= CLEAR_INTERVAL + 25, "managed entities peaked at " + maxManaged.get());
+    }
+}
@@ -0,0 +1,117 @@
+package com.backbase.customer_master.support;
+
+import com.backbase.customer_master.common.id.EntityIds;
+import com.backbase.customer_master.common.id.IdGenerator;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Test support: seeds reference data and customers with child rows through plain JDBC batches.
+ */
+public class TestDataSeeder {
+
+    private static final String[][] REFERENCE_TABLES = {
+            // table, id column, code column, name column, codes...
+            {"gender", "gender_id", "gender_code", "gender_name", "M", "F"},
+            {"country", "country_id", "country_code", "country_name", "VN", "US"},
+            {"marital_status", "marital_status_id", "marital_status_code", "marital_status_name", "SINGLE", "MARRIED"},
+            {"client_type", "client_type_id", "client_type_code", "client_type_name", "INDIVIDUAL", "CORPORATE"},
+            {"category", "category_id", "category_code", "category_name", "RETAIL", "PREMIUM"},
+            {"language", "language_id", "language_code", "language_name", "vi", "en"},
+            {"contact_channel", "contact_channel_id", "contact_channel_code", "contact_channel_name", "SMS", "EMAIL"},
+            {"customer_segment", "customer_segment_id", "segment_code", "segment_name", "MASS", "AFFLUENT"},
+            {"residency_status", "residency_status_id", "residency_status_code", "residency_status_name", "CITIZEN"},
+            {"product_group", "product_group_id", "product_group_code", "product_group_name", "CASA", "CARD"},
+            {"relationship_type", "relationship_type_id", "relationship_type_code", "relationship_type_name", "SPOUSE"}
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final IdGenerator idGenerator;
+
+    public TestDataSeeder(JdbcTemplate jdbcTemplate) {
+        this(jdbcTemplate, EntityIds::next);
+    }
+
+    public TestDataSeeder(JdbcTemplate jdbcTemplate, IdGenerator idGenerator) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.idGenerator = idGenerator;
+    }
+
+    /**
+     * Insert a small set of reference rows (two codes per table where the graph needs variety)
+     */
+    public void seedReferenceData() {
+        for (String[] table : REFERENCE_TABLES) {
+            String sql = "INSERT INTO " + table[0] + " (" + table[1] + ", " + table[2] + ", " + table[3]
+                    + ", record_status, created_at, created_by, updated_at, updated_by)"
+                    + " VALUES (?, ?, ?, 'ACTIVE', CURRENT_TIMESTAMP, 'SEED', CURRENT_TIMESTAMP, 'SEED')";
+            for (int i = 4; i < table.length; i++) {
+                jdbcTemplate.update(sql, UUID.randomUUID(), table[i], table[i] + " name");
+            }
+        }
+    }
+
+    /**
+     * Insert customers, each with the given number of rows in every child collection
+     */
+    public List<UUID> seedCustomers(int count, int addresses, int identifications, int products, int relationships) {
+        List<UUID> customerIds = new ArrayList<>(count);
+        List<Object[]> customerRows = new ArrayList<>();
+        List<Object[]> addressRows = new ArrayList<>();
+        List<Object[]> identificationRows = new ArrayList<>();
+        List<Object[]> productRows = new ArrayList<>();
+        List<Object[]> relationshipRows = new ArrayList<>();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        for (int i = 0; i < count; i++) {
+            UUID customerId = idGenerator.generate();
+            customerIds.add(customerId);
+            customerRows.add(new Object[]{customerId, "ACTIVE", "Customer " + i,
+                    Date.valueOf(LocalDate.of(1960 + i % 40, 1 + i % 12, 1 + i % 28)), Date.valueOf(LocalDate.now()),
+                    String.format("+8490%07d", i), "customer" + i + "@example.com",
+                    i % 2 == 0 ? "M" : "F", "VN", "SINGLE", i % 3 == 0 ? "CORPORATE" : "INDIVIDUAL", "RETAIL",
+                    "vi", "SMS", i % 2 == 0 ? "MASS" : "AFFLUENT", "SAVING", "BRANCH", now, now});
+            for (int a = 0; a < addresses; a++) {
+                addressRows.add(new Object[]{idGenerator.generate(), customerId, "VN", a + " Le Loi, District 1", now, now});
+            }
+            for (int n = 0; n < identifications; n++) {
+                identificationRows.add(new Object[]{idGenerator.generate(), customerId, "VERIFIED", "CCCD",
+                        String.format("%012d", (long) i * 10 + n), "CITIZEN", now, now});
+            }
+            for (int p = 0; p < products; p++) {
+                productRows.add(new Object[]{idGenerator.generate(), customerId, p % 2 == 0 ? "CASA" : "CARD",
+                        "Product " + p, "P" + p, "ACTIVE", now, now});
+            }
+            for (int r = 0; r < relationships; r++) {
+                relationshipRows.add(new Object[]{idGenerator.generate(), customerId, "SPOUSE", "ACTIVE", now, now});
+            }
+        }
+
+        jdbcTemplate.batchUpdate("INSERT INTO customer (customer_id, cif_status, full_name, date_of_birth, "
+                + "cif_created_date, primary_phone, email, gender, nationality, marital_status, client_type, category, "
+                + "preferred_language, preferred_contact_channel, customer_segment_code, account_usage_purpose, "
+                + "registration_channel, version_no, created_at, created_by, updated_at, updated_by) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0, ?, 'SEED', ?, 'SEED')", customerRows);
+        jdbcTemplate.batchUpdate("INSERT INTO address (address_id, customer_id, domicile_country, permanent_address, "
+                + "version_no, created_at, created_by, updated_at, updated_by) "
+                + "VALUES (?, ?, ?, ?, 0, ?, 'SEED', ?, 'SEED')", addressRows);
+        jdbcTemplate.batchUpdate("INSERT INTO identification (identification_id, customer_id, kyc_status, "
+                + "identification_type, identification_number, residency_status, id_update_count, "
+                + "version_no, created_at, created_by, updated_at, updated_by) "
+                + "VALUES (?, ?, ?, ?, ?, ?, 0, 0, ?, 'SEED', ?, 'SEED')", identificationRows);
+        jdbcTemplate.batchUpdate("INSERT INTO customer_product (customer_product_id, customer_id, product_group, "
+                + "product_name, product_id, product_status, version_no, created_at, created_by, updated_at, updated_by) "
+                + "VALUES (?, ?, ?, ?, ?, ?, 0, ?, 'SEED', ?, 'SEED')", productRows);
+        jdbcTemplate.batchUpdate("INSERT INTO customer_relationship (relationship_id, customer_id, relationship_type, "
+                + "status, version_no, created_at, created_by, updated_at, updated_by) "
+                + "VALUES (?, ?, ?, ?, 0, ?, 'SEED', ?, 'SEED')", relationshipRows);
+        return customerIds;
+    }
+}
@@ -0,0 +1,53 @@
+package com.backbase.customer_master.support;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic generator of Vietnamese full names (family, middle and given name, with diacritics),
+ * weighted towards the common family names the way real customer bases are.
+ */
+public final class VietnameseNames {
+
+    // Roughly by frequency: Nguyễn alone covers a large share of the population
+    private static final String[] FAMILY_NAMES = {
+            "Nguyễn", "Nguyễn", "Nguyễn", "Nguyễn", "Trần", "Trần", "Lê", "Lê", "Phạm", "Hoàng", "Huỳnh",
+            "Phan", "Vũ", "Võ", "Đặng", "Bùi", "Đỗ", "Hồ", "Ngô", "Dương", "Lý", "Đinh", "Trịnh", "Đoàn"
+    };
+    private static final String[] MIDDLE_NAMES = {
+            "Văn", "Văn", "Thị", "Thị", "Hữu", "Đức", "Minh", "Ngọc", "Thanh", "Quốc", "Xuân", "Hoài",
+            "Gia", "Bảo", "Thu", "Kim", "Phương", "Anh"
+    };
+    private static final String[] GIVEN_NAMES = {
+            "An", "Anh", "Bình", "Châu", "Chi", "Cường", "Dũng", "Dung", "Duy", "Giang", "Hà", "Hải", "Hạnh",
+            "Hiếu", "Hòa", "Hoa", "Hùng", "Hương", "Huy", "Khánh", "Khoa", "Lan", "Linh", "Long", "Mai",
+            "Minh", "My", "Nam", "Nga", "Ngân", "Nhung", "Phong", "Phúc", "Quân", "Quang", "Sơn", "Tâm",
+            "Thảo", "Thắng", "Thủy", "Trang", "Trung", "Tuấn", "Tùng", "Uyên", "Việt", "Vy", "Yến", "Đạt", "Đông"
+    };
+
+    private VietnameseNames() {
+    }
+
+    public static List<String> generate(long seed, int count) {
+        Random random = new Random(seed);
+        List<String> names = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            names.add(next(random));
+        }
+        return names;
+    }
+
+    /**
+     * The next name drawn from the given random source
+     */
+    public static String next(Random random) {
+        String middle = MIDDLE_NAMES[random.nextInt(MIDDLE_NAMES.length)];
+        // Some people carry two middle names
+        if (random.nextInt(5) == 0) {
+            middle += " " + MIDDLE_NAMES[random.nextInt(MIDDLE_NAMES.length)];
+        }
+        return FAMILY_NAMES[random.nextInt(FAMILY_NAMES.length)] + " " + middle + " "
+                + GIVEN_NAMES[random.nextInt(GIVEN_NAMES.length)];
+    }
+}